@@ -1,20 +1,87 @@
 package org.example;
 
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import org.example.batch.BatchFormat;
+import org.example.batch.BatchProcessor;
+import org.example.cache.LruCache;
+import org.example.cache.RouteKey;
+import org.example.client.ApiKeyPool;
+import org.example.client.AsyncCircuitBreakerServiceClient;
+import org.example.client.AsyncCoalescingServiceClient;
+import org.example.client.AsyncDistanceCachingServiceClient;
+import org.example.client.AsyncFallbackDistanceServiceClient;
+import org.example.client.AsyncGeocodeCachingServiceClient;
+import org.example.client.AsyncGreatCircleServiceClient;
+import org.example.client.AsyncHedgingServiceClient;
+import org.example.client.AsyncOfflineGeocodeServiceClient;
+import org.example.client.AsyncPersistentGeocodeServiceClient;
+import org.example.client.AsyncRateLimitedServiceClient;
+import org.example.client.AsyncRetryingServiceClient;
+import org.example.client.AsyncRoutingServiceClient;
+import org.example.client.AsyncServiceClient;
+import org.example.client.CircuitBreakerServiceClient;
+import org.example.client.CoalescingServiceClient;
+import org.example.client.DistanceCachingServiceClient;
+import org.example.client.FallbackDistanceServiceClient;
+import org.example.client.GeocodeCachingServiceClient;
+import org.example.client.GreatCircleServiceClient;
+import org.example.client.HedgingServiceClient;
+import org.example.client.OfflineGeocodeServiceClient;
 import org.example.client.OpenRouteServiceClient;
+import org.example.client.OrsMetricsInterceptor;
+import org.example.client.OrsQuotaInterceptor;
+import org.example.client.PersistentGeocodeServiceClient;
+import org.example.client.PooledApiKey;
+import org.example.client.RateLimitedServiceClient;
+import org.example.client.RetryingServiceClient;
+import org.example.client.RoutingServiceClient;
+import org.example.client.ServiceClient;
+import org.example.config.ServiceConfig;
+import org.example.context.RequestContext;
 import org.example.controller.EmissionController;
 import org.example.core.Calculator;
 import org.example.core.Co2Calculator;
 import org.example.exception.CalculationException;
+import org.example.exception.CityNotFoundException;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.PipelineMetrics;
 import org.example.model.TransportationMethod;
+import org.example.ratelimit.AimdLimit;
+import org.example.ratelimit.CircuitBreaker;
+import org.example.ratelimit.RetryBudget;
+import org.example.ratelimit.TokenBucket;
+import org.example.routing.RoutingEngine;
+import org.example.server.EmissionHttpServer;
+import org.example.service.AsyncCo2EmissionService;
 import org.example.service.Co2EmissionService;
 import org.example.service.EmissionService;
+import org.example.service.ExecutorStrategy;
+import org.example.store.GazetteerDump;
+import org.example.store.GazetteerIndex;
+import org.example.store.MappedGeocodeStore;
 import org.example.utils.ArgumentParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 public class Application {
     private static final Logger logger = LoggerFactory.getLogger(Application.class);
@@ -22,6 +89,16 @@ public class Application {
     private static final String ARGS_START = "start";
     private static final String ARGS_END = "end";
     private static final String ARGS_TRANSPORTATION_METHOD = "transportation-method";
+    private static final String ARGS_BATCH = "batch";
+    private static final String ARGS_OUTPUT = "output";
+    private static final String ARGS_FORMAT = "format";
+    private static final String ARGS_CONCURRENCY = "concurrency";
+    private static final String ARGS_SERVER_PORT = "server-port";
+    private static final String ARGS_SERVER_HOST = "server-host";
+    private static final String ARGS_SERVER_MAX_BATCH_CONCURRENCY = "server-max-batch-concurrency";
+    private static final String DEFAULT_SERVER_HOST = "127.0.0.1";
+    private static final String STANDARD_STREAM = "-";
+    private static final int DEFAULT_BATCH_CONCURRENCY = 8;
 
     private EmissionController emissionController;
 
@@ -48,19 +125,355 @@ public class Application {
 
         emissionController.setEmissionService(getEmissionService(apiKey));
 
-        try {
-            double co2Emission = emissionController.calculateEmission(startCity, endCity, method);
-            logger.info("Your trip caused {}kg of CO2-equivalent.", String.format("%.01f", co2Emission));
+        if (arguments.containsKey(ARGS_BATCH)) {
+            runBatch(arguments);
+            return;
+        }
+        if (arguments.containsKey(ARGS_SERVER_PORT)) {
+            runServer(arguments);
+            return;
+        }
+
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            if (ArgumentParser.isAllTransportationMethods(method)) {
+                Map<TransportationMethod, Double> emissions = emissionController.compareEmissions(startCity, endCity);
+                logger.info("Your trip would cause, in kg of CO2-equivalent:");
+                emissions.forEach((transportationMethod, co2Emission) -> logger.info("  {} {}",
+                        String.format("%-25s", ArgumentParser.getArgumentName(transportationMethod)), String.format("%7.01f", co2Emission)));
+            } else {
+                double co2Emission = emissionController.calculateEmission(startCity, endCity, method);
+                logger.info("Your trip caused {}kg of CO2-equivalent.", String.format("%.01f", co2Emission));
+            }
+            logResultFlags(context);
         } catch (CalculationException e) {
             logger.error("Error occurred while calculating emission: {}", e.getMessage());
         }
     }
 
+    // The same flags the server answers as "stale" and "estimated"
+    private static void logResultFlags(RequestContext context) {
+        if (context.isStale()) {
+            logger.warn("ORS was unavailable, the result is based on expired cache entries.");
+        }
+        if (context.isEstimated()) {
+            logger.warn("The distance is a great-circle estimate, not the road distance.");
+        }
+    }
+
+    private void runBatch(Map<String, String> arguments) throws IllegalArgumentException {
+        String input = arguments.get(ARGS_BATCH);
+        String output = arguments.getOrDefault(ARGS_OUTPUT, STANDARD_STREAM);
+        BatchFormat format = arguments.containsKey(ARGS_FORMAT)
+                ? BatchFormat.fromName(arguments.get(ARGS_FORMAT))
+                : BatchFormat.fromFileName(input);
+        int concurrency = DEFAULT_BATCH_CONCURRENCY;
+        if (arguments.containsKey(ARGS_CONCURRENCY)) {
+            try {
+                concurrency = Integer.parseInt(arguments.get(ARGS_CONCURRENCY));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid concurrency: " + arguments.get(ARGS_CONCURRENCY));
+            }
+        }
+        BatchProcessor processor = new BatchProcessor(emissionController, concurrency, blockingExecutor());
+
+        try (BufferedReader reader = openReader(input); Writer writer = openWriter(output)) {
+            processor.process(reader, writer, format);
+        } catch (IOException e) {
+            logger.error("Error occurred while processing batch {}: {}", input, e.getMessage());
+        }
+    }
+
+    // Returns once the server is listening, its threads keep the JVM alive until shutdown
+    private void runServer(Map<String, String> arguments) throws IllegalArgumentException {
+        String host = arguments.getOrDefault(ARGS_SERVER_HOST, DEFAULT_SERVER_HOST);
+        int port;
+        try {
+            port = Integer.parseInt(arguments.get(ARGS_SERVER_PORT));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid server port: " + arguments.get(ARGS_SERVER_PORT));
+        }
+        int maxBatchConcurrency = EmissionHttpServer.DEFAULT_MAX_BATCH_CONCURRENCY;
+        if (arguments.containsKey(ARGS_SERVER_MAX_BATCH_CONCURRENCY)) {
+            try {
+                maxBatchConcurrency = Integer.parseInt(arguments.get(ARGS_SERVER_MAX_BATCH_CONCURRENCY));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid maximum batch concurrency: " + arguments.get(ARGS_SERVER_MAX_BATCH_CONCURRENCY));
+            }
+        }
+        try {
+            EmissionHttpServer server = new EmissionHttpServer(new InetSocketAddress(host, port), emissionController, blockingExecutor(),
+                    MetricsRegistry.defaultRegistry(), maxBatchConcurrency);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        } catch (IOException e) {
+            logger.error("Error occurred while starting the server on {}:{}: {}", host, port, e.getMessage());
+        }
+    }
+
+    // Threads for work that blocks on a whole calculation, which the common pool is not meant for
+    private static Executor blockingExecutor() {
+        ExecutorStrategy strategy = ServiceConfig.fromEnvironment().getExecutorStrategy();
+        return strategy == ExecutorStrategy.COMMON_POOL
+                ? Executors.newCachedThreadPool()
+                : strategy.createExecutor();
+    }
+
+    private static BufferedReader openReader(String input) throws IOException {
+        if (STANDARD_STREAM.equals(input)) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+    }
+
+    private static Writer openWriter(String output) throws IOException {
+        if (STANDARD_STREAM.equals(output)) {
+            // keep System.out open once the batch is done
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        return Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+    }
 
     // Factory method to create the default EmissionService
     protected static EmissionService getEmissionService(String apiKey) {
-        OpenRouteServiceClient apiClient = new OpenRouteServiceClient(apiKey, new OkHttpClient());
+        return getEmissionService(apiKey, ServiceConfig.fromEnvironment());
+    }
+
+    public static EmissionService getEmissionService(String apiKey, ServiceConfig config) {
+        MetricsRegistry registry = MetricsRegistry.defaultRegistry();
+        registry.registerMBean();
+        return getEmissionService(apiKey, config, registry);
+    }
+
+    public static EmissionService getEmissionService(String apiKey, ServiceConfig config, MetricsRegistry registry) {
+        PipelineMetrics metrics = new PipelineMetrics(registry);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxConcurrentRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxConcurrentRequests());
+        metrics.bindInFlight("http", dispatcher::runningCallsCount);
+        OkHttpClient.Builder httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .addInterceptor(new OrsMetricsInterceptor(metrics));
+        List<String> apiKeys = ApiKeyPool.splitKeys(apiKey);
+        // several keys only pay off when requests are spread over them, which the rate limiter does
+        boolean keyPool = config.isRateLimit() || apiKeys.size() > 1;
+        ApiKeyPool pool = null;
+        if (keyPool) {
+            pool = new ApiKeyPool(apiKeys.stream()
+                    .map(key -> new PooledApiKey(key, TokenBucket.perMinute(config.getGeocodeRequestsPerMinute()),
+                            TokenBucket.perMinute(config.getMatrixRequestsPerMinute())))
+                    .collect(Collectors.toList()));
+            httpClient.addInterceptor(new OrsQuotaInterceptor(pool));
+        }
+        OkHttpClient okHttpClient = httpClient.build();
         Calculator calculator = new Co2Calculator();
-        return new Co2EmissionService(apiClient, calculator);
+        // Both modes get the same layers: blocking decorators around the ORS client, or their non-blocking counterparts
+        boolean async = config.isAsyncClient();
+        ServiceClient apiClient = null;
+        AsyncServiceClient asyncClient = null;
+        if (keyPool) {
+            AimdLimit concurrencyLimit = new AimdLimit(config.getMaxConcurrentRequests(), 1, config.getMaxConcurrentRequests(), 0.5);
+            registry.gauge("ors_concurrency_limit", "Adaptive limit of concurrent ORS requests", concurrencyLimit::getLimit);
+            for (PooledApiKey key : pool.getKeys()) {
+                registry.counter("ors_key_requests_total", "ORS requests sent with each API key", key::getRequestCount, "key", key.getLabel());
+                registry.counter("ors_key_throttled_total", "429 answers received for each API key", key::getThrottledCount, "key", key.getLabel());
+                registry.gauge("ors_key_usable", "1 while ORS accepts the API key, 0 while it sits out after a rejection", () -> key.isRejected() ? 0 : 1, "key", key.getLabel());
+            }
+            if (async) {
+                asyncClient = new AsyncRateLimitedServiceClient(pool, key -> new OpenRouteServiceClient(key, okHttpClient, config.getBaseUrl(), config.getMatrixMaxRoutes()),
+                        concurrencyLimit, config.getRateLimitMaxWait());
+            } else {
+                apiClient = new RateLimitedServiceClient(pool, key -> new OpenRouteServiceClient(key, okHttpClient, config.getBaseUrl(), config.getMatrixMaxRoutes()),
+                        concurrencyLimit, config.getRateLimitMaxWait());
+            }
+        } else if (async) {
+            asyncClient = new OpenRouteServiceClient(apiKeys.get(0), okHttpClient, config.getBaseUrl(), config.getMatrixMaxRoutes());
+        } else {
+            apiClient = new OpenRouteServiceClient(apiKeys.get(0), okHttpClient, config.getBaseUrl(), config.getMatrixMaxRoutes());
+        }
+        if (config.isCircuitBreaker()) {
+            CircuitBreaker breaker = new CircuitBreaker(config.getCircuitFailureThreshold(), config.getCircuitOpenDuration());
+            registry.gauge("ors_circuit_state", "0 closed, 1 half-open, 2 open", () -> switch (breaker.getState()) {
+                case CLOSED -> 0;
+                case HALF_OPEN -> 1;
+                case OPEN -> 2;
+            });
+            registry.counter("ors_circuit_rejected_total", "ORS calls failed fast by the open circuit", breaker::getRejectedCount);
+            if (async) {
+                asyncClient = new AsyncCircuitBreakerServiceClient(asyncClient, breaker);
+            } else {
+                apiClient = new CircuitBreakerServiceClient(apiClient, breaker);
+            }
+        }
+        RetryBudget retryBudget = RetryBudget.ofRatio(config.getRetryBudgetRatio());
+        registry.counter("ors_retry_budget_spent_total", "Retries and hedged requests the retry budget allowed", retryBudget::getWithdrawnCount);
+        registry.counter("ors_retry_budget_exhausted_total", "Retries and hedged requests the retry budget refused", retryBudget::getRejectedCount);
+        if (config.isHedgeRequests()) {
+            LongSupplier hedgeCount;
+            LongSupplier hedgeWinCount;
+            if (async) {
+                AsyncHedgingServiceClient hedgingClient = new AsyncHedgingServiceClient(asyncClient, retryBudget,
+                        config.getHedgeMinDelay(), config.getHedgeMaxDelay());
+                hedgeCount = hedgingClient::getHedgeCount;
+                hedgeWinCount = hedgingClient::getHedgeWinCount;
+                asyncClient = hedgingClient;
+            } else {
+                // the delegate calls block, keep them off the common pool
+                ExecutorStrategy strategy = config.getExecutorStrategy();
+                Executor hedgeExecutor = strategy == ExecutorStrategy.COMMON_POOL
+                        ? ExecutorStrategy.CACHED_THREADS.createExecutor()
+                        : strategy.createExecutor();
+                HedgingServiceClient hedgingClient = new HedgingServiceClient(apiClient, hedgeExecutor, retryBudget,
+                        config.getHedgeMinDelay(), config.getHedgeMaxDelay());
+                hedgeCount = hedgingClient::getHedgeCount;
+                hedgeWinCount = hedgingClient::getHedgeWinCount;
+                apiClient = hedgingClient;
+            }
+            registry.counter("ors_hedged_requests_total", "Second requests sent for slow ORS calls", hedgeCount);
+            registry.counter("ors_hedge_wins_total", "Hedged ORS calls answered by the second request", hedgeWinCount);
+        }
+        if (async) {
+            asyncClient = new AsyncRetryingServiceClient(asyncClient, retryBudget, config.getRetryMaxAttempts(), config.getRetryBackoff());
+        } else {
+            apiClient = new RetryingServiceClient(apiClient, retryBudget, config.getRetryMaxAttempts(), config.getRetryBackoff());
+        }
+        if (config.isCoalesceRequests()) {
+            if (async) {
+                AsyncCoalescingServiceClient coalescingClient = new AsyncCoalescingServiceClient(asyncClient);
+                metrics.bindInFlight("coalesced", coalescingClient::inFlightCount);
+                asyncClient = coalescingClient;
+            } else {
+                CoalescingServiceClient coalescingClient = new CoalescingServiceClient(apiClient);
+                metrics.bindInFlight("coalesced", coalescingClient::inFlightCount);
+                apiClient = coalescingClient;
+            }
+        }
+        Path storePath = config.getGeocodeStorePath();
+        if (storePath != null) {
+            try {
+                MappedGeocodeStore store = MappedGeocodeStore.open(storePath);
+                if (async) {
+                    asyncClient = new AsyncPersistentGeocodeServiceClient(asyncClient, store);
+                } else {
+                    apiClient = new PersistentGeocodeServiceClient(apiClient, store);
+                }
+            } catch (IOException e) {
+                logger.warn("Geocode store {} is unavailable, continuing without it: {}", storePath, e.getMessage());
+            }
+        }
+        // expired entries only serve as fallback while the circuit is open
+        Duration staleTtl = config.isCircuitBreaker() ? config.getStaleCacheTtl() : Duration.ZERO;
+        if (config.getGeocodeCacheSize() > 0) {
+            LruCache<String, double[]> geocodeCache = new LruCache<>(config.getGeocodeCacheSize(), config.getGeocodeCacheTtl(), staleTtl);
+            metrics.bindCache("geocode", geocodeCache);
+            LruCache<String, CityNotFoundException> notFoundCache = null;
+            if (config.getNegativeCacheSize() > 0) {
+                notFoundCache = new LruCache<>(config.getNegativeCacheSize(), config.getNegativeCacheTtl());
+                metrics.bindCache("geocode_not_found", notFoundCache);
+            }
+            if (async) {
+                asyncClient = new AsyncGeocodeCachingServiceClient(asyncClient, geocodeCache, notFoundCache);
+            } else {
+                apiClient = new GeocodeCachingServiceClient(apiClient, geocodeCache, notFoundCache);
+            }
+        }
+        String gazetteer = config.getGazetteer();
+        if (gazetteer != null) {
+            try {
+                GazetteerIndex index = ServiceConfig.GAZETTEER_BUNDLED.equals(gazetteer)
+                        ? GazetteerDump.bundled()
+                        : GazetteerDump.open(Path.of(gazetteer));
+                LongSupplier hitCount;
+                LongSupplier missCount;
+                if (async) {
+                    AsyncOfflineGeocodeServiceClient offlineClient = new AsyncOfflineGeocodeServiceClient(asyncClient, index);
+                    hitCount = offlineClient::getHitCount;
+                    missCount = offlineClient::getMissCount;
+                    asyncClient = offlineClient;
+                } else {
+                    OfflineGeocodeServiceClient offlineClient = new OfflineGeocodeServiceClient(apiClient, index);
+                    hitCount = offlineClient::getHitCount;
+                    missCount = offlineClient::getMissCount;
+                    apiClient = offlineClient;
+                }
+                registry.counter("gazetteer_requests_total", "Geocode lookups answered by the offline gazetteer",
+                        hitCount, "result", "hit");
+                registry.counter("gazetteer_requests_total", "Geocode lookups answered by the offline gazetteer",
+                        missCount, "result", "miss");
+            } catch (IOException e) {
+                logger.warn("Gazetteer {} is unavailable, geocoding through ORS only: {}", gazetteer, e.getMessage());
+            }
+        }
+        if (config.getDistanceCacheSize() > 0) {
+            LruCache<RouteKey, Double> distanceCache = new LruCache<>(config.getDistanceCacheSize(), config.getDistanceCacheTtl(), staleTtl);
+            metrics.bindCache("distance", distanceCache);
+            if (async) {
+                asyncClient = new AsyncDistanceCachingServiceClient(asyncClient, distanceCache, config.isDistanceCacheSymmetric());
+            } else {
+                apiClient = new DistanceCachingServiceClient(apiClient, distanceCache, config.isDistanceCacheSymmetric());
+            }
+        }
+        // on top of the caches, so they only ever hold road distances
+        switch (config.getDistanceProvider()) {
+            case GREAT_CIRCLE -> {
+                if (async) {
+                    asyncClient = new AsyncGreatCircleServiceClient(asyncClient, config.getDetourFactors());
+                } else {
+                    apiClient = new GreatCircleServiceClient(apiClient, config.getDetourFactors());
+                }
+            }
+            case ORS_WITH_FALLBACK -> {
+                LongSupplier fallbackCount;
+                if (async) {
+                    AsyncFallbackDistanceServiceClient fallbackClient = new AsyncFallbackDistanceServiceClient(asyncClient,
+                            new AsyncGreatCircleServiceClient(asyncClient, config.getDetourFactors()), config.getDistanceFallbackAfter());
+                    fallbackCount = fallbackClient::getFallbackCount;
+                    asyncClient = fallbackClient;
+                } else {
+                    FallbackDistanceServiceClient fallbackClient = new FallbackDistanceServiceClient(apiClient,
+                            new GreatCircleServiceClient(apiClient, config.getDetourFactors()), config.getDistanceFallbackAfter());
+                    fallbackCount = fallbackClient::getFallbackCount;
+                    apiClient = fallbackClient;
+                }
+                registry.counter("co2_distance_fallbacks_total", "Distances estimated because ORS was slow or unavailable",
+                        fallbackCount);
+            }
+            case ROAD_GRAPH -> {
+                RoutingEngine engine = roadGraph(config);
+                if (engine != null && async) {
+                    asyncClient = new AsyncRoutingServiceClient(asyncClient, engine);
+                } else if (engine != null) {
+                    apiClient = new RoutingServiceClient(apiClient, engine);
+                }
+            }
+            default -> { }
+        }
+        if (async) {
+            return new AsyncCo2EmissionService(asyncClient, calculator);
+        }
+        return new Co2EmissionService(apiClient, calculator, config.getExecutorStrategy().createExecutor(), metrics);
+    }
+
+    // null when no road graph is configured or it cannot be loaded, ORS routes every trip then
+    private static RoutingEngine roadGraph(ServiceConfig config) {
+        String roadGraph = config.getRoadGraph();
+        if (roadGraph == null) {
+            logger.warn("No road graph configured in {}, routing through ORS", ServiceConfig.ENV_ROAD_GRAPH);
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            RoutingEngine engine = RoutingEngine.open(Path.of(roadGraph), config.getRoadGraphMaxSnapKm());
+            logger.info("Loaded road graph {} with {} nodes in {} ms", roadGraph, engine.graph().nodeCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return engine;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Road graph {} is unavailable, routing through ORS: {}", roadGraph, e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,22 @@
+package org.example.batch;
+
+import java.util.Locale;
+
+public enum BatchFormat {
+    CSV,
+    JSONL;
+
+    public static BatchFormat fromName(String name) {
+        try {
+            return BatchFormat.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported batch format: " + name);
+        }
+    }
+
+    // Guesses the format from a file name, defaulting to CSV
+    public static BatchFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".jsonl") || lower.endsWith(".ndjson") || lower.endsWith(".json") ? JSONL : CSV;
+    }
+}
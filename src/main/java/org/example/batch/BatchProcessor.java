@@ -0,0 +1,139 @@
+package org.example.batch;
+
+import org.example.context.RequestContext;
+import org.example.controller.EmissionController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/*
+ * Streams trips through an EmissionController. At most `concurrency` trips are in flight at any
+ * time and results are written in input order as soon as the oldest one completes, so memory stays
+ * bounded by the window regardless of the input size. Trips run on the given executor, which is not
+ * shut down; processors sharing a semaphore together never calculate more trips at once than it has permits.
+ */
+public class BatchProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(BatchProcessor.class);
+
+    private final EmissionController emissionController;
+    private final int concurrency;
+    private final Executor executor;
+    private final Semaphore tripsInFlight;
+
+    public BatchProcessor(EmissionController emissionController, int concurrency, Executor executor) {
+        this(emissionController, concurrency, executor, null);
+    }
+
+    // tripsInFlight is null when nothing but the window bounds the trips calculated at once
+    public BatchProcessor(EmissionController emissionController, int concurrency, Executor executor, Semaphore tripsInFlight) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.emissionController = emissionController;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tripsInFlight = tripsInFlight;
+    }
+
+    public BatchSummary process(BufferedReader input, Writer output, BatchFormat format) throws IOException {
+        TripCodec codec = new TripCodec(format);
+        Deque<CompletableFuture<Result>> window = new ArrayDeque<>(concurrency);
+        long succeeded = 0;
+        long failed = 0;
+        if (codec.header() != null) {
+            writeLine(output, codec.header());
+        }
+        String line;
+        while ((line = input.readLine()) != null) {
+            CompletableFuture<Result> pending = submit(codec, line);
+            if (pending == null) {
+                continue;
+            }
+            window.addLast(pending);
+            if (window.size() >= concurrency) {
+                Result result = window.removeFirst().join();
+                writeLine(output, result.line);
+                if (result.success) {
+                    succeeded++;
+                } else {
+                    failed++;
+                }
+            }
+        }
+        while (!window.isEmpty()) {
+            Result result = window.removeFirst().join();
+            writeLine(output, result.line);
+            if (result.success) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+        output.flush();
+        logger.info("Batch finished: {} trips succeeded, {} failed", succeeded, failed);
+        return new BatchSummary(succeeded, failed);
+    }
+
+    private CompletableFuture<Result> submit(TripCodec codec, String line) throws InterruptedIOException {
+        Trip trip;
+        try {
+            trip = codec.decode(line);
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(new Result(codec.encodeError(null, line, "Invalid row: " + e.getMessage()), false));
+        }
+        if (trip == null) {
+            return null;
+        }
+        if (tripsInFlight == null) {
+            return CompletableFuture.supplyAsync(() -> calculate(codec, trip), executor);
+        }
+        try {
+            tripsInFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free batch slot");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> calculate(codec, trip), executor)
+                    .whenComplete((result, error) -> tripsInFlight.release());
+        } catch (RejectedExecutionException e) {
+            tripsInFlight.release();
+            throw e;
+        }
+    }
+
+    // Each trip runs in its own RequestContext, which collects the stale and estimated flags of its result
+    private Result calculate(TripCodec codec, Trip trip) {
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            double co2Emission = emissionController.calculateEmission(trip.getStartCity(), trip.getEndCity(), trip.getTransportationMethod());
+            return new Result(codec.encodeResult(trip, co2Emission, context.isStale(), context.isEstimated()), true);
+        } catch (RuntimeException e) {
+            return new Result(codec.encodeError(trip, null, e.getMessage()), false);
+        }
+    }
+
+    private static void writeLine(Writer output, String line) throws IOException {
+        output.write(line);
+        output.write(System.lineSeparator());
+    }
+
+    private static final class Result {
+        private final String line;
+        private final boolean success;
+
+        private Result(String line, boolean success) {
+            this.line = line;
+            this.success = success;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.batch;
+
+public class BatchSummary {
+    private final long succeeded;
+    private final long failed;
+
+    public BatchSummary(long succeeded, long failed) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getTotal() {
+        return succeeded + failed;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.batch;
+
+public class Trip {
+    private final String startCity;
+    private final String endCity;
+    private final String transportationMethod;
+
+    public Trip(String startCity, String endCity, String transportationMethod) {
+        this.startCity = startCity;
+        this.endCity = endCity;
+        this.transportationMethod = transportationMethod;
+    }
+
+    public String getStartCity() {
+        return startCity;
+    }
+
+    public String getEndCity() {
+        return endCity;
+    }
+
+    public String getTransportationMethod() {
+        return transportationMethod;
+    }
+}
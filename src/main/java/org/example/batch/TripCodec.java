@@ -0,0 +1,142 @@
+package org.example.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads trips from and writes results to single CSV or JSONL lines
+class TripCodec {
+    static final String FIELD_START = "start";
+    static final String FIELD_END = "end";
+    static final String FIELD_TRANSPORTATION_METHOD = "transportation-method";
+    static final String FIELD_CO2_KG = "co2Kg";
+    static final String FIELD_ERROR = "error";
+    static final String FIELD_STALE = "stale";
+    static final String FIELD_ESTIMATED = "estimated";
+    // stale and estimated come last so the columns of earlier versions keep their positions
+    static final String CSV_HEADER = String.join(",", FIELD_START, FIELD_END, FIELD_TRANSPORTATION_METHOD, FIELD_CO2_KG, FIELD_ERROR,
+            FIELD_STALE, FIELD_ESTIMATED);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BatchFormat format;
+
+    TripCodec(BatchFormat format) {
+        this.format = format;
+    }
+
+    // Returns null for lines that carry no trip (blank lines and CSV headers)
+    Trip decode(String line) throws IOException {
+        if (line.isBlank()) {
+            return null;
+        }
+        if (format == BatchFormat.JSONL) {
+            JsonNode node = MAPPER.readTree(line);
+            if (node == null || !node.isObject()) {
+                throw new IOException("Expected a JSON object");
+            }
+            return new Trip(text(node, FIELD_START), text(node, FIELD_END), text(node, FIELD_TRANSPORTATION_METHOD));
+        }
+        List<String> columns = splitCsv(line);
+        if (columns.size() != 3) {
+            throw new IOException("Expected 3 columns but found " + columns.size());
+        }
+        if (columns.get(0).equalsIgnoreCase(FIELD_START) && columns.get(2).equalsIgnoreCase(FIELD_TRANSPORTATION_METHOD)) {
+            return null;
+        }
+        return new Trip(columns.get(0), columns.get(1), columns.get(2));
+    }
+
+    // stale: answered from expired cache entries while ORS was unavailable, estimated: great-circle instead of road distance
+    String encodeResult(Trip trip, double co2Kg, boolean stale, boolean estimated) {
+        if (format == BatchFormat.JSONL) {
+            ObjectNode node = toJson(trip).put(FIELD_CO2_KG, co2Kg);
+            if (stale) {
+                node.put(FIELD_STALE, true);
+            }
+            if (estimated) {
+                node.put(FIELD_ESTIMATED, true);
+            }
+            return node.toString();
+        }
+        return String.join(",", csv(trip.getStartCity()), csv(trip.getEndCity()), csv(trip.getTransportationMethod()),
+                Double.toString(co2Kg), "", Boolean.toString(stale), Boolean.toString(estimated));
+    }
+
+    String encodeError(Trip trip, String rawLine, String error) {
+        if (format == BatchFormat.JSONL) {
+            ObjectNode node = trip == null ? MAPPER.createObjectNode().put("line", rawLine) : toJson(trip);
+            return node.put(FIELD_ERROR, error).toString();
+        }
+        if (trip == null) {
+            return String.join(",", csv(rawLine), "", "", "", csv(error), "", "");
+        }
+        return String.join(",", csv(trip.getStartCity()), csv(trip.getEndCity()), csv(trip.getTransportationMethod()),
+                "", csv(error), "", "");
+    }
+
+    String header() {
+        return format == BatchFormat.CSV ? CSV_HEADER : null;
+    }
+
+    private ObjectNode toJson(Trip trip) {
+        return MAPPER.createObjectNode()
+                .put(FIELD_START, trip.getStartCity())
+                .put(FIELD_END, trip.getEndCity())
+                .put(FIELD_TRANSPORTATION_METHOD, trip.getTransportationMethod());
+    }
+
+    // Like the server, only strings are accepted; numbers, booleans, null and nested values make the row invalid
+    private static String text(JsonNode node, String field) throws IOException {
+        JsonNode value = node.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IOException("\"" + field + "\" must be a string");
+        }
+        return value.textValue();
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString().trim());
+        return columns;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Bounded, access-ordered cache with an optional per-entry time to live (a non-positive ttl never expires).
+// Expired entries can be kept for a further staleTtl, during which only getStale returns them.
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long retainNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Duration.ZERO, System::nanoTime);
+    }
+
+    public LruCache(int maxSize, Duration ttl, Duration staleTtl) {
+        this(maxSize, ttl, staleTtl, System::nanoTime);
+    }
+
+    LruCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this(maxSize, ttl, Duration.ZERO, clock);
+    }
+
+    LruCache(int maxSize, Duration ttl, Duration staleTtl, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : ttl.toNanos();
+        long staleNanos = staleTtl == null || staleTtl.isNegative() ? 0 : staleTtl.toNanos();
+        this.retainNanos = ttlNanos > Long.MAX_VALUE - staleNanos ? Long.MAX_VALUE : ttlNanos + staleNanos;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long age = clock.getAsLong() - entry.createdAt;
+        if (age >= ttlNanos) {
+            if (age >= retainNanos) {
+                entries.remove(key);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    // Fallback while the source is unavailable: also returns expired entries still within their staleTtl
+    public synchronized V getStale(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || clock.getAsLong() - entry.createdAt >= retainNanos) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.cache;
+
+// Route between two points quantized to 1e-5 degrees (about a metre), each packed into one long
+public record RouteKey(long start, long end) {
+    private static final double SCALE = 1e5;
+
+    public static RouteKey of(double[] startCoordinates, double[] endCoordinates) {
+        return new RouteKey(pack(startCoordinates), pack(endCoordinates));
+    }
+
+    // Same key for A->B and B->A, for callers that accept a route's reverse distance
+    public static RouteKey symmetricOf(double[] startCoordinates, double[] endCoordinates) {
+        long start = pack(startCoordinates);
+        long end = pack(endCoordinates);
+        return start <= end ? new RouteKey(start, end) : new RouteKey(end, start);
+    }
+
+    public static long pack(double[] coordinates) {
+        long latitude = Math.round(coordinates[0] * SCALE);
+        long longitude = Math.round(coordinates[1] * SCALE);
+        return (latitude << 32) | (longitude & 0xFFFFFFFFL);
+    }
+}
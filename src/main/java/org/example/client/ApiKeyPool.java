@@ -0,0 +1,88 @@
+package org.example.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Several ORS API keys, each metered on its own. Requests go round-robin to keys with quota to spare;
+ * when none has, to the key whose quota frees up first. Throttled keys sit out until their Retry-After,
+ * rejected keys for a growing backoff, so throughput scales with the number of healthy keys.
+ */
+public class ApiKeyPool {
+    // ORS meters geocoding and matrix requests separately
+    public enum Endpoint {
+        GEOCODE,
+        MATRIX
+    }
+
+    public record Reservation(PooledApiKey key, long waitNanos) {
+    }
+
+    private final List<PooledApiKey> keys;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ApiKeyPool(List<PooledApiKey> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("An API key pool needs at least one key");
+        }
+        this.keys = List.copyOf(keys);
+    }
+
+    // ORS_TOKEN holds one key or several separated by commas or whitespace
+    public static List<String> splitKeys(String tokens) {
+        List<String> keys = new ArrayList<>();
+        for (String key : tokens.split("[,\\s]+")) {
+            if (!key.isEmpty() && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    public List<PooledApiKey> getKeys() {
+        return keys;
+    }
+
+    // null when the key is not part of the pool
+    public PooledApiKey find(String apiKey) {
+        for (PooledApiKey key : keys) {
+            if (key.getApiKey().equals(apiKey)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    public boolean hasUsableKeys() {
+        for (PooledApiKey key : keys) {
+            if (!key.isRejected()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Takes a token from the key that can serve the endpoint soonest, null when no key can within maxWaitNanos
+    public Reservation reserve(Endpoint endpoint, long maxWaitNanos) {
+        int start = Math.floorMod(next.getAndIncrement(), keys.size());
+        PooledApiKey soonest = null;
+        long soonestWait = Long.MAX_VALUE;
+        for (int i = 0; i < keys.size(); i++) {
+            PooledApiKey key = keys.get((start + i) % keys.size());
+            if (key.bucket(endpoint).reserve(0) == 0) {
+                return new Reservation(key, 0);
+            }
+            long wait = key.bucket(endpoint).nanosUntilAvailable();
+            if (wait < soonestWait) {
+                soonest = key;
+                soonestWait = wait;
+            }
+        }
+        if (soonest == null) {
+            return null;
+        }
+        long wait = soonest.bucket(endpoint).reserve(maxWaitNanos);
+        return wait < 0 ? null : new Reservation(soonest, wait);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.client;
+
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Plumbing shared by the AsyncServiceClient decorators, whose callbacks run on threads without the caller's context
+final class AsyncCalls {
+
+    private AsyncCalls() {
+    }
+
+    // Starts the call with the context attached, so the layers below pick up its deadline and cancellation
+    static <T> CompletableFuture<T> inContext(RequestContext context, Supplier<CompletableFuture<T>> call) {
+        return context == null ? call.get() : context.wrap(call).get();
+    }
+
+    // A child of the given context, or a new root context without one
+    static RequestContext fork(RequestContext parent, Deadline deadline) {
+        if (parent == null) {
+            return RequestContext.fork(deadline);
+        }
+        try (RequestContext.Scope ignored = parent.attach()) {
+            return RequestContext.fork(deadline);
+        }
+    }
+
+    // Completes after the delay without holding a thread, or as soon as the context is cancelled
+    static CompletableFuture<Void> delay(long nanos, RequestContext context) {
+        if (nanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> delay = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS).execute(() -> delay.complete(null));
+        if (context != null) {
+            RequestContext.Registration registration = context.onCancel(() -> delay.complete(null));
+            delay.whenComplete((ignored, error) -> registration.close());
+        }
+        return delay;
+    }
+
+    // Whether the context was cancelled or ran past its deadline
+    static boolean isDone(RequestContext context) {
+        return context != null && (context.isCancelled() || context.getDeadline().isExpired());
+    }
+
+    // Failures of dependent stages arrive wrapped in a CompletionException
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // For handle() callbacks that pass a failure on
+    static CompletionException rethrow(Throwable error) {
+        return error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+    }
+}
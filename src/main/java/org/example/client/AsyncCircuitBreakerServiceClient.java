@@ -0,0 +1,57 @@
+package org.example.client;
+
+import org.example.exception.CircuitOpenException;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.CircuitBreaker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Non-blocking counterpart of CircuitBreakerServiceClient, judging outcomes the same way
+public class AsyncCircuitBreakerServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final CircuitBreaker breaker;
+
+    public AsyncCircuitBreakerServiceClient(AsyncServiceClient delegate, CircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return call(() -> delegate.getCoordinatesAsync(city));
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return call(() -> delegate.getDistanceAsync(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return call(() -> delegate.getDistanceMatrixAsync(sources, destinations));
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException("ORS is unavailable, circuit breaker is open"));
+        }
+        return call.get().whenComplete((result, error) -> record(error == null ? null : AsyncCalls.unwrap(error)));
+    }
+
+    private void record(Throwable failure) {
+        if (failure == null) {
+            breaker.onSuccess();
+        } else if (failure instanceof TransientServiceException) {
+            breaker.onFailure();
+        } else if (failure instanceof RequestCancelledException || failure instanceof RateLimitExceededException
+                || !(failure instanceof ServiceClientException)) {
+            breaker.onIgnored();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
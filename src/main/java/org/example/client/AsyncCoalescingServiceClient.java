@@ -0,0 +1,72 @@
+package org.example.client;
+
+import org.example.cache.RouteKey;
+import org.example.context.RequestContext;
+import org.example.exception.RequestCancelledException;
+import org.example.utils.CityNames;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Non-blocking counterpart of CoalescingServiceClient: concurrent identical lookups share one in-flight future
+public class AsyncCoalescingServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final Map<String, CompletableFuture<double[]>> coordinatesInFlight = new ConcurrentHashMap<>();
+    private final Map<RouteKey, CompletableFuture<Double>> distancesInFlight = new ConcurrentHashMap<>();
+
+    public AsyncCoalescingServiceClient(AsyncServiceClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return coalesce(coordinatesInFlight, CityNames.normalize(city), () -> delegate.getCoordinatesAsync(city))
+                .thenApply(double[]::clone);
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return coalesce(distancesInFlight, RouteKey.of(startCoordinates, endCoordinates),
+                () -> delegate.getDistanceAsync(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return delegate.getDistanceMatrixAsync(sources, destinations);
+    }
+
+    public int inFlightCount() {
+        return coordinatesInFlight.size() + distancesInFlight.size();
+    }
+
+    // Every caller gets its own copy, so one giving up on it does not fail the others
+    private <K, T> CompletableFuture<T> coalesce(Map<K, CompletableFuture<T>> inFlight, K key, Supplier<CompletableFuture<T>> call) {
+        RequestContext context = RequestContext.current();
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> joined = inFlight.putIfAbsent(key, shared);
+        if (joined == null) {
+            call.get().whenComplete((result, error) -> {
+                inFlight.remove(key, shared);
+                if (error == null) {
+                    shared.complete(result);
+                } else {
+                    shared.completeExceptionally(AsyncCalls.unwrap(error));
+                }
+            });
+            return shared.copy();
+        }
+        return joined.copy().handle((result, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            // the calculation that sent the shared request was given up, this one was not
+            if (AsyncCalls.unwrap(error) instanceof RequestCancelledException && !AsyncCalls.isDone(context)) {
+                return AsyncCalls.inContext(context, () -> coalesce(inFlight, key, call));
+            }
+            return CompletableFuture.<T>failedFuture(AsyncCalls.unwrap(error));
+        }).thenCompose(Function.identity());
+    }
+}
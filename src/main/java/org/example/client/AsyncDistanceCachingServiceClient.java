@@ -0,0 +1,103 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.cache.RouteKey;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of DistanceCachingServiceClient, with the same stale entries while the circuit is open
+public class AsyncDistanceCachingServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final LruCache<RouteKey, Double> distanceCache;
+    private final boolean symmetric;
+
+    public AsyncDistanceCachingServiceClient(AsyncServiceClient delegate, LruCache<RouteKey, Double> distanceCache, boolean symmetric) {
+        this.delegate = delegate;
+        this.distanceCache = distanceCache;
+        this.symmetric = symmetric;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return delegate.getCoordinatesAsync(city);
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        RouteKey key = keyOf(startCoordinates, endCoordinates);
+        Double cached = distanceCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        RequestContext context = RequestContext.current();
+        return delegate.getDistanceAsync(startCoordinates, endCoordinates).handle((distance, error) -> {
+            if (error == null) {
+                distanceCache.put(key, distance);
+                return distance;
+            }
+            if (AsyncCalls.unwrap(error) instanceof CircuitOpenException) {
+                Double stale = distanceCache.getStale(key);
+                if (stale != null) {
+                    if (context != null) {
+                        context.markStale();
+                    }
+                    return stale;
+                }
+            }
+            throw AsyncCalls.rethrow(error);
+        });
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        double[][] cached = cachedMatrix(sources, destinations, false);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        RequestContext context = RequestContext.current();
+        return delegate.getDistanceMatrixAsync(sources, destinations).handle((distances, error) -> {
+            if (error == null) {
+                for (int i = 0; i < sources.length; i++) {
+                    for (int j = 0; j < destinations.length; j++) {
+                        distanceCache.put(keyOf(sources[i], destinations[j]), distances[i][j]);
+                    }
+                }
+                return distances;
+            }
+            if (AsyncCalls.unwrap(error) instanceof CircuitOpenException) {
+                double[][] stale = cachedMatrix(sources, destinations, true);
+                if (stale != null) {
+                    if (context != null) {
+                        context.markStale();
+                    }
+                    return stale;
+                }
+            }
+            throw AsyncCalls.rethrow(error);
+        });
+    }
+
+    // null unless every pair is cached
+    private double[][] cachedMatrix(double[][] sources, double[][] destinations, boolean stale) {
+        double[][] distances = new double[sources.length][destinations.length];
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                RouteKey key = keyOf(sources[i], destinations[j]);
+                Double cached = stale ? distanceCache.getStale(key) : distanceCache.get(key);
+                if (cached == null) {
+                    return null;
+                }
+                distances[i][j] = cached;
+            }
+        }
+        return distances;
+    }
+
+    private RouteKey keyOf(double[] startCoordinates, double[] endCoordinates) {
+        return symmetric
+                ? RouteKey.symmetricOf(startCoordinates, endCoordinates)
+                : RouteKey.of(startCoordinates, endCoordinates);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.client;
+
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.TransientServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Non-blocking counterpart of FallbackDistanceServiceClient. A timer gives the delegate slowAfter to answer;
+ * when it fires, the attempt's context is cancelled, which cancels its ORS calls, and the fallback answers.
+ */
+public class AsyncFallbackDistanceServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final AsyncServiceClient fallback;
+    private final Duration slowAfter;
+    private final LongAdder fallbacks = new LongAdder();
+
+    // A zero or negative slowAfter waits for the delegate as long as the request's own deadline allows
+    public AsyncFallbackDistanceServiceClient(AsyncServiceClient delegate, AsyncServiceClient fallback, Duration slowAfter) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.slowAfter = slowAfter;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return delegate.getCoordinatesAsync(city);
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return call(() -> delegate.getDistanceAsync(startCoordinates, endCoordinates),
+                () -> fallback.getDistanceAsync(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return call(() -> delegate.getDistanceMatrixAsync(sources, destinations),
+                () -> fallback.getDistanceMatrixAsync(sources, destinations));
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call, Supplier<CompletableFuture<T>> fallbackCall) {
+        RequestContext context = RequestContext.current();
+        boolean bounded = !slowAfter.isZero() && !slowAfter.isNegative();
+        RequestContext attempt = AsyncCalls.fork(context, bounded ? Deadline.after(slowAfter) : Deadline.none());
+        CompletableFuture<T> answer = AsyncCalls.inContext(attempt, call);
+        if (bounded) {
+            answer = answer.orTimeout(slowAfter.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return answer.handle((result, error) -> {
+            attempt.close();
+            if (error == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            Throwable cause = AsyncCalls.unwrap(error);
+            boolean slow = cause instanceof RequestCancelledException || cause instanceof TimeoutException;
+            if (!slow && !(cause instanceof RateLimitExceededException || cause instanceof CircuitOpenException
+                    || cause instanceof TransientServiceException)) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            if (slow) {
+                attempt.cancel("Deadline exceeded");
+                // only the caller's own cancellation or deadline is passed on
+                if (AsyncCalls.isDone(context)) {
+                    try {
+                        context.check();
+                    } catch (RequestCancelledException e) {
+                        return CompletableFuture.<T>failedFuture(e);
+                    }
+                }
+                if (!bounded) {
+                    return CompletableFuture.<T>failedFuture(cause);
+                }
+            }
+            fallbacks.increment();
+            return AsyncCalls.inContext(context, fallbackCall);
+        }).thenCompose(Function.identity());
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.CityNotFoundException;
+import org.example.utils.CityNames;
+
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of GeocodeCachingServiceClient, with the same stale entries and negative cache
+public class AsyncGeocodeCachingServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final LruCache<String, double[]> coordinatesCache;
+    private final LruCache<String, CityNotFoundException> notFoundCache;
+
+    public AsyncGeocodeCachingServiceClient(AsyncServiceClient delegate, LruCache<String, double[]> coordinatesCache,
+                                            LruCache<String, CityNotFoundException> notFoundCache) {
+        this.delegate = delegate;
+        this.coordinatesCache = coordinatesCache;
+        this.notFoundCache = notFoundCache;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        String key = CityNames.normalize(city);
+        double[] cached = coordinatesCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.clone());
+        }
+        if (notFoundCache != null) {
+            CityNotFoundException notFound = notFoundCache.get(key);
+            if (notFound != null) {
+                return CompletableFuture.failedFuture(notFound);
+            }
+        }
+        RequestContext context = RequestContext.current();
+        return delegate.getCoordinatesAsync(city).handle((coordinates, error) -> {
+            if (error == null) {
+                coordinatesCache.put(key, coordinates.clone());
+                return coordinates;
+            }
+            Throwable cause = AsyncCalls.unwrap(error);
+            if (cause instanceof CityNotFoundException notFound && notFoundCache != null) {
+                notFoundCache.put(key, notFound);
+            }
+            if (cause instanceof CircuitOpenException) {
+                double[] stale = coordinatesCache.getStale(key);
+                if (stale != null) {
+                    if (context != null) {
+                        context.markStale();
+                    }
+                    return stale.clone();
+                }
+            }
+            throw AsyncCalls.rethrow(error);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return delegate.getDistanceAsync(startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return delegate.getDistanceMatrixAsync(sources, destinations);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.client;
+
+import org.example.geo.DetourFactors;
+
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of GreatCircleServiceClient; the estimate is computed inline, geocoding is left to the delegate
+public class AsyncGreatCircleServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final DetourFactors detourFactors;
+
+    public AsyncGreatCircleServiceClient(AsyncServiceClient delegate, DetourFactors detourFactors) {
+        this.delegate = delegate;
+        this.detourFactors = detourFactors;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return delegate.getCoordinatesAsync(city);
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return CompletableFuture.completedFuture(GreatCircleServiceClient.estimateKm(detourFactors, startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return CompletableFuture.completedFuture(GreatCircleServiceClient.estimateMatrixKm(detourFactors, sources, destinations));
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.client;
+
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.metrics.Histogram;
+import org.example.ratelimit.RetryBudget;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Non-blocking counterpart of HedgingServiceClient: the hedge is sent from a timer when the first request has
+ * not answered within the hedge delay, no thread waits for either request.
+ */
+public class AsyncHedgingServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final RetryBudget budget;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final Histogram geocodeLatency = new Histogram();
+    private final Histogram distanceLatency = new Histogram();
+    private final Histogram distanceMatrixLatency = new Histogram();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public AsyncHedgingServiceClient(AsyncServiceClient delegate, RetryBudget budget, Duration minDelay, Duration maxDelay) {
+        this.delegate = delegate;
+        this.budget = budget;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = Math.max(minDelayNanos, maxDelay.toNanos());
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return call(geocodeLatency, () -> delegate.getCoordinatesAsync(city));
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return call(distanceLatency, () -> delegate.getDistanceAsync(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return call(distanceMatrixLatency, () -> delegate.getDistanceMatrixAsync(sources, destinations));
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    // Hedged calls answered by the second request
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    private <T> CompletableFuture<T> call(Histogram latency, Supplier<CompletableFuture<T>> call) {
+        RequestContext context = RequestContext.current();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Leg<T> first = start(latency, call, context);
+        CompletableFuture<Void> timer = new CompletableFuture<Void>()
+                .completeOnTimeout(null, HedgingServiceClient.hedgeDelayNanos(latency, minDelayNanos, maxDelayNanos), TimeUnit.NANOSECONDS);
+        // cancelling the timer only succeeds before it fired, so exactly one of the two callbacks completes the result
+        first.future.whenComplete((value, error) -> {
+            if (timer.cancel(false)) {
+                complete(result, value, error);
+            }
+        });
+        timer.thenRunAsync(() -> {
+            if (AsyncCalls.isDone(context) || !budget.tryWithdraw()) {
+                first.future.whenComplete((value, error) -> complete(result, value, error));
+                return;
+            }
+            hedges.increment();
+            Leg<T> hedge = start(latency, call, context);
+            firstSuccessOf(first.future, hedge.future).whenComplete((value, error) -> {
+                boolean hedgeWon = !first.future.isDone() || first.future.isCompletedExceptionally();
+                if (hedgeWon) {
+                    hedgeWins.increment();
+                }
+                // frees the connection of the slower request
+                (hedgeWon ? first : hedge).context.cancel("Hedged request answered first");
+                complete(result, value, error);
+            });
+        });
+        return result;
+    }
+
+    // Each request runs in its own child of the caller's RequestContext so the losing one can be cancelled alone
+    private <T> Leg<T> start(Histogram latency, Supplier<CompletableFuture<T>> call, RequestContext parent) {
+        RequestContext context = AsyncCalls.fork(parent, Deadline.none());
+        long start = System.nanoTime();
+        CompletableFuture<T> future = AsyncCalls.inContext(context, call).whenComplete((result, error) -> {
+            // failures are often fast (unknown city) and would pull the percentile down
+            if (error == null) {
+                latency.record(System.nanoTime() - start);
+            }
+            context.close();
+        });
+        return new Leg<>(future, context);
+    }
+
+    // Completes with whichever succeeds first, or with the first request's failure when both fail
+    private static <T> CompletableFuture<T> firstSuccessOf(CompletableFuture<T> first, CompletableFuture<T> hedge) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> request : List.of(first, hedge)) {
+            request.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    first.whenComplete((ignored, firstError) -> result.completeExceptionally(AsyncCalls.unwrap(firstError)));
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, T value, Throwable error) {
+        if (error == null) {
+            result.complete(value);
+        } else {
+            result.completeExceptionally(AsyncCalls.unwrap(error));
+        }
+    }
+
+    private record Leg<T>(CompletableFuture<T> future, RequestContext context) {
+    }
+}
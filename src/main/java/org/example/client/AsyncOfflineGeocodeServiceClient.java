@@ -0,0 +1,49 @@
+package org.example.client;
+
+import org.example.store.GazetteerIndex;
+import org.example.utils.CityNames;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+// Non-blocking counterpart of OfflineGeocodeServiceClient
+public class AsyncOfflineGeocodeServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final GazetteerIndex index;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AsyncOfflineGeocodeServiceClient(AsyncServiceClient delegate, GazetteerIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        double[] coordinates = index.get(CityNames.normalize(city));
+        if (coordinates != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(coordinates);
+        }
+        misses.increment();
+        return delegate.getCoordinatesAsync(city);
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return delegate.getDistanceAsync(startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return delegate.getDistanceMatrixAsync(sources, destinations);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.client;
+
+import org.example.store.MappedGeocodeStore;
+import org.example.utils.CityNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of PersistentGeocodeServiceClient; the store is memory-mapped, so it is read and written inline
+public class AsyncPersistentGeocodeServiceClient implements AsyncServiceClient {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncPersistentGeocodeServiceClient.class);
+    private final AsyncServiceClient delegate;
+    private final MappedGeocodeStore store;
+
+    public AsyncPersistentGeocodeServiceClient(AsyncServiceClient delegate, MappedGeocodeStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        String key = CityNames.normalize(city);
+        try {
+            double[] stored = store.get(key);
+            if (stored != null) {
+                return CompletableFuture.completedFuture(stored);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read geocode store, falling back to the service: {}", e.getMessage());
+        }
+        return delegate.getCoordinatesAsync(city).thenApply(coordinates -> {
+            try {
+                store.put(key, coordinates);
+            } catch (IOException e) {
+                logger.warn("Could not persist coordinates of city {}: {}", city, e.getMessage());
+            }
+            return coordinates;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return delegate.getDistanceAsync(startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return delegate.getDistanceMatrixAsync(sources, destinations);
+    }
+}
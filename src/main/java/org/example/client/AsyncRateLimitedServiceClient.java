@@ -0,0 +1,133 @@
+package org.example.client;
+
+import org.example.client.ApiKeyPool.Endpoint;
+import org.example.context.RequestContext;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.ratelimit.AimdLimit;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * Non-blocking counterpart of RateLimitedServiceClient with the same key pool, AIMD limit and 429 handling.
+ * The wait for a token is a scheduled delay and the wait for a permit a queued future, so no thread is held.
+ */
+public class AsyncRateLimitedServiceClient implements AsyncServiceClient {
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ApiKeyPool pool;
+    private final Map<PooledApiKey, AsyncServiceClient> clients = new IdentityHashMap<>();
+    private final AimdLimit concurrencyLimit;
+    private final long maxWaitNanos;
+
+    // clientFactory creates the client that sends requests with the given API key
+    public AsyncRateLimitedServiceClient(ApiKeyPool pool, Function<String, AsyncServiceClient> clientFactory,
+                                         AimdLimit concurrencyLimit, Duration maxWait) {
+        this.pool = pool;
+        for (PooledApiKey key : pool.getKeys()) {
+            clients.put(key, clientFactory.apply(key.getApiKey()));
+        }
+        this.concurrencyLimit = concurrencyLimit;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return call(Endpoint.GEOCODE, client -> client.getCoordinatesAsync(city));
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return call(Endpoint.MATRIX, client -> client.getDistanceAsync(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return call(Endpoint.MATRIX, client -> client.getDistanceMatrixAsync(sources, destinations));
+    }
+
+    private <T> CompletableFuture<T> call(Endpoint endpoint, Function<AsyncServiceClient, CompletableFuture<T>> call) {
+        RequestContext context = RequestContext.current();
+        long remaining = context == null ? Long.MAX_VALUE : context.getDeadline().remainingNanos();
+        long deadline = System.nanoTime() + Math.min(maxWaitNanos, remaining);
+        return attempt(endpoint, call, context, deadline);
+    }
+
+    private <T> CompletableFuture<T> attempt(Endpoint endpoint, Function<AsyncServiceClient, CompletableFuture<T>> call,
+                                             RequestContext context, long deadline) {
+        ApiKeyPool.Reservation reservation = pool.reserve(endpoint, deadline - System.nanoTime());
+        if (reservation == null) {
+            if (AsyncCalls.isDone(context)) {
+                return CompletableFuture.failedFuture(cancellation(context));
+            }
+            if (!pool.hasUsableKeys()) {
+                return CompletableFuture.failedFuture(new ServiceClientException("ORS rejected every configured API key"));
+            }
+            return CompletableFuture.failedFuture(new RateLimitExceededException(
+                    "ORS quota does not allow another request within " + Duration.ofNanos(maxWaitNanos), null));
+        }
+        PooledApiKey key = reservation.key();
+        return AsyncCalls.delay(reservation.waitNanos(), context)
+                .thenCompose(ignored -> permit(context, deadline))
+                .thenCompose(ignored -> {
+                    key.recordRequest();
+                    return AsyncCalls.inContext(context, () -> call.apply(clients.get(key)))
+                            .handle((result, error) -> {
+                                Throwable cause = error == null ? null : AsyncCalls.unwrap(error);
+                                boolean overloaded = cause instanceof RateLimitExceededException;
+                                concurrencyLimit.release(overloaded);
+                                if (cause == null) {
+                                    return CompletableFuture.completedFuture(result);
+                                }
+                                if (overloaded) {
+                                    Duration retryAfter = ((RateLimitExceededException) cause).getRetryAfter();
+                                    key.recordThrottled(endpoint, System.nanoTime()
+                                            + (retryAfter != null ? retryAfter : DEFAULT_RETRY_AFTER).toNanos());
+                                    return attempt(endpoint, call, context, deadline);
+                                }
+                                if (cause instanceof ServiceClientException && key.isRejected()) {
+                                    return attempt(endpoint, call, context, deadline);
+                                }
+                                return CompletableFuture.<T>failedFuture(cause);
+                            })
+                            .thenCompose(Function.identity());
+                });
+    }
+
+    // Completes holding a permit of the concurrency limit, or fails once the deadline passed or the context was cancelled
+    private CompletableFuture<Void> permit(RequestContext context, long deadline) {
+        if (AsyncCalls.isDone(context)) {
+            return CompletableFuture.failedFuture(cancellation(context));
+        }
+        CompletableFuture<Void> permit = concurrencyLimit.acquireAsync();
+        if (permit.isDone()) {
+            return permit;
+        }
+        if (context != null) {
+            RequestContext.Registration registration = context.onCancel(() -> permit.completeExceptionally(cancellation(context)));
+            permit.whenComplete((ignored, error) -> registration.close());
+        }
+        return permit.orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                .exceptionallyCompose(error -> {
+                    if (AsyncCalls.isDone(context)) {
+                        return CompletableFuture.failedFuture(cancellation(context));
+                    }
+                    return CompletableFuture.failedFuture(new RateLimitExceededException("Timed out waiting for a free ORS request slot", null));
+                });
+    }
+
+    private static RequestCancelledException cancellation(RequestContext context) {
+        try {
+            context.check();
+        } catch (RequestCancelledException e) {
+            return e;
+        }
+        return new RequestCancelledException("Request cancelled");
+    }
+}
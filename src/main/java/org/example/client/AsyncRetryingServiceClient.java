@@ -0,0 +1,69 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.RetryBudget;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Non-blocking counterpart of RetryingServiceClient; the backoff is a scheduled delay instead of a sleeping thread
+public class AsyncRetryingServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final RetryBudget budget;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+
+    public AsyncRetryingServiceClient(AsyncServiceClient delegate, RetryBudget budget, int maxAttempts, Duration baseBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed: " + maxAttempts);
+        }
+        this.delegate = delegate;
+        this.budget = budget;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return call(() -> delegate.getCoordinatesAsync(city));
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        return call(() -> delegate.getDistanceAsync(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        return call(() -> delegate.getDistanceMatrixAsync(sources, destinations));
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call) {
+        budget.recordRequest();
+        return attempt(call, RequestContext.current(), 1);
+    }
+
+    private <T> CompletableFuture<T> attempt(Supplier<CompletableFuture<T>> call, RequestContext context, int attempt) {
+        return AsyncCalls.inContext(context, call).handle((result, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            Throwable cause = AsyncCalls.unwrap(error);
+            if (!(cause instanceof TransientServiceException)) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            long backoff = RetryingServiceClient.fullJitterNanos(baseBackoffNanos, attempt);
+            // no point in a retry that could not finish before the deadline
+            if (context != null && context.getDeadline().remainingNanos() <= backoff) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            if (attempt >= maxAttempts || !budget.tryWithdraw()) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            return AsyncCalls.delay(backoff, context).thenCompose(ignored -> attempt(call, context, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.client;
+
+import org.example.routing.RoutingEngine;
+
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of RoutingServiceClient; queries on the in-memory graph take microseconds and run inline
+public class AsyncRoutingServiceClient implements AsyncServiceClient {
+    private final AsyncServiceClient delegate;
+    private final RoutingEngine engine;
+
+    public AsyncRoutingServiceClient(AsyncServiceClient delegate, RoutingEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        return delegate.getCoordinatesAsync(city);
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        double distance = engine.distanceKm(startCoordinates, endCoordinates);
+        return Double.isNaN(distance)
+                ? delegate.getDistanceAsync(startCoordinates, endCoordinates)
+                : CompletableFuture.completedFuture(distance);
+    }
+
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        double[][] distances = engine.distanceMatrixKm(sources, destinations);
+        for (double[] row : distances) {
+            for (double distance : row) {
+                if (Double.isNaN(distance)) {
+                    return delegate.getDistanceMatrixAsync(sources, destinations);
+                }
+            }
+        }
+        return CompletableFuture.completedFuture(distances);
+    }
+}
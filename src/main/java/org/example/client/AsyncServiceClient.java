@@ -0,0 +1,11 @@
+package org.example.client;
+
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of ServiceClient; futures fail with a ServiceClientException
+public interface AsyncServiceClient {
+
+    CompletableFuture<double[]> getCoordinatesAsync(String city);
+    CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates);
+    CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations);
+}
@@ -0,0 +1,63 @@
+package org.example.client;
+
+import org.example.exception.CircuitOpenException;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.CircuitBreaker;
+
+/*
+ * Fails calls with a CircuitOpenException, without sending them, while ORS is considered down.
+ * Network errors, ORS request timeouts and 5xx answers count as failures; any other answer, including
+ * "city not found", shows ORS is up. Calls the caller cancelled or ran out of time for say nothing about
+ * ORS and are ignored. The caching layers above answer from stale entries when the circuit is open.
+ */
+public class CircuitBreakerServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakerServiceClient(ServiceClient delegate, CircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return call(() -> delegate.getCoordinates(city));
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return call(() -> delegate.getDistance(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return call(() -> delegate.getDistanceMatrix(sources, destinations));
+    }
+
+    private <T> T call(Call<T> call) throws ServiceClientException {
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException("ORS is unavailable, circuit breaker is open");
+        }
+        try {
+            T result = call.run();
+            breaker.onSuccess();
+            return result;
+        } catch (TransientServiceException e) {
+            breaker.onFailure();
+            throw e;
+        } catch (RequestCancelledException | RateLimitExceededException | RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        } catch (ServiceClientException e) {
+            breaker.onSuccess();
+            throw e;
+        }
+    }
+
+    private interface Call<T> {
+        T run() throws ServiceClientException;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.client;
+
+import org.example.cache.RouteKey;
+import org.example.context.RequestContext;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.utils.CityNames;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Concurrent callers asking for the same city or route share one in-flight request and its outcome
+public class CoalescingServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final Map<String, CompletableFuture<double[]>> coordinatesInFlight = new ConcurrentHashMap<>();
+    private final Map<RouteKey, CompletableFuture<Double>> distancesInFlight = new ConcurrentHashMap<>();
+
+    public CoalescingServiceClient(ServiceClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        String key = CityNames.normalize(city);
+        while (true) {
+            CompletableFuture<double[]> call = new CompletableFuture<>();
+            CompletableFuture<double[]> inFlight = coordinatesInFlight.putIfAbsent(key, call);
+            if (inFlight != null) {
+                try {
+                    return await(inFlight).clone();
+                } catch (RequestCancelledException e) {
+                    RequestContext.checkCurrent();
+                    continue; // the calculation that sent the shared request was given up, this one was not
+                }
+            }
+            try {
+                double[] coordinates = delegate.getCoordinates(city);
+                call.complete(coordinates.clone());
+                return coordinates;
+            } catch (ServiceClientException | RuntimeException e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                coordinatesInFlight.remove(key, call);
+            }
+        }
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        RouteKey key = RouteKey.of(startCoordinates, endCoordinates);
+        while (true) {
+            CompletableFuture<Double> call = new CompletableFuture<>();
+            CompletableFuture<Double> inFlight = distancesInFlight.putIfAbsent(key, call);
+            if (inFlight != null) {
+                try {
+                    return await(inFlight);
+                } catch (RequestCancelledException e) {
+                    RequestContext.checkCurrent();
+                    continue;
+                }
+            }
+            try {
+                double distance = delegate.getDistance(startCoordinates, endCoordinates);
+                call.complete(distance);
+                return distance;
+            } catch (ServiceClientException | RuntimeException e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                distancesInFlight.remove(key, call);
+            }
+        }
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return delegate.getDistanceMatrix(sources, destinations);
+    }
+
+    public int inFlightCount() {
+        return coordinatesInFlight.size() + distancesInFlight.size();
+    }
+
+    // Waits at most until the deadline of the caller's RequestContext, and not at all once it is cancelled
+    private static <T> T await(CompletableFuture<T> inFlight) throws ServiceClientException {
+        RequestContext context = RequestContext.current();
+        CompletableFuture<T> waiting = inFlight.copy();
+        try (RequestContext.Registration ignored = RequestContext.onCurrentCancel(() -> waiting.cancel(false))) {
+            return waiting.get(context == null ? Long.MAX_VALUE : context.getDeadline().remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (CancellationException | TimeoutException e) {
+            RequestContext.checkCurrent();
+            throw new RequestCancelledException("Deadline exceeded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceClientException("Interrupted while waiting for a shared request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ServiceClientException) {
+                throw (ServiceClientException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ServiceClientException(String.valueOf(cause));
+        }
+    }
+}
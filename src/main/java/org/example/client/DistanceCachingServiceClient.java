@@ -0,0 +1,104 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.cache.RouteKey;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.ServiceClientException;
+
+import java.time.Duration;
+
+// While ORS is unreachable (circuit open) expired entries are served, flagged as stale on the RequestContext
+public class DistanceCachingServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final LruCache<RouteKey, Double> distanceCache;
+    private final boolean symmetric;
+
+    public DistanceCachingServiceClient(ServiceClient delegate, int maxSize, Duration ttl, boolean symmetric) {
+        this(delegate, new LruCache<>(maxSize, ttl), symmetric);
+    }
+
+    public DistanceCachingServiceClient(ServiceClient delegate, LruCache<RouteKey, Double> distanceCache, boolean symmetric) {
+        this.delegate = delegate;
+        this.distanceCache = distanceCache;
+        this.symmetric = symmetric;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return delegate.getCoordinates(city);
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        RouteKey key = keyOf(startCoordinates, endCoordinates);
+        Double cached = distanceCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        double distance;
+        try {
+            distance = delegate.getDistance(startCoordinates, endCoordinates);
+        } catch (CircuitOpenException e) {
+            Double stale = distanceCache.getStale(key);
+            if (stale == null) {
+                throw e;
+            }
+            RequestContext.markCurrentStale();
+            return stale;
+        }
+        distanceCache.put(key, distance);
+        return distance;
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        double[][] distances = new double[sources.length][destinations.length];
+        boolean complete = true;
+        for (int i = 0; i < sources.length && complete; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                Double cached = distanceCache.get(keyOf(sources[i], destinations[j]));
+                if (cached == null) {
+                    complete = false;
+                    break;
+                }
+                distances[i][j] = cached;
+            }
+        }
+        if (complete) {
+            return distances;
+        }
+        try {
+            distances = delegate.getDistanceMatrix(sources, destinations);
+        } catch (CircuitOpenException e) {
+            return staleMatrix(sources, destinations, e);
+        }
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                distanceCache.put(keyOf(sources[i], destinations[j]), distances[i][j]);
+            }
+        }
+        return distances;
+    }
+
+    private double[][] staleMatrix(double[][] sources, double[][] destinations, CircuitOpenException circuitOpen) throws CircuitOpenException {
+        double[][] distances = new double[sources.length][destinations.length];
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                Double stale = distanceCache.getStale(keyOf(sources[i], destinations[j]));
+                if (stale == null) {
+                    throw circuitOpen;
+                }
+                distances[i][j] = stale;
+            }
+        }
+        RequestContext.markCurrentStale();
+        return distances;
+    }
+
+    private RouteKey keyOf(double[] startCoordinates, double[] endCoordinates) {
+        return symmetric
+                ? RouteKey.symmetricOf(startCoordinates, endCoordinates)
+                : RouteKey.of(startCoordinates, endCoordinates);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.client;
+
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Asks the delegate for distances and switches to the fallback when that fails for reasons unrelated to the
+ * trip: ORS is over quota, unavailable, erroring, or has not answered within slowAfter (the delegate's calls
+ * are cancelled then). Geocoding is not affected. A "distance not found" answer or a cancelled request is
+ * passed on as is.
+ */
+public class FallbackDistanceServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final ServiceClient fallback;
+    private final Duration slowAfter;
+    private final LongAdder fallbacks = new LongAdder();
+
+    // A zero or negative slowAfter waits for the delegate as long as the request's own deadline allows
+    public FallbackDistanceServiceClient(ServiceClient delegate, ServiceClient fallback, Duration slowAfter) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.slowAfter = slowAfter;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return delegate.getCoordinates(city);
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        try (RequestContext attempt = RequestContext.fork(attemptDeadline()); RequestContext.Scope ignored = attempt.attach()) {
+            return delegate.getDistance(startCoordinates, endCoordinates);
+        } catch (RateLimitExceededException | CircuitOpenException | TransientServiceException | RequestCancelledException e) {
+            fallBack(e);
+            return fallback.getDistance(startCoordinates, endCoordinates);
+        }
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        try (RequestContext attempt = RequestContext.fork(attemptDeadline()); RequestContext.Scope ignored = attempt.attach()) {
+            return delegate.getDistanceMatrix(sources, destinations);
+        } catch (RateLimitExceededException | CircuitOpenException | TransientServiceException | RequestCancelledException e) {
+            fallBack(e);
+            return fallback.getDistanceMatrix(sources, destinations);
+        }
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    private Deadline attemptDeadline() {
+        return slowAfter.isZero() || slowAfter.isNegative() ? Deadline.none() : Deadline.after(slowAfter);
+    }
+
+    // Runs with the attempt detached again, so only the caller's own cancellation or deadline is checked
+    private void fallBack(ServiceClientException failure) throws ServiceClientException {
+        if (failure instanceof RequestCancelledException) {
+            RequestContext.checkCurrent();
+            if (slowAfter.isZero() || slowAfter.isNegative()) {
+                throw failure;
+            }
+        }
+        fallbacks.increment();
+    }
+}
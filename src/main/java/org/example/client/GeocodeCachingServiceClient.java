@@ -0,0 +1,76 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.CityNotFoundException;
+import org.example.exception.ServiceClientException;
+import org.example.utils.CityNames;
+
+import java.time.Duration;
+
+// While ORS is unreachable (circuit open) expired entries are served, flagged as stale on the RequestContext.
+// Cities ORS does not know are remembered in an optional negative cache, so repeated bad input fails without a request.
+public class GeocodeCachingServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final LruCache<String, double[]> coordinatesCache;
+    private final LruCache<String, CityNotFoundException> notFoundCache;
+
+    public GeocodeCachingServiceClient(ServiceClient delegate, int maxSize, Duration ttl) {
+        this(delegate, new LruCache<>(maxSize, ttl));
+    }
+
+    public GeocodeCachingServiceClient(ServiceClient delegate, LruCache<String, double[]> coordinatesCache) {
+        this(delegate, coordinatesCache, null);
+    }
+
+    public GeocodeCachingServiceClient(ServiceClient delegate, LruCache<String, double[]> coordinatesCache,
+                                       LruCache<String, CityNotFoundException> notFoundCache) {
+        this.delegate = delegate;
+        this.coordinatesCache = coordinatesCache;
+        this.notFoundCache = notFoundCache;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        String key = CityNames.normalize(city);
+        double[] cached = coordinatesCache.get(key);
+        if (cached != null) {
+            return cached.clone();
+        }
+        if (notFoundCache != null) {
+            CityNotFoundException notFound = notFoundCache.get(key);
+            if (notFound != null) {
+                throw notFound;
+            }
+        }
+        double[] coordinates;
+        try {
+            coordinates = delegate.getCoordinates(city);
+        } catch (CityNotFoundException e) {
+            if (notFoundCache != null) {
+                notFoundCache.put(key, e);
+            }
+            throw e;
+        } catch (CircuitOpenException e) {
+            double[] stale = coordinatesCache.getStale(key);
+            if (stale == null) {
+                throw e;
+            }
+            RequestContext.markCurrentStale();
+            return stale.clone();
+        }
+        coordinatesCache.put(key, coordinates.clone());
+        return coordinates;
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return delegate.getDistance(startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return delegate.getDistanceMatrix(sources, destinations);
+    }
+}
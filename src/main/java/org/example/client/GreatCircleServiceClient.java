@@ -0,0 +1,54 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.ServiceClientException;
+import org.example.geo.DetourFactors;
+import org.example.geo.GreatCircle;
+
+/*
+ * Estimates distances locally instead of asking ORS: the ellipsoidal great-circle distance between the
+ * coordinates times the detour factor of the trip's transportation method (see RequestContext). Geocoding is
+ * left to the delegate. Estimates are flagged on the RequestContext.
+ */
+public class GreatCircleServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final DetourFactors detourFactors;
+
+    public GreatCircleServiceClient(ServiceClient delegate, DetourFactors detourFactors) {
+        this.delegate = delegate;
+        this.detourFactors = detourFactors;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return delegate.getCoordinates(city);
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) {
+        return estimateKm(detourFactors, startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) {
+        return estimateMatrixKm(detourFactors, sources, destinations);
+    }
+
+    static double estimateKm(DetourFactors detourFactors, double[] startCoordinates, double[] endCoordinates) {
+        double factor = detourFactors.factorFor(RequestContext.currentTransportationMethod());
+        RequestContext.markCurrentEstimated(detourFactors);
+        return GreatCircle.vincentyKm(startCoordinates, endCoordinates) * factor;
+    }
+
+    static double[][] estimateMatrixKm(DetourFactors detourFactors, double[][] sources, double[][] destinations) {
+        double factor = detourFactors.factorFor(RequestContext.currentTransportationMethod());
+        RequestContext.markCurrentEstimated(detourFactors);
+        double[][] distances = new double[sources.length][destinations.length];
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                distances[i][j] = GreatCircle.vincentyKm(sources[i], destinations[j]) * factor;
+            }
+        }
+        return distances;
+    }
+}
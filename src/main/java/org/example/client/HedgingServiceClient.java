@@ -0,0 +1,172 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.ServiceClientException;
+import org.example.metrics.Histogram;
+import org.example.ratelimit.RetryBudget;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Hedged requests: when a call has not answered within the 95th percentile of recent successful calls
+ * of the same kind, an identical second request is sent and whichever answers first wins. Only about
+ * one call in twenty waits that long, so the extra load stays small, and the RetryBudget caps it when
+ * ORS is slow across the board. Until enough latencies have been seen the delay is maxDelay.
+ */
+public class HedgingServiceClient implements ServiceClient {
+    private static final int MIN_SAMPLES = 20;
+    private static final double HEDGE_QUANTILE = 0.95;
+
+    private final ServiceClient delegate;
+    private final Executor executor;
+    private final RetryBudget budget;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final Histogram geocodeLatency = new Histogram();
+    private final Histogram distanceLatency = new Histogram();
+    private final Histogram distanceMatrixLatency = new Histogram();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    // The executor runs the blocking delegate calls, both the first and the hedged one
+    public HedgingServiceClient(ServiceClient delegate, Executor executor, RetryBudget budget, Duration minDelay, Duration maxDelay) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.budget = budget;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = Math.max(minDelayNanos, maxDelay.toNanos());
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return call(geocodeLatency, () -> delegate.getCoordinates(city));
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return call(distanceLatency, () -> delegate.getDistance(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return call(distanceMatrixLatency, () -> delegate.getDistanceMatrix(sources, destinations));
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    // Hedged calls answered by the second request
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    long hedgeDelayNanos(Histogram latency) {
+        return hedgeDelayNanos(latency, minDelayNanos, maxDelayNanos);
+    }
+
+    static long hedgeDelayNanos(Histogram latency, long minDelayNanos, long maxDelayNanos) {
+        if (latency.count() < MIN_SAMPLES) {
+            return maxDelayNanos;
+        }
+        return Math.min(maxDelayNanos, Math.max(minDelayNanos, latency.percentile(HEDGE_QUANTILE)));
+    }
+
+    private <T> T call(Histogram latency, Call<T> call) throws ServiceClientException {
+        Leg<T> first = start(latency, call);
+        try {
+            return first.future.get(hedgeDelayNanos(latency), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!budget.tryWithdraw()) {
+                return await(first.future);
+            }
+            hedges.increment();
+            Leg<T> hedge = start(latency, call);
+            T result = await(firstSuccessOf(first.future, hedge.future));
+            boolean hedgeWon = !first.future.isDone() || first.future.isCompletedExceptionally();
+            if (hedgeWon) {
+                hedgeWins.increment();
+            }
+            // frees the thread and connection of the slower request
+            (hedgeWon ? first : hedge).context.cancel("Hedged request answered first");
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceClientException("Interrupted while waiting for ORS");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    // Each request runs in its own child of the caller's RequestContext so the losing one can be cancelled alone
+    private <T> Leg<T> start(Histogram latency, Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        RequestContext context = RequestContext.fork();
+        executor.execute(context.wrap(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = call.run();
+                // failures are often fast (unknown city) and would pull the percentile down
+                latency.record(System.nanoTime() - start);
+                future.complete(result);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }));
+        future.whenComplete((result, error) -> context.close());
+        return new Leg<>(future, context);
+    }
+
+    // Completes with whichever succeeds first, or with the first request's failure when both fail
+    private static <T> CompletableFuture<T> firstSuccessOf(CompletableFuture<T> first, CompletableFuture<T> hedge) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> request : List.of(first, hedge)) {
+            request.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    first.whenComplete((ignored, firstError) -> result.completeExceptionally(firstError));
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws ServiceClientException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceClientException("Interrupted while waiting for ORS");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static ServiceClientException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ServiceClientException) {
+            return (ServiceClientException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new ServiceClientException(String.valueOf(cause));
+    }
+
+    private record Leg<T>(CompletableFuture<T> future, RequestContext context) {
+    }
+
+    private interface Call<T> {
+        T run() throws ServiceClientException;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.store.GazetteerIndex;
+import org.example.utils.CityNames;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Answers geocode lookups from a local gazetteer index and asks the delegate only for cities it does not list
+public class OfflineGeocodeServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final GazetteerIndex index;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public OfflineGeocodeServiceClient(ServiceClient delegate, GazetteerIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        double[] coordinates = index.get(CityNames.normalize(city));
+        if (coordinates != null) {
+            hits.increment();
+            return coordinates;
+        }
+        misses.increment();
+        return delegate.getCoordinates(city);
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return delegate.getDistance(startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return delegate.getDistanceMatrix(sources, destinations);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
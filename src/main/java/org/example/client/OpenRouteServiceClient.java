@@ -1,82 +1,421 @@
 package org.example.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.*;
+import org.example.context.RequestContext;
+import org.example.exception.CityNotFoundException;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
 import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.jfr.OrsRequestEvent;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-public class OpenRouteServiceClient implements ServiceClient{
-    private static final String GEOCODE_URL = "https://api.openrouteservice.org/geocode/search";
-    private static final String DISTANCE_MATRIX_URL = "https://api.openrouteservice.org/v2/matrix/driving-car";
+public class OpenRouteServiceClient implements ServiceClient, AsyncServiceClient {
+    public static final String DEFAULT_BASE_URL = "https://api.openrouteservice.org";
+    private static final String GEOCODE_PATH = "/geocode/search";
+    private static final String DISTANCE_MATRIX_PATH = "/v2/matrix/driving-car";
+    // maximum_routes of a default ORS installation; the public API allows a few more
+    public static final int DEFAULT_MAX_MATRIX_ROUTES = 2500;
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final OrsJsonCodec CODEC = new OrsJsonCodec();
     private final String API_KEY;
     private final OkHttpClient client;
+    private final HttpUrl geocodeUrl;
+    private final HttpUrl distanceMatrixUrl;
+    private final int maxMatrixRoutes;
 
     public OpenRouteServiceClient(String apiKey, OkHttpClient client) {
+        this(apiKey, client, DEFAULT_BASE_URL);
+    }
+
+    // baseUrl points at an ORS compatible server, e.g. a self-hosted instance or a local stand-in
+    public OpenRouteServiceClient(String apiKey, OkHttpClient client, String baseUrl) {
+        this(apiKey, client, baseUrl, DEFAULT_MAX_MATRIX_ROUTES);
+    }
+
+    // Distance matrices with more than maxMatrixRoutes source/destination pairs are split over several requests
+    public OpenRouteServiceClient(String apiKey, OkHttpClient client, String baseUrl, int maxMatrixRoutes) {
+        if (maxMatrixRoutes < 1) {
+            throw new IllegalArgumentException("A matrix request needs room for at least one route: " + maxMatrixRoutes);
+        }
         this.API_KEY = apiKey;
         this.client = client;
+        HttpUrl base = HttpUrl.parse(baseUrl);
+        if (base == null) {
+            throw new IllegalArgumentException("Invalid ORS base URL: " + baseUrl);
+        }
+        this.geocodeUrl = base.resolve(base.encodedPath().replaceAll("/+$", "") + GEOCODE_PATH);
+        this.distanceMatrixUrl = base.resolve(base.encodedPath().replaceAll("/+$", "") + DISTANCE_MATRIX_PATH);
+        this.maxMatrixRoutes = maxMatrixRoutes;
     }
 
     @Override
     public double[] getCoordinates(String city) throws ServiceClientException {
-        HttpUrl.Builder urlBuilder = HttpUrl.parse(GEOCODE_URL).newBuilder()
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.GEOCODE, city);
+        Throwable failure = null;
+        try (ContextCall call = newCall(geocodeRequest(city)); Response response = call.execute()) {
+            return readCoordinates(response, city, event);
+        } catch (IOException e) {
+            failure = e;
+            throw failure(RequestContext.current(), e, error -> coordinatesError(city, error));
+        } catch (ServiceClientException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(failure);
+        }
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.DISTANCE, null);
+        Throwable failure = null;
+        try (ContextCall call = newCall(distanceRequest(startCoordinates, endCoordinates)); Response response = call.execute()) {
+            return readDistance(response, event);
+        } catch (IOException e) {
+            failure = e;
+            throw failure(RequestContext.current(), e, this::distanceError);
+        } catch (ServiceClientException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(failure);
+        }
+    }
+
+    // Fails like getDistance when ORS has no route for one of the pairs
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        double[][] distances = new double[sources.length][destinations.length];
+        for (MatrixBlock block : matrixBlocks(sources.length, destinations.length)) {
+            block.copyInto(distances, getDistanceMatrixBlock(block.sourcesOf(sources), block.destinationsOf(destinations)));
+        }
+        checkDistanceMatrix(distances);
+        return distances;
+    }
+
+    private double[][] getDistanceMatrixBlock(double[][] sources, double[][] destinations) throws ServiceClientException {
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.DISTANCE_MATRIX, null);
+        Throwable failure = null;
+        try (ContextCall call = newCall(distanceMatrixRequest(sources, destinations)); Response response = call.execute()) {
+            return readDistanceMatrix(response, sources.length, destinations.length, event);
+        } catch (IOException e) {
+            failure = e;
+            throw failure(RequestContext.current(), e, this::distanceMatrixError);
+        } catch (ServiceClientException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(failure);
+        }
+    }
+
+    @Override
+    public CompletableFuture<double[]> getCoordinatesAsync(String city) {
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.GEOCODE, city);
+        return enqueue(geocodeRequest(city), event, response -> readCoordinates(response, city, event), e -> coordinatesError(city, e));
+    }
+
+    @Override
+    public CompletableFuture<Double> getDistanceAsync(double[] startCoordinates, double[] endCoordinates) {
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.DISTANCE, null);
+        return enqueue(distanceRequest(startCoordinates, endCoordinates), event, response -> readDistance(response, event), this::distanceError);
+    }
+
+    // The blocks of a large matrix are requested at once
+    @Override
+    public CompletableFuture<double[][]> getDistanceMatrixAsync(double[][] sources, double[][] destinations) {
+        List<MatrixBlock> blocks = matrixBlocks(sources.length, destinations.length);
+        List<CompletableFuture<double[][]>> blockFutures = new ArrayList<>(blocks.size());
+        for (MatrixBlock block : blocks) {
+            blockFutures.add(getDistanceMatrixBlockAsync(block.sourcesOf(sources), block.destinationsOf(destinations)));
+        }
+        return CompletableFuture.allOf(blockFutures.toArray(new CompletableFuture[0]))
+                .thenCompose(ignored -> {
+                    double[][] distances = new double[sources.length][destinations.length];
+                    for (int b = 0; b < blocks.size(); b++) {
+                        blocks.get(b).copyInto(distances, blockFutures.get(b).join());
+                    }
+                    try {
+                        checkDistanceMatrix(distances);
+                        return CompletableFuture.completedFuture(distances);
+                    } catch (ServiceClientException e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                });
+    }
+
+    private CompletableFuture<double[][]> getDistanceMatrixBlockAsync(double[][] sources, double[][] destinations) {
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.DISTANCE_MATRIX, null);
+        return enqueue(distanceMatrixRequest(sources, destinations), event,
+                response -> readDistanceMatrix(response, sources.length, destinations.length, event), this::distanceMatrixError);
+    }
+
+    // Rows and columns of the matrix cut into blocks of at most maxMatrixRoutes pairs, whole rows where possible
+    List<MatrixBlock> matrixBlocks(int sourceCount, int destinationCount) {
+        List<MatrixBlock> blocks = new ArrayList<>();
+        if (sourceCount == 0 || destinationCount == 0) {
+            return blocks;
+        }
+        int columnsPerBlock = Math.min(destinationCount, maxMatrixRoutes);
+        int rowsPerBlock = Math.max(1, maxMatrixRoutes / columnsPerBlock);
+        for (int row = 0; row < sourceCount; row += rowsPerBlock) {
+            for (int column = 0; column < destinationCount; column += columnsPerBlock) {
+                blocks.add(new MatrixBlock(row, Math.min(rowsPerBlock, sourceCount - row),
+                        column, Math.min(columnsPerBlock, destinationCount - column)));
+            }
+        }
+        return blocks;
+    }
+
+    // Same rule as for a single distance: ORS answers an unreachable pair with null, an invalid one with 0
+    private static void checkDistanceMatrix(double[][] distances) throws ServiceClientException {
+        for (int i = 0; i < distances.length; i++) {
+            for (int j = 0; j < distances[i].length; j++) {
+                if (!(distances[i][j] > 0)) {
+                    throw new ServiceClientException("Distance not found between the coordinates or Invalid start/end coordinates"
+                            + " of source " + i + " and destination " + j);
+                }
+            }
+        }
+    }
+
+    private Request geocodeRequest(String city) {
+        HttpUrl.Builder urlBuilder = geocodeUrl.newBuilder()
                 .addQueryParameter("api_key", API_KEY)
                 .addQueryParameter("text", city)
                 .addQueryParameter("layers", "locality");
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(urlBuilder.build())
                 .get()
                 .build();
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) throw new IOException("Unexpected code " + response);
+    }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(response.body().byteStream());
-            try {
-                double latitude = root.at("/features/0/geometry/coordinates/1").asDouble();
-                double longitude = root.at("/features/0/geometry/coordinates/0").asDouble();
-                if(latitude == 0 && longitude == 0) {
-                    throw new ServiceClientException("Coordinates not found for city " + city);
-                }
-                return new double[]{latitude, longitude};
-            } catch (NumberFormatException nfe) {
-                throw new ServiceClientException("Coordinates not found for city " + city);
-            }
-        } catch (IOException e) {
-            throw new ServiceClientException("Error occurred during fetching coordinates of city " + city + " : " + e.getMessage());
-        }
+    private Request distanceRequest(double[] startCoordinates, double[] endCoordinates) {
+        return matrixRequest(CODEC.writeRouteRequest(startCoordinates, endCoordinates));
     }
 
-    @Override
-    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
-        MediaType JSON = MediaType.parse("application/json; charset=utf-8");
-        String jsonBody = String.format("{\"locations\":[[%f,%f],[%f,%f]],\"metrics\":[\"distance\"]}",
-                startCoordinates[1], startCoordinates[0], endCoordinates[1], endCoordinates[0]);
+    private Request distanceMatrixRequest(double[][] sources, double[][] destinations) {
+        return matrixRequest(CODEC.writeMatrixRequest(sources, destinations));
+    }
 
+    private Request matrixRequest(byte[] jsonBody) {
         RequestBody body = RequestBody.create(jsonBody, JSON);
-        Request request = new Request.Builder()
-                .url(DISTANCE_MATRIX_URL)
+        return new Request.Builder()
+                .url(distanceMatrixUrl)
                 .post(body)
                 .addHeader("Authorization", API_KEY)
                 .build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) throw new IOException("Unexpected code " + response);
+    private double[] readCoordinates(Response response, String city, OrsRequestEvent event) throws IOException, ServiceClientException {
+        event.recordStatus(response.code());
+        checkResponse(response);
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(response.body().byteStream());
+        InputStream body = event.track(response.body().byteStream());
+        double[] coordinates = CODEC.readCoordinates(body);
+        if (coordinates == null || (coordinates[0] == 0 && coordinates[1] == 0)) {
+            throw new CityNotFoundException(city);
+        }
+        return coordinates;
+    }
+
+    private double readDistance(Response response, OrsRequestEvent event) throws IOException, ServiceClientException {
+        event.recordStatus(response.code());
+        checkResponse(response);
+
+        InputStream body = event.track(response.body().byteStream());
+        double distanceInMeters = CODEC.readDistance(body, 0, 1);
+        if(distanceInMeters <= 0) {
+            throw new ServiceClientException("Distance not found between the coordinates or Invalid start/end coordinates");
+        }
+        return  distanceInMeters/ 1000; // Convert meters to kilometers
+    }
+
+    private double[][] readDistanceMatrix(Response response, int sourceCount, int destinationCount, OrsRequestEvent event) throws IOException, ServiceClientException {
+        event.recordStatus(response.code());
+        checkResponse(response);
+
+        InputStream body = event.track(response.body().byteStream());
+        double[][] distances = new double[sourceCount][destinationCount];
+        CODEC.readDistanceMatrix(body, sourceCount, destinationCount, (rowIndex, row) -> {
+            for (int j = 0; j < destinationCount; j++) {
+                distances[rowIndex][j] = row[j] / 1000; // Convert meters to kilometers
+            }
+        });
+        return distances;
+    }
+
+    private static void checkResponse(Response response) throws IOException, RateLimitExceededException {
+        if (response.code() == 429) {
+            throw new RateLimitExceededException("ORS rate limit exceeded: " + response, retryAfterOf(response));
+        }
+        if (!response.isSuccessful()) throw new UnexpectedResponseException(response);
+    }
+
+    // Retry-After is either delta seconds or an HTTP date
+    private static Duration retryAfterOf(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
             try {
-                double distanceInMeters = root.at("/distances/0/1").asDouble(-1);
-                if(distanceInMeters <= 0) {
-                    throw new ServiceClientException("Distance not found between the coordinates or Invalid start/end coordinates");
+                Duration untilDate = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return untilDate.isNegative() ? Duration.ZERO : untilDate;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private ServiceClientException coordinatesError(String city, IOException e) {
+        return error("Error occurred during fetching coordinates of city " + city + " : " + e.getMessage(), e);
+    }
+
+    private ServiceClientException distanceError(IOException e) {
+        return error("Error occurred during fetching distance: " + e.getMessage(), e);
+    }
+
+    private ServiceClientException distanceMatrixError(IOException e) {
+        return error("Error occurred during fetching distance matrix: " + e.getMessage(), e);
+    }
+
+    // Network failures, timeouts and 5xx answers may go away on a retry, other 4xx answers will not
+    private static ServiceClientException error(String message, IOException e) {
+        if (e instanceof UnexpectedResponseException) {
+            int code = ((UnexpectedResponseException) e).code;
+            if (code < 500 && code != 408) {
+                return new ServiceClientException(message);
+            }
+        }
+        return new TransientServiceException(message);
+    }
+
+    // Completes on OkHttp's dispatcher threads, no caller thread waits for the response
+    private <T> CompletableFuture<T> enqueue(Request request, OrsRequestEvent event, ResponseReader<T> reader, ErrorMapper errorMapper) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        RequestContext context = RequestContext.current();
+        ContextCall call;
+        try {
+            call = newCall(request);
+        } catch (RequestCancelledException e) {
+            event.finish(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        call.call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(failure(context, e, errorMapper));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    future.complete(reader.read(response));
+                } catch (IOException e) {
+                    future.completeExceptionally(failure(context, e, errorMapper));
+                } catch (ServiceClientException | RuntimeException e) {
+                    future.completeExceptionally(e);
                 }
-                return  distanceInMeters/ 1000; // Convert meters to kilometers
-            } catch (NumberFormatException nfe) {
-                throw new ServiceClientException("Error occurred during fetching distance" + nfe.getMessage());
             }
-        } catch (IOException e) {
-            throw new ServiceClientException("Error occurred during fetching distance" + e.getMessage());
+        });
+        future.whenComplete((result, error) -> {
+            call.close();
+            event.finish(error);
+            if (future.isCancelled()) {
+                call.call.cancel();
+            }
+        });
+        return future;
+    }
+
+    // The call inherits the deadline of the current RequestContext as its timeout and is cancelled with it
+    private ContextCall newCall(Request request) throws RequestCancelledException {
+        RequestContext.checkCurrent();
+        Call call = client.newCall(request);
+        RequestContext context = RequestContext.current();
+        if (context != null && context.getDeadline().isBounded()) {
+            call.timeout().timeout(Math.max(1, context.getDeadline().remainingNanos()), TimeUnit.NANOSECONDS);
+        }
+        return new ContextCall(call, RequestContext.onCurrentCancel(call::cancel));
+    }
+
+    // A call that failed because its context was cancelled or timed out reports that instead of the I/O error
+    private static ServiceClientException failure(RequestContext context, IOException e, ErrorMapper errorMapper) {
+        if (context != null) {
+            try {
+                context.check();
+            } catch (RequestCancelledException cancelled) {
+                return cancelled;
+            }
+        }
+        return errorMapper.map(e);
+    }
+
+    private interface ResponseReader<T> {
+        T read(Response response) throws IOException, ServiceClientException;
+    }
+
+    private interface ErrorMapper {
+        ServiceClientException map(IOException e);
+    }
+
+    private static final class ContextCall implements AutoCloseable {
+        private final Call call;
+        private final RequestContext.Registration cancelRegistration;
+
+        ContextCall(Call call, RequestContext.Registration cancelRegistration) {
+            this.call = call;
+            this.cancelRegistration = cancelRegistration;
+        }
+
+        Response execute() throws IOException {
+            return call.execute();
+        }
+
+        @Override
+        public void close() {
+            cancelRegistration.close();
+        }
+    }
+
+    record MatrixBlock(int firstSource, int sourceCount, int firstDestination, int destinationCount) {
+        double[][] sourcesOf(double[][] sources) {
+            return Arrays.copyOfRange(sources, firstSource, firstSource + sourceCount);
+        }
+
+        double[][] destinationsOf(double[][] destinations) {
+            return Arrays.copyOfRange(destinations, firstDestination, firstDestination + destinationCount);
+        }
+
+        void copyInto(double[][] distances, double[][] blockDistances) {
+            for (int i = 0; i < sourceCount; i++) {
+                System.arraycopy(blockDistances[i], 0, distances[firstSource + i], firstDestination, destinationCount);
+            }
+        }
+    }
+
+    private static class UnexpectedResponseException extends IOException {
+        private final int code;
+
+        UnexpectedResponseException(Response response) {
+            super("Unexpected code " + response);
+            this.code = response.code();
         }
     }
 }
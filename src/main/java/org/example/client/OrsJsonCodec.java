@@ -0,0 +1,176 @@
+package org.example.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import org.example.exception.ServiceClientException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/*
+ * Pull-parser based encoding and decoding of the ORS payloads. Only the fields that are needed are
+ * read and everything else is skipped token by token, so no JSON tree is built per response.
+ * The underlying JsonFactory is thread-safe and shared by all callers.
+ */
+public class OrsJsonCodec {
+    // The fast double parser reads numbers straight from the token buffer instead of via a String
+    private final JsonFactory factory = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+
+    public interface RowConsumer {
+        void accept(int rowIndex, double[] distancesInMeters) throws ServiceClientException;
+    }
+
+    // Returns {latitude, longitude} of the first feature, or null if there is none or it is not numeric
+    public double[] readCoordinates(InputStream in) throws IOException {
+        try (JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT
+                    || !advanceToField(parser, "features") || parser.currentToken() != JsonToken.START_ARRAY
+                    || parser.nextToken() != JsonToken.START_OBJECT
+                    || !advanceToField(parser, "geometry") || parser.currentToken() != JsonToken.START_OBJECT
+                    || !advanceToField(parser, "coordinates") || parser.currentToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+            if (!parser.nextToken().isNumeric()) {
+                return null;
+            }
+            double longitude = parser.getDoubleValue();
+            if (!parser.nextToken().isNumeric()) {
+                return null;
+            }
+            double latitude = parser.getDoubleValue();
+            return new double[]{latitude, longitude};
+        }
+    }
+
+    // Returns distances[row][column] in meters, or -1 if it is missing or not numeric
+    public double readDistance(InputStream in, int row, int column) throws IOException {
+        try (JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT
+                    || !advanceToField(parser, "distances") || parser.currentToken() != JsonToken.START_ARRAY
+                    || !advanceToElement(parser, row) || parser.currentToken() != JsonToken.START_ARRAY
+                    || !advanceToElement(parser, column) || !parser.currentToken().isNumeric()) {
+                return -1;
+            }
+            return parser.getDoubleValue();
+        }
+    }
+
+    // Hands each row of the distance matrix to the consumer as soon as it is parsed, reusing one row buffer.
+    // Unreachable (null) cells are reported as NaN.
+    public void readDistanceMatrix(InputStream in, int rowCount, int columnCount, RowConsumer consumer) throws IOException, ServiceClientException {
+        try (JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT
+                    || !advanceToField(parser, "distances") || parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new ServiceClientException("Distance matrix has 0 rows, expected " + rowCount);
+            }
+            double[] row = new double[columnCount];
+            int rowIndex = 0;
+            while (parser.nextToken() == JsonToken.START_ARRAY) {
+                if (rowIndex >= rowCount) {
+                    throw new ServiceClientException("Distance matrix has more than " + rowCount + " rows");
+                }
+                int column = 0;
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (column >= columnCount) {
+                        throw new ServiceClientException("Distance matrix row " + rowIndex + " has more than " + columnCount + " columns");
+                    }
+                    row[column++] = token.isNumeric() ? parser.getDoubleValue() : Double.NaN;
+                }
+                if (column != columnCount) {
+                    throw new ServiceClientException("Distance matrix row " + rowIndex + " has " + column + " columns, expected " + columnCount);
+                }
+                consumer.accept(rowIndex++, row);
+            }
+            if (rowIndex != rowCount) {
+                throw new ServiceClientException("Distance matrix has " + rowIndex + " rows, expected " + rowCount);
+            }
+        }
+    }
+
+    // Full matrix between the two locations, the distance is at [0][1]
+    public byte[] writeRouteRequest(double[] startCoordinates, double[] endCoordinates) {
+        return writeRequest(new double[][]{startCoordinates, endCoordinates}, 0, 0);
+    }
+
+    public byte[] writeMatrixRequest(double[][] sources, double[][] destinations) {
+        double[][] locations = new double[sources.length + destinations.length][];
+        System.arraycopy(sources, 0, locations, 0, sources.length);
+        System.arraycopy(destinations, 0, locations, sources.length, destinations.length);
+        return writeRequest(locations, sources.length, destinations.length);
+    }
+
+    // Writing to memory cannot fail, so IOExceptions are not part of the signature
+    private byte[] writeRequest(double[][] locations, int sourceCount, int destinationCount) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + 48 * locations.length);
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("locations");
+            for (double[] location : locations) {
+                writeLocation(generator, location);
+            }
+            generator.writeEndArray();
+            if (sourceCount > 0) {
+                generator.writeArrayFieldStart("sources");
+                for (int i = 0; i < sourceCount; i++) {
+                    generator.writeNumber(i);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("destinations");
+                for (int j = 0; j < destinationCount; j++) {
+                    generator.writeNumber(sourceCount + j);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeArrayFieldStart("metrics");
+            generator.writeString("distance");
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // ORS expects [longitude, latitude]
+    private static void writeLocation(JsonGenerator generator, double[] coordinates) throws IOException {
+        generator.writeStartArray();
+        generator.writeNumber(coordinates[1]);
+        generator.writeNumber(coordinates[0]);
+        generator.writeEndArray();
+    }
+
+    // Moves to the value of the named field in the current object, skipping every other value
+    private static boolean advanceToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean matches = name.equals(parser.currentName());
+            parser.nextToken();
+            if (matches) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // Moves to the element at the given index of the current array
+    private static boolean advanceToElement(JsonParser parser, int index) throws IOException {
+        for (int i = 0; ; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (i == index) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+    }
+}
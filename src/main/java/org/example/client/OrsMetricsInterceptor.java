@@ -0,0 +1,33 @@
+package org.example.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.example.metrics.PipelineMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+// Counts failed ORS calls by HTTP status without touching the client, install with addInterceptor
+public class OrsMetricsInterceptor implements Interceptor {
+    private final PipelineMetrics metrics;
+
+    public OrsMetricsInterceptor(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            metrics.orsError("io");
+            throw e;
+        }
+        if (!response.isSuccessful()) {
+            metrics.orsError(Integer.toString(response.code()));
+        }
+        return response;
+    }
+}
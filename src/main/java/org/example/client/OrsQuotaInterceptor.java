@@ -0,0 +1,68 @@
+package org.example.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.example.client.ApiKeyPool.Endpoint;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Feeds the quota headers of every ORS response back into the key pool: once x-ratelimit-remaining
+ * reaches 0 the key sits out on that endpoint until x-ratelimit-reset, and a key ORS answers 401 or
+ * 403 for sits out on both endpoints until a later probe request is accepted.
+ */
+public class OrsQuotaInterceptor implements Interceptor {
+    static final String REMAINING = "x-ratelimit-remaining";
+    static final String RESET = "x-ratelimit-reset";
+    // x-ratelimit-reset below this is read as seconds from now, otherwise as epoch seconds
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+
+    private final ApiKeyPool pool;
+
+    public OrsQuotaInterceptor(ApiKeyPool pool) {
+        this.pool = pool;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        PooledApiKey key = pool.find(apiKeyOf(request));
+        if (key == null) {
+            return response;
+        }
+        if (response.code() == 401 || response.code() == 403) {
+            key.recordRejected();
+            return response;
+        }
+        key.recordAccepted();
+        String remaining = response.header(REMAINING);
+        String reset = response.header(RESET);
+        if (remaining == null || reset == null) {
+            return response;
+        }
+        try {
+            if (Long.parseLong(remaining.trim()) <= 0) {
+                long resetSeconds = Long.parseLong(reset.trim());
+                long secondsUntilReset = resetSeconds < EPOCH_SECONDS_THRESHOLD
+                        ? resetSeconds
+                        : resetSeconds - System.currentTimeMillis() / 1000;
+                Endpoint endpoint = request.url().encodedPath().contains("/geocode/") ? Endpoint.GEOCODE : Endpoint.MATRIX;
+                key.bucket(endpoint).pauseUntil(System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(0, secondsUntilReset)));
+            }
+        } catch (NumberFormatException e) {
+            // unknown header format, leave pacing to the configured rate
+        }
+        return response;
+    }
+
+    // OpenRouteServiceClient sends the key as api_key parameter (geocode) or Authorization header (matrix)
+    private static String apiKeyOf(Request request) {
+        String apiKey = request.url().queryParameter("api_key");
+        return apiKey != null ? apiKey : request.header("Authorization");
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.store.MappedGeocodeStore;
+import org.example.utils.CityNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+public class PersistentGeocodeServiceClient implements ServiceClient {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentGeocodeServiceClient.class);
+    private final ServiceClient delegate;
+    private final MappedGeocodeStore store;
+
+    public PersistentGeocodeServiceClient(ServiceClient delegate, MappedGeocodeStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        String key = CityNames.normalize(city);
+        try {
+            double[] stored = store.get(key);
+            if (stored != null) {
+                return stored;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read geocode store, falling back to the service: {}", e.getMessage());
+        }
+        double[] coordinates = delegate.getCoordinates(city);
+        try {
+            store.put(key, coordinates);
+        } catch (IOException e) {
+            logger.warn("Could not persist coordinates of city {}: {}", city, e.getMessage());
+        }
+        return coordinates;
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return delegate.getDistance(startCoordinates, endCoordinates);
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return delegate.getDistanceMatrix(sources, destinations);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.client;
+
+import org.example.ratelimit.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// One ORS API key of an ApiKeyPool with its own quota buckets and health
+public class PooledApiKey {
+    private static final Logger logger = LoggerFactory.getLogger(PooledApiKey.class);
+    private static final Duration DEFAULT_REJECTION_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_REJECTION_BACKOFF = Duration.ofMinutes(30);
+
+    private final String apiKey;
+    private final TokenBucket geocodeBucket;
+    private final TokenBucket matrixBucket;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final long rejectionBackoffNanos;
+    private volatile boolean rejected;
+    private int consecutiveRejections;
+
+    public PooledApiKey(String apiKey, TokenBucket geocodeBucket, TokenBucket matrixBucket) {
+        this(apiKey, geocodeBucket, matrixBucket, DEFAULT_REJECTION_BACKOFF);
+    }
+
+    PooledApiKey(String apiKey, TokenBucket geocodeBucket, TokenBucket matrixBucket, Duration rejectionBackoff) {
+        this.apiKey = apiKey;
+        this.geocodeBucket = geocodeBucket;
+        this.matrixBucket = matrixBucket;
+        this.rejectionBackoffNanos = rejectionBackoff.toNanos();
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    // Safe to log or export: only the last four characters of the key
+    public String getLabel() {
+        return "..." + apiKey.substring(Math.max(0, apiKey.length() - 4));
+    }
+
+    public TokenBucket bucket(ApiKeyPool.Endpoint endpoint) {
+        return endpoint == ApiKeyPool.Endpoint.GEOCODE ? geocodeBucket : matrixBucket;
+    }
+
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    // Keeps the key off the endpoint until ORS lets it back in
+    public void recordThrottled(ApiKeyPool.Endpoint endpoint, long retryAtNanos) {
+        throttled.increment();
+        bucket(endpoint).pauseUntil(retryAtNanos);
+    }
+
+    /*
+     * ORS rejected the key itself (401/403): it sits out on both endpoints, and the first request after the
+     * pause probes whether ORS takes it again. Every rejected probe doubles the pause, up to 30 minutes.
+     */
+    public synchronized void recordRejected() {
+        long backoff = Math.min(MAX_REJECTION_BACKOFF.toNanos(), rejectionBackoffNanos << Math.min(consecutiveRejections, 16));
+        consecutiveRejections++;
+        rejected = true;
+        long retryAt = System.nanoTime() + backoff;
+        geocodeBucket.pauseUntil(retryAt);
+        matrixBucket.pauseUntil(retryAt);
+        logger.warn("ORS rejected API key {}, trying it again in {}", getLabel(), Duration.ofNanos(backoff));
+    }
+
+    // ORS answered a request sent with the key without rejecting it
+    public void recordAccepted() {
+        if (rejected) {
+            synchronized (this) {
+                if (rejected) {
+                    rejected = false;
+                    consecutiveRejections = 0;
+                    logger.info("ORS accepts API key {} again", getLabel());
+                }
+            }
+        }
+    }
+
+    // true from a 401/403 until ORS accepts the key again
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.client;
+
+import org.example.client.ApiKeyPool.Endpoint;
+import org.example.context.RequestContext;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.ServiceClientException;
+import org.example.ratelimit.AimdLimit;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * Keeps calls within the ORS quotas instead of letting them fail: each call takes a token for its
+ * endpoint from one key of the pool and a permit from an adaptive concurrency limit, then runs on that
+ * key's client. A 429 sidelines the key for Retry-After, halves the limit and the call is queued again,
+ * on another key if one has quota left. A rejected key is dropped and the call moves on as well.
+ * Only when no key can take the call within maxWait does the caller get the RateLimitExceededException.
+ * The wait is also bounded by the deadline of the current RequestContext.
+ */
+public class RateLimitedServiceClient implements ServiceClient {
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ApiKeyPool pool;
+    private final Map<PooledApiKey, ServiceClient> clients = new IdentityHashMap<>();
+    private final AimdLimit concurrencyLimit;
+    private final long maxWaitNanos;
+
+    // clientFactory creates the client that sends requests with the given API key
+    public RateLimitedServiceClient(ApiKeyPool pool, Function<String, ServiceClient> clientFactory,
+                                    AimdLimit concurrencyLimit, Duration maxWait) {
+        this.pool = pool;
+        for (PooledApiKey key : pool.getKeys()) {
+            clients.put(key, clientFactory.apply(key.getApiKey()));
+        }
+        this.concurrencyLimit = concurrencyLimit;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return call(Endpoint.GEOCODE, client -> client.getCoordinates(city));
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return call(Endpoint.MATRIX, client -> client.getDistance(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return call(Endpoint.MATRIX, client -> client.getDistanceMatrix(sources, destinations));
+    }
+
+    private <T> T call(Endpoint endpoint, Call<T> call) throws ServiceClientException {
+        long deadline = System.nanoTime() + Math.min(maxWaitNanos, contextRemainingNanos());
+        try {
+            while (true) {
+                ApiKeyPool.Reservation reservation = pool.reserve(endpoint, deadline - System.nanoTime());
+                if (reservation == null) {
+                    RequestContext.checkCurrent();
+                    if (!pool.hasUsableKeys()) {
+                        throw new ServiceClientException("ORS rejected every configured API key");
+                    }
+                    throw new RateLimitExceededException("ORS quota does not allow another request within " + Duration.ofNanos(maxWaitNanos), null);
+                }
+                RequestContext.sleep(reservation.waitNanos());
+                if (!concurrencyLimit.acquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    RequestContext.checkCurrent();
+                    throw new RateLimitExceededException("Timed out waiting for a free ORS request slot", null);
+                }
+                PooledApiKey key = reservation.key();
+                boolean overloaded = false;
+                try {
+                    key.recordRequest();
+                    return call.run(clients.get(key));
+                } catch (RateLimitExceededException e) {
+                    overloaded = true;
+                    Duration retryAfter = e.getRetryAfter() != null ? e.getRetryAfter() : DEFAULT_RETRY_AFTER;
+                    key.recordThrottled(endpoint, System.nanoTime() + retryAfter.toNanos());
+                } catch (ServiceClientException e) {
+                    if (!key.isRejected()) {
+                        throw e;
+                    }
+                } finally {
+                    concurrencyLimit.release(overloaded);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceClientException("Interrupted while waiting for the ORS rate limit");
+        }
+    }
+
+    private static long contextRemainingNanos() {
+        RequestContext context = RequestContext.current();
+        return context == null ? Long.MAX_VALUE : context.getDeadline().remainingNanos();
+    }
+
+    private interface Call<T> {
+        T run(ServiceClient client) throws ServiceClientException;
+    }
+}
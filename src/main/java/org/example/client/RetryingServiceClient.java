@@ -0,0 +1,85 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.RetryBudget;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Retries calls that failed with a TransientServiceException after a jittered exponential backoff,
+ * as long as the shared RetryBudget allows. Every call made through here is a deposit into that budget,
+ * so it should wrap every other layer that draws on the budget (HedgingServiceClient).
+ */
+public class RetryingServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final RetryBudget budget;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+
+    public RetryingServiceClient(ServiceClient delegate, RetryBudget budget, int maxAttempts, Duration baseBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed: " + maxAttempts);
+        }
+        this.delegate = delegate;
+        this.budget = budget;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return call(() -> delegate.getCoordinates(city));
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        return call(() -> delegate.getDistance(startCoordinates, endCoordinates));
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        return call(() -> delegate.getDistanceMatrix(sources, destinations));
+    }
+
+    private <T> T call(Call<T> call) throws ServiceClientException {
+        budget.recordRequest();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.run();
+            } catch (TransientServiceException e) {
+                long backoff = backoffNanos(attempt);
+                // no point in a retry that could not finish before the deadline
+                RequestContext context = RequestContext.current();
+                if (context != null && context.getDeadline().remainingNanos() <= backoff) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts || !budget.tryWithdraw()) {
+                    throw e;
+                }
+                try {
+                    RequestContext.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    long backoffNanos(int attempt) {
+        return fullJitterNanos(baseBackoffNanos, attempt);
+    }
+
+    // "Full jitter": uniform between 0 and base * 2^(attempt - 1), so retries of many callers spread out
+    static long fullJitterNanos(long baseBackoffNanos, int attempt) {
+        long ceiling = baseBackoffNanos << Math.min(attempt - 1, 16);
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private interface Call<T> {
+        T run() throws ServiceClientException;
+    }
+}
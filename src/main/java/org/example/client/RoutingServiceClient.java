@@ -0,0 +1,40 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.routing.RoutingEngine;
+
+// Routes distances over a local road graph instead of asking ORS. Geocoding, and trips the graph does not
+// cover (an end too far from any road in it, or no route), are left to the delegate.
+public class RoutingServiceClient implements ServiceClient {
+    private final ServiceClient delegate;
+    private final RoutingEngine engine;
+
+    public RoutingServiceClient(ServiceClient delegate, RoutingEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public double[] getCoordinates(String city) throws ServiceClientException {
+        return delegate.getCoordinates(city);
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException {
+        double distance = engine.distanceKm(startCoordinates, endCoordinates);
+        return Double.isNaN(distance) ? delegate.getDistance(startCoordinates, endCoordinates) : distance;
+    }
+
+    @Override
+    public double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        double[][] distances = engine.distanceMatrixKm(sources, destinations);
+        for (double[] row : distances) {
+            for (double distance : row) {
+                if (Double.isNaN(distance)) {
+                    return delegate.getDistanceMatrix(sources, destinations);
+                }
+            }
+        }
+        return distances;
+    }
+}
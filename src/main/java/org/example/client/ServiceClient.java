@@ -6,4 +6,17 @@ public interface ServiceClient {
 
     double[] getCoordinates(String city) throws ServiceClientException;
     double getDistance(double[] startCoordinates, double[] endCoordinates) throws ServiceClientException;
+
+    // Distances in km from every source to every destination, result[i][j] = sources[i] -> destinations[j].
+    // Implementations backed by a matrix capable service should answer it with as few requests as the service allows.
+    // Like getDistance, the call fails when there is no route for one of the pairs.
+    default double[][] getDistanceMatrix(double[][] sources, double[][] destinations) throws ServiceClientException {
+        double[][] distances = new double[sources.length][destinations.length];
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                distances[i][j] = getDistance(sources[i], destinations[j]);
+            }
+        }
+        return distances;
+    }
 }
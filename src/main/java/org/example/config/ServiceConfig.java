@@ -0,0 +1,265 @@
+package org.example.config;
+
+import org.example.client.OpenRouteServiceClient;
+import org.example.geo.DetourFactors;
+import org.example.geo.DistanceProvider;
+import org.example.service.ExecutorStrategy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+public class ServiceConfig {
+    public static final String ENV_BASE_URL = "ORS_BASE_URL";
+    public static final String ENV_GEOCODE_CACHE_SIZE = "ORS_GEOCODE_CACHE_SIZE";
+    public static final String ENV_GEOCODE_CACHE_TTL_SECONDS = "ORS_GEOCODE_CACHE_TTL_SECONDS";
+    public static final String ENV_GEOCODE_STORE = "ORS_GEOCODE_STORE";
+    public static final String ENV_GAZETTEER = "CO2_GAZETTEER";
+    public static final String GAZETTEER_BUNDLED = "bundled";
+    public static final String ENV_NEGATIVE_CACHE_SIZE = "ORS_NEGATIVE_CACHE_SIZE";
+    public static final String ENV_NEGATIVE_CACHE_TTL_SECONDS = "ORS_NEGATIVE_CACHE_TTL_SECONDS";
+    public static final String ENV_ASYNC_CLIENT = "ORS_ASYNC_CLIENT";
+    public static final String ENV_MAX_CONCURRENT_REQUESTS = "ORS_MAX_CONCURRENT_REQUESTS";
+    public static final String ENV_MATRIX_MAX_ROUTES = "ORS_MATRIX_MAX_ROUTES";
+    public static final String ENV_EXECUTOR = "CO2_EXECUTOR";
+    public static final String ENV_COALESCE_REQUESTS = "ORS_COALESCE_REQUESTS";
+    public static final String ENV_DISTANCE_CACHE_SIZE = "ORS_DISTANCE_CACHE_SIZE";
+    public static final String ENV_DISTANCE_CACHE_TTL_SECONDS = "ORS_DISTANCE_CACHE_TTL_SECONDS";
+    public static final String ENV_DISTANCE_CACHE_SYMMETRIC = "ORS_DISTANCE_CACHE_SYMMETRIC";
+    public static final String ENV_RATE_LIMIT = "ORS_RATE_LIMIT";
+    public static final String ENV_GEOCODE_REQUESTS_PER_MINUTE = "ORS_GEOCODE_REQUESTS_PER_MINUTE";
+    public static final String ENV_MATRIX_REQUESTS_PER_MINUTE = "ORS_MATRIX_REQUESTS_PER_MINUTE";
+    public static final String ENV_RATE_LIMIT_MAX_WAIT_SECONDS = "ORS_RATE_LIMIT_MAX_WAIT_SECONDS";
+    public static final String ENV_HEDGE_REQUESTS = "ORS_HEDGE_REQUESTS";
+    public static final String ENV_HEDGE_MIN_DELAY_MS = "ORS_HEDGE_MIN_DELAY_MS";
+    public static final String ENV_HEDGE_MAX_DELAY_MS = "ORS_HEDGE_MAX_DELAY_MS";
+    public static final String ENV_RETRY_MAX_ATTEMPTS = "ORS_RETRY_MAX_ATTEMPTS";
+    public static final String ENV_RETRY_BACKOFF_MS = "ORS_RETRY_BACKOFF_MS";
+    public static final String ENV_RETRY_BUDGET_PERCENT = "ORS_RETRY_BUDGET_PERCENT";
+    public static final String ENV_CIRCUIT_BREAKER = "ORS_CIRCUIT_BREAKER";
+    public static final String ENV_DISTANCE_PROVIDER = "CO2_DISTANCE_PROVIDER";
+    public static final String ENV_DISTANCE_FALLBACK_AFTER_MS = "CO2_DISTANCE_FALLBACK_AFTER_MS";
+    public static final String ENV_DETOUR_FACTORS = "CO2_DETOUR_FACTORS";
+    public static final String ENV_ROAD_GRAPH = "CO2_ROAD_GRAPH";
+    public static final String ENV_ROAD_GRAPH_MAX_SNAP_METRES = "CO2_ROAD_GRAPH_MAX_SNAP_METRES";
+    public static final String ENV_CIRCUIT_FAILURE_THRESHOLD = "ORS_CIRCUIT_FAILURE_THRESHOLD";
+    public static final String ENV_CIRCUIT_OPEN_SECONDS = "ORS_CIRCUIT_OPEN_SECONDS";
+    public static final String ENV_STALE_CACHE_TTL_SECONDS = "ORS_STALE_CACHE_TTL_SECONDS";
+
+    private static final int DEFAULT_GEOCODE_CACHE_SIZE = 1024;
+    private static final long DEFAULT_GEOCODE_CACHE_TTL_SECONDS = 24 * 60 * 60;
+    private static final int DEFAULT_NEGATIVE_CACHE_SIZE = 1024;
+    private static final long DEFAULT_NEGATIVE_CACHE_TTL_SECONDS = 60 * 60;
+    private static final int DEFAULT_DISTANCE_CACHE_SIZE = 4096;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+    private static final long DEFAULT_DISTANCE_CACHE_TTL_SECONDS = 24 * 60 * 60;
+    // quotas of the ORS free plan
+    private static final int DEFAULT_GEOCODE_REQUESTS_PER_MINUTE = 100;
+    private static final int DEFAULT_MATRIX_REQUESTS_PER_MINUTE = 40;
+    private static final long DEFAULT_RATE_LIMIT_MAX_WAIT_SECONDS = 60;
+    private static final long DEFAULT_HEDGE_MIN_DELAY_MS = 50;
+    private static final long DEFAULT_HEDGE_MAX_DELAY_MS = 2000;
+    private static final int DEFAULT_RETRY_MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 100;
+    private static final int DEFAULT_RETRY_BUDGET_PERCENT = 10;
+    private static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_DISTANCE_FALLBACK_AFTER_MS = 3000;
+    private static final long DEFAULT_ROAD_GRAPH_MAX_SNAP_METRES = 5000;
+    private static final long DEFAULT_CIRCUIT_OPEN_SECONDS = 30;
+    private static final long DEFAULT_STALE_CACHE_TTL_SECONDS = 7 * 24 * 60 * 60;
+
+    private final Map<String, String> env;
+
+    public ServiceConfig(Map<String, String> env) {
+        this.env = env;
+    }
+
+    public static ServiceConfig fromEnvironment() {
+        return new ServiceConfig(System.getenv());
+    }
+
+    public String getBaseUrl() {
+        String value = env.get(ENV_BASE_URL);
+        return value == null || value.isBlank() ? OpenRouteServiceClient.DEFAULT_BASE_URL : value.trim();
+    }
+
+    // 0 disables the in-memory geocode cache
+    public int getGeocodeCacheSize() {
+        return (int) getLong(ENV_GEOCODE_CACHE_SIZE, DEFAULT_GEOCODE_CACHE_SIZE);
+    }
+
+    public Duration getGeocodeCacheTtl() {
+        return Duration.ofSeconds(getLong(ENV_GEOCODE_CACHE_TTL_SECONDS, DEFAULT_GEOCODE_CACHE_TTL_SECONDS));
+    }
+
+    // Cities ORS could not resolve, remembered so that repeated lookups fail without a request
+    public int getNegativeCacheSize() {
+        return (int) getLong(ENV_NEGATIVE_CACHE_SIZE, DEFAULT_NEGATIVE_CACHE_SIZE);
+    }
+
+    public Duration getNegativeCacheTtl() {
+        return Duration.ofSeconds(getLong(ENV_NEGATIVE_CACHE_TTL_SECONDS, DEFAULT_NEGATIVE_CACHE_TTL_SECONDS));
+    }
+
+    // File backing the persistent geocode store, null when the store is disabled
+    public Path getGeocodeStorePath() {
+        String value = env.get(ENV_GEOCODE_STORE);
+        return value == null || value.isBlank() ? null : Path.of(value.trim());
+    }
+
+    // "bundled", or the path of a gazetteer dump or prebuilt index; null when offline geocoding is disabled
+    public String getGazetteer() {
+        String value = env.get(ENV_GAZETTEER);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // 0 disables the route distance cache
+    public int getDistanceCacheSize() {
+        return (int) getLong(ENV_DISTANCE_CACHE_SIZE, DEFAULT_DISTANCE_CACHE_SIZE);
+    }
+
+    public Duration getDistanceCacheTtl() {
+        return Duration.ofSeconds(getLong(ENV_DISTANCE_CACHE_TTL_SECONDS, DEFAULT_DISTANCE_CACHE_TTL_SECONDS));
+    }
+
+    // Whether a cached A->B distance may answer B->A
+    public boolean isDistanceCacheSymmetric() {
+        return getBoolean(ENV_DISTANCE_CACHE_SYMMETRIC, false);
+    }
+
+    // Use the callback based client and pipeline instead of blocking worker threads
+    public boolean isAsyncClient() {
+        return getBoolean(ENV_ASYNC_CLIENT, false);
+    }
+
+    // Upper bound of HTTP requests OkHttp runs at once against ORS
+    public int getMaxConcurrentRequests() {
+        return (int) getLong(ENV_MAX_CONCURRENT_REQUESTS, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    // Source/destination pairs per ORS matrix request, larger matrices are split
+    public int getMatrixMaxRoutes() {
+        return (int) getLong(ENV_MATRIX_MAX_ROUTES, OpenRouteServiceClient.DEFAULT_MAX_MATRIX_ROUTES);
+    }
+
+    // Share one in-flight ORS request between concurrent identical lookups
+    public boolean isCoalesceRequests() {
+        return getBoolean(ENV_COALESCE_REQUESTS, true);
+    }
+
+    // Pace ORS requests to the quotas below and queue them on 429 instead of failing
+    public boolean isRateLimit() {
+        return getBoolean(ENV_RATE_LIMIT, true);
+    }
+
+    public int getGeocodeRequestsPerMinute() {
+        return (int) getLong(ENV_GEOCODE_REQUESTS_PER_MINUTE, DEFAULT_GEOCODE_REQUESTS_PER_MINUTE);
+    }
+
+    public int getMatrixRequestsPerMinute() {
+        return (int) getLong(ENV_MATRIX_REQUESTS_PER_MINUTE, DEFAULT_MATRIX_REQUESTS_PER_MINUTE);
+    }
+
+    // Longest a request waits for quota before it fails
+    public Duration getRateLimitMaxWait() {
+        return Duration.ofSeconds(getLong(ENV_RATE_LIMIT_MAX_WAIT_SECONDS, DEFAULT_RATE_LIMIT_MAX_WAIT_SECONDS));
+    }
+
+    // Send a second request when ORS is slower than its usual 95th percentile
+    public boolean isHedgeRequests() {
+        return getBoolean(ENV_HEDGE_REQUESTS, true);
+    }
+
+    // Bounds of the hedge delay; the upper one also applies until enough latencies were observed
+    public Duration getHedgeMinDelay() {
+        return Duration.ofMillis(getLong(ENV_HEDGE_MIN_DELAY_MS, DEFAULT_HEDGE_MIN_DELAY_MS));
+    }
+
+    public Duration getHedgeMaxDelay() {
+        return Duration.ofMillis(getLong(ENV_HEDGE_MAX_DELAY_MS, DEFAULT_HEDGE_MAX_DELAY_MS));
+    }
+
+    // Attempts per ORS call on network errors, timeouts and 5xx answers; 1 disables retries
+    public int getRetryMaxAttempts() {
+        return (int) getLong(ENV_RETRY_MAX_ATTEMPTS, DEFAULT_RETRY_MAX_ATTEMPTS);
+    }
+
+    public Duration getRetryBackoff() {
+        return Duration.ofMillis(getLong(ENV_RETRY_BACKOFF_MS, DEFAULT_RETRY_BACKOFF_MS));
+    }
+
+    // Retries and hedges together, as a share of regular ORS calls
+    public double getRetryBudgetRatio() {
+        return getLong(ENV_RETRY_BUDGET_PERCENT, DEFAULT_RETRY_BUDGET_PERCENT) / 100.0;
+    }
+
+    // Fail fast while ORS is down and answer from stale cache entries where possible
+    public boolean isCircuitBreaker() {
+        return getBoolean(ENV_CIRCUIT_BREAKER, true);
+    }
+
+    // Consecutive failed ORS requests that open the circuit
+    public int getCircuitFailureThreshold() {
+        return (int) getLong(ENV_CIRCUIT_FAILURE_THRESHOLD, DEFAULT_CIRCUIT_FAILURE_THRESHOLD);
+    }
+
+    // How long the circuit stays open before a trial request is let through
+    public Duration getCircuitOpenDuration() {
+        return Duration.ofSeconds(getLong(ENV_CIRCUIT_OPEN_SECONDS, DEFAULT_CIRCUIT_OPEN_SECONDS));
+    }
+
+    // How long past their TTL cache entries are kept as fallback while the circuit is open
+    public Duration getStaleCacheTtl() {
+        return Duration.ofSeconds(getLong(ENV_STALE_CACHE_TTL_SECONDS, DEFAULT_STALE_CACHE_TTL_SECONDS));
+    }
+
+    public DistanceProvider getDistanceProvider() {
+        String value = env.get(ENV_DISTANCE_PROVIDER);
+        return value == null || value.isBlank() ? DistanceProvider.ORS : DistanceProvider.fromName(value);
+    }
+
+    // How long ORS may take for a distance before the estimate is used instead (with ors-with-fallback)
+    public Duration getDistanceFallbackAfter() {
+        return Duration.ofMillis(getLong(ENV_DISTANCE_FALLBACK_AFTER_MS, DEFAULT_DISTANCE_FALLBACK_AFTER_MS));
+    }
+
+    public DetourFactors getDetourFactors() {
+        return DetourFactors.parse(env.get(ENV_DETOUR_FACTORS));
+    }
+
+    // Road graph for the road-graph distance provider, in the text or binary format of RoadGraph
+    public String getRoadGraph() {
+        String value = env.get(ENV_ROAD_GRAPH);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // How far a trip's end may be from the nearest node of the road graph before ORS routes it instead
+    public double getRoadGraphMaxSnapKm() {
+        return getLong(ENV_ROAD_GRAPH_MAX_SNAP_METRES, DEFAULT_ROAD_GRAPH_MAX_SNAP_METRES) / 1000.0;
+    }
+
+    public ExecutorStrategy getExecutorStrategy() {
+        String value = env.get(ENV_EXECUTOR);
+        return value == null || value.isBlank() ? ExecutorStrategy.COMMON_POOL : ExecutorStrategy.fromName(value);
+    }
+
+    private boolean getBoolean(String name, boolean defaultValue) {
+        String value = env.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    private long getLong(String name, long defaultValue) {
+        String value = env.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+    }
+}
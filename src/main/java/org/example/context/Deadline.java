@@ -0,0 +1,52 @@
+package org.example.context;
+
+import java.time.Duration;
+
+// Point in System.nanoTime() time by which a request has to be answered
+public final class Deadline {
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    // Long.MAX_VALUE without a deadline, 0 or less once it has passed
+    public long remainingNanos() {
+        return bounded ? expiresAtNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return bounded && remainingNanos() <= 0;
+    }
+
+    public Deadline earliest(Deadline other) {
+        if (!other.bounded) {
+            return this;
+        }
+        if (!bounded) {
+            return other;
+        }
+        return expiresAtNanos - other.expiresAtNanos <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline in " + Duration.ofNanos(remainingNanos()).toMillis() + "ms" : "No deadline";
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.context;
+
+import org.example.exception.RequestCancelledException;
+import org.example.geo.DetourFactors;
+import org.example.model.TransportationMethod;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * Deadline and cancellation of one unit of work, e.g. a trip calculation, shared by every layer and
+ * thread working on it. The context is bound to the calling thread with attach() and carried to worker
+ * threads with wrap(); the ORS client takes its HTTP timeouts from the deadline and registers its calls
+ * with onCancel(), so cancel() releases threads and connections at once. A context forked from another
+ * one is cancelled together with its parent and never outlives the parent's deadline.
+ * A result built from stale cached data is flagged with markStale(), an estimated distance with markEstimated(),
+ * which also records the detour factors applied; both reach every ancestor. The trip's transportation method, when known, is inherited by forked contexts.
+ */
+public final class RequestContext implements AutoCloseable {
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private final RequestContext parent;
+    private final Deadline deadline;
+    private final Set<Runnable> cancelHooks = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final Registration parentRegistration;
+    private volatile String cancelReason;
+    private volatile boolean stale;
+    private volatile boolean estimated;
+    private volatile DetourFactors detourFactors;
+    private volatile TransportationMethod transportationMethod;
+
+    private RequestContext(RequestContext parent, Deadline deadline) {
+        this.parent = parent;
+        this.deadline = parent == null ? deadline : parent.deadline.earliest(deadline);
+        this.parentRegistration = parent == null ? () -> { } : parent.onCancel(() -> cancel(parent.cancelReason));
+    }
+
+    // A new context, child of the one attached to the calling thread if there is one; not attached yet
+    public static RequestContext fork(Deadline deadline) {
+        return new RequestContext(CURRENT.get(), deadline);
+    }
+
+    public static RequestContext fork() {
+        return fork(Deadline.none());
+    }
+
+    // null when the calling thread works outside of any context
+    public static RequestContext current() {
+        return CURRENT.get();
+    }
+
+    // Throws when the current context was cancelled or its deadline has passed
+    public static void checkCurrent() throws RequestCancelledException {
+        RequestContext context = CURRENT.get();
+        if (context != null) {
+            context.check();
+        }
+    }
+
+    // Runs the hook when the current context is cancelled; a no-op outside of any context
+    public static Registration onCurrentCancel(Runnable hook) {
+        RequestContext context = CURRENT.get();
+        return context == null ? () -> { } : context.onCancel(hook);
+    }
+
+    // Sleeps like Thread.sleep, but wakes up as soon as the current context is cancelled
+    public static void sleep(long nanos) throws InterruptedException, RequestCancelledException {
+        RequestContext context = CURRENT.get();
+        if (context == null) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return;
+        }
+        context.cancelled.await(Math.min(nanos, context.deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        context.check();
+    }
+
+    // Flags the current context, if any, as answered from stale data
+    public static void markCurrentStale() {
+        RequestContext context = CURRENT.get();
+        if (context != null) {
+            context.markStale();
+        }
+    }
+
+    public void markStale() {
+        for (RequestContext context = this; context != null; context = context.parent) {
+            context.stale = true;
+        }
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public static void markCurrentEstimated(DetourFactors detourFactors) {
+        RequestContext context = CURRENT.get();
+        if (context != null) {
+            context.markEstimated(detourFactors);
+        }
+    }
+
+    // detourFactors are the ones the estimate applied, so callers can rescale it for another transportation method
+    public void markEstimated(DetourFactors detourFactors) {
+        for (RequestContext context = this; context != null; context = context.parent) {
+            context.detourFactors = detourFactors;
+            context.estimated = true;
+        }
+    }
+
+    public boolean isEstimated() {
+        return estimated;
+    }
+
+    // null unless a distance of this context was estimated
+    public DetourFactors getDetourFactors() {
+        return detourFactors;
+    }
+
+    // Transportation method of the current trip, null outside of any context or when it is unknown
+    public static TransportationMethod currentTransportationMethod() {
+        RequestContext context = CURRENT.get();
+        return context == null ? null : context.getTransportationMethod();
+    }
+
+    public TransportationMethod getTransportationMethod() {
+        for (RequestContext context = this; context != null; context = context.parent) {
+            if (context.transportationMethod != null) {
+                return context.transportationMethod;
+            }
+        }
+        return null;
+    }
+
+    public void setTransportationMethod(TransportationMethod transportationMethod) {
+        this.transportationMethod = transportationMethod;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    public void check() throws RequestCancelledException {
+        if (cancelReason != null) {
+            throw new RequestCancelledException(cancelReason);
+        }
+        if (deadline.isExpired()) {
+            throw new RequestCancelledException("Deadline exceeded");
+        }
+    }
+
+    // Runs every registered hook once; later calls are no-ops
+    public void cancel(String reason) {
+        synchronized (this) {
+            if (cancelReason != null) {
+                return;
+            }
+            cancelReason = reason == null ? "Cancelled" : reason;
+        }
+        cancelled.countDown();
+        // whoever removes a hook runs it, so a hook registered concurrently by onCancel runs exactly once
+        for (Runnable hook : cancelHooks) {
+            if (cancelHooks.remove(hook)) {
+                hook.run();
+            }
+        }
+    }
+
+    // The hook runs right away when the context is already cancelled
+    public Registration onCancel(Runnable hook) {
+        cancelHooks.add(hook);
+        if (cancelReason != null && cancelHooks.remove(hook)) {
+            hook.run();
+        }
+        return () -> cancelHooks.remove(hook);
+    }
+
+    // Binds the context to the calling thread until the returned scope is closed
+    public Scope attach() {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            try (Scope ignored = attach()) {
+                task.run();
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        return () -> {
+            try (Scope ignored = attach()) {
+                return task.get();
+            }
+        };
+    }
+
+    // Detaches from the parent; does not cancel anything still running
+    @Override
+    public void close() {
+        parentRegistration.close();
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -1,10 +1,15 @@
 package org.example.controller;
 
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
 import org.example.exception.CalculationException;
+import org.example.geo.DetourFactors;
 import org.example.model.TransportationMethod;
 import org.example.service.EmissionService;
 import org.example.utils.ArgumentParser;
 
+import java.util.EnumMap;
+
 public class Co2EmissionController implements EmissionController {
     private EmissionService emissionService;
 
@@ -14,6 +19,11 @@ public class Co2EmissionController implements EmissionController {
 
     @Override
     public double calculateEmission(String startCity, String endCity, String method) throws CalculationException {
+        return calculateEmission(startCity, endCity, method, Deadline.none());
+    }
+
+    @Override
+    public double calculateEmission(String startCity, String endCity, String method, Deadline deadline) throws CalculationException {
         // throws IllegalArgumentException if any of the inputs are missing
         validateInputs(startCity, endCity, method);
         // throws IllegalArgumentException if the transportation method is invalid
@@ -23,10 +33,52 @@ public class Co2EmissionController implements EmissionController {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Provided invalid transportation method: "+ method);
         }
-        return emissionService.calculateEmission(startCity, endCity, transportationMethod.getCo2EmissionPerKm());
+        // distance providers that depend on the transportation method read it from the context
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            context.setTransportationMethod(transportationMethod);
+            if (!deadline.isBounded()) {
+                return emissionService.calculateEmission(startCity, endCity, transportationMethod.getCo2EmissionPerKm());
+            }
+            return emissionService.calculateEmission(startCity, endCity, transportationMethod.getCo2EmissionPerKm(), deadline);
+        }
+    }
+
+    @Override
+    public EnumMap<TransportationMethod, Double> compareEmissions(String startCity, String endCity, Deadline deadline) throws CalculationException {
+        validateCities(startCity, endCity);
+        TransportationMethod[] methods = TransportationMethod.values();
+        double[] emissionsInGramsPerKm = new double[methods.length];
+        for (int k = 0; k < methods.length; k++) {
+            emissionsInGramsPerKm[k] = methods[k].getCo2EmissionPerKm();
+        }
+        double[] emissions;
+        try (RequestContext context = RequestContext.fork(deadline); RequestContext.Scope ignored = context.attach()) {
+            emissions = emissionService.calculateEmissions(startCity, endCity, emissionsInGramsPerKm);
+            // one estimate served every method with the same detour factor, emissions scale linearly with distance
+            DetourFactors detourFactors = context.getDetourFactors();
+            if (detourFactors != null) {
+                double appliedFactor = detourFactors.factorFor(context.getTransportationMethod());
+                for (int k = 0; k < methods.length; k++) {
+                    emissions[k] *= detourFactors.factorFor(methods[k]) / appliedFactor;
+                }
+            }
+        }
+        EnumMap<TransportationMethod, Double> emissionsByMethod = new EnumMap<>(TransportationMethod.class);
+        for (int k = 0; k < methods.length; k++) {
+            emissionsByMethod.put(methods[k], emissions[k]);
+        }
+        return emissionsByMethod;
     }
 
     private void validateInputs(String startCity, String endCity, String method) throws IllegalArgumentException{
+        validateCities(startCity, endCity);
+
+        if (method == null || method.isEmpty()) {
+            throw new IllegalArgumentException("Transportation method is missing");
+        }
+    }
+
+    private void validateCities(String startCity, String endCity) throws IllegalArgumentException {
         if (startCity == null || startCity.isEmpty()) {
             throw new IllegalArgumentException("Start city is missing");
         }
@@ -34,9 +86,5 @@ public class Co2EmissionController implements EmissionController {
         if (endCity == null || endCity.isEmpty()) {
             throw new IllegalArgumentException("End city is missing");
         }
-
-        if (method == null || method.isEmpty()) {
-            throw new IllegalArgumentException("Transportation method is missing");
-        }
     }
 }
@@ -1,11 +1,23 @@
 package org.example.controller;
 
+import org.example.context.Deadline;
 import org.example.exception.CalculationException;
 import org.example.model.TransportationMethod;
 import org.example.service.EmissionService;
 
+import java.util.EnumMap;
+
 public interface EmissionController {
     double calculateEmission(String startCity, String endCity, String transportationMethod) throws CalculationException;
 
+    double calculateEmission(String startCity, String endCity, String transportationMethod, Deadline deadline) throws CalculationException;
+
+    // Emissions in kg of the trip for every transportation method, from a single route lookup
+    EnumMap<TransportationMethod, Double> compareEmissions(String startCity, String endCity, Deadline deadline) throws CalculationException;
+
+    default EnumMap<TransportationMethod, Double> compareEmissions(String startCity, String endCity) throws CalculationException {
+        return compareEmissions(startCity, endCity, Deadline.none());
+    }
+
     void setEmissionService(EmissionService emissionService);
 }
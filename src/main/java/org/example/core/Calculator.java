@@ -2,4 +2,20 @@ package org.example.core;
 
 public interface Calculator {
     public double calculate(double distanceInKm, double emissionInGramsPerKm);
+
+    // Bulk form for batches: emissionsInKg[i] = calculate(distancesInKm[i], emissionsInGramsPerKm[i]).
+    // The output may be one of the input arrays.
+    default void calculate(double[] distancesInKm, double[] emissionsInGramsPerKm, double[] emissionsInKg) {
+        checkLengths(distancesInKm, emissionsInGramsPerKm, emissionsInKg);
+        for (int i = 0; i < distancesInKm.length; i++) {
+            emissionsInKg[i] = calculate(distancesInKm[i], emissionsInGramsPerKm[i]);
+        }
+    }
+
+    static void checkLengths(double[] distancesInKm, double[] emissionsInGramsPerKm, double[] emissionsInKg) {
+        if (emissionsInGramsPerKm.length != distancesInKm.length || emissionsInKg.length != distancesInKm.length) {
+            throw new IllegalArgumentException("Batch arrays differ in length: " + distancesInKm.length + " distances, "
+                    + emissionsInGramsPerKm.length + " emission factors, " + emissionsInKg.length + " results");
+        }
+    }
 }
@@ -1,8 +1,33 @@
 package org.example.core;
 
 public class Co2Calculator implements Calculator{
+    private final EmissionKernel kernel;
+
+    public Co2Calculator() {
+        this(EmissionKernel.best());
+    }
+
+    Co2Calculator(EmissionKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    // Bulk calculations without the Vector API, e.g. to compare against it
+    public static Co2Calculator scalar() {
+        return new Co2Calculator(ScalarEmissionKernel.INSTANCE);
+    }
+
+    public boolean isVectorized() {
+        return kernel != ScalarEmissionKernel.INSTANCE;
+    }
+
     @Override
     public double calculate(double distanceInKm, double emissionInGramsPerKm) {
         return (distanceInKm * emissionInGramsPerKm) / 1000; // Convert grams to kilograms
     }
+
+    @Override
+    public void calculate(double[] distancesInKm, double[] emissionsInGramsPerKm, double[] emissionsInKg) {
+        Calculator.checkLengths(distancesInKm, emissionsInGramsPerKm, emissionsInKg);
+        kernel.emissionsInKg(distancesInKm, emissionsInGramsPerKm, emissionsInKg, distancesInKm.length);
+    }
 }
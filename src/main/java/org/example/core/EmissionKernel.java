@@ -0,0 +1,20 @@
+package org.example.core;
+
+// emissionsInKg[i] = distancesInKm[i] * emissionsInGramsPerKm[i] / 1000 for the first length rows,
+// bit for bit what Co2Calculator.calculate returns for each row
+interface EmissionKernel {
+    void emissionsInKg(double[] distancesInKm, double[] emissionsInGramsPerKm, double[] emissionsInKg, int length);
+
+    // The Vector API kernel when the JVM runs with --add-modules jdk.incubator.vector, the scalar loop otherwise.
+    // The vector kernel is only loaded reflectively, so its classes never link without the module.
+    static EmissionKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (EmissionKernel) Class.forName("org.example.core.VectorEmissionKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // no usable vector support, e.g. a single lane
+            }
+        }
+        return ScalarEmissionKernel.INSTANCE;
+    }
+}
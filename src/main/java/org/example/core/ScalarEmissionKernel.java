@@ -0,0 +1,16 @@
+package org.example.core;
+
+// Plain loop; C2 unrolls it and may auto-vectorize it, but unlike the Vector API that is not guaranteed
+final class ScalarEmissionKernel implements EmissionKernel {
+    static final ScalarEmissionKernel INSTANCE = new ScalarEmissionKernel();
+
+    private ScalarEmissionKernel() {
+    }
+
+    @Override
+    public void emissionsInKg(double[] distancesInKm, double[] emissionsInGramsPerKm, double[] emissionsInKg, int length) {
+        for (int i = 0; i < length; i++) {
+            emissionsInKg[i] = (distancesInKm[i] * emissionsInGramsPerKm[i]) / 1000;
+        }
+    }
+}
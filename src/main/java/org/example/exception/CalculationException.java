@@ -4,4 +4,8 @@ public class CalculationException extends RuntimeException {
     public CalculationException(String message) {
         super(message);
     }
+
+    protected CalculationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class CalculationTimeoutException extends CalculationException {
+    public CalculationTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.exception;
+
+// ORS failed repeatedly, calls are rejected without being sent until the circuit breaker lets a probe through
+public class CircuitOpenException extends ServiceClientException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.exception;
+
+// ORS knows no place of that name. Expected on bad input, so it carries no stack trace and builds its message lazily;
+// one instance can be cached and thrown again for the same city
+public class CityNotFoundException extends ServiceClientException {
+    private final String city;
+
+    public CityNotFoundException(String city) {
+        super(null, false);
+        this.city = city;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Coordinates not found for city " + city;
+    }
+}
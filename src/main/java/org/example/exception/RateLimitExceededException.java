@@ -0,0 +1,18 @@
+package org.example.exception;
+
+import java.time.Duration;
+
+// ORS answered 429, or its quota cannot free up within the time a caller is willing to wait
+public class RateLimitExceededException extends ServiceClientException {
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    // null when ORS did not say
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
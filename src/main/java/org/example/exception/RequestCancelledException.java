@@ -0,0 +1,8 @@
+package org.example.exception;
+
+// The calculation an ORS call belonged to ran out of time or was given up; retrying it is pointless
+public class RequestCancelledException extends ServiceClientException {
+    public RequestCancelledException(String message) {
+        super(message);
+    }
+}
@@ -4,4 +4,9 @@ public class ServiceClientException extends Exception {
     public ServiceClientException(String message) {
         super(message);
     }
+
+    // For failures on expected paths, which are neither logged with a stack trace nor worth the cost of filling it
+    protected ServiceClientException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
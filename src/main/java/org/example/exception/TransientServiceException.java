@@ -0,0 +1,8 @@
+package org.example.exception;
+
+// ORS could not be reached, timed out or failed with a server error; the same request may succeed later
+public class TransientServiceException extends ServiceClientException {
+    public TransientServiceException(String message) {
+        super(message);
+    }
+}
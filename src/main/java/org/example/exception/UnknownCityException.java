@@ -0,0 +1,20 @@
+package org.example.exception;
+
+// Calculation counterpart of CityNotFoundException, stackless for the same reason
+public class UnknownCityException extends CalculationException {
+    private final String city;
+
+    public UnknownCityException(String city) {
+        super(null, false);
+        this.city = city;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Coordinates not found for city " + city;
+    }
+}
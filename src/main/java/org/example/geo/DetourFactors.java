@@ -0,0 +1,98 @@
+package org.example.geo;
+
+import org.example.model.TransportationMethod;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * How much longer the way over road or rail is than the great-circle distance, per transportation method.
+ * Defaults are typical circuity values for European networks; a specification like "car=1.25,train-default=1.15"
+ * overrides them, either for a single method or for the car, bus and train groups.
+ */
+public final class DetourFactors {
+    static final double DEFAULT_CAR = 1.3;
+    static final double DEFAULT_BUS = 1.4;
+    static final double DEFAULT_TRAIN = 1.25;
+
+    private final Map<TransportationMethod, Double> factors;
+
+    private DetourFactors(Map<TransportationMethod, Double> factors) {
+        this.factors = factors;
+    }
+
+    public static DetourFactors defaults() {
+        Map<TransportationMethod, Double> factors = new EnumMap<>(TransportationMethod.class);
+        for (TransportationMethod method : TransportationMethod.values()) {
+            factors.put(method, switch (groupOf(method)) {
+                case "bus" -> DEFAULT_BUS;
+                case "train" -> DEFAULT_TRAIN;
+                default -> DEFAULT_CAR;
+            });
+        }
+        return new DetourFactors(factors);
+    }
+
+    // Comma separated name=factor pairs on top of the defaults; a null or blank specification keeps the defaults
+    public static DetourFactors parse(String specification) {
+        DetourFactors detourFactors = defaults();
+        if (specification == null || specification.isBlank()) {
+            return detourFactors;
+        }
+        Map<TransportationMethod, Double> groupFactors = new EnumMap<>(TransportationMethod.class);
+        Map<TransportationMethod, Double> methodFactors = new EnumMap<>(TransportationMethod.class);
+        for (String pair : specification.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid detour factor: " + pair.trim());
+            }
+            String name = pair.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+            double factor = parseFactor(pair.substring(separator + 1).trim());
+            boolean matched = false;
+            for (TransportationMethod method : TransportationMethod.values()) {
+                if (name.equals(groupOf(method))) {
+                    groupFactors.put(method, factor);
+                    matched = true;
+                } else if (name.equals(method.name().toLowerCase(Locale.ROOT).replace('_', '-'))) {
+                    methodFactors.put(method, factor);
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                throw new IllegalArgumentException("Unknown transportation method in detour factors: " + name);
+            }
+        }
+        // a factor for a single method wins over one for its group, whatever the order
+        detourFactors.factors.putAll(groupFactors);
+        detourFactors.factors.putAll(methodFactors);
+        return detourFactors;
+    }
+
+    // A null method, e.g. for a distance matrix outside of a single trip, is treated as a car
+    public double factorFor(TransportationMethod method) {
+        return factors.get(method == null ? TransportationMethod.DIESEL_CAR_MEDIUM : method);
+    }
+
+    private static double parseFactor(String value) {
+        try {
+            double factor = Double.parseDouble(value);
+            if (factor < 1 || Double.isInfinite(factor)) {
+                throw new NumberFormatException();
+            }
+            return factor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Detour factor must be a number of at least 1: " + value);
+        }
+    }
+
+    private static String groupOf(TransportationMethod method) {
+        if (method == TransportationMethod.BUS_DEFAULT) {
+            return "bus";
+        }
+        if (method == TransportationMethod.TRAIN_DEFAULT) {
+            return "train";
+        }
+        return "car";
+    }
+}
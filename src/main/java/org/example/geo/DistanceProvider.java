@@ -0,0 +1,23 @@
+package org.example.geo;
+
+import java.util.Locale;
+
+// Where trip distances come from
+public enum DistanceProvider {
+    // Road distances from the ORS matrix endpoint
+    ORS,
+    // Great-circle distance times a detour factor, computed locally without any request
+    GREAT_CIRCLE,
+    // ORS, estimated like GREAT_CIRCLE while ORS is slow, over quota or unavailable
+    ORS_WITH_FALLBACK,
+    // Routed locally over the road graph in CO2_ROAD_GRAPH, ORS for trips it does not cover
+    ROAD_GRAPH;
+
+    public static DistanceProvider fromName(String name) {
+        try {
+            return DistanceProvider.valueOf(name.trim().toUpperCase(Locale.ROOT).replace("-", "_"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported distance provider: " + name);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.geo;
+
+/*
+ * Distances on the earth's surface between {latitude, longitude} pairs in degrees, the order getCoordinates returns.
+ * Vincenty's inverse formula on the WGS-84 ellipsoid is accurate to well below a metre; for nearly antipodal
+ * points, where it does not converge, the haversine distance on the mean-radius sphere is returned instead.
+ */
+public final class GreatCircle {
+    private static final double MEAN_RADIUS_KM = 6371.0088;
+    private static final double SEMI_MAJOR_AXIS_KM = 6378.137;
+    private static final double FLATTENING = 1 / 298.257223563;
+    private static final double SEMI_MINOR_AXIS_KM = SEMI_MAJOR_AXIS_KM * (1 - FLATTENING);
+    private static final int MAX_ITERATIONS = 200;
+    private static final double CONVERGENCE = 1e-12;
+
+    private GreatCircle() {
+    }
+
+    public static double haversineKm(double[] from, double[] to) {
+        double latitude1 = Math.toRadians(from[0]);
+        double latitude2 = Math.toRadians(to[0]);
+        double sinHalfLatitude = Math.sin((latitude2 - latitude1) / 2);
+        double sinHalfLongitude = Math.sin(Math.toRadians(to[1] - from[1]) / 2);
+        double a = sinHalfLatitude * sinHalfLatitude
+                + Math.cos(latitude1) * Math.cos(latitude2) * sinHalfLongitude * sinHalfLongitude;
+        return 2 * MEAN_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static double vincentyKm(double[] from, double[] to) {
+        double u1 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(from[0])));
+        double u2 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(to[0])));
+        double sinU1 = Math.sin(u1);
+        double cosU1 = Math.cos(u1);
+        double sinU2 = Math.sin(u2);
+        double cosU2 = Math.cos(u2);
+        double longitudeDifference = Math.toRadians(to[1] - from[1]);
+
+        double lambda = longitudeDifference;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double sinSigma = Math.sqrt(cosU2 * sinLambda * cosU2 * sinLambda
+                    + (cosU1 * sinU2 - sinU1 * cosU2 * cosLambda) * (cosU1 * sinU2 - sinU1 * cosU2 * cosLambda));
+            if (sinSigma == 0) {
+                return 0; // same point
+            }
+            double cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            double sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            double cosSquaredAlpha = 1 - sinAlpha * sinAlpha;
+            // both points on the equator
+            double cos2SigmaM = cosSquaredAlpha == 0 ? 0 : cosSigma - 2 * sinU1 * sinU2 / cosSquaredAlpha;
+            double c = FLATTENING / 16 * cosSquaredAlpha * (4 + FLATTENING * (4 - 3 * cosSquaredAlpha));
+            double previousLambda = lambda;
+            lambda = longitudeDifference + (1 - c) * FLATTENING * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+            if (Math.abs(lambda - previousLambda) < CONVERGENCE) {
+                double uSquared = cosSquaredAlpha * (SEMI_MAJOR_AXIS_KM * SEMI_MAJOR_AXIS_KM - SEMI_MINOR_AXIS_KM * SEMI_MINOR_AXIS_KM)
+                        / (SEMI_MINOR_AXIS_KM * SEMI_MINOR_AXIS_KM);
+                double a = 1 + uSquared / 16384 * (4096 + uSquared * (-768 + uSquared * (320 - 175 * uSquared)));
+                double b = uSquared / 1024 * (256 + uSquared * (-128 + uSquared * (74 - 47 * uSquared)));
+                double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                        - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+                return SEMI_MINOR_AXIS_KM * a * (sigma - deltaSigma);
+            }
+        }
+        return haversineKm(from, to);
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.jfr;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Lives outside the event class: JDK 17 fails to instrument an event class that checks isEnabled() to hand out `this`
+class CountingInputStream extends FilterInputStream {
+    private final OrsRequestEvent event;
+
+    CountingInputStream(InputStream in, OrsRequestEvent event) {
+        super(in);
+        this.event = event;
+    }
+
+    static InputStream wrap(InputStream in, OrsRequestEvent event) {
+        return event.isEnabled() ? new CountingInputStream(in, event) : in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            event.addBytesRead(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            event.addBytesRead(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        event.addBytesRead(skipped);
+        return skipped;
+    }
+}
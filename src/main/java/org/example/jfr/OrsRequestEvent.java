@@ -0,0 +1,76 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.InputStream;
+
+/*
+ * One outbound ORS call, from building the request until its response is decoded. When the event is
+ * not enabled in the running recording (or no recording runs) begin/end/shouldCommit are intrinsics
+ * that compile to almost nothing and the response body is read without the byte counting wrapper.
+ */
+@Name("org.example.OrsRequest")
+@Label("ORS Request")
+@Category({"CO2 Calculator", "ORS"})
+@Description("Call to the openrouteservice API")
+@StackTrace(false)
+public class OrsRequestEvent extends Event {
+    public static final String GEOCODE = "geocode";
+    public static final String DISTANCE = "distance";
+    public static final String DISTANCE_MATRIX = "distance-matrix";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("City")
+    @Description("City being geocoded, empty for distance requests")
+    String city;
+
+    @Label("HTTP Status")
+    @Description("0 when no response arrived")
+    int status;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Error")
+    String error;
+
+    public static OrsRequestEvent start(String operation, String city) {
+        OrsRequestEvent event = new OrsRequestEvent();
+        event.begin();
+        event.operation = operation;
+        event.city = city;
+        return event;
+    }
+
+    public void recordStatus(int status) {
+        this.status = status;
+    }
+
+    // Counts the bytes read from the response body, only while the event is enabled
+    public InputStream track(InputStream body) {
+        return CountingInputStream.wrap(body, this);
+    }
+
+    void addBytesRead(long count) {
+        bytesRead += count;
+    }
+
+    public void finish(Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            if (failure != null) {
+                error = failure.getMessage();
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One EmissionService.calculateEmission call, or one method of a comparison, spanning geocoding, distance lookup and calculation
+@Name("org.example.TripCalculation")
+@Label("Trip Calculation")
+@Category({"CO2 Calculator"})
+@Description("Emission calculation of a single trip")
+@StackTrace(false)
+public class TripCalculationEvent extends Event {
+    @Label("Start City")
+    String startCity;
+
+    @Label("End City")
+    String endCity;
+
+    @Label("Emission per km")
+    @Description("Grams of CO2-equivalent per kilometre of the transportation method")
+    double emissionInGramsPerKm;
+
+    @Label("CO2 (kg)")
+    double co2Kg;
+
+    @Label("Error")
+    String error;
+
+    public static TripCalculationEvent start(String startCity, String endCity, double emissionInGramsPerKm) {
+        TripCalculationEvent event = new TripCalculationEvent();
+        event.begin();
+        event.startCity = startCity;
+        event.endCity = endCity;
+        event.emissionInGramsPerKm = emissionInGramsPerKm;
+        return event;
+    }
+
+    public void finish(double co2Kg, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            this.co2Kg = co2Kg;
+            if (failure != null) {
+                error = failure.getMessage();
+            }
+            commit();
+        }
+    }
+
+    // One event per emission factor of a comparison, all spanning the route lookup they share
+    public static TripCalculationEvent[] startAll(String startCity, String endCity, double[] emissionsInGramsPerKm) {
+        TripCalculationEvent[] events = new TripCalculationEvent[emissionsInGramsPerKm.length];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = start(startCity, endCity, emissionsInGramsPerKm[i]);
+        }
+        return events;
+    }
+
+    // co2Kg is null when the comparison failed
+    public static void finishAll(TripCalculationEvent[] events, double[] co2Kg, Throwable failure) {
+        for (int i = 0; i < events.length; i++) {
+            events[i].finish(co2Kg == null ? 0 : co2Kg[i], failure);
+        }
+    }
+}
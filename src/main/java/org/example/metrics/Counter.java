@@ -0,0 +1,20 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic counter striped across cells, so hot increments from many threads do not contend
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
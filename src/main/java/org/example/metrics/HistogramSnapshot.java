@@ -0,0 +1,52 @@
+package org.example.metrics;
+
+import java.beans.ConstructorProperties;
+
+// Point-in-time view of a Histogram, also the JMX representation of one
+public class HistogramSnapshot {
+    private final long count;
+    private final long sum;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    @ConstructorProperties({"count", "sum", "p50", "p90", "p99", "p999"})
+    public HistogramSnapshot(long count, long sum, long p50, long p90, long p99, long p999) {
+        this.count = count;
+        this.sum = sum;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    public static HistogramSnapshot of(Histogram histogram) {
+        return new HistogramSnapshot(histogram.count(), histogram.sum(), histogram.percentile(0.5),
+                histogram.percentile(0.9), histogram.percentile(0.99), histogram.percentile(0.999));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.metrics;
+
+import java.util.Map;
+
+// Registered as org.example:type=Metrics, keys are metric names with their labels, e.g. ors_errors_total{status="429"}
+public interface MetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getGauges();
+
+    // Latencies in nanoseconds
+    Map<String, HistogramSnapshot> getHistograms();
+
+    String getPrometheusText();
+}
@@ -0,0 +1,195 @@
+package org.example.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/*
+ * Named metrics with optional labels, exported over JMX and in the Prometheus text format. Labels are
+ * given as name/value pairs: counter("ors_errors_total", "...", "status", "429"). Asking twice for the
+ * same name and labels returns the same metric, so hot paths can look them up or keep a reference.
+ * Histograms hold latencies in nanoseconds and are exported as Prometheus summaries in seconds.
+ */
+public class MetricsRegistry implements MetricsMXBean {
+    public static final String OBJECT_NAME = "org.example:type=Metrics";
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+    // Process-wide registry the application wires its pipeline into
+    public static MetricsRegistry defaultRegistry() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        Object metric = family(name, Type.COUNTER, help).metrics.computeIfAbsent(labelsOf(labels), key -> new Counter());
+        if (!(metric instanceof Counter)) {
+            throw new IllegalArgumentException("Metric " + name + " is computed and cannot be incremented");
+        }
+        return (Counter) metric;
+    }
+
+    // Counter whose value is kept elsewhere, e.g. cache hits tracked by the cache itself
+    public void counter(String name, String help, LongSupplier value, String... labels) {
+        family(name, Type.COUNTER, help).metrics.put(labelsOf(labels), value);
+    }
+
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, Type.GAUGE, help).metrics.put(labelsOf(labels), value);
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, Type.SUMMARY, help).metrics.computeIfAbsent(labelsOf(labels), key -> new Histogram());
+    }
+
+    // Registers this registry as an MXBean on the platform MBean server, once per name
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            logger.debug("Metrics MBean {} is already registered", OBJECT_NAME);
+        } catch (JMException e) {
+            logger.warn("Could not register metrics MBean {}: {}", OBJECT_NAME, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return values(Type.COUNTER);
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        return values(Type.GAUGE);
+    }
+
+    @Override
+    public Map<String, HistogramSnapshot> getHistograms() {
+        Map<String, HistogramSnapshot> snapshots = new TreeMap<>();
+        families.forEach((name, family) -> {
+            if (family.type == Type.SUMMARY) {
+                family.metrics.forEach((labels, metric) -> snapshots.put(keyOf(name, labels), HistogramSnapshot.of((Histogram) metric)));
+            }
+        });
+        return snapshots;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        StringBuilder out = new StringBuilder();
+        try {
+            writePrometheus(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // Prometheus text exposition format 0.0.4
+    public void writePrometheus(Appendable out) throws IOException {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.prometheusName).append('\n');
+            for (Map.Entry<String, Object> metric : family.metrics.entrySet()) {
+                String labels = metric.getKey();
+                if (family.type != Type.SUMMARY) {
+                    sample(out, name, labels, Long.toString(valueOf(metric.getValue())));
+                    continue;
+                }
+                Histogram histogram = (Histogram) metric.getValue();
+                for (double quantile : QUANTILES) {
+                    String quantileLabel = "quantile=\"" + quantile + "\"";
+                    sample(out, name, labels.isEmpty() ? quantileLabel : labels + "," + quantileLabel,
+                            Double.toString(histogram.percentile(quantile) / NANOS_PER_SECOND));
+                }
+                sample(out, name + "_sum", labels, Double.toString(histogram.sum() / NANOS_PER_SECOND));
+                sample(out, name + "_count", labels, Long.toString(histogram.count()));
+            }
+        }
+    }
+
+    private Family family(String name, Type type, String help) {
+        Family family = families.computeIfAbsent(name, key -> new Family(type, help));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.prometheusName);
+        }
+        return family;
+    }
+
+    private Map<String, Long> values(Type type) {
+        Map<String, Long> values = new TreeMap<>();
+        families.forEach((name, family) -> {
+            if (family.type == type) {
+                family.metrics.forEach((labels, metric) -> values.put(keyOf(name, labels), valueOf(metric)));
+            }
+        });
+        return values;
+    }
+
+    private static long valueOf(Object metric) {
+        return metric instanceof Counter ? ((Counter) metric).get() : ((LongSupplier) metric).getAsLong();
+    }
+
+    private static void sample(Appendable out, String name, String labels, String value) throws IOException {
+        out.append(keyOf(name, labels)).append(' ').append(value).append('\n');
+    }
+
+    private static String keyOf(String name, String labels) {
+        return labels.isEmpty() ? name : name + "{" + labels + "}";
+    }
+
+    private static String labelsOf(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                joined.append(',');
+            }
+            joined.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return joined.toString();
+    }
+
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        SUMMARY("summary");
+
+        private final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+    }
+
+    private static final class Family {
+        private final Type type;
+        private final String help;
+        private final ConcurrentMap<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+        private Family(Type type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.metrics;
+
+import org.example.cache.LruCache;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Metrics of one emission calculation pipeline: stage latencies, calculations in flight and ORS errors
+public class PipelineMetrics {
+    public static final String STAGE_DURATION = "co2_stage_duration_seconds";
+    public static final String CALCULATIONS_IN_FLIGHT = "co2_calculations_in_flight";
+    public static final String ORS_ERRORS = "ors_errors_total";
+    public static final String ORS_IN_FLIGHT = "ors_requests_in_flight";
+    public static final String CACHE_REQUESTS = "cache_requests_total";
+    public static final String CACHE_ENTRIES = "cache_entries";
+
+    public enum Stage {
+        GEOCODE_START,
+        GEOCODE_END,
+        DISTANCE,
+        CALCULATE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MetricsRegistry registry;
+    private final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+    private final LongAdder inFlight = new LongAdder();
+
+    public PipelineMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, registry.histogram(STAGE_DURATION, "Time spent in each stage of an emission calculation", "stage", stage.label()));
+        }
+        registry.gauge(CALCULATIONS_IN_FLIGHT, "Emission calculations currently running", inFlight::sum);
+    }
+
+    // Not exported anywhere, for callers that were not given a registry
+    public static PipelineMetrics unregistered() {
+        return new PipelineMetrics(new MetricsRegistry());
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    public void recordStage(Stage stage, long startNanos) {
+        stages.get(stage).record(System.nanoTime() - startNanos);
+    }
+
+    public void calculationStarted() {
+        inFlight.increment();
+    }
+
+    public void calculationFinished() {
+        inFlight.decrement();
+    }
+
+    public void bindCache(String name, LruCache<?, ?> cache) {
+        registry.counter(CACHE_REQUESTS, "Cache lookups by outcome", cache::hitCount, "cache", name, "result", "hit");
+        registry.counter(CACHE_REQUESTS, "Cache lookups by outcome", cache::missCount, "cache", name, "result", "miss");
+        registry.gauge(CACHE_ENTRIES, "Entries currently cached", cache::size, "cache", name);
+    }
+
+    // layer tells apart e.g. HTTP calls on the wire from lookups shared by the coalescing client
+    public void bindInFlight(String layer, LongSupplier count) {
+        registry.gauge(ORS_IN_FLIGHT, "ORS requests currently in flight", count, "layer", layer);
+    }
+
+    // status is the HTTP status code, or "io" when no response arrived
+    public void orsError(String status) {
+        registry.counter(ORS_ERRORS, "Failed ORS requests by HTTP status", "status", status).increment();
+    }
+}
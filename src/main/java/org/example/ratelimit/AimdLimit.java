@@ -0,0 +1,113 @@
+package org.example.ratelimit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Concurrency limit that adapts like TCP congestion control: each call that goes through adds 1/limit
+ * (about +1 per round of calls), each call the server rejects for overload multiplies it by backoffRatio.
+ * Callers above the limit wait for a permit instead of failing, blocked in acquire or queued by acquireAsync.
+ */
+public class AimdLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private double limit;
+    private int inFlight;
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD limit: " + minLimit + ".." + maxLimit + ", backoff " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // false when no permit freed up in time
+    public synchronized boolean acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /*
+     * Completes once the caller holds a permit, in the order the callers asked. A caller that gives up
+     * completes the future itself (e.g. orTimeout); it is then skipped and holds no permit.
+     */
+    public synchronized CompletableFuture<Void> acquireAsync() {
+        if (waiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        waiters.removeIf(CompletableFuture::isDone);
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    // overloaded tells whether the server pushed back on the call (e.g. answered 429)
+    public void release(boolean overloaded) {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            if (overloaded) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            granted = grantWaiters();
+            notifyAll();
+        }
+        completeOutsideLock(granted);
+    }
+
+    // Hands free permits to queued async callers; completed outside the lock, their callbacks may call back in
+    private List<CompletableFuture<Void>> grantWaiters() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            CompletableFuture<Void> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    private void completeOutsideLock(List<CompletableFuture<Void>> granted) {
+        for (CompletableFuture<Void> waiter : granted) {
+            // the caller gave up between the grant and now, the permit goes to the next one
+            if (!waiter.complete(null)) {
+                List<CompletableFuture<Void>> next;
+                synchronized (this) {
+                    inFlight--;
+                    next = grantWaiters();
+                    notifyAll();
+                }
+                completeOutsideLock(next);
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/*
+ * Caps retries and hedged requests at a share of the regular traffic, so an ORS that is already slow
+ * or failing does not receive a multiple of the load that got it there. Every regular request deposits
+ * `ratio` of a token and every extra request withdraws a whole one; a small reserve that refills over
+ * time keeps a few retries possible when traffic is low.
+ */
+public class RetryBudget {
+    private final double ratio;
+    private final double reservePerNano;
+    private final double maxBalance;
+    private final LongSupplier clock;
+    private double balance;
+    private long lastRefill;
+    private long withdrawn;
+    private long rejected;
+
+    public RetryBudget(double ratio, double reservePerSecond, double maxBalance) {
+        this(ratio, reservePerSecond, maxBalance, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, double reservePerSecond, double maxBalance, LongSupplier clock) {
+        if (ratio < 0 || reservePerSecond < 0 || maxBalance < 1) {
+            throw new IllegalArgumentException("Invalid retry budget: ratio " + ratio + ", " + reservePerSecond + "/s, max " + maxBalance);
+        }
+        this.ratio = ratio;
+        this.reservePerNano = reservePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxBalance = maxBalance;
+        this.clock = clock;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    // One extra request per second of reserve, at most ten saved up on top of the ratio
+    public static RetryBudget ofRatio(double ratio) {
+        return new RetryBudget(ratio, 1, 10);
+    }
+
+    public synchronized void recordRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    // Whether one more retry or hedge may be sent
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            rejected++;
+            return false;
+        }
+        balance -= 1;
+        withdrawn++;
+        return true;
+    }
+
+    public synchronized long getWithdrawnCount() {
+        return withdrawn;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        balance = Math.min(maxBalance, balance + (now - lastRefill) * reservePerNano);
+        lastRefill = now;
+    }
+}
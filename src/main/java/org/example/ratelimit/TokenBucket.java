@@ -0,0 +1,84 @@
+package org.example.ratelimit;
+
+import java.util.function.LongSupplier;
+
+/*
+ * Token bucket handing out reservations instead of rejections: a caller that finds the bucket empty
+ * takes a token on credit and is told how long to wait, so waiting callers are served in arrival order
+ * at exactly the configured rate. pauseUntil stops refilling, e.g. until an exhausted quota resets.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final LongSupplier clock;
+    private double permitsPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double permitsPerSecond, double capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, double capacity, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Invalid token bucket: " + permitsPerSecond + "/s, capacity " + capacity);
+        }
+        this.permitsPerNano = permitsPerSecond / 1e9;
+        this.capacity = capacity;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    public static TokenBucket perMinute(int permitsPerMinute) {
+        return new TokenBucket(permitsPerMinute / 60.0, Math.max(1, permitsPerMinute / 10));
+    }
+
+    // Takes a token and returns the nanoseconds to wait before using it, or -1 (taking nothing) if that exceeds maxWaitNanos
+    public synchronized long reserve(long maxWaitNanos) {
+        long wait = nanosUntilAvailable();
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    // How long a reservation made now would have to wait, without taking a token
+    public synchronized long nanosUntilAvailable() {
+        long now = clock.getAsLong();
+        refill(now);
+        long wait = Math.max(0, lastRefill - now);
+        if (tokens < 1) {
+            wait += (long) Math.ceil((1 - tokens) / permitsPerNano);
+        }
+        return wait;
+    }
+
+    // No tokens are handed out for use before the given System.nanoTime() value
+    public synchronized void pauseUntil(long nanoTime) {
+        refill(clock.getAsLong());
+        if (nanoTime > lastRefill) {
+            tokens = Math.min(tokens, 0);
+            lastRefill = nanoTime;
+        }
+    }
+
+    public synchronized void setRate(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        refill(clock.getAsLong());
+        permitsPerNano = permitsPerSecond / 1e9;
+    }
+
+    public synchronized double getRate() {
+        return permitsPerNano * 1e9;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package org.example.routing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/*
+ * Contraction hierarchy over a RoadGraph for exact shortest-path lengths.
+ *
+ * Preprocessing contracts nodes one at a time, least important first (mostly by edge difference, kept
+ * current by lazy updates), and adds a shortcut u -> w around a contracted node v wherever
+ * a bounded witness search finds no path from u to w at most as short as u -> v -> w. Every original edge
+ * and shortcut then points either up the order, kept in the upward graph of its source, or down it, kept
+ * reversed in the downward graph of its target.
+ *
+ * A point-to-point query runs Dijkstra upwards from both ends and stops once neither side can beat the best
+ * meeting point. Many-to-many queries use buckets: one downward search per target leaves its distances at
+ * the nodes it settles, and one upward search per source scans them. Both only ever settle a few hundred
+ * nodes on road networks. Queries are thread-safe; search state is pooled.
+ *
+ * Binary format ("RCH1"): magic, version, node count, shortcut count, then the upward and the downward graph
+ * as {first[node count + 1], targets, lengths}, each array preceded by its length, all big-endian ints.
+ */
+public final class ContractionHierarchy {
+    private static final int MAGIC = 0x52434831; // "RCH1"
+    private static final int VERSION = 1;
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+    // Witness searches give up after this many settled nodes; a missed witness only costs a redundant shortcut
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int PRIORITY_OFFSET = 1 << 30;
+
+    private final int nodeCount;
+    private final int[] upFirst;
+    private final int[] upTargets;
+    private final int[] upLengths;
+    private final int[] downFirst;
+    private final int[] downTargets;
+    private final int[] downLengths;
+    private final int shortcutCount;
+    private final ConcurrentLinkedQueue<SearchSpace> searchSpaces = new ConcurrentLinkedQueue<>();
+
+    private ContractionHierarchy(int nodeCount, int[][] up, int[][] down, int shortcutCount) {
+        this.nodeCount = nodeCount;
+        this.upFirst = up[0];
+        this.upTargets = up[1];
+        this.upLengths = up[2];
+        this.downFirst = down[0];
+        this.downTargets = down[1];
+        this.downLengths = down[2];
+        this.shortcutCount = shortcutCount;
+    }
+
+    public static ContractionHierarchy build(RoadGraph graph) {
+        return new Preprocessor(graph).contract();
+    }
+
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    // Reads a hierarchy written for a graph with nodeCount nodes
+    public static ContractionHierarchy read(InputStream in, int nodeCount) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a contraction hierarchy or unsupported version");
+        }
+        if (data.readInt() != nodeCount) {
+            throw new IOException("Contraction hierarchy was built for another road graph");
+        }
+        int shortcutCount = data.readInt();
+        return new ContractionHierarchy(nodeCount, readGraph(data, nodeCount), readGraph(data, nodeCount), shortcutCount);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(nodeCount);
+        data.writeInt(shortcutCount);
+        for (int[] array : new int[][]{upFirst, upTargets, upLengths, downFirst, downTargets, downLengths}) {
+            data.writeInt(array.length);
+            for (int value : array) {
+                data.writeInt(value);
+            }
+        }
+        data.flush();
+    }
+
+    private static int[][] readGraph(DataInputStream data, int nodeCount) throws IOException {
+        int[][] graph = new int[3][];
+        for (int i = 0; i < graph.length; i++) {
+            int length = data.readInt();
+            if (length < 0 || (i == 0 ? length != nodeCount + 1 : length != graph[0][nodeCount])) {
+                throw new IOException("Corrupt contraction hierarchy");
+            }
+            graph[i] = new int[length];
+            for (int j = 0; j < length; j++) {
+                graph[i][j] = data.readInt();
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (graph[0][0] != 0 || graph[0][node] > graph[0][node + 1]) {
+                throw new IOException("Corrupt contraction hierarchy");
+            }
+        }
+        for (int target : graph[1]) {
+            if (target < 0 || target >= nodeCount) {
+                throw new IOException("Corrupt contraction hierarchy");
+            }
+        }
+        return graph;
+    }
+
+    // Length in decimetres of the shortest path from source to target, UNREACHABLE if there is none
+    public int distance(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        SearchSpace forward = borrow();
+        SearchSpace backward = borrow();
+        try {
+            forward.offer(source, 0);
+            backward.offer(target, 0);
+            int best = UNREACHABLE;
+            while (true) {
+                int forwardMin = forward.heap.isEmpty() ? UNREACHABLE : forward.heap.peekKey();
+                int backwardMin = backward.heap.isEmpty() ? UNREACHABLE : backward.heap.peekKey();
+                if (forwardMin >= best && backwardMin >= best) {
+                    return best;
+                }
+                boolean forwardTurn = forwardMin <= backwardMin;
+                SearchSpace side = forwardTurn ? forward : backward;
+                SearchSpace other = forwardTurn ? backward : forward;
+                int node = side.heap.poll();
+                int distance = side.distances[node];
+                int otherDistance = other.distances[node];
+                if (otherDistance != UNREACHABLE && distance + otherDistance < best) {
+                    best = distance + otherDistance;
+                }
+                if (forwardTurn) {
+                    relax(side, node, distance, upFirst, upTargets, upLengths);
+                } else {
+                    relax(side, node, distance, downFirst, downTargets, downLengths);
+                }
+            }
+        } finally {
+            release(forward);
+            release(backward);
+        }
+    }
+
+    // distances[i][j] in decimetres from sources[i] to targets[j], UNREACHABLE where there is no path
+    public int[][] distances(int[] sources, int[] targets) {
+        int[][] distances = new int[sources.length][targets.length];
+        for (int[] row : distances) {
+            Arrays.fill(row, UNREACHABLE);
+        }
+        Buckets buckets = new Buckets();
+        SearchSpace search = borrow();
+        try {
+            for (int j = 0; j < targets.length; j++) {
+                int target = targets[j];
+                exhaust(search, target, downFirst, downTargets, downLengths, (node, distance) -> buckets.add(node, target, distance));
+            }
+            buckets.index(targets);
+            for (int i = 0; i < sources.length; i++) {
+                int[] row = distances[i];
+                exhaust(search, sources[i], upFirst, upTargets, upLengths, (node, distance) -> buckets.scan(node, distance, row));
+            }
+        } finally {
+            release(search);
+        }
+        return distances;
+    }
+
+    private interface SettledNode {
+        void settled(int node, int distance);
+    }
+
+    // Runs a search over one of the upward graphs until it runs out of nodes, reporting each settled node
+    private static void exhaust(SearchSpace search, int start, int[] first, int[] targets, int[] lengths, SettledNode settled) {
+        search.offer(start, 0);
+        while (!search.heap.isEmpty()) {
+            int node = search.heap.poll();
+            int distance = search.distances[node];
+            settled.settled(node, distance);
+            relax(search, node, distance, first, targets, lengths);
+        }
+        search.reset();
+    }
+
+    private static void relax(SearchSpace search, int node, int distance, int[] first, int[] targets, int[] lengths) {
+        for (int edge = first[node]; edge < first[node + 1]; edge++) {
+            search.offer(targets[edge], distance + lengths[edge]);
+        }
+    }
+
+    private SearchSpace borrow() {
+        SearchSpace search = searchSpaces.poll();
+        return search != null ? search : new SearchSpace(nodeCount);
+    }
+
+    private void release(SearchSpace search) {
+        search.reset();
+        searchSpaces.offer(search);
+    }
+
+    // Tentative distances of one Dijkstra search; only the touched entries are reset between searches
+    private static final class SearchSpace {
+        private final int[] distances;
+        private final MinHeap heap;
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        SearchSpace(int nodeCount) {
+            distances = new int[nodeCount];
+            Arrays.fill(distances, UNREACHABLE);
+            heap = new MinHeap(nodeCount);
+        }
+
+        void offer(int node, int distance) {
+            int current = distances[node];
+            if (distance >= current) {
+                return;
+            }
+            if (current == UNREACHABLE) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = node;
+            }
+            distances[node] = distance;
+            heap.offer(node, distance);
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                distances[touched[i]] = UNREACHABLE;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+
+    // Distances the downward searches left at the nodes they settled, grouped by node
+    private static final class Buckets {
+        private int[] nodes = new int[256];
+        private int[] targetNodes = new int[256];
+        private int[] distances = new int[256];
+        private int size;
+        private long[] order;
+        private int[] distinctTargets;
+        private int[][] columnsByTarget;
+
+        void add(int node, int target, int distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                targetNodes = Arrays.copyOf(targetNodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            nodes[size] = node;
+            targetNodes[size] = target;
+            distances[size] = distance;
+            size++;
+        }
+
+        // Sorts the entries by node; a target listed several times fills all of its columns
+        void index(int[] targets) {
+            order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = ((long) nodes[i] << 32) | i;
+            }
+            Arrays.sort(order);
+            distinctTargets = Arrays.stream(targets).sorted().distinct().toArray();
+            columnsByTarget = new int[distinctTargets.length][];
+            for (int k = 0; k < distinctTargets.length; k++) {
+                int target = distinctTargets[k];
+                columnsByTarget[k] = IntStream.range(0, targets.length).filter(j -> targets[j] == target).toArray();
+            }
+        }
+
+        void scan(int node, int distance, int[] row) {
+            int position = Arrays.binarySearch(order, (long) node << 32);
+            position = position < 0 ? -position - 1 : position;
+            for (; position < order.length && (int) (order[position] >>> 32) == node; position++) {
+                int entry = (int) order[position];
+                int total = distance + distances[entry];
+                for (int column : columnsByTarget[Arrays.binarySearch(distinctTargets, targetNodes[entry])]) {
+                    if (total < row[column]) {
+                        row[column] = total;
+                    }
+                }
+            }
+        }
+    }
+
+    // Contracts nodes on adjacency lists that only ever hold the remaining nodes; a contracted node leaves
+    // its edges behind in the upward (to higher ranks) and downward (from higher ranks) edge lists
+    private static final class Preprocessor {
+        private final int nodeCount;
+        private final int[][] outTargets;
+        private final int[][] outLengths;
+        private final int[] outSizes;
+        private final int[][] inSources;
+        private final int[][] inLengths;
+        private final int[] inSizes;
+        private final boolean[] contracted;
+        private final int[] priorities;
+        private final int[] contractedNeighbours;
+        private final int[] depths;
+        private final SearchSpace witness;
+        private final int[] targetRounds;
+        private int searchRound;
+        private final EdgeList upEdges = new EdgeList();
+        private final EdgeList downEdges = new EdgeList();
+        private int shortcutCount;
+
+        Preprocessor(RoadGraph graph) {
+            nodeCount = graph.nodeCount();
+            outTargets = new int[nodeCount][];
+            outLengths = new int[nodeCount][];
+            outSizes = new int[nodeCount];
+            inSources = new int[nodeCount][];
+            inLengths = new int[nodeCount][];
+            inSizes = new int[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                outTargets[node] = new int[4];
+                outLengths[node] = new int[4];
+                inSources[node] = new int[4];
+                inLengths[node] = new int[4];
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                for (int edge = graph.firstEdge(node); edge < graph.firstEdge(node + 1); edge++) {
+                    int target = graph.edgeTarget(edge);
+                    if (target != node) {
+                        addEdge(node, target, graph.edgeLength(edge));
+                    }
+                }
+            }
+            contracted = new boolean[nodeCount];
+            priorities = new int[nodeCount];
+            contractedNeighbours = new int[nodeCount];
+            depths = new int[nodeCount];
+            witness = new SearchSpace(nodeCount);
+            targetRounds = new int[nodeCount];
+        }
+
+        ContractionHierarchy contract() {
+            PriorityQueue<Long> queue = new PriorityQueue<>(Math.max(1, nodeCount));
+            for (int node = 0; node < nodeCount; node++) {
+                priorities[node] = priority(node);
+                queue.add(entry(priorities[node], node));
+            }
+            while (!queue.isEmpty()) {
+                long top = queue.poll();
+                int node = (int) top;
+                if (contracted[node] || (int) (top >>> 32) - PRIORITY_OFFSET != priorities[node]) {
+                    continue; // superseded entry
+                }
+                // lazy update: contract only if the node is still the least important one
+                int current = priority(node);
+                if (current > priorities[node]) {
+                    priorities[node] = current;
+                    queue.add(entry(current, node));
+                    continue;
+                }
+                int[] neighbours = contractNode(node);
+                for (int neighbour : neighbours) {
+                    contractedNeighbours[neighbour]++;
+                    depths[neighbour] = Math.max(depths[neighbour], depths[node] + 1);
+                    int priority = priority(neighbour);
+                    if (priority != priorities[neighbour]) {
+                        priorities[neighbour] = priority;
+                        queue.add(entry(priority, neighbour));
+                    }
+                }
+            }
+            return new ContractionHierarchy(nodeCount, upEdges.toCsr(nodeCount), downEdges.toCsr(nodeCount), shortcutCount);
+        }
+
+        private static long entry(int priority, int node) {
+            return ((long) (priority + PRIORITY_OFFSET) << 32) | node;
+        }
+
+        // Mostly the edge difference; contracted neighbours and depth in the hierarchy so far spread the
+        // contraction evenly over the graph, which keeps the searches shallow
+        private int priority(int node) {
+            int edgeDifference = shortcuts(node, false) - inSizes[node] - outSizes[node];
+            return 2 * edgeDifference + contractedNeighbours[node] + depths[node];
+        }
+
+        // Contracts the node and returns its former neighbours
+        private int[] contractNode(int node) {
+            shortcuts(node, true);
+            int[] neighbours = new int[outSizes[node] + inSizes[node]];
+            for (int i = 0; i < outSizes[node]; i++) {
+                int target = outTargets[node][i];
+                upEdges.add(node, target, outLengths[node][i]);
+                removeIn(target, node);
+                neighbours[i] = target;
+            }
+            for (int i = 0; i < inSizes[node]; i++) {
+                int source = inSources[node][i];
+                downEdges.add(node, source, inLengths[node][i]);
+                removeOut(source, node);
+                neighbours[outSizes[node] + i] = source;
+            }
+            contracted[node] = true;
+            outTargets[node] = outLengths[node] = inSources[node] = inLengths[node] = null;
+            outSizes[node] = inSizes[node] = 0;
+            return Arrays.stream(neighbours).distinct().toArray();
+        }
+
+        // Counts, and with add also inserts, the shortcuts contracting the node needs
+        private int shortcuts(int node, boolean add) {
+            int maxOut = 0;
+            for (int i = 0; i < outSizes[node]; i++) {
+                maxOut = Math.max(maxOut, outLengths[node][i]);
+            }
+            int count = 0;
+            for (int i = 0; i < inSizes[node]; i++) {
+                int source = inSources[node][i];
+                int inLength = inLengths[node][i];
+                witnessSearch(source, node, inLength + maxOut);
+                for (int j = 0; j < outSizes[node]; j++) {
+                    int target = outTargets[node][j];
+                    int viaNode = inLength + outLengths[node][j];
+                    if (target != source && witness.distances[target] > viaNode) {
+                        count++;
+                        if (add) {
+                            addEdge(source, target, viaNode);
+                            shortcutCount++;
+                        }
+                    }
+                }
+                witness.reset();
+            }
+            return count;
+        }
+
+        // Dijkstra from source among the remaining nodes, without the one being contracted, until the latter's
+        // out-neighbours are settled; results stay in witness
+        private void witnessSearch(int source, int excluded, int maxLength) {
+            int pending = 0;
+            searchRound++;
+            for (int i = 0; i < outSizes[excluded]; i++) {
+                int target = outTargets[excluded][i];
+                if (target != source) {
+                    targetRounds[target] = searchRound;
+                    pending++;
+                }
+            }
+            witness.offer(source, 0);
+            int settled = 0;
+            while (pending > 0 && !witness.heap.isEmpty() && settled++ < WITNESS_SETTLE_LIMIT && witness.heap.peekKey() <= maxLength) {
+                int node = witness.heap.poll();
+                if (targetRounds[node] == searchRound) {
+                    pending--;
+                }
+                int distance = witness.distances[node];
+                for (int i = 0; i < outSizes[node]; i++) {
+                    int target = outTargets[node][i];
+                    int length = distance + outLengths[node][i];
+                    if (target != excluded && length <= maxLength) {
+                        witness.offer(target, length);
+                    }
+                }
+            }
+        }
+
+        // Adds the edge, or shortens an existing one between the same nodes
+        private void addEdge(int source, int target, int length) {
+            for (int i = 0; i < outSizes[source]; i++) {
+                if (outTargets[source][i] == target) {
+                    if (length < outLengths[source][i]) {
+                        outLengths[source][i] = length;
+                        for (int j = 0; j < inSizes[target]; j++) {
+                            if (inSources[target][j] == source) {
+                                inLengths[target][j] = length;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            if (outSizes[source] == outTargets[source].length) {
+                outTargets[source] = Arrays.copyOf(outTargets[source], outSizes[source] * 2);
+                outLengths[source] = Arrays.copyOf(outLengths[source], outSizes[source] * 2);
+            }
+            outTargets[source][outSizes[source]] = target;
+            outLengths[source][outSizes[source]++] = length;
+            if (inSizes[target] == inSources[target].length) {
+                inSources[target] = Arrays.copyOf(inSources[target], inSizes[target] * 2);
+                inLengths[target] = Arrays.copyOf(inLengths[target], inSizes[target] * 2);
+            }
+            inSources[target][inSizes[target]] = source;
+            inLengths[target][inSizes[target]++] = length;
+        }
+
+        private void removeOut(int source, int target) {
+            int[] targets = outTargets[source];
+            for (int i = 0; i < outSizes[source]; i++) {
+                if (targets[i] == target) {
+                    int last = --outSizes[source];
+                    targets[i] = targets[last];
+                    outLengths[source][i] = outLengths[source][last];
+                    return;
+                }
+            }
+        }
+
+        private void removeIn(int target, int source) {
+            int[] sources = inSources[target];
+            for (int i = 0; i < inSizes[target]; i++) {
+                if (sources[i] == source) {
+                    int last = --inSizes[target];
+                    sources[i] = sources[last];
+                    inLengths[target][i] = inLengths[target][last];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class EdgeList {
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int[] lengths = new int[1024];
+        private int size;
+
+        void add(int source, int target, int length) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            lengths[size++] = length;
+        }
+
+        // {first, targets, lengths}, grouped by source
+        int[][] toCsr(int nodeCount) {
+            int[] first = new int[nodeCount + 1];
+            for (int i = 0; i < size; i++) {
+                first[sources[i] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                first[node + 1] += first[node];
+            }
+            int[] next = Arrays.copyOf(first, nodeCount);
+            int[] csrTargets = new int[size];
+            int[] csrLengths = new int[size];
+            for (int i = 0; i < size; i++) {
+                int position = next[sources[i]]++;
+                csrTargets[position] = targets[i];
+                csrLengths[position] = lengths[i];
+            }
+            return new int[][]{first, csrTargets, csrLengths};
+        }
+    }
+}
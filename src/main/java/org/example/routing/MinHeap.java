@@ -0,0 +1,99 @@
+package org.example.routing;
+
+import java.util.Arrays;
+
+// Binary min-heap of node ids keyed by int distances, with decrease-key; sized for a whole graph and cheap to clear
+final class MinHeap {
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] positions;
+    private int size;
+
+    MinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int peekKey() {
+        return keys[heap[0]];
+    }
+
+    // Inserts the node or lowers its key; a higher key is ignored
+    void offer(int node, int key) {
+        int position = positions[node];
+        if (position < 0) {
+            position = size++;
+            heap[position] = node;
+            positions[node] = position;
+        } else if (key >= keys[node]) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(position);
+    }
+
+    int poll() {
+        int node = heap[0];
+        positions[node] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return node;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        int key = keys[node];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) {
+                break;
+            }
+            heap[position] = parentNode;
+            positions[parentNode] = position;
+            position = parent;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        int key = keys[node];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int childNode = heap[child];
+            if (keys[childNode] >= key) {
+                break;
+            }
+            heap[position] = childNode;
+            positions[childNode] = position;
+            position = child;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.routing;
+
+import org.example.geo.GreatCircle;
+
+import java.util.Arrays;
+
+// Snaps coordinates to the nearest graph node through a uniform grid: node ids sorted by cell, with the
+// occupied cells and their offsets in parallel arrays. Searches ring by ring around the query cell.
+final class NodeLocator {
+    static final int NONE = -1;
+    private static final double CELL_DEGREES = 0.01;
+    private static final double KM_PER_DEGREE = 111.2;
+    private static final int LONGITUDE_CELLS = 36_001;
+    private static final int MAX_RING = 18_000;
+
+    private final RoadGraph graph;
+    private final int[] cells;
+    private final int[] cellStarts;
+    private final int[] nodes;
+
+    NodeLocator(RoadGraph graph) {
+        this.graph = graph;
+        int nodeCount = graph.nodeCount();
+        long[] byCell = new long[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            byCell[node] = ((long) cell(latitudeCell(graph.latitude(node)), longitudeCell(graph.longitude(node))) << 32) | node;
+        }
+        Arrays.sort(byCell);
+        nodes = new int[nodeCount];
+        int[] cells = new int[nodeCount];
+        int[] cellStarts = new int[nodeCount + 1];
+        int cellCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            int cell = (int) (byCell[i] >>> 32);
+            nodes[i] = (int) byCell[i];
+            if (cellCount == 0 || cells[cellCount - 1] != cell) {
+                cells[cellCount] = cell;
+                cellStarts[cellCount++] = i;
+            }
+        }
+        cellStarts[cellCount] = nodeCount;
+        this.cells = Arrays.copyOf(cells, cellCount);
+        this.cellStarts = Arrays.copyOf(cellStarts, cellCount + 1);
+    }
+
+    // Nearest node within maxKm of the position, or NONE
+    int nearest(double latitude, double longitude, double maxKm) {
+        double[] position = {latitude, longitude};
+        int latitudeCell = latitudeCell(latitude);
+        int longitudeCell = longitudeCell(longitude);
+        // a ring r cells out is at least (r - 1) cell widths away; cells narrow towards the poles
+        double cellKm = CELL_DEGREES * KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(Math.abs(latitude) + CELL_DEGREES)));
+        int best = NONE;
+        double bestKm = maxKm;
+        for (int ring = 0; ring <= MAX_RING && (ring - 1) * cellKm <= bestKm; ring++) {
+            for (int dLatitude = -ring; dLatitude <= ring; dLatitude++) {
+                int step = Math.abs(dLatitude) == ring ? 1 : 2 * ring;
+                for (int dLongitude = -ring; dLongitude <= ring; dLongitude += step) {
+                    int index = Arrays.binarySearch(cells, cell(latitudeCell + dLatitude, longitudeCell + dLongitude));
+                    if (index < 0) {
+                        continue;
+                    }
+                    for (int i = cellStarts[index]; i < cellStarts[index + 1]; i++) {
+                        int node = nodes[i];
+                        double km = GreatCircle.haversineKm(position, new double[]{graph.latitude(node), graph.longitude(node)});
+                        if (km <= bestKm && (best == NONE || km < bestKm)) {
+                            best = node;
+                            bestKm = km;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int latitudeCell(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int longitudeCell(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static int cell(int latitudeCell, int longitudeCell) {
+        return (latitudeCell + 9_000) * LONGITUDE_CELLS + longitudeCell + 18_000;
+    }
+}
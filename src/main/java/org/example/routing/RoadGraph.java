@@ -0,0 +1,275 @@
+package org.example.routing;
+
+import org.example.geo.GreatCircle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Directed road graph in compressed sparse row form: the edges leaving node n are firstEdge[n] until
+ * firstEdge[n + 1], with their targets and lengths in parallel int arrays. Positions are int microdegrees,
+ * lengths int decimetres, so a continental extract stays in a few flat arrays.
+ *
+ * Binary format ("RGR1"): magic, version, node count, edge count, then {latitude, longitude} per node and
+ * {from, to, length} per directed edge, all big-endian ints. The text format is what OSM tools export
+ * easily and is compiled into the binary one by open():
+ *   node <id> <latitude> <longitude>
+ *   edge <from id> <to id> [<length in metres>] [oneway]
+ * Node ids are arbitrary longs (e.g. OSM ids); a missing length is the great-circle distance; edges are
+ * usable in both directions unless marked oneway. Everything after a # is a comment.
+ */
+public final class RoadGraph {
+    private static final int MAGIC = 0x52475231; // "RGR1"
+    private static final int VERSION = 1;
+    static final int DECIMETRES_PER_KM = 10_000;
+    private static final double MICRODEGREES = 1_000_000;
+
+    private final int[] latitudes;
+    private final int[] longitudes;
+    private final int[] firstEdge;
+    private final int[] edgeTargets;
+    private final int[] edgeLengths;
+
+    private RoadGraph(int[] latitudes, int[] longitudes, int[] edgeSources, int[] edgeTargets, int[] edgeLengths) {
+        int nodeCount = latitudes.length;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.firstEdge = new int[nodeCount + 1];
+        this.edgeTargets = new int[edgeTargets.length];
+        this.edgeLengths = new int[edgeLengths.length];
+        // counting sort of the edges by source
+        for (int source : edgeSources) {
+            if (source < 0 || source >= nodeCount) {
+                throw new IllegalArgumentException("Edge refers to unknown node " + source);
+            }
+            firstEdge[source + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            firstEdge[node + 1] += firstEdge[node];
+        }
+        int[] next = Arrays.copyOf(firstEdge, nodeCount);
+        for (int edge = 0; edge < edgeSources.length; edge++) {
+            if (edgeTargets[edge] < 0 || edgeTargets[edge] >= nodeCount || edgeLengths[edge] < 0) {
+                throw new IllegalArgumentException("Invalid edge " + edgeSources[edge] + " -> " + edgeTargets[edge]);
+            }
+            int position = next[edgeSources[edge]]++;
+            this.edgeTargets[position] = edgeTargets[edge];
+            this.edgeLengths[position] = edgeLengths[edge];
+        }
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    public double latitude(int node) {
+        return latitudes[node] / MICRODEGREES;
+    }
+
+    public double longitude(int node) {
+        return longitudes[node] / MICRODEGREES;
+    }
+
+    int firstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    // in decimetres
+    int edgeLength(int edge) {
+        return edgeLengths[edge];
+    }
+
+    // Reads a binary graph as is; a text graph is compiled into <path>.rgr first, unless that file is newer
+    public static RoadGraph open(Path path) throws IOException {
+        if (isBinary(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                return read(in);
+            }
+        }
+        Path binaryPath = path.resolveSibling(path.getFileName() + ".rgr");
+        if (Files.exists(binaryPath) && Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(path)) >= 0) {
+            try (InputStream in = Files.newInputStream(binaryPath)) {
+                return read(in);
+            }
+        }
+        RoadGraph graph;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            graph = readText(reader);
+        }
+        Path temporary = Files.createTempFile(binaryPath.toAbsolutePath().getParent(), binaryPath.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            graph.write(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, binaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return graph;
+    }
+
+    public static RoadGraph read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a road graph or unsupported version");
+        }
+        int nodeCount = data.readInt();
+        int edgeCount = data.readInt();
+        if (nodeCount < 0 || edgeCount < 0) {
+            throw new IOException("Corrupt road graph header");
+        }
+        int[] latitudes = new int[nodeCount];
+        int[] longitudes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            latitudes[node] = data.readInt();
+            longitudes[node] = data.readInt();
+        }
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int[] lengths = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            sources[edge] = data.readInt();
+            targets[edge] = data.readInt();
+            lengths[edge] = data.readInt();
+        }
+        try {
+            return new RoadGraph(latitudes, longitudes, sources, targets, lengths);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt road graph: " + e.getMessage());
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(nodeCount());
+        data.writeInt(edgeCount());
+        for (int node = 0; node < nodeCount(); node++) {
+            data.writeInt(latitudes[node]);
+            data.writeInt(longitudes[node]);
+        }
+        for (int node = 0; node < nodeCount(); node++) {
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                data.writeInt(node);
+                data.writeInt(edgeTargets[edge]);
+                data.writeInt(edgeLengths[edge]);
+            }
+        }
+        data.flush();
+    }
+
+    public static RoadGraph readText(BufferedReader reader) throws IOException {
+        Builder builder = new Builder();
+        Map<Long, Integer> nodes = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String trimmed = (comment < 0 ? line : line.substring(0, comment)).trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] fields = trimmed.split("\\s+");
+            try {
+                if (fields[0].equals("node") && fields.length == 4) {
+                    long id = Long.parseLong(fields[1]);
+                    if (nodes.putIfAbsent(id, builder.addNode(Double.parseDouble(fields[2]), Double.parseDouble(fields[3]))) != null) {
+                        throw new IOException("Duplicate node " + id + " on line " + lineNumber);
+                    }
+                } else if (fields[0].equals("edge") && fields.length >= 3 && fields.length <= 5) {
+                    Integer from = nodes.get(Long.parseLong(fields[1]));
+                    Integer to = nodes.get(Long.parseLong(fields[2]));
+                    if (from == null || to == null) {
+                        throw new IOException("Edge on line " + lineNumber + " refers to a node not declared before it");
+                    }
+                    boolean oneway = fields[fields.length - 1].equals("oneway");
+                    int lengthFields = fields.length - 3 - (oneway ? 1 : 0);
+                    double metres = lengthFields == 1 ? Double.parseDouble(fields[3]) : builder.greatCircleMetres(from, to);
+                    builder.addEdge(from, to, metres);
+                    if (!oneway) {
+                        builder.addEdge(to, from, metres);
+                    }
+                } else {
+                    throw new IOException("Invalid road graph line " + lineNumber + ": " + trimmed);
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid number on road graph line " + lineNumber + ": " + trimmed);
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean isBinary(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(Integer.BYTES);
+            return header.length == Integer.BYTES && ByteBuffer.wrap(header).getInt() == MAGIC;
+        }
+    }
+
+    public static final class Builder {
+        private int[] latitudes = new int[64];
+        private int[] longitudes = new int[64];
+        private int nodeCount;
+        private int[] sources = new int[256];
+        private int[] targets = new int[256];
+        private int[] lengths = new int[256];
+        private int edgeCount;
+
+        public int addNode(double latitude, double longitude) {
+            if (nodeCount == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, nodeCount * 2);
+                longitudes = Arrays.copyOf(longitudes, nodeCount * 2);
+            }
+            latitudes[nodeCount] = (int) Math.round(latitude * MICRODEGREES);
+            longitudes[nodeCount] = (int) Math.round(longitude * MICRODEGREES);
+            return nodeCount++;
+        }
+
+        // One direction only; add the reverse edge as well for a two-way road
+        public Builder addEdge(int from, int to, double metres) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+                lengths = Arrays.copyOf(lengths, edgeCount * 2);
+            }
+            sources[edgeCount] = from;
+            targets[edgeCount] = to;
+            lengths[edgeCount] = (int) Math.round(metres * 10);
+            edgeCount++;
+            return this;
+        }
+
+        public RoadGraph build() {
+            return new RoadGraph(Arrays.copyOf(latitudes, nodeCount), Arrays.copyOf(longitudes, nodeCount),
+                    Arrays.copyOf(sources, edgeCount), Arrays.copyOf(targets, edgeCount), Arrays.copyOf(lengths, edgeCount));
+        }
+
+        private double greatCircleMetres(int from, int to) {
+            return GreatCircle.haversineKm(new double[]{latitudes[from] / MICRODEGREES, longitudes[from] / MICRODEGREES},
+                    new double[]{latitudes[to] / MICRODEGREES, longitudes[to] / MICRODEGREES}) * 1000;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.routing;
+
+import org.example.geo.GreatCircle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+// Road distances in km between arbitrary coordinates: both ends are snapped to their nearest graph node
+// (the straight line to it is added to the route) and routed over a contraction hierarchy.
+// Answers NaN where a position is farther than maxSnapKm from the graph or there is no route.
+public final class RoutingEngine {
+    private final RoadGraph graph;
+    private final NodeLocator locator;
+    private final ContractionHierarchy hierarchy;
+    private final double maxSnapKm;
+
+    public RoutingEngine(RoadGraph graph, double maxSnapKm) {
+        this(graph, ContractionHierarchy.build(graph), maxSnapKm);
+    }
+
+    public RoutingEngine(RoadGraph graph, ContractionHierarchy hierarchy, double maxSnapKm) {
+        this.graph = graph;
+        this.locator = new NodeLocator(graph);
+        this.hierarchy = hierarchy;
+        this.maxSnapKm = maxSnapKm;
+    }
+
+    // Preprocessing takes a while on large graphs, so the hierarchy is kept in <path>.ch and only rebuilt
+    // when the graph file is newer or the saved one cannot be read
+    public static RoutingEngine open(Path path, double maxSnapKm) throws IOException {
+        RoadGraph graph = RoadGraph.open(path);
+        Path hierarchyPath = path.resolveSibling(path.getFileName() + ".ch");
+        if (Files.exists(hierarchyPath) && Files.getLastModifiedTime(hierarchyPath).compareTo(Files.getLastModifiedTime(path)) >= 0) {
+            try (InputStream in = Files.newInputStream(hierarchyPath)) {
+                return new RoutingEngine(graph, ContractionHierarchy.read(in, graph.nodeCount()), maxSnapKm);
+            } catch (IOException e) {
+                // rebuilt below
+            }
+        }
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Path temporary = Files.createTempFile(hierarchyPath.toAbsolutePath().getParent(), hierarchyPath.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            hierarchy.write(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, hierarchyPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new RoutingEngine(graph, hierarchy, maxSnapKm);
+    }
+
+    public RoadGraph graph() {
+        return graph;
+    }
+
+    public double distanceKm(double[] from, double[] to) {
+        int source = snap(from);
+        int target = snap(to);
+        if (source == NodeLocator.NONE || target == NodeLocator.NONE) {
+            return Double.NaN;
+        }
+        return toKm(hierarchy.distance(source, target)) + snapKm(from, source) + snapKm(to, target);
+    }
+
+    public double[][] distanceMatrixKm(double[][] sources, double[][] destinations) {
+        int[] sourceNodes = snapAll(sources);
+        int[] targetNodes = snapAll(destinations);
+        double[][] distances = new double[sources.length][destinations.length];
+        int[][] routes = hierarchy.distances(compact(sourceNodes), compact(targetNodes));
+        for (int i = 0, row = 0; i < sources.length; i++) {
+            boolean snapped = sourceNodes[i] != NodeLocator.NONE;
+            for (int j = 0, column = 0; j < destinations.length; j++) {
+                if (!snapped || targetNodes[j] == NodeLocator.NONE) {
+                    distances[i][j] = Double.NaN;
+                    continue;
+                }
+                distances[i][j] = toKm(routes[row][column++]) + snapKm(sources[i], sourceNodes[i]) + snapKm(destinations[j], targetNodes[j]);
+            }
+            row += snapped ? 1 : 0;
+        }
+        return distances;
+    }
+
+    private int snap(double[] coordinates) {
+        return locator.nearest(coordinates[0], coordinates[1], maxSnapKm);
+    }
+
+    private int[] snapAll(double[][] coordinates) {
+        int[] nodes = new int[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            nodes[i] = snap(coordinates[i]);
+        }
+        return nodes;
+    }
+
+    private static int[] compact(int[] nodes) {
+        return Arrays.stream(nodes).filter(node -> node != NodeLocator.NONE).toArray();
+    }
+
+    private double snapKm(double[] coordinates, int node) {
+        return GreatCircle.haversineKm(coordinates, new double[]{graph.latitude(node), graph.longitude(node)});
+    }
+
+    private static double toKm(int decimetres) {
+        return decimetres == ContractionHierarchy.UNREACHABLE ? Double.NaN : (double) decimetres / RoadGraph.DECIMETRES_PER_KM;
+    }
+}
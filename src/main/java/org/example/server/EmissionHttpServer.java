@@ -0,0 +1,285 @@
+package org.example.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.example.batch.BatchFormat;
+import org.example.batch.BatchProcessor;
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.controller.EmissionController;
+import org.example.exception.CalculationException;
+import org.example.exception.CalculationTimeoutException;
+import org.example.exception.UnknownCityException;
+import org.example.metrics.MetricsRegistry;
+import org.example.service.ExecutorStrategy;
+import org.example.utils.ArgumentParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/*
+ * Long-running HTTP front end for an EmissionController, so one warm JVM (caches, connection pool,
+ * JIT) serves many trips:
+ *   GET  /emission?start=..&end=..&transportation-method=..  (timeout-ms=.. bounds the calculation, 504 past it; 404 for unknown cities)
+ *                         answers served from stale cache entries carry "stale": true, estimated distances "estimated": true;
+ *                         transportation-method=all answers "co2Kg" for every method from one route lookup
+ *   POST /emission        {"start":..,"end":..,"transportation-method":..}
+ *   POST /emission/batch  CSV or JSONL trips, streamed back as by the --batch mode; the requested concurrency is
+ *                         capped at the server's maxBatchConcurrency, which also bounds all batch requests together
+ *   GET  /health
+ *   GET  /metrics         Prometheus text format, when a registry is given
+ */
+public class EmissionHttpServer {
+    private static final Logger logger = LoggerFactory.getLogger(EmissionHttpServer.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String FIELD_START = "start";
+    private static final String FIELD_END = "end";
+    private static final String FIELD_TRANSPORTATION_METHOD = "transportation-method";
+    private static final String PARAMETER_TIMEOUT_MS = "timeout-ms";
+    private static final int DEFAULT_BATCH_CONCURRENCY = 8;
+    public static final int DEFAULT_MAX_BATCH_CONCURRENCY = 32;
+
+    private final HttpServer server;
+    private final EmissionController emissionController;
+    private final Executor batchExecutor;
+    private final int maxBatchConcurrency;
+    private final Semaphore batchTripsInFlight;
+
+    public EmissionHttpServer(InetSocketAddress address, EmissionController emissionController, Executor executor) throws IOException {
+        this(address, emissionController, executor, null);
+    }
+
+    public EmissionHttpServer(InetSocketAddress address, EmissionController emissionController, Executor executor,
+                              MetricsRegistry metricsRegistry) throws IOException {
+        this(address, emissionController, executor, metricsRegistry, DEFAULT_MAX_BATCH_CONCURRENCY);
+    }
+
+    /*
+     * maxBatchConcurrency caps the trips all batch requests together calculate at once, whatever each asks for.
+     * Batch trips run on the executor that also serves the exchanges, so it must not be a bounded pool; without
+     * one they run on cached daemon threads.
+     */
+    public EmissionHttpServer(InetSocketAddress address, EmissionController emissionController, Executor executor,
+                              MetricsRegistry metricsRegistry, int maxBatchConcurrency) throws IOException {
+        if (maxBatchConcurrency < 1) {
+            throw new IllegalArgumentException("Maximum batch concurrency must be positive: " + maxBatchConcurrency);
+        }
+        this.emissionController = emissionController;
+        this.batchExecutor = executor != null ? executor : ExecutorStrategy.CACHED_THREADS.createExecutor();
+        this.maxBatchConcurrency = maxBatchConcurrency;
+        this.batchTripsInFlight = new Semaphore(maxBatchConcurrency, true);
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        route("/emission/batch", this::handleBatch);
+        route("/emission", this::handleEmission);
+        route("/health", exchange -> respond(exchange, 200, "text/plain", "ok"));
+        if (metricsRegistry != null) {
+            route("/metrics", exchange -> respond(exchange, 200, "text/plain; version=0.0.4; charset=utf-8",
+                    metricsRegistry.getPrometheusText()));
+        }
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Emission server listening on {}", getAddress());
+    }
+
+    public void stop() {
+        server.stop(1);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /*
+     * HttpServer contexts match by prefix, so only the exact path is handed to the handler, anything below it
+     * answers 404. A handler failing unexpectedly answers 500 as long as no response was started.
+     */
+    private void route(String path, HttpHandler handler) {
+        server.createContext(path, exchange -> {
+            try (exchange) {
+                if (!path.equals(exchange.getRequestURI().getPath())) {
+                    respondError(exchange, 404, "Not found: " + exchange.getRequestURI().getPath());
+                    return;
+                }
+                try {
+                    handler.handle(exchange);
+                } catch (RuntimeException e) {
+                    logger.error("Error occurred while handling {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                    if (exchange.getResponseCode() == -1) {
+                        respondError(exchange, 500, "Internal server error");
+                    }
+                }
+            }
+        });
+    }
+
+    private void handleEmission(HttpExchange exchange) throws IOException {
+        Map<String, String> trip;
+        if ("GET".equals(exchange.getRequestMethod())) {
+            trip = queryParameters(exchange);
+        } else if ("POST".equals(exchange.getRequestMethod())) {
+            try {
+                trip = readTrip(exchange);
+            } catch (IOException | IllegalArgumentException e) {
+                respondError(exchange, 400, "Invalid request body: " + e.getMessage());
+                return;
+            }
+        } else {
+            respondError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+            return;
+        }
+        String startCity = trip.get(FIELD_START);
+        String endCity = trip.get(FIELD_END);
+        String method = trip.get(FIELD_TRANSPORTATION_METHOD);
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            Deadline deadline = deadlineOf(exchange);
+            ObjectNode result = MAPPER.createObjectNode()
+                    .put(FIELD_START, startCity)
+                    .put(FIELD_END, endCity)
+                    .put(FIELD_TRANSPORTATION_METHOD, method);
+            if (ArgumentParser.isAllTransportationMethods(method)) {
+                ObjectNode co2Kg = result.putObject("co2Kg");
+                emissionController.compareEmissions(startCity, endCity, deadline)
+                        .forEach((transportationMethod, co2Emission) -> co2Kg.put(ArgumentParser.getArgumentName(transportationMethod), co2Emission));
+            } else {
+                result.put("co2Kg", deadline.isBounded()
+                        ? emissionController.calculateEmission(startCity, endCity, method, deadline)
+                        : emissionController.calculateEmission(startCity, endCity, method));
+            }
+            if (context.isStale()) {
+                // answered from expired cache entries while ORS is unavailable
+                result.put("stale", true);
+            }
+            if (context.isEstimated()) {
+                // great-circle distance instead of the road distance
+                result.put("estimated", true);
+            }
+            respond(exchange, 200, "application/json", result.toString());
+        } catch (IllegalArgumentException e) {
+            respondError(exchange, 400, e.getMessage());
+        } catch (UnknownCityException e) {
+            respondError(exchange, 404, e.getMessage());
+        } catch (CalculationTimeoutException e) {
+            respondError(exchange, 504, e.getMessage());
+        } catch (CalculationException e) {
+            respondError(exchange, 502, e.getMessage());
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respondError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+            return;
+        }
+        Map<String, String> parameters = queryParameters(exchange);
+        BatchFormat format;
+        int concurrency;
+        try {
+            format = parameters.containsKey("format")
+                    ? BatchFormat.fromName(parameters.get("format"))
+                    : formatOf(exchange.getRequestHeaders().getFirst("Content-Type"));
+            concurrency = parameters.containsKey("concurrency")
+                    ? Integer.parseInt(parameters.get("concurrency"))
+                    : DEFAULT_BATCH_CONCURRENCY;
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+            }
+            concurrency = Math.min(concurrency, maxBatchConcurrency);
+        } catch (IllegalArgumentException e) {
+            respondError(exchange, 400, e.getMessage());
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", format == BatchFormat.CSV ? "text/csv" : "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0); // chunked, results are streamed as they complete
+        BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+        new BatchProcessor(emissionController, concurrency, batchExecutor, batchTripsInFlight).process(reader, writer, format);
+    }
+
+    // The timeout-ms query parameter bounds how long the calculation may take
+    private static Deadline deadlineOf(HttpExchange exchange) {
+        String timeout = queryParameters(exchange).get(PARAMETER_TIMEOUT_MS);
+        if (timeout == null) {
+            return Deadline.none();
+        }
+        try {
+            long millis = Long.parseLong(timeout.trim());
+            if (millis <= 0) {
+                throw new NumberFormatException();
+            }
+            return Deadline.after(Duration.ofMillis(millis));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + PARAMETER_TIMEOUT_MS + ": " + timeout);
+        }
+    }
+
+    private static BatchFormat formatOf(String contentType) {
+        return contentType != null && contentType.startsWith("text/csv") ? BatchFormat.CSV : BatchFormat.JSONL;
+    }
+
+    // Only string values are taken, asText() would turn null or an object into a city name
+    private static Map<String, String> readTrip(HttpExchange exchange) throws IOException {
+        JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+        Map<String, String> trip = new HashMap<>();
+        if (body != null && body.isObject()) {
+            body.fields().forEachRemaining(field -> {
+                if (!field.getValue().isTextual()) {
+                    throw new IllegalArgumentException("\"" + field.getKey() + "\" must be a string");
+                }
+                trip.put(field.getKey(), field.getValue().textValue());
+            });
+        }
+        return trip;
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static void respondError(HttpExchange exchange, int status, String message) throws IOException {
+        respond(exchange, status, "application/json", MAPPER.createObjectNode().put("error", message).toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.service;
+
+import org.example.client.AsyncServiceClient;
+import org.example.context.RequestContext;
+import org.example.core.Calculator;
+import org.example.exception.CalculationException;
+import org.example.exception.CalculationTimeoutException;
+import org.example.exception.CityNotFoundException;
+import org.example.exception.UnknownCityException;
+import org.example.jfr.TripCalculationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Builds the geocode -> distance -> calculate pipeline from callbacks, no thread blocks on network I/O
+public class AsyncCo2EmissionService implements EmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncCo2EmissionService.class);
+    private final AsyncServiceClient serviceClient;
+    private final Calculator calculator;
+
+    public AsyncCo2EmissionService(AsyncServiceClient serviceClient, Calculator calculator) {
+        this.serviceClient = serviceClient;
+        this.calculator = calculator;
+    }
+
+    @Override
+    public double calculateEmission(String startCity, String endCity, double emissionInGramsPerKm) throws CalculationException {
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            return await(calculateEmissionAsync(startCity, endCity, emissionInGramsPerKm), context);
+        }
+    }
+
+    @Override
+    public double[] calculateEmissions(String startCity, String endCity, double[] emissionsInGramsPerKm) throws CalculationException {
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            return await(calculateEmissionsAsync(startCity, endCity, emissionsInGramsPerKm), context);
+        }
+    }
+
+    @Override
+    public double[][] calculateEmissions(List<String> startCities, List<String> endCities, double emissionInGramsPerKm) throws CalculationException {
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            return await(calculateEmissionsAsync(startCities, endCities, emissionInGramsPerKm), context);
+        }
+    }
+
+    // ORS calls are bound to the RequestContext current at the time of the call, if any
+    public CompletableFuture<Double> calculateEmissionAsync(String startCity, String endCity, double emissionInGramsPerKm) {
+        RequestContext context = RequestContext.current();
+        TripCalculationEvent event = TripCalculationEvent.start(startCity, endCity, emissionInGramsPerKm);
+        return routeDistanceAsync(startCity, endCity, context)
+                .thenApply(distanceInKm -> calculator.calculate(distanceInKm, emissionInGramsPerKm))
+                .whenComplete((emission, error) -> event.finish(emission == null ? 0 : emission, error));
+    }
+
+    // One route lookup for all emission factors, calculated in bulk
+    public CompletableFuture<double[]> calculateEmissionsAsync(String startCity, String endCity, double[] emissionsInGramsPerKm) {
+        TripCalculationEvent[] events = TripCalculationEvent.startAll(startCity, endCity, emissionsInGramsPerKm);
+        return routeDistanceAsync(startCity, endCity, RequestContext.current())
+                .thenApply(distanceInKm -> {
+                    double[] emissions = new double[emissionsInGramsPerKm.length];
+                    Arrays.fill(emissions, distanceInKm);
+                    calculator.calculate(emissions, emissionsInGramsPerKm, emissions);
+                    return emissions;
+                })
+                .whenComplete((emissions, error) -> TripCalculationEvent.finishAll(events, emissions, error));
+    }
+
+    private CompletableFuture<Double> routeDistanceAsync(String startCity, String endCity, RequestContext context) {
+        CompletableFuture<double[]> startCoordinatesFuture = serviceClient.getCoordinatesAsync(startCity);
+        CompletableFuture<double[]> endCoordinatesFuture = serviceClient.getCoordinatesAsync(endCity);
+        return startCoordinatesFuture
+                .thenCompose(startCoordinates -> endCoordinatesFuture
+                        .thenCompose(endCoordinates -> inContext(context, () -> serviceClient.getDistanceAsync(startCoordinates, endCoordinates))));
+    }
+
+    public CompletableFuture<double[][]> calculateEmissionsAsync(List<String> startCities, List<String> endCities, double emissionInGramsPerKm) {
+        RequestContext context = RequestContext.current();
+        Map<String, CompletableFuture<double[]>> coordinatesFutures = new HashMap<>();
+        startCities.forEach(city -> coordinatesFutures.computeIfAbsent(city, serviceClient::getCoordinatesAsync));
+        endCities.forEach(city -> coordinatesFutures.computeIfAbsent(city, serviceClient::getCoordinatesAsync));
+
+        return CompletableFuture.allOf(coordinatesFutures.values().toArray(new CompletableFuture[0]))
+                .thenCompose(ignored -> inContext(context, () -> serviceClient.getDistanceMatrixAsync(
+                        startCities.stream().map(city -> coordinatesFutures.get(city).join()).toArray(double[][]::new),
+                        endCities.stream().map(city -> coordinatesFutures.get(city).join()).toArray(double[][]::new))))
+                .thenApply(distances -> {
+                    for (double[] row : distances) {
+                        for (int j = 0; j < row.length; j++) {
+                            row[j] = calculator.calculate(row[j], emissionInGramsPerKm);
+                        }
+                    }
+                    return distances;
+                });
+    }
+
+    // Callbacks run on OkHttp's threads, where the calculation's context has to be attached again
+    private static <T> CompletableFuture<T> inContext(RequestContext context, Supplier<CompletableFuture<T>> call) {
+        return context == null ? call.get() : context.wrap(call).get();
+    }
+
+    private static <T> T await(CompletableFuture<T> future, RequestContext context) throws CalculationException {
+        try {
+            return future.get(context.getDeadline().remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            context.cancel("Deadline exceeded");
+            throw timedOut();
+        } catch (ExecutionException e) {
+            context.cancel("Emission calculation failed");
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (context.getDeadline().isExpired()) {
+                throw timedOut();
+            }
+            if (cause instanceof CityNotFoundException notFound) {
+                throw new UnknownCityException(notFound.getCity());
+            }
+            logger.error("Error occurred during emission calculation: {}", cause.getMessage());
+            throw new CalculationException("Error occurred during emission calculation: " + cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.cancel("Emission calculation interrupted");
+            throw new CalculationException("Error occurred during emission calculation: " + e.getMessage());
+        }
+    }
+
+    private static CalculationTimeoutException timedOut() {
+        logger.error("Emission calculation exceeded its deadline");
+        return new CalculationTimeoutException("Emission calculation did not finish before its deadline");
+    }
+}
@@ -1,62 +1,250 @@
 package org.example.service;
 
 import org.example.client.ServiceClient;
+import org.example.context.RequestContext;
 import org.example.core.Calculator;
 import org.example.exception.CalculationException;
+import org.example.exception.CalculationTimeoutException;
+import org.example.exception.CityNotFoundException;
 import org.example.exception.ServiceClientException;
+import org.example.exception.UnknownCityException;
+import org.example.jfr.TripCalculationEvent;
+import org.example.metrics.PipelineMetrics;
+import org.example.metrics.PipelineMetrics.Stage;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 public class Co2EmissionService implements EmissionService{
     private static final Logger logger = LoggerFactory.getLogger(Co2EmissionService.class);
     private final ServiceClient serviceClient;
     private final Calculator calculator;
+    private final Executor executor;
+    private final PipelineMetrics metrics;
 
     public Co2EmissionService(ServiceClient serviceClient, Calculator calculator) {
+        this(serviceClient, calculator, ForkJoinPool.commonPool());
+    }
+
+    public Co2EmissionService(ServiceClient serviceClient, Calculator calculator, Executor executor) {
+        this(serviceClient, calculator, executor, PipelineMetrics.unregistered());
+    }
+
+    // A null executor falls back to the common pool, null metrics are kept but not exported
+    public Co2EmissionService(ServiceClient serviceClient, Calculator calculator, Executor executor, PipelineMetrics metrics) {
         this.serviceClient = serviceClient;
         this.calculator = calculator;
+        this.executor = Objects.requireNonNullElseGet(executor, ForkJoinPool::commonPool);
+        this.metrics = Objects.requireNonNullElseGet(metrics, PipelineMetrics::unregistered);
     }
+    // Runs in a child of the caller's RequestContext: its deadline bounds the wait, and a failed or timed
+    // out calculation cancels the lookups and ORS calls still running for it
     @Override
     public double calculateEmission(String startCity, String endCity, double emissionInGramsPerKm) throws CalculationException {
-        CompletableFuture<double[]> startCoordinatesFuture = getCoordinatesFuture(startCity);
-        CompletableFuture<double[]> endCoordinatesFuture = getCoordinatesFuture(endCity);
+        metrics.calculationStarted();
+        TripCalculationEvent event = TripCalculationEvent.start(startCity, endCity, emissionInGramsPerKm);
+        double emission = 0;
+        Throwable failure = null;
+        try (RequestContext context = RequestContext.fork()) {
+            double distanceInKm = fetchRouteDistance(startCity, endCity, context);
+            long calculateStart = System.nanoTime();
+            emission = calculator.calculate(distanceInKm, emissionInGramsPerKm);
+            metrics.recordStage(Stage.CALCULATE, calculateStart);
+            return emission;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(emission, failure);
+            metrics.calculationFinished();
+        }
+    }
+
+    // The route is looked up once, the emissions of all factors are calculated in bulk
+    @Override
+    public double[] calculateEmissions(String startCity, String endCity, double[] emissionsInGramsPerKm) throws CalculationException {
+        metrics.calculationStarted();
+        TripCalculationEvent[] events = TripCalculationEvent.startAll(startCity, endCity, emissionsInGramsPerKm);
+        double[] emissions = null;
+        RuntimeException failure = null;
+        try (RequestContext context = RequestContext.fork()) {
+            double distanceInKm = fetchRouteDistance(startCity, endCity, context);
+            long calculateStart = System.nanoTime();
+            emissions = new double[emissionsInGramsPerKm.length];
+            Arrays.fill(emissions, distanceInKm);
+            calculator.calculate(emissions, emissionsInGramsPerKm, emissions);
+            metrics.recordStage(Stage.CALCULATE, calculateStart);
+            return emissions;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            TripCalculationEvent.finishAll(events, failure == null ? emissions : null, failure);
+            metrics.calculationFinished();
+        }
+    }
+
+    @Override
+    public double[][] calculateEmissions(List<String> startCities, List<String> endCities, double emissionInGramsPerKm) throws CalculationException {
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            List<String> cities = Stream.concat(startCities.stream(), endCities.stream()).distinct().toList();
+            Map<String, CompletableFuture<double[]>> coordinatesFutures = new HashMap<>();
+            cities.forEach(city -> coordinatesFutures.put(city, getCoordinatesFuture(city, null, context)));
+            coordinatesFutures.values().forEach(future -> cancelOnFailure(future, context));
 
-        CompletableFuture<Double> distanceFuture = startCoordinatesFuture
-                .thenCombine(endCoordinatesFuture,this::fetchDistance);
+            try {
+                await(CompletableFuture.allOf(coordinatesFutures.values().toArray(new CompletableFuture[0])), context);
+                UnknownCityException unknownCity = unknownCity(cities, cities.stream().map(coordinatesFutures::get).toList());
+                if (unknownCity != null) {
+                    throw unknownCity;
+                }
+                double[][] sources = startCities.stream().map(city -> coordinatesFutures.get(city).join()).toArray(double[][]::new);
+                double[][] destinations = endCities.stream().map(city -> coordinatesFutures.get(city).join()).toArray(double[][]::new);
+                double[][] distances = serviceClient.getDistanceMatrix(sources, destinations);
+                for (double[] row : distances) {
+                    for (int j = 0; j < row.length; j++) {
+                        row[j] = calculator.calculate(row[j], emissionInGramsPerKm);
+                    }
+                }
+                return distances;
+            } catch (InterruptedException | ExecutionException e) {
+                context.cancel("Emission calculation failed");
+                if (context.getDeadline().isExpired()) {
+                    throw timedOut();
+                }
+                UnknownCityException unknownCity = unknownCity(cities, cities.stream().map(coordinatesFutures::get).toList());
+                if (unknownCity != null) {
+                    throw unknownCity;
+                }
+                logger.error("Error occurred during emission calculation: {}", e.getMessage());
+                throw new CalculationException("Error occurred during emission calculation: " + e.getMessage());
+            } catch (TimeoutException e) {
+                context.cancel("Deadline exceeded");
+                throw timedOut();
+            } catch (ServiceClientException e) {
+                if (context.getDeadline().isExpired()) {
+                    throw timedOut();
+                }
+                logger.error("Error occurred while fetching distance matrix: {}", e.getMessage());
+                throw new CalculationException(e.getMessage());
+            }
+        }
+    }
 
+    // Geocodes both cities in parallel, then looks up the distance between them
+    private double fetchRouteDistance(String startCity, String endCity, RequestContext context) throws CalculationException {
+        CompletableFuture<double[]> startCoordinatesFuture = getCoordinatesFuture(startCity, Stage.GEOCODE_START, context);
+        CompletableFuture<double[]> endCoordinatesFuture = getCoordinatesFuture(endCity, Stage.GEOCODE_END, context);
         try {
-            double distanceInKm = distanceFuture.get();
-            return calculator.calculate(distanceInKm, emissionInGramsPerKm);
+            // thenCombine waits for both lookups even when one has failed already, the other is not needed anymore
+            cancelOnFailure(startCoordinatesFuture, context);
+            cancelOnFailure(endCoordinatesFuture, context);
+
+            CompletableFuture<Double> distanceFuture = startCoordinatesFuture
+                    .thenCombine(endCoordinatesFuture, (startCoordinates, endCoordinates) -> startCoordinates == null || endCoordinates == null
+                            ? null
+                            : fetchDistance(startCoordinates, endCoordinates, context));
+            Double distance = await(distanceFuture, context);
+            if (distance == null) {
+                throw unknownCity(List.of(startCity, endCity), List.of(startCoordinatesFuture, endCoordinatesFuture));
+            }
+            return distance;
         } catch (InterruptedException | ExecutionException e) {
+            context.cancel("Emission calculation failed");
+            if (context.getDeadline().isExpired()) {
+                throw timedOut();
+            }
+            UnknownCityException unknownCity = unknownCity(List.of(startCity, endCity), List.of(startCoordinatesFuture, endCoordinatesFuture));
+            if (unknownCity != null) {
+                throw unknownCity;
+            }
             logger.error("Error occurred during emission calculation: {}", e.getMessage());
             throw new CalculationException("Error occurred during emission calculation: " + e.getMessage());
+        } catch (TimeoutException e) {
+            context.cancel("Deadline exceeded");
+            throw timedOut();
+        } catch (RuntimeException e) {
+            context.cancel("Emission calculation failed");
+            throw e;
         }
     }
 
+    // The first of the cities whose lookup found nothing, null if every lookup found its city or failed otherwise
+    private static UnknownCityException unknownCity(List<String> cities, List<CompletableFuture<double[]>> coordinatesFutures) {
+        for (int i = 0; i < cities.size(); i++) {
+            CompletableFuture<double[]> future = coordinatesFutures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally() && future.join() == null) {
+                return new UnknownCityException(cities.get(i));
+            }
+        }
+        return null;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, RequestContext context) throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(context.getDeadline().remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void cancelOnFailure(CompletableFuture<?> future, RequestContext context) {
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                context.cancel("A sibling lookup failed");
+            }
+        });
+    }
+
+    private static CalculationTimeoutException timedOut() {
+        logger.error("Emission calculation exceeded its deadline");
+        return new CalculationTimeoutException("Emission calculation did not finish before its deadline");
+    }
+
+    /*
+     * stage is null when the lookup is not part of a single-trip calculation. An unknown city completes the
+     * future with null: a failed future would wrap the stackless UnknownCityException in a CompletionException
+     * and then an ExecutionException, each with a stack trace, on a path that only reports bad input.
+     */
     @NotNull
-    private CompletableFuture<double[]> getCoordinatesFuture(String city) {
-        return CompletableFuture.supplyAsync(() -> {
+    private CompletableFuture<double[]> getCoordinatesFuture(String city, Stage stage, RequestContext context) {
+        return CompletableFuture.supplyAsync(context.wrap(() -> {
+            long start = System.nanoTime();
             try {
                 return serviceClient.getCoordinates(city);
+            } catch (CityNotFoundException e) {
+                logger.debug("Unknown city: {}", city);
+                return null;
             } catch (ServiceClientException e) {
                 logger.error("Error occurred while fetching coordinates for city: {}", city);
                 throw new CalculationException(e.getMessage());
+            } finally {
+                if (stage != null) {
+                    metrics.recordStage(stage, start);
+                }
             }
-        });
+        }), executor);
     }
 
-    private double fetchDistance(double[] startCoordinates, double[] endCoordinates) {
-        try {
+    // Runs on whichever thread completed the second lookup, so the context is attached here
+    private double fetchDistance(double[] startCoordinates, double[] endCoordinates, RequestContext context) {
+        long start = System.nanoTime();
+        try (RequestContext.Scope ignored = context.attach()) {
             return serviceClient.getDistance(startCoordinates, endCoordinates);
         } catch (ServiceClientException e) {
             logger.error("Error occurred while fetching distance between cities: {}", e.getMessage());
             throw new CalculationException(e.getMessage());
+        } finally {
+            metrics.recordStage(Stage.DISTANCE, start);
         }
     }
 }
@@ -7,6 +7,8 @@ import org.example.exception.ServiceClientException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public class Co2EmissionServiceV1 implements EmissionService{
     private static final Logger logger = LoggerFactory.getLogger(Co2EmissionServiceV1.class);
     private final ServiceClient serviceClient;
@@ -31,4 +33,27 @@ public class Co2EmissionServiceV1 implements EmissionService{
             throw new CalculationException(e.getMessage());
         }
     }
+
+    @Override
+    public double[][] calculateEmissions(List<String> startCities, List<String> endCities, double emissionInGramsPerKm) throws CalculationException {
+        try {
+            double[][] sources = new double[startCities.size()][];
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = serviceClient.getCoordinates(startCities.get(i));
+            }
+            double[][] destinations = new double[endCities.size()][];
+            for (int j = 0; j < destinations.length; j++) {
+                destinations[j] = serviceClient.getCoordinates(endCities.get(j));
+            }
+            double[][] distances = serviceClient.getDistanceMatrix(sources, destinations);
+            for (double[] row : distances) {
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = calculator.calculate(row[j], emissionInGramsPerKm);
+                }
+            }
+            return distances;
+        } catch (ServiceClientException e) {
+            throw new CalculationException(e.getMessage());
+        }
+    }
 }
@@ -1,8 +1,32 @@
 package org.example.service;
 
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
 import org.example.exception.CalculationException;
-import org.example.exception.ServiceClientException;
+
+import java.util.List;
 
 public interface EmissionService {
     double calculateEmission(String startCity, String endCity, double emissionInGrams) throws CalculationException;
+
+    // Fails with a CalculationTimeoutException once the deadline has passed; ORS calls still running are cancelled
+    default double calculateEmission(String startCity, String endCity, double emissionInGrams, Deadline deadline) throws CalculationException {
+        try (RequestContext context = RequestContext.fork(deadline); RequestContext.Scope ignored = context.attach()) {
+            return calculateEmission(startCity, endCity, emissionInGrams);
+        }
+    }
+
+    // Emissions in kg for every start/end combination, result[i][j] = startCities[i] -> endCities[j].
+    // Fails as a whole when one of the routes cannot be found.
+    double[][] calculateEmissions(List<String> startCities, List<String> endCities, double emissionInGrams) throws CalculationException;
+
+    // Emissions in kg of one trip for several emission factors, result[k] for emissionsInGrams[k]. Implementations
+    // look the route up once; this default calculates the trip for each factor on its own.
+    default double[] calculateEmissions(String startCity, String endCity, double[] emissionsInGrams) throws CalculationException {
+        double[] emissions = new double[emissionsInGrams.length];
+        for (int k = 0; k < emissionsInGrams.length; k++) {
+            emissions[k] = calculateEmission(startCity, endCity, emissionsInGrams[k]);
+        }
+        return emissions;
+    }
 }
@@ -0,0 +1,66 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+
+// Where Co2EmissionService runs its blocking ORS calls
+public enum ExecutorStrategy {
+    // Shared ForkJoinPool, parallelism is capped at cores - 1
+    COMMON_POOL,
+    // Unbounded platform threads, reused when idle
+    CACHED_THREADS,
+    // One virtual thread per task on JDK 21+, cached platform threads on older runtimes
+    VIRTUAL_THREADS;
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorStrategy.class);
+
+    public static ExecutorStrategy fromName(String name) {
+        try {
+            return ExecutorStrategy.valueOf(name.trim().toUpperCase(Locale.ROOT).replace("-", "_"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported executor strategy: " + name);
+        }
+    }
+
+    public Executor createExecutor() {
+        switch (this) {
+            case CACHED_THREADS:
+                return Executors.newCachedThreadPool(daemonThreads());
+            case VIRTUAL_THREADS:
+                return newVirtualThreadPerTaskExecutor();
+            default:
+                return ForkJoinPool.commonPool();
+        }
+    }
+
+    // Looked up reflectively so the build can keep targeting Java 17
+    private static Executor newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            logger.warn("Virtual threads need Java 21 or newer, falling back to cached platform threads");
+            return Executors.newCachedThreadPool(daemonThreads());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "co2-emission-worker");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
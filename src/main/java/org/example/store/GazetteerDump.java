@@ -0,0 +1,111 @@
+package org.example.store;
+
+import org.example.utils.CityNames;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Reads tab-separated gazetteer dumps into normalized city name -> coordinates, for GazetteerIndex.
+ * Two layouts are understood:
+ *   name, latitude, longitude[, population[, alternate names]]   (the bundled gazetteer/cities.tsv)
+ *   the GeoNames "geoname" table (cities500.txt, allCountries.txt, ...), recognized by its 19 columns
+ * Alternate names are indexed as well. When several places share a normalized name the most populous one wins,
+ * which is also what a free-text geocoder tends to answer. Blank lines and lines starting with # are skipped.
+ */
+public final class GazetteerDump {
+    public static final String BUNDLED_RESOURCE = "/gazetteer/cities.tsv";
+    private static final int GEONAMES_COLUMNS = 19;
+
+    private GazetteerDump() {
+    }
+
+    public static Map<String, double[]> read(BufferedReader reader) throws IOException {
+        Map<String, Place> places = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            try {
+                if (columns.length >= GEONAMES_COLUMNS) {
+                    // geonameid, name, asciiname, alternatenames, latitude, longitude, ..., population (14)
+                    Place place = new Place(Double.parseDouble(columns[4]), Double.parseDouble(columns[5]), parsePopulation(columns[14]));
+                    add(places, columns[1], place);
+                    add(places, columns[2], place);
+                    addAll(places, columns[3], place);
+                } else if (columns.length >= 3) {
+                    Place place = new Place(Double.parseDouble(columns[1]), Double.parseDouble(columns[2]),
+                            columns.length > 3 ? parsePopulation(columns[3]) : 0);
+                    add(places, columns[0], place);
+                    if (columns.length > 4) {
+                        addAll(places, columns[4], place);
+                    }
+                } else {
+                    throw new NumberFormatException("expected at least 3 columns");
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid gazetteer line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        Map<String, double[]> coordinatesByKey = new HashMap<>(places.size() * 2);
+        places.forEach((key, place) -> coordinatesByKey.put(key, new double[]{place.latitude, place.longitude}));
+        return coordinatesByKey;
+    }
+
+    public static GazetteerIndex bundled() throws IOException {
+        InputStream in = GazetteerDump.class.getResourceAsStream(BUNDLED_RESOURCE);
+        if (in == null) {
+            throw new IOException("Bundled gazetteer " + BUNDLED_RESOURCE + " is missing");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return GazetteerIndex.of(read(reader));
+        }
+    }
+
+    // Maps an index file as is; a dump is indexed into <dump>.idx first, unless that index is newer than the dump
+    public static GazetteerIndex open(Path path) throws IOException {
+        if (GazetteerIndex.isIndex(path)) {
+            return GazetteerIndex.open(path);
+        }
+        Path indexPath = path.resolveSibling(path.getFileName() + ".idx");
+        FileTime dumpModified = Files.getLastModifiedTime(path);
+        if (!Files.exists(indexPath) || Files.getLastModifiedTime(indexPath).compareTo(dumpModified) < 0) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                GazetteerIndex.write(read(reader), indexPath);
+            }
+        }
+        return GazetteerIndex.open(indexPath);
+    }
+
+    private static void addAll(Map<String, Place> places, String names, Place place) {
+        for (String name : names.split(",")) {
+            add(places, name, place);
+        }
+    }
+
+    private static void add(Map<String, Place> places, String name, Place place) {
+        if (name.isBlank()) {
+            return;
+        }
+        places.merge(CityNames.normalize(name), place, (existing, candidate) -> candidate.population > existing.population ? candidate : existing);
+    }
+
+    private static long parsePopulation(String value) {
+        return value.isBlank() ? 0 : Long.parseLong(value.trim());
+    }
+
+    private record Place(double latitude, double longitude, long population) {
+    }
+}
@@ -0,0 +1,280 @@
+package org.example.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Read-only, sorted city -> coordinates index, usually memory-mapped from a file built once from a gazetteer dump.
+ *
+ * Layout: a 32 byte header (magic, version, entry count, block count, longest key, offsets of the sections),
+ * a table of block offsets, the coordinates of every entry as int microdegrees {latitude, longitude} in key
+ * order, and the keys in blocks of BLOCK_SIZE. Keys are normalized city names, sorted by their UTF-8 bytes
+ * and front-coded within a block: the first one in full ([varint length][bytes]), the others as
+ * [varint shared prefix length][varint suffix length][suffix bytes]. A lookup binary searches the first keys of
+ * the blocks and then scans a single block, so it touches a few cache lines and allocates only the result.
+ */
+public final class GazetteerIndex {
+    private static final int MAGIC = 0x47415A31; // "GAZ1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    static final int BLOCK_SIZE = 16;
+    private static final double MICRODEGREES = 1_000_000;
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int blockCount;
+    private final int maxKeyLength;
+    private final int blockTableOffset;
+    private final int coordinatesOffset;
+
+    private GazetteerIndex(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a gazetteer index or unsupported version");
+        }
+        this.buffer = buffer;
+        this.entryCount = buffer.getInt(8);
+        this.blockCount = buffer.getInt(12);
+        this.maxKeyLength = buffer.getInt(16);
+        this.blockTableOffset = buffer.getInt(20);
+        this.coordinatesOffset = buffer.getInt(24);
+    }
+
+    public static GazetteerIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new GazetteerIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static boolean isIndex(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(Integer.BYTES);
+            return header.length == Integer.BYTES && ByteBuffer.wrap(header).getInt() == MAGIC;
+        }
+    }
+
+    // Index held on the heap, e.g. for the small bundled gazetteer
+    public static GazetteerIndex of(Map<String, double[]> coordinatesByKey) {
+        try {
+            return new GazetteerIndex(encode(coordinatesByKey));
+        } catch (IOException e) {
+            throw new IllegalStateException("Encoded gazetteer index is unreadable", e);
+        }
+    }
+
+    // Writes to a temporary file first, so readers never map a partially written index
+    public static void write(Map<String, double[]> coordinatesByKey, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            ByteBuffer encoded = encode(coordinatesByKey);
+            while (encoded.hasRemaining()) {
+                channel.write(encoded);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Returns {latitude, longitude} for an already normalized key, or null
+    public double[] get(String key) {
+        if (entryCount == 0) {
+            return null;
+        }
+        byte[] target = key.getBytes(StandardCharsets.UTF_8);
+        if (target.length > maxKeyLength) {
+            return null;
+        }
+        // last block whose first key is not greater than the target
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (compareFirstKey(middle, target) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int entry = findInBlock(low, target);
+        if (entry < 0) {
+            return null;
+        }
+        int offset = coordinatesOffset + entry * 2 * Integer.BYTES;
+        return new double[]{buffer.getInt(offset) / MICRODEGREES, buffer.getInt(offset + Integer.BYTES) / MICRODEGREES};
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    private int compareFirstKey(int block, byte[] target) {
+        int position = buffer.getInt(blockTableOffset + block * Integer.BYTES);
+        long lengthAndSize = readVarint(position);
+        int length = (int) lengthAndSize;
+        position += (int) (lengthAndSize >>> 32);
+        int common = Math.min(length, target.length);
+        for (int i = 0; i < common; i++) {
+            int difference = Byte.toUnsignedInt(buffer.get(position + i)) - Byte.toUnsignedInt(target[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - target.length;
+    }
+
+    // Ordinal of the entry with the target key, or -1
+    private int findInBlock(int block, byte[] target) {
+        byte[] key = new byte[maxKeyLength];
+        int keyLength = 0;
+        int position = buffer.getInt(blockTableOffset + block * Integer.BYTES);
+        int first = block * BLOCK_SIZE;
+        int last = Math.min(first + BLOCK_SIZE, entryCount);
+        for (int entry = first; entry < last; entry++) {
+            int shared = 0;
+            if (entry > first) {
+                long sharedAndSize = readVarint(position);
+                shared = (int) sharedAndSize;
+                position += (int) (sharedAndSize >>> 32);
+            }
+            long suffixAndSize = readVarint(position);
+            int suffixLength = (int) suffixAndSize;
+            position += (int) (suffixAndSize >>> 32);
+            buffer.get(position, key, shared, suffixLength);
+            position += suffixLength;
+            keyLength = shared + suffixLength;
+
+            int comparison = Arrays.compareUnsigned(key, 0, keyLength, target, 0, target.length);
+            if (comparison == 0) {
+                return entry;
+            }
+            if (comparison > 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // Value in the low 32 bits, number of bytes read in the high 32 bits
+    private long readVarint(int position) {
+        int value = 0;
+        int size = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get(position + size++);
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return ((long) size << 32) | value;
+    }
+
+    private static ByteBuffer encode(Map<String, double[]> coordinatesByKey) {
+        List<byte[]> keys = new ArrayList<>(coordinatesByKey.size());
+        List<double[]> coordinates = new ArrayList<>(coordinatesByKey.size());
+        coordinatesByKey.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue()))
+                .sorted((left, right) -> Arrays.compareUnsigned(left.getKey(), right.getKey()))
+                .forEach(entry -> {
+                    keys.add(entry.getKey());
+                    coordinates.add(entry.getValue());
+                });
+
+        int entryCount = keys.size();
+        int blockCount = (entryCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int maxKeyLength = 0;
+        GrowableBuffer keyBlocks = new GrowableBuffer();
+        int[] blockOffsets = new int[blockCount];
+        for (int entry = 0; entry < entryCount; entry++) {
+            byte[] key = keys.get(entry);
+            maxKeyLength = Math.max(maxKeyLength, key.length);
+            if (entry % BLOCK_SIZE == 0) {
+                blockOffsets[entry / BLOCK_SIZE] = keyBlocks.size();
+                keyBlocks.writeVarint(key.length);
+                keyBlocks.write(key, 0, key.length);
+            } else {
+                byte[] previous = keys.get(entry - 1);
+                int shared = Arrays.mismatch(previous, key);
+                keyBlocks.writeVarint(shared);
+                keyBlocks.writeVarint(key.length - shared);
+                keyBlocks.write(key, shared, key.length - shared);
+            }
+        }
+
+        int blockTableOffset = HEADER_SIZE;
+        int coordinatesOffset = blockTableOffset + blockCount * Integer.BYTES;
+        int keysOffset = coordinatesOffset + entryCount * 2 * Integer.BYTES;
+        ByteBuffer encoded = ByteBuffer.allocate(keysOffset + keyBlocks.size())
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(entryCount)
+                .putInt(blockCount)
+                .putInt(maxKeyLength)
+                .putInt(blockTableOffset)
+                .putInt(coordinatesOffset)
+                .putInt(keysOffset);
+        for (int blockOffset : blockOffsets) {
+            encoded.putInt(keysOffset + blockOffset);
+        }
+        for (double[] location : coordinates) {
+            encoded.putInt((int) Math.round(location[0] * MICRODEGREES));
+            encoded.putInt((int) Math.round(location[1] * MICRODEGREES));
+        }
+        encoded.put(keyBlocks.bytes(), 0, keyBlocks.size());
+        return encoded.flip();
+    }
+
+    private static final class GrowableBuffer {
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Append-only city -> coordinates file shared between processes.
+ *
+ * Layout: a 16 byte header (magic, version, committed end offset) followed by records of
+ * [unsigned short key length][UTF-8 key][double latitude][double longitude].
+ * Writers append a record under an exclusive file lock and only then move the committed end,
+ * so readers never observe a partially written record. Each process keeps an in-memory index
+ * of key -> record offset into the mapped file and catches up with other writers on a miss.
+ * The file is grown ahead of the committed end, doubling each time, so the mapping of the whole
+ * file only has to be replaced a logarithmic number of times. Use a single instance per file within one JVM.
+ */
+public class MappedGeocodeStore implements Closeable {
+    private static final int MAGIC = 0x47454F31; // "GEO1"
+    private static final int VERSION = 1;
+    private static final int COMMITTED_END_OFFSET = 8;
+    static final int HEADER_SIZE = 16;
+    private static final int COORDINATES_SIZE = 2 * Double.BYTES;
+    private static final int MAX_KEY_LENGTH = 0xFFFF;
+    static final long INITIAL_FILE_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Map<String, Integer> index = new ConcurrentHashMap<>();
+    private volatile MappedByteBuffer mapped;
+    private long indexedEnd = HEADER_SIZE;
+
+    private MappedGeocodeStore(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static MappedGeocodeStore open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedGeocodeStore store = new MappedGeocodeStore(channel);
+        try {
+            store.initialize();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    // Returns the stored {latitude, longitude} for an already normalized key, or null
+    public double[] get(String key) throws IOException {
+        Integer offset = index.get(key);
+        if (offset == null) {
+            refresh();
+            offset = index.get(key);
+            if (offset == null) {
+                return null;
+            }
+        }
+        MappedByteBuffer buffer = mapped;
+        return new double[]{buffer.getDouble(offset), buffer.getDouble(offset + Double.BYTES)};
+    }
+
+    public synchronized void put(String key, double[] coordinates) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_LENGTH) {
+            throw new IOException("Key too long to store: " + key);
+        }
+        try (FileLock ignored = channel.lock()) {
+            refresh();
+            if (index.containsKey(key)) {
+                return;
+            }
+            long committedEnd = readCommittedEnd();
+            ByteBuffer record = ByteBuffer.allocate(Short.BYTES + keyBytes.length + COORDINATES_SIZE)
+                    .putShort((short) keyBytes.length)
+                    .put(keyBytes)
+                    .putDouble(coordinates[0])
+                    .putDouble(coordinates[1])
+                    .flip();
+            ensureFileSize(committedEnd + record.capacity());
+            writeFully(record, committedEnd);
+            writeCommittedEnd(committedEnd + record.capacity());
+            refresh();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void initialize() throws IOException {
+        try (FileLock ignored = channel.lock()) {
+            if (channel.size() < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putLong(HEADER_SIZE)
+                        .flip();
+                writeFully(header, 0);
+                ensureFileSize(INITIAL_FILE_SIZE);
+            }
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a geocode store file or unsupported version");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            refresh();
+        }
+    }
+
+    // Indexes records committed by this or any other process since the last refresh
+    private synchronized void refresh() throws IOException {
+        long committedEnd = mapped.getLong(COMMITTED_END_OFFSET);
+        if (committedEnd <= indexedEnd) {
+            return;
+        }
+        if (committedEnd > mapped.capacity()) {
+            // writers grow the file before committing, so it covers committedEnd and usually much more
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        MappedByteBuffer buffer = mapped;
+        int position = (int) indexedEnd;
+        while (position + Short.BYTES <= committedEnd) {
+            int keyLength = Short.toUnsignedInt(buffer.getShort(position));
+            int coordinatesOffset = position + Short.BYTES + keyLength;
+            if (coordinatesOffset + COORDINATES_SIZE > committedEnd) {
+                throw new IOException("Corrupt geocode store record at offset " + position);
+            }
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(position + Short.BYTES, keyBytes);
+            index.putIfAbsent(new String(keyBytes, StandardCharsets.UTF_8), coordinatesOffset);
+            position = coordinatesOffset + COORDINATES_SIZE;
+        }
+        indexedEnd = position;
+    }
+
+    private long readCommittedEnd() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        channel.read(buffer, COMMITTED_END_OFFSET);
+        return buffer.flip().getLong();
+    }
+
+    private void writeCommittedEnd(long committedEnd) throws IOException {
+        writeFully(ByteBuffer.allocate(Long.BYTES).putLong(committedEnd).flip(), COMMITTED_END_OFFSET);
+    }
+
+    // Grows the file, under the file lock, to at least twice its size once a write would pass its end
+    private void ensureFileSize(long end) throws IOException {
+        long size = channel.size();
+        if (end <= size) {
+            return;
+        }
+        long newSize = Math.min(Integer.MAX_VALUE, Math.max(end, 2 * size));
+        if (end > newSize) {
+            throw new IOException("Geocode store is full");
+        }
+        // writing past the end extends the file without ever truncating what another process grew it to
+        writeFully(ByteBuffer.allocate(1), newSize - 1);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.example.utils;
 import org.example.model.TransportationMethod;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 public class ArgumentParser {
@@ -11,6 +12,15 @@ public class ArgumentParser {
     public static final String ARGS_START = "--start";
     public static final String ARGS_END = "--end";
     public static final String ARGS_TRANSPORTATION_METHOD = "--transportation-method";
+    public static final String ARGS_BATCH = "--batch";
+    public static final String ARGS_OUTPUT = "--output";
+    public static final String ARGS_FORMAT = "--format";
+    public static final String ARGS_CONCURRENCY = "--concurrency";
+    public static final String ARGS_SERVER_PORT = "--server-port";
+    public static final String ARGS_SERVER_HOST = "--server-host";
+    public static final String ARGS_SERVER_MAX_BATCH_CONCURRENCY = "--server-max-batch-concurrency";
+    // --transportation-method=all compares every transportation method
+    public static final String TRANSPORTATION_METHOD_ALL = "all";
 
 
     public static Map<String, String> parseArguments(String[] args) {
@@ -19,7 +29,14 @@ public class ArgumentParser {
             String refinedArg = arg
                     .replaceFirst(ARGS_START+ SPACE_DELIMITER, ARGS_START+ EQUAL_DELIMITER)
                     .replaceFirst(ARGS_END+ SPACE_DELIMITER, ARGS_END+ EQUAL_DELIMITER)
-                    .replaceFirst(ARGS_TRANSPORTATION_METHOD+ SPACE_DELIMITER, ARGS_TRANSPORTATION_METHOD+ EQUAL_DELIMITER);
+                    .replaceFirst(ARGS_TRANSPORTATION_METHOD+ SPACE_DELIMITER, ARGS_TRANSPORTATION_METHOD+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_BATCH+ SPACE_DELIMITER, ARGS_BATCH+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_OUTPUT+ SPACE_DELIMITER, ARGS_OUTPUT+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_FORMAT+ SPACE_DELIMITER, ARGS_FORMAT+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_CONCURRENCY+ SPACE_DELIMITER, ARGS_CONCURRENCY+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_SERVER_PORT+ SPACE_DELIMITER, ARGS_SERVER_PORT+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_SERVER_HOST+ SPACE_DELIMITER, ARGS_SERVER_HOST+ EQUAL_DELIMITER)
+                    .replaceFirst(ARGS_SERVER_MAX_BATCH_CONCURRENCY+ SPACE_DELIMITER, ARGS_SERVER_MAX_BATCH_CONCURRENCY+ EQUAL_DELIMITER);
             String[] parts = refinedArg.split("=");
             if (parts.length == 2) {
                 arguments.put(parts[0].replace("--", ""), parts[1]);
@@ -33,4 +50,13 @@ public class ArgumentParser {
     public static TransportationMethod getTransportationMethod(String method) {
         return TransportationMethod.valueOf(method.toUpperCase().replace("-", "_"));
     }
+
+    public static boolean isAllTransportationMethods(String method) {
+        return method != null && TRANSPORTATION_METHOD_ALL.equalsIgnoreCase(method.trim());
+    }
+
+    // Inverse of getTransportationMethod, e.g. DIESEL_CAR_SMALL -> diesel-car-small
+    public static String getArgumentName(TransportationMethod method) {
+        return method.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
 }
@@ -0,0 +1,17 @@
+package org.example.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class CityNames {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Folds case, accents and whitespace so "  bad  Homburg" and "Bad Homburg" share a cache entry
+    public static String normalize(String city) {
+        String decomposed = Normalizer.normalize(city.trim(), Normalizer.Form.NFKD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
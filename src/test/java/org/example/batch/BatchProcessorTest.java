@@ -0,0 +1,187 @@
+package org.example.batch;
+
+import org.example.context.RequestContext;
+import org.example.controller.EmissionController;
+import org.example.geo.DetourFactors;
+import org.example.exception.CalculationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchProcessorTest {
+
+    @Mock
+    private EmissionController mockEmissionController;
+
+    private BatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        processor = new BatchProcessor(mockEmissionController, 2, Executors.newCachedThreadPool());
+        when(mockEmissionController.calculateEmission("Berlin", "Hamburg", "diesel-car-small")).thenReturn(41.038);
+        when(mockEmissionController.calculateEmission("Bad Homburg", "Berlin", "train-default")).thenReturn(3.0);
+    }
+
+    @Test
+    void testProcess_Csv() throws IOException {
+        // Arrange
+        String input = "start,end,transportation-method\n"
+                + "Berlin,Hamburg,diesel-car-small\n"
+                + "\n"
+                + "\"Bad Homburg\",Berlin,train-default\n";
+        StringWriter output = new StringWriter();
+
+        // Act
+        BatchSummary summary = processor.process(new BufferedReader(new StringReader(input)), output, BatchFormat.CSV);
+
+        // Assert
+        assertEquals(2, summary.getSucceeded());
+        assertEquals(0, summary.getFailed());
+        assertEquals(String.join(System.lineSeparator(),
+                "start,end,transportation-method,co2Kg,error,stale,estimated",
+                "Berlin,Hamburg,diesel-car-small,41.038,,false,false",
+                "Bad Homburg,Berlin,train-default,3.0,,false,false") + System.lineSeparator(), output.toString());
+    }
+
+    @Test
+    void testProcess_JsonlKeepsInputOrderAndReportsErrors() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Atlantis", "Berlin", "bus-default"))
+                .thenThrow(new CalculationException("Coordinates not found for city Atlantis"));
+        String input = "{\"start\":\"Atlantis\",\"end\":\"Berlin\",\"transportation-method\":\"bus-default\"}\n"
+                + "{\"start\":\"Berlin\",\"end\":\"Hamburg\",\"transportation-method\":\"diesel-car-small\"}\n"
+                + "not json\n";
+        StringWriter output = new StringWriter();
+
+        // Act
+        BatchSummary summary = processor.process(new BufferedReader(new StringReader(input)), output, BatchFormat.JSONL);
+
+        // Assert
+        assertEquals(1, summary.getSucceeded());
+        assertEquals(2, summary.getFailed());
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertEquals("{\"start\":\"Atlantis\",\"end\":\"Berlin\",\"transportation-method\":\"bus-default\",\"error\":\"Coordinates not found for city Atlantis\"}", lines[0]);
+        assertEquals("{\"start\":\"Berlin\",\"end\":\"Hamburg\",\"transportation-method\":\"diesel-car-small\",\"co2Kg\":41.038}", lines[1]);
+        assertTrue(lines[2].startsWith("{\"line\":\"not json\",\"error\":\"Invalid row"));
+    }
+
+    @Test
+    void testProcess_JsonlNonTextualFieldIsInvalidRow() throws IOException {
+        // Arrange
+        String input = "{\"start\":\"Berlin\",\"end\":42,\"transportation-method\":\"diesel-car-small\"}\n"
+                + "{\"start\":null,\"end\":\"Hamburg\",\"transportation-method\":\"diesel-car-small\"}\n"
+                + "[\"Berlin\",\"Hamburg\"]\n";
+        StringWriter output = new StringWriter();
+
+        // Act
+        BatchSummary summary = processor.process(new BufferedReader(new StringReader(input)), output, BatchFormat.JSONL);
+
+        // Assert
+        assertEquals(3, summary.getFailed());
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertTrue(lines[0].contains("Invalid row: \\\"end\\\" must be a string"), lines[0]);
+        assertTrue(lines[1].contains("Invalid row: \\\"start\\\" must be a string"), lines[1]);
+        assertTrue(lines[2].contains("Invalid row: Expected a JSON object"), lines[2]);
+        verifyNoInteractions(mockEmissionController);
+    }
+
+    @Test
+    void testProcess_FlagsStaleAndEstimatedResults() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Hamburg", "Berlin", "diesel-car-medium")).thenAnswer(invocation -> {
+            RequestContext.markCurrentStale();
+            return 43.2;
+        });
+        when(mockEmissionController.calculateEmission("Berlin", "Munich", "diesel-car-medium")).thenAnswer(invocation -> {
+            RequestContext.markCurrentEstimated(DetourFactors.defaults());
+            return 80.1;
+        });
+        String input = "Hamburg,Berlin,diesel-car-medium\nBerlin,Munich,diesel-car-medium\nBerlin,Hamburg,diesel-car-small\n";
+        StringWriter csv = new StringWriter();
+        StringWriter jsonl = new StringWriter();
+
+        // Act
+        processor.process(new BufferedReader(new StringReader(input)), csv, BatchFormat.CSV);
+        processor.process(new BufferedReader(new StringReader(
+                "{\"start\":\"Hamburg\",\"end\":\"Berlin\",\"transportation-method\":\"diesel-car-medium\"}\n")), jsonl, BatchFormat.JSONL);
+
+        // Assert
+        String[] lines = csv.toString().split(System.lineSeparator());
+        assertEquals("Hamburg,Berlin,diesel-car-medium,43.2,,true,false", lines[1]);
+        assertEquals("Berlin,Munich,diesel-car-medium,80.1,,false,true", lines[2]);
+        assertEquals("Berlin,Hamburg,diesel-car-small,41.038,,false,false", lines[3]);
+        assertEquals("{\"start\":\"Hamburg\",\"end\":\"Berlin\",\"transportation-method\":\"diesel-car-medium\",\"co2Kg\":43.2,\"stale\":true}"
+                + System.lineSeparator(), jsonl.toString());
+    }
+
+    @Test
+    void testProcess_CsvWithWrongColumnCount() throws IOException {
+        // Arrange
+        StringWriter output = new StringWriter();
+
+        // Act
+        BatchSummary summary = processor.process(new BufferedReader(new StringReader("Berlin,Hamburg\n")), output, BatchFormat.CSV);
+
+        // Assert
+        assertEquals(1, summary.getFailed());
+        verifyNoInteractions(mockEmissionController);
+    }
+
+    @Test
+    void testProcess_SharedPermitsBoundTripsAcrossProcessors() throws Exception {
+        // Arrange
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockEmissionController.calculateEmission("Hamburg", "Berlin", "diesel-car-medium")).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return 43.2;
+        });
+        ExecutorService executor = Executors.newCachedThreadPool();
+        Semaphore tripsInFlight = new Semaphore(2);
+        String input = "Hamburg,Berlin,diesel-car-medium\n".repeat(6);
+        List<Callable<BatchSummary>> batches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BatchProcessor shared = new BatchProcessor(mockEmissionController, 2, executor, tripsInFlight);
+            batches.add(() -> shared.process(new BufferedReader(new StringReader(input)), new StringWriter(), BatchFormat.CSV));
+        }
+
+        // Act
+        List<Future<BatchSummary>> summaries = executor.invokeAll(batches);
+
+        // Assert
+        for (Future<BatchSummary> summary : summaries) {
+            assertEquals(6, summary.get().getSucceeded());
+        }
+        assertTrue(maxInFlight.get() <= 2, "at most 2 trips at once, saw " + maxInFlight.get());
+        assertEquals(2, tripsInFlight.availablePermits());
+        executor.shutdown();
+    }
+
+    @Test
+    void testFromFileName() {
+        assertEquals(BatchFormat.JSONL, BatchFormat.fromFileName("trips.jsonl"));
+        assertEquals(BatchFormat.CSV, BatchFormat.fromFileName("trips.csv"));
+        assertEquals(BatchFormat.CSV, BatchFormat.fromFileName("-"));
+    }
+}
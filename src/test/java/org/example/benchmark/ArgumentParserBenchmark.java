@@ -0,0 +1,36 @@
+package org.example.benchmark;
+
+import org.example.model.TransportationMethod;
+import org.example.utils.ArgumentParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArgumentParserBenchmark {
+
+    private String[] argsWithEquals = {"--start=Bad Homburg", "--end=Berlin", "--transportation-method=diesel-car-medium"};
+    private String[] argsWithSpaces = {"--start Bad Homburg", "--end Berlin", "--transportation-method diesel-car-medium"};
+    private String method = "plugin-hybrid-car-large";
+
+    @Benchmark
+    public Map<String, String> parseArgumentsWithEquals() {
+        return ArgumentParser.parseArguments(argsWithEquals);
+    }
+
+    @Benchmark
+    public Map<String, String> parseArgumentsWithSpaces() {
+        return ArgumentParser.parseArguments(argsWithSpaces);
+    }
+
+    @Benchmark
+    public TransportationMethod getTransportationMethod() {
+        return ArgumentParser.getTransportationMethod(method);
+    }
+}
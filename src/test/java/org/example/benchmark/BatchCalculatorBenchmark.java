@@ -0,0 +1,55 @@
+package org.example.benchmark;
+
+import org.example.core.Calculator;
+import org.example.core.Co2Calculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One million trips per operation: a Calculator.calculate call per row against the bulk API, with the scalar
+// and the Vector API kernel. The forked JVM adds the incubator module so that "vector" is available.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BatchCalculatorBenchmark {
+
+    @Param({"per-row", "scalar", "vector"})
+    private String mode;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Calculator calculator;
+    private double[] distancesInKm;
+    private double[] emissionsInGramsPerKm;
+    private double[] emissionsInKg;
+
+    @Setup
+    public void setUp() {
+        Co2Calculator vectorized = new Co2Calculator();
+        if (mode.equals("vector") && !vectorized.isVectorized()) {
+            throw new IllegalStateException("Vector API unavailable");
+        }
+        calculator = mode.equals("scalar") ? Co2Calculator.scalar() : vectorized;
+        Random random = new Random(42);
+        distancesInKm = random.doubles(rows, 1, 2000).toArray();
+        emissionsInGramsPerKm = random.doubles(rows, 0, 300).toArray();
+        emissionsInKg = new double[rows];
+    }
+
+    @Benchmark
+    public double[] calculate() {
+        if (mode.equals("per-row")) {
+            for (int i = 0; i < rows; i++) {
+                emissionsInKg[i] = calculator.calculate(distancesInKm[i], emissionsInGramsPerKm[i]);
+            }
+        } else {
+            calculator.calculate(distancesInKm, emissionsInGramsPerKm, emissionsInKg);
+        }
+        return emissionsInKg;
+    }
+}
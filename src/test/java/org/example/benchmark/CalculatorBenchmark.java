@@ -0,0 +1,25 @@
+package org.example.benchmark;
+
+import org.example.core.Calculator;
+import org.example.core.Co2Calculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    private final Calculator calculator = new Co2Calculator();
+    private double distanceInKm = 289.0;
+    private double emissionInGramsPerKm = 142.0;
+
+    @Benchmark
+    public double calculate() {
+        return calculator.calculate(distanceInKm, emissionInGramsPerKm);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.benchmark;
+
+import org.example.core.Co2Calculator;
+import org.example.service.Co2EmissionService;
+import org.example.service.Co2EmissionServiceV1;
+import org.example.service.EmissionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Future composition in Co2EmissionService against the sequential Co2EmissionServiceV1,
+// over a stubbed client whose geocode and distance latency is set by latencyMicros.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmissionServiceBenchmark {
+
+    @Param({"concurrent", "sequential"})
+    public String service;
+
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    private EmissionService emissionService;
+
+    @Setup
+    public void setUp() {
+        LatencyServiceClient serviceClient = new LatencyServiceClient(latencyMicros, latencyMicros);
+        emissionService = "concurrent".equals(service)
+                ? new Co2EmissionService(serviceClient, new Co2Calculator())
+                : new Co2EmissionServiceV1(serviceClient, new Co2Calculator());
+    }
+
+    @Benchmark
+    public double calculateEmission() {
+        return emissionService.calculateEmission("Bad Homburg", "Berlin", 171);
+    }
+}
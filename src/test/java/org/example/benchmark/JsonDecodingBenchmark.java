@@ -0,0 +1,78 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.client.OrsJsonCodec;
+import org.example.exception.ServiceClientException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Streaming OrsJsonCodec against the per-call ObjectMapper + readTree decoding it replaced.
+// Run with -prof gc to compare gc.alloc.rate.norm (bytes per operation).
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonDecodingBenchmark {
+
+    @Param({"50"})
+    public int matrixSize;
+
+    private final OrsJsonCodec codec = new OrsJsonCodec();
+    private byte[] geocodeResponse;
+    private byte[] routeResponse;
+    private byte[] matrixResponse;
+
+    @Setup
+    public void setUp() {
+        geocodeResponse = OrsPayloads.geocodeResponse(10).getBytes(StandardCharsets.UTF_8);
+        routeResponse = OrsPayloads.matrixResponse(2, 2).getBytes(StandardCharsets.UTF_8);
+        matrixResponse = OrsPayloads.matrixResponse(matrixSize, matrixSize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public double[] coordinatesTree() throws IOException {
+        JsonNode root = new ObjectMapper().readTree(new ByteArrayInputStream(geocodeResponse));
+        return new double[]{root.at("/features/0/geometry/coordinates/1").asDouble(),
+                root.at("/features/0/geometry/coordinates/0").asDouble()};
+    }
+
+    @Benchmark
+    public double[] coordinatesStreaming() throws IOException {
+        return codec.readCoordinates(new ByteArrayInputStream(geocodeResponse));
+    }
+
+    @Benchmark
+    public double distanceTree() throws IOException {
+        JsonNode root = new ObjectMapper().readTree(new ByteArrayInputStream(routeResponse));
+        return root.at("/distances/0/1").asDouble(-1);
+    }
+
+    @Benchmark
+    public double distanceStreaming() throws IOException {
+        return codec.readDistance(new ByteArrayInputStream(routeResponse), 0, 1);
+    }
+
+    @Benchmark
+    public void matrixTree(Blackhole blackhole) throws IOException {
+        JsonNode rows = new ObjectMapper().readTree(new ByteArrayInputStream(matrixResponse)).path("distances");
+        for (JsonNode row : rows) {
+            for (JsonNode cell : row) {
+                blackhole.consume(cell.asDouble());
+            }
+        }
+    }
+
+    @Benchmark
+    public void matrixStreaming(Blackhole blackhole) throws IOException, ServiceClientException {
+        codec.readDistanceMatrix(new ByteArrayInputStream(matrixResponse), matrixSize, matrixSize,
+                (rowIndex, row) -> blackhole.consume(row));
+    }
+}
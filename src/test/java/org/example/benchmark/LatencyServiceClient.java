@@ -0,0 +1,40 @@
+package org.example.benchmark;
+
+import org.example.client.ServiceClient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// ServiceClient stand-in that answers after a fixed delay, as if waiting on ORS
+public class LatencyServiceClient implements ServiceClient {
+    private final long geocodeLatencyNanos;
+    private final long distanceLatencyNanos;
+
+    public LatencyServiceClient(long geocodeLatencyMicros, long distanceLatencyMicros) {
+        this.geocodeLatencyNanos = TimeUnit.MICROSECONDS.toNanos(geocodeLatencyMicros);
+        this.distanceLatencyNanos = TimeUnit.MICROSECONDS.toNanos(distanceLatencyMicros);
+    }
+
+    @Override
+    public double[] getCoordinates(String city) {
+        pause(geocodeLatencyNanos);
+        int hash = city.hashCode();
+        return new double[]{47 + (hash & 0xFF) / 64.0, 6 + ((hash >>> 8) & 0xFF) / 32.0};
+    }
+
+    @Override
+    public double getDistance(double[] startCoordinates, double[] endCoordinates) {
+        pause(distanceLatencyNanos);
+        return 111.0 * Math.hypot(startCoordinates[0] - endCoordinates[0], startCoordinates[1] - endCoordinates[1]);
+    }
+
+    private static void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
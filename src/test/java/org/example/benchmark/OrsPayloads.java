@@ -0,0 +1,47 @@
+package org.example.benchmark;
+
+import java.util.Locale;
+
+// Synthetic ORS responses shaped like the real geocode and matrix payloads
+public class OrsPayloads {
+
+    public static String geocodeResponse(int featureCount) {
+        StringBuilder json = new StringBuilder(512 * featureCount)
+                .append("{\"geocoding\":{\"version\":\"0.2\",\"attribution\":\"https://openrouteservice.org/terms-of-service/#attribution-geocode\",")
+                .append("\"query\":{\"text\":\"Berlin\",\"size\":10,\"layers\":[\"locality\"],\"lang\":{\"name\":\"English\",\"iso6391\":\"en\"}},")
+                .append("\"engine\":{\"name\":\"Pelias\",\"author\":\"Mapzen\",\"version\":\"1.0\"},\"timestamp\":1700000000000},")
+                .append("\"type\":\"FeatureCollection\",\"features\":[");
+        for (int i = 0; i < featureCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT,
+                    "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[%.6f,%.6f]},"
+                            + "\"properties\":{\"id\":\"%d\",\"gid\":\"whosonfirst:locality:%d\",\"layer\":\"locality\","
+                            + "\"source\":\"whosonfirst\",\"name\":\"Berlin\",\"confidence\":0.9,\"match_type\":\"exact\","
+                            + "\"accuracy\":\"centroid\",\"country\":\"Germany\",\"country_a\":\"DEU\",\"region\":\"Berlin\","
+                            + "\"locality\":\"Berlin\",\"label\":\"Berlin, Germany\"},\"bbox\":[13.08,52.33,13.76,52.67]}",
+                    13.4050 + i * 0.01, 52.5200 - i * 0.01, 101748799 + i, 101748799 + i));
+        }
+        return json.append("],\"bbox\":[13.08,52.33,13.76,52.67]}").toString();
+    }
+
+    public static String matrixResponse(int rows, int columns) {
+        StringBuilder json = new StringBuilder(16 * rows * columns).append("{\"distances\":[");
+        for (int i = 0; i < rows; i++) {
+            json.append(i == 0 ? "[" : ",[");
+            for (int j = 0; j < columns; j++) {
+                if (j > 0) {
+                    json.append(',');
+                }
+                json.append(i == j ? 0 : 1000.0 * (i + 1) * (j + 7) + 0.37);
+            }
+            json.append(']');
+        }
+        json.append("],\"destinations\":[");
+        for (int j = 0; j < columns; j++) {
+            json.append(j == 0 ? "" : ",").append("{\"location\":[13.405,52.52],\"snapped_distance\":4.2}");
+        }
+        return json.append("],\"metadata\":{\"attribution\":\"openrouteservice.org\",\"service\":\"matrix\"}}").toString();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testGet_ReturnsCachedValue() {
+        // Arrange
+        LruCache<String, Integer> cache = new LruCache<>(2, Duration.ofMinutes(1), clock::get);
+        cache.put("berlin", 1);
+
+        // Act & Assert
+        assertEquals(1, cache.get("berlin"));
+        assertNull(cache.get("hamburg"));
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        // Arrange
+        LruCache<String, Integer> cache = new LruCache<>(2, Duration.ofMinutes(1), clock::get);
+        cache.put("berlin", 1);
+        cache.put("hamburg", 2);
+        cache.get("berlin");
+
+        // Act
+        cache.put("munich", 3);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("berlin"));
+        assertNull(cache.get("hamburg"));
+        assertEquals(3, cache.get("munich"));
+    }
+
+    @Test
+    void testGet_ExpiresEntriesAfterTtl() {
+        // Arrange
+        LruCache<String, Integer> cache = new LruCache<>(2, Duration.ofSeconds(10), clock::get);
+        cache.put("berlin", 1);
+
+        // Act
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Assert
+        assertNull(cache.get("berlin"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testGet_ZeroTtlNeverExpires() {
+        // Arrange
+        LruCache<String, Integer> cache = new LruCache<>(2, Duration.ZERO, clock::get);
+        cache.put("berlin", 1);
+
+        // Act
+        clock.addAndGet(Duration.ofDays(365).toNanos());
+
+        // Assert
+        assertEquals(1, cache.get("berlin"));
+    }
+
+    @Test
+    void testGetStale_KeepsExpiredEntriesForStaleTtl() {
+        // Arrange
+        LruCache<String, Integer> cache = new LruCache<>(2, Duration.ofSeconds(10), Duration.ofSeconds(20), clock::get);
+        cache.put("berlin", 1);
+
+        // Act
+        clock.addAndGet(Duration.ofSeconds(15).toNanos());
+
+        // Assert
+        assertNull(cache.get("berlin"));
+        assertEquals(1, cache.getStale("berlin"));
+        clock.addAndGet(Duration.ofSeconds(15).toNanos());
+        assertNull(cache.getStale("berlin"));
+        assertNull(cache.get("berlin"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testConstructor_InvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String, Integer>(0, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.client;
+
+import org.example.client.ApiKeyPool.Endpoint;
+import org.example.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiKeyPoolTest {
+    private final PooledApiKey first = key("first");
+    private final PooledApiKey second = key("second");
+    private final ApiKeyPool pool = new ApiKeyPool(List.of(first, second));
+
+    @Test
+    void testReserve_RoundRobin() {
+        // Act
+        ApiKeyPool.Reservation a = pool.reserve(Endpoint.GEOCODE, 0);
+        ApiKeyPool.Reservation b = pool.reserve(Endpoint.GEOCODE, 0);
+
+        // Assert
+        assertNotSame(a.key(), b.key());
+        assertEquals(0, a.waitNanos());
+        assertEquals(0, b.waitNanos());
+    }
+
+    @Test
+    void testReserve_SkipsThrottledKey() {
+        // Arrange
+        first.recordThrottled(Endpoint.MATRIX, System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        // Act & Assert
+        for (int i = 0; i < 4; i++) {
+            assertSame(second, pool.reserve(Endpoint.MATRIX, 0).key());
+        }
+        assertEquals(1, first.getThrottledCount());
+    }
+
+    @Test
+    void testReserve_WaitsForSoonestKey() {
+        // Arrange
+        first.bucket(Endpoint.GEOCODE).pauseUntil(System.nanoTime() + Duration.ofMinutes(1).toNanos());
+        second.bucket(Endpoint.GEOCODE).pauseUntil(System.nanoTime() + Duration.ofSeconds(2).toNanos());
+
+        // Act
+        ApiKeyPool.Reservation reservation = pool.reserve(Endpoint.GEOCODE, TimeUnit.SECONDS.toNanos(10));
+
+        // Assert
+        assertSame(second, reservation.key());
+        assertTrue(reservation.waitNanos() > TimeUnit.SECONDS.toNanos(1));
+        assertNull(pool.reserve(Endpoint.GEOCODE, TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void testReserve_SkipsRejectedKeys() {
+        // Arrange
+        first.recordRejected();
+
+        // Act & Assert
+        assertSame(second, pool.reserve(Endpoint.GEOCODE, 0).key());
+        assertSame(second, pool.reserve(Endpoint.GEOCODE, 0).key());
+        assertTrue(pool.hasUsableKeys());
+        second.recordRejected();
+        assertNull(pool.reserve(Endpoint.GEOCODE, 0));
+        assertFalse(pool.hasUsableKeys());
+    }
+
+    @Test
+    void testReserve_ProbesRejectedKeyAfterBackoff() throws InterruptedException {
+        // Arrange
+        PooledApiKey key = new PooledApiKey("only", new TokenBucket(1000, 10), new TokenBucket(1000, 10), Duration.ofMillis(50));
+        ApiKeyPool pool = new ApiKeyPool(List.of(key));
+        key.recordRejected();
+        assertNull(pool.reserve(Endpoint.GEOCODE, 0));
+
+        // Act
+        Thread.sleep(100);
+        ApiKeyPool.Reservation probe = pool.reserve(Endpoint.GEOCODE, TimeUnit.MILLISECONDS.toNanos(10));
+        key.recordAccepted();
+
+        // Assert
+        assertSame(key, probe.key());
+        assertFalse(key.isRejected());
+        assertTrue(pool.hasUsableKeys());
+    }
+
+    @Test
+    void testRecordRejected_DoublesBackoffForEveryRejectedProbe() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1000, 10);
+        PooledApiKey key = new PooledApiKey("only", bucket, new TokenBucket(1000, 10), Duration.ofSeconds(10));
+
+        // Act
+        key.recordRejected();
+        long firstPause = bucket.nanosUntilAvailable();
+        key.recordRejected();
+        long secondPause = bucket.nanosUntilAvailable();
+
+        // Assert
+        assertTrue(firstPause > TimeUnit.SECONDS.toNanos(9) && firstPause <= TimeUnit.SECONDS.toNanos(11));
+        assertTrue(secondPause > TimeUnit.SECONDS.toNanos(19) && secondPause <= TimeUnit.SECONDS.toNanos(21));
+    }
+
+    @Test
+    void testFind() {
+        assertSame(second, pool.find("second"));
+        assertNull(pool.find("unknown"));
+        assertNull(pool.find(null));
+    }
+
+    @Test
+    void testSplitKeys() {
+        assertEquals(List.of("a1", "b2", "c3"), ApiKeyPool.splitKeys(" a1, b2\nc3,a1 "));
+        assertEquals(List.of("single"), ApiKeyPool.splitKeys("single"));
+    }
+
+    @Test
+    void testGetLabel_HidesKey() {
+        assertEquals("...cdef", new PooledApiKey("0123456789abcdef", null, null).getLabel());
+    }
+
+    private static PooledApiKey key(String apiKey) {
+        return new PooledApiKey(apiKey, new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.client;
+
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncCircuitBreakerServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    @Test
+    void testGetCoordinatesAsync_FailsFastOnceOpen() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+        AsyncCircuitBreakerServiceClient client = new AsyncCircuitBreakerServiceClient(delegate, breaker);
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.failedFuture(new TransientServiceException("Unexpected code 503")));
+        assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Berlin").join());
+        assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Berlin").join());
+
+        // Act
+        CompletionException thrown = assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Berlin").join());
+
+        // Assert
+        assertInstanceOf(CircuitOpenException.class, thrown.getCause());
+        verify(delegate, times(2)).getCoordinatesAsync("Berlin");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_NotFoundCountsAsSuccess() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+        AsyncCircuitBreakerServiceClient client = new AsyncCircuitBreakerServiceClient(delegate, breaker);
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.failedFuture(new TransientServiceException("Unexpected code 503")));
+        when(delegate.getCoordinatesAsync("Atlantis"))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceClientException("Coordinates not found for city Atlantis")));
+
+        // Act
+        assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Berlin").join());
+        assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Atlantis").join());
+        assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Berlin").join());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testGetDistanceAsync_ShortCallerDeadlineDoesNotOpenCircuit() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        AsyncCircuitBreakerServiceClient client = new AsyncCircuitBreakerServiceClient(delegate, breaker);
+        double[] berlin = {52.5200, 13.4050};
+        when(delegate.getDistanceAsync(berlin, berlin))
+                .thenReturn(CompletableFuture.failedFuture(new RequestCancelledException("Deadline exceeded")));
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try (RequestContext context = RequestContext.fork(Deadline.after(Duration.ZERO));
+                 RequestContext.Scope ignored = context.attach()) {
+                assertThrows(CompletionException.class, () -> client.getDistanceAsync(berlin, berlin).join());
+            }
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        verify(delegate, times(3)).getDistanceAsync(berlin, berlin);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.client;
+
+import org.example.exception.RequestCancelledException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncCoalescingServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @Test
+    void testGetCoordinatesAsync_ConcurrentCallersShareOneRequest() {
+        // Arrange
+        AsyncCoalescingServiceClient client = new AsyncCoalescingServiceClient(delegate);
+        CompletableFuture<double[]> pending = new CompletableFuture<>();
+        when(delegate.getCoordinatesAsync(anyString())).thenReturn(pending);
+
+        // Act
+        CompletableFuture<double[]> leader = client.getCoordinatesAsync("Berlin");
+        CompletableFuture<double[]> follower = client.getCoordinatesAsync("berlin");
+        assertEquals(1, client.inFlightCount());
+        pending.complete(berlin);
+
+        // Assert
+        assertArrayEquals(berlin, leader.join(), 0.0);
+        assertArrayEquals(berlin, follower.join(), 0.0);
+        assertNotSame(leader.join(), follower.join());
+        verify(delegate, times(1)).getCoordinatesAsync(anyString());
+        assertEquals(0, client.inFlightCount());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_CallerGivingUpDoesNotFailOthers() {
+        // Arrange
+        AsyncCoalescingServiceClient client = new AsyncCoalescingServiceClient(delegate);
+        CompletableFuture<double[]> pending = new CompletableFuture<>();
+        when(delegate.getCoordinatesAsync(anyString())).thenReturn(pending);
+
+        // Act
+        CompletableFuture<double[]> leader = client.getCoordinatesAsync("Berlin");
+        CompletableFuture<double[]> follower = client.getCoordinatesAsync("Berlin");
+        leader.cancel(true);
+        pending.complete(berlin);
+
+        // Assert
+        assertArrayEquals(berlin, follower.join(), 0.0);
+    }
+
+    @Test
+    void testGetCoordinatesAsync_JoinerRetriesWhenSharedRequestWasCancelled() {
+        // Arrange
+        AsyncCoalescingServiceClient client = new AsyncCoalescingServiceClient(delegate);
+        CompletableFuture<double[]> cancelled = new CompletableFuture<>();
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(cancelled)
+                .thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        client.getCoordinatesAsync("Berlin");
+        CompletableFuture<double[]> follower = client.getCoordinatesAsync("Berlin");
+        cancelled.completeExceptionally(new RequestCancelledException("Client disconnected"));
+
+        // Assert
+        assertArrayEquals(berlin, follower.join(), 0.0);
+        verify(delegate, times(2)).getCoordinatesAsync("Berlin");
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncDistanceCachingServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @Test
+    void testGetDistanceAsync_SymmetricCacheServesReverseRoute() {
+        // Arrange
+        AsyncDistanceCachingServiceClient client = new AsyncDistanceCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofMinutes(5)), true);
+        when(delegate.getDistanceAsync(berlin, hamburg)).thenReturn(CompletableFuture.completedFuture(289.0));
+
+        // Act
+        client.getDistanceAsync(berlin, hamburg).join();
+        double distance = client.getDistanceAsync(hamburg, berlin).join();
+
+        // Assert
+        assertEquals(289.0, distance, 0.0);
+        verify(delegate, times(1)).getDistanceAsync(any(), any());
+    }
+
+    @Test
+    void testGetDistanceMatrixAsync_CachedPairsSkipTheDelegate() {
+        // Arrange
+        AsyncDistanceCachingServiceClient client = new AsyncDistanceCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofMinutes(5)), false);
+        double[][] sources = {berlin};
+        double[][] destinations = {hamburg, berlin};
+        when(delegate.getDistanceMatrixAsync(sources, destinations))
+                .thenReturn(CompletableFuture.completedFuture(new double[][]{{289.0, 0.1}}));
+        client.getDistanceMatrixAsync(sources, destinations).join();
+
+        // Act
+        double distance = client.getDistanceAsync(berlin, hamburg).join();
+        double[][] distances = client.getDistanceMatrixAsync(sources, destinations).join();
+
+        // Assert
+        assertEquals(289.0, distance, 0.0);
+        assertArrayEquals(new double[]{289.0, 0.1}, distances[0], 0.0);
+        verify(delegate, times(1)).getDistanceMatrixAsync(any(), any());
+        verify(delegate, never()).getDistanceAsync(any(), any());
+    }
+
+    @Test
+    void testGetDistanceAsync_ServesExpiredEntryWhileCircuitOpen() {
+        // Arrange
+        AsyncDistanceCachingServiceClient client = new AsyncDistanceCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofNanos(1), Duration.ofDays(1)), false);
+        when(delegate.getDistanceAsync(berlin, hamburg))
+                .thenReturn(CompletableFuture.completedFuture(289.0))
+                .thenReturn(CompletableFuture.failedFuture(new CircuitOpenException("ORS is unavailable")));
+        client.getDistanceAsync(berlin, hamburg).join();
+
+        // Act
+        double distance;
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            distance = client.getDistanceAsync(berlin, hamburg).join();
+
+            // Assert
+            assertTrue(context.isStale());
+        }
+        assertEquals(289.0, distance, 0.0);
+    }
+
+    @Test
+    void testGetDistanceAsync_CircuitOpenWithoutStaleEntry() {
+        // Arrange
+        AsyncDistanceCachingServiceClient client = new AsyncDistanceCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofMinutes(5)), false);
+        when(delegate.getDistanceAsync(berlin, hamburg))
+                .thenReturn(CompletableFuture.failedFuture(new CircuitOpenException("ORS is unavailable")));
+
+        // Act
+        CompletionException thrown = assertThrows(CompletionException.class, () -> client.getDistanceAsync(berlin, hamburg).join());
+
+        // Assert
+        assertInstanceOf(CircuitOpenException.class, thrown.getCause());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncFallbackDistanceServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    @Mock
+    private AsyncServiceClient fallback;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @Test
+    void testGetDistanceAsync_UsesDelegateWhenItAnswers() {
+        // Arrange
+        AsyncFallbackDistanceServiceClient client = new AsyncFallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        when(delegate.getDistanceAsync(berlin, hamburg)).thenReturn(CompletableFuture.completedFuture(289.0));
+
+        // Act & Assert
+        assertEquals(289.0, client.getDistanceAsync(berlin, hamburg).join());
+        verifyNoInteractions(fallback);
+        assertEquals(0, client.getFallbackCount());
+    }
+
+    @Test
+    void testGetDistanceAsync_FallsBackWhenOverQuota() {
+        // Arrange
+        AsyncFallbackDistanceServiceClient client = new AsyncFallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        when(delegate.getDistanceAsync(berlin, hamburg))
+                .thenReturn(CompletableFuture.failedFuture(new RateLimitExceededException("ORS quota exhausted", Duration.ofSeconds(30))));
+        when(fallback.getDistanceAsync(berlin, hamburg)).thenReturn(CompletableFuture.completedFuture(332.0));
+
+        // Act & Assert
+        assertEquals(332.0, client.getDistanceAsync(berlin, hamburg).join());
+        assertEquals(1, client.getFallbackCount());
+    }
+
+    @Test
+    void testGetDistanceAsync_FallsBackWhenSlowAndCancelsTheAttempt() throws Exception {
+        // Arrange
+        AsyncFallbackDistanceServiceClient client = new AsyncFallbackDistanceServiceClient(delegate, fallback, Duration.ofMillis(50));
+        AtomicReference<RequestContext> attempt = new AtomicReference<>();
+        when(delegate.getDistanceAsync(berlin, hamburg)).thenAnswer(invocation -> {
+            attempt.set(RequestContext.current());
+            return new CompletableFuture<Double>();
+        });
+        when(fallback.getDistanceAsync(berlin, hamburg)).thenReturn(CompletableFuture.completedFuture(332.0));
+
+        // Act
+        double distance = client.getDistanceAsync(berlin, hamburg).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(332.0, distance);
+        assertTrue(attempt.get().isCancelled());
+        assertEquals(1, client.getFallbackCount());
+    }
+
+    @Test
+    void testGetDistanceAsync_PermanentFailureIsPassedOn() {
+        // Arrange
+        AsyncFallbackDistanceServiceClient client = new AsyncFallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        when(delegate.getDistanceAsync(berlin, hamburg))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceClientException("Distance not found")));
+
+        // Act
+        CompletionException thrown = assertThrows(CompletionException.class, () -> client.getDistanceAsync(berlin, hamburg).join());
+
+        // Assert
+        assertInstanceOf(ServiceClientException.class, thrown.getCause());
+        verifyNoInteractions(fallback);
+    }
+}
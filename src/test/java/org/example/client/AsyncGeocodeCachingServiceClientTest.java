@@ -0,0 +1,81 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.CityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncGeocodeCachingServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @Test
+    void testGetCoordinatesAsync_SecondLookupIsCached() {
+        // Arrange
+        AsyncGeocodeCachingServiceClient client = new AsyncGeocodeCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofMinutes(5)), null);
+        when(delegate.getCoordinatesAsync("Berlin")).thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        client.getCoordinatesAsync("Berlin").join();
+        double[] coordinates = client.getCoordinatesAsync(" berlin ").join();
+
+        // Assert
+        assertArrayEquals(berlin, coordinates, 0.0);
+        verify(delegate, times(1)).getCoordinatesAsync(anyString());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_UnknownCityIsRemembered() {
+        // Arrange
+        AsyncGeocodeCachingServiceClient client = new AsyncGeocodeCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofMinutes(5)), new LruCache<>(16, Duration.ofMinutes(5)));
+        when(delegate.getCoordinatesAsync("Atlantis"))
+                .thenReturn(CompletableFuture.failedFuture(new CityNotFoundException("Atlantis")));
+
+        // Act
+        CompletionException first = assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Atlantis").join());
+        CompletionException second = assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Atlantis").join());
+
+        // Assert
+        assertInstanceOf(CityNotFoundException.class, first.getCause());
+        assertInstanceOf(CityNotFoundException.class, second.getCause());
+        verify(delegate, times(1)).getCoordinatesAsync("Atlantis");
+    }
+
+    @Test
+    void testGetCoordinatesAsync_ServesExpiredEntryWhileCircuitOpen() {
+        // Arrange
+        AsyncGeocodeCachingServiceClient client = new AsyncGeocodeCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofNanos(1), Duration.ofDays(1)), null);
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.completedFuture(berlin))
+                .thenReturn(CompletableFuture.failedFuture(new CircuitOpenException("ORS is unavailable")));
+        client.getCoordinatesAsync("Berlin").join();
+
+        // Act
+        double[] coordinates;
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            coordinates = client.getCoordinatesAsync("Berlin").join();
+
+            // Assert
+            assertTrue(context.isStale());
+        }
+        assertArrayEquals(berlin, coordinates, 0.0);
+    }
+}
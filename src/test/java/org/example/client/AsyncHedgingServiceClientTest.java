@@ -0,0 +1,85 @@
+package org.example.client;
+
+import org.example.ratelimit.RetryBudget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncHedgingServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @Test
+    void testGetCoordinatesAsync_SlowCallIsHedged() throws Exception {
+        // Arrange
+        AsyncHedgingServiceClient client = new AsyncHedgingServiceClient(delegate, fundedBudget(),
+                Duration.ofMillis(10), Duration.ofMillis(20));
+        CompletableFuture<double[]> hanging = new CompletableFuture<>();
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(hanging)
+                .thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        double[] coordinates = client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(2)).getCoordinatesAsync("Berlin");
+        assertEquals(1, client.getHedgeCount());
+        assertEquals(1, client.getHedgeWinCount());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_FastCallIsNotHedged() throws Exception {
+        // Arrange
+        AsyncHedgingServiceClient client = new AsyncHedgingServiceClient(delegate, fundedBudget(),
+                Duration.ofSeconds(1), Duration.ofSeconds(2));
+        when(delegate.getCoordinatesAsync("Berlin")).thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        double[] coordinates = client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(1)).getCoordinatesAsync("Berlin");
+        assertEquals(0, client.getHedgeCount());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_NoHedgeWithoutBudget() throws Exception {
+        // Arrange
+        AsyncHedgingServiceClient client = new AsyncHedgingServiceClient(delegate, new RetryBudget(0.1, 0, 10),
+                Duration.ofMillis(10), Duration.ofMillis(20));
+        CompletableFuture<double[]> slow = new CompletableFuture<>();
+        when(delegate.getCoordinatesAsync("Berlin")).thenReturn(slow);
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> slow.complete(berlin));
+
+        // Act
+        double[] coordinates = client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(1)).getCoordinatesAsync("Berlin");
+        assertEquals(0, client.getHedgeCount());
+    }
+
+    private static RetryBudget fundedBudget() {
+        RetryBudget budget = new RetryBudget(1, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        return budget;
+    }
+}
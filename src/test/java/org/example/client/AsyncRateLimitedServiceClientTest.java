@@ -0,0 +1,158 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.ratelimit.AimdLimit;
+import org.example.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncRateLimitedServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @Test
+    void testGetCoordinatesAsync_RetriesAfterRateLimit() throws Exception {
+        // Arrange
+        AimdLimit limit = new AimdLimit(4, 1, 4, 0.5);
+        AsyncRateLimitedServiceClient client = new AsyncRateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)),
+                key -> delegate, limit, Duration.ofSeconds(5));
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.failedFuture(new RateLimitExceededException("ORS rate limit exceeded", Duration.ofMillis(20))))
+                .thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        long start = System.nanoTime();
+        double[] coordinates = client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        verify(delegate, times(2)).getCoordinatesAsync("Berlin");
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testGetDistanceAsync_FailsWhenRetryExceedsMaxWait() {
+        // Arrange
+        AsyncRateLimitedServiceClient client = new AsyncRateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)),
+                key -> delegate, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+        when(delegate.getDistanceAsync(berlin, hamburg))
+                .thenReturn(CompletableFuture.failedFuture(new RateLimitExceededException("ORS rate limit exceeded", Duration.ofHours(1))));
+
+        // Act
+        CompletionException thrown = assertThrows(CompletionException.class, () -> client.getDistanceAsync(berlin, hamburg).join());
+
+        // Assert
+        assertInstanceOf(RateLimitExceededException.class, thrown.getCause());
+        verify(delegate, times(1)).getDistanceAsync(berlin, hamburg);
+    }
+
+    @Test
+    void testGetCoordinatesAsync_FailsOverToAnotherKey() throws Exception {
+        // Arrange
+        AsyncServiceClient second = mock(AsyncServiceClient.class);
+        PooledApiKey firstKey = new PooledApiKey("first", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        PooledApiKey secondKey = new PooledApiKey("second", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        AsyncRateLimitedServiceClient client = new AsyncRateLimitedServiceClient(new ApiKeyPool(List.of(firstKey, secondKey)),
+                key -> key.equals("first") ? delegate : second, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.failedFuture(new RateLimitExceededException("ORS rate limit exceeded", Duration.ofHours(1))));
+        when(second.getCoordinatesAsync("Berlin")).thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        double[] coordinates = client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        assertEquals(1, firstKey.getThrottledCount());
+        assertEquals(1, secondKey.getRequestCount());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_SkipsRejectedKey() throws Exception {
+        // Arrange
+        AsyncServiceClient second = mock(AsyncServiceClient.class);
+        PooledApiKey firstKey = new PooledApiKey("first", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        PooledApiKey secondKey = new PooledApiKey("second", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        AsyncRateLimitedServiceClient client = new AsyncRateLimitedServiceClient(new ApiKeyPool(List.of(firstKey, secondKey)),
+                key -> key.equals("first") ? delegate : second, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+        when(delegate.getCoordinatesAsync("Berlin")).thenAnswer(invocation -> {
+            firstKey.recordRejected(); // as OrsQuotaInterceptor does on 403
+            return CompletableFuture.failedFuture(new ServiceClientException("Failed to fetch coordinates: 403"));
+        });
+        when(second.getCoordinatesAsync("Berlin")).thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act & Assert
+        assertArrayEquals(berlin, client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS));
+        assertArrayEquals(berlin, client.getCoordinatesAsync("Berlin").get(5, TimeUnit.SECONDS));
+        verify(delegate, times(1)).getCoordinatesAsync("Berlin");
+    }
+
+    @Test
+    void testGetCoordinatesAsync_WaitsForAFreeSlot() throws Exception {
+        // Arrange
+        AimdLimit limit = new AimdLimit(1, 1, 1, 0.5);
+        AsyncRateLimitedServiceClient client = new AsyncRateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)),
+                key -> delegate, limit, Duration.ofSeconds(5));
+        CompletableFuture<double[]> slow = new CompletableFuture<>();
+        when(delegate.getCoordinatesAsync("Berlin")).thenReturn(slow).thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        CompletableFuture<double[]> first = client.getCoordinatesAsync("Berlin");
+        CompletableFuture<double[]> queued = client.getCoordinatesAsync("Berlin");
+        assertFalse(queued.isDone());
+        slow.complete(berlin);
+
+        // Assert
+        assertArrayEquals(berlin, first.get(5, TimeUnit.SECONDS));
+        assertArrayEquals(berlin, queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_CancelledWhileWaitingForSlot() {
+        // Arrange
+        AimdLimit limit = new AimdLimit(1, 1, 1, 0.5);
+        AsyncRateLimitedServiceClient client = new AsyncRateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)),
+                key -> delegate, limit, Duration.ofSeconds(5));
+        when(delegate.getCoordinatesAsync("Berlin")).thenReturn(new CompletableFuture<>());
+        client.getCoordinatesAsync("Berlin");
+
+        // Act
+        CompletableFuture<double[]> queued;
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            queued = client.getCoordinatesAsync("Berlin");
+            context.cancel("Client disconnected");
+        }
+
+        // Assert
+        CompletionException thrown = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(RequestCancelledException.class, thrown.getCause());
+        assertEquals(1, limit.getInFlight());
+        verify(delegate, times(1)).getCoordinatesAsync("Berlin");
+    }
+
+    private static ApiKeyPool pool(TokenBucket geocodeBucket, TokenBucket matrixBucket) {
+        return new ApiKeyPool(List.of(new PooledApiKey("key", geocodeBucket, matrixBucket)));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.RetryBudget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncRetryingServiceClientTest {
+
+    @Mock
+    private AsyncServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @Test
+    void testGetCoordinatesAsync_RetriesTransientFailure() {
+        // Arrange
+        RetryBudget budget = fundedBudget();
+        AsyncRetryingServiceClient client = new AsyncRetryingServiceClient(delegate, budget, 3, Duration.ofMillis(1));
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.failedFuture(new TransientServiceException("Unexpected code 503")))
+                .thenReturn(CompletableFuture.completedFuture(berlin));
+
+        // Act
+        double[] coordinates = client.getCoordinatesAsync("Berlin").join();
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(2)).getCoordinatesAsync("Berlin");
+        assertEquals(1, budget.getWithdrawnCount());
+    }
+
+    @Test
+    void testGetCoordinatesAsync_GivesUpAfterMaxAttempts() {
+        // Arrange
+        AsyncRetryingServiceClient client = new AsyncRetryingServiceClient(delegate, fundedBudget(), 3, Duration.ofMillis(1));
+        when(delegate.getCoordinatesAsync("Berlin"))
+                .thenReturn(CompletableFuture.failedFuture(new TransientServiceException("Unexpected code 503")));
+
+        // Act
+        CompletionException thrown = assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Berlin").join());
+
+        // Assert
+        assertInstanceOf(TransientServiceException.class, thrown.getCause());
+        verify(delegate, times(3)).getCoordinatesAsync("Berlin");
+    }
+
+    @Test
+    void testGetCoordinatesAsync_PermanentFailureIsNotRetried() {
+        // Arrange
+        AsyncRetryingServiceClient client = new AsyncRetryingServiceClient(delegate, fundedBudget(), 3, Duration.ofMillis(1));
+        when(delegate.getCoordinatesAsync("Atlantis"))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceClientException("Coordinates not found for city Atlantis")));
+
+        // Act
+        assertThrows(CompletionException.class, () -> client.getCoordinatesAsync("Atlantis").join());
+
+        // Assert
+        verify(delegate, times(1)).getCoordinatesAsync("Atlantis");
+    }
+
+    private static RetryBudget fundedBudget() {
+        RetryBudget budget = new RetryBudget(1, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        return budget;
+    }
+}
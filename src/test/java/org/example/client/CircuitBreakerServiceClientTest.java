@@ -0,0 +1,107 @@
+package org.example.client;
+
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @Test
+    void testGetCoordinates_FailsFastOnceOpen() throws ServiceClientException {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+        CircuitBreakerServiceClient client = new CircuitBreakerServiceClient(delegate, breaker);
+        when(delegate.getCoordinates("Berlin")).thenThrow(new TransientServiceException("Unexpected code 503"));
+        assertThrows(TransientServiceException.class, () -> client.getCoordinates("Berlin"));
+        assertThrows(TransientServiceException.class, () -> client.getCoordinates("Berlin"));
+
+        // Act & Assert
+        assertThrows(CircuitOpenException.class, () -> client.getCoordinates("Berlin"));
+        verify(delegate, times(2)).getCoordinates("Berlin");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testGetCoordinates_NotFoundCountsAsSuccess() throws ServiceClientException {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+        CircuitBreakerServiceClient client = new CircuitBreakerServiceClient(delegate, breaker);
+        when(delegate.getCoordinates("Berlin")).thenThrow(new TransientServiceException("Unexpected code 503"));
+        when(delegate.getCoordinates("Atlantis")).thenThrow(new ServiceClientException("Coordinates not found for city Atlantis"));
+
+        // Act
+        assertThrows(TransientServiceException.class, () -> client.getCoordinates("Berlin"));
+        assertThrows(ServiceClientException.class, () -> client.getCoordinates("Atlantis"));
+        assertThrows(TransientServiceException.class, () -> client.getCoordinates("Berlin"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testGetDistance_CancelledCallsAreIgnored() throws ServiceClientException {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        CircuitBreakerServiceClient client = new CircuitBreakerServiceClient(delegate, breaker);
+        when(delegate.getDistance(berlin, berlin)).thenThrow(new RequestCancelledException("Request cancelled"));
+
+        // Act
+        assertThrows(RequestCancelledException.class, () -> client.getDistance(berlin, berlin));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testGetDistance_ShortCallerDeadlineDoesNotOpenCircuit() throws Exception {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        CircuitBreakerServiceClient client = new CircuitBreakerServiceClient(delegate, breaker);
+        when(delegate.getDistance(berlin, berlin)).thenAnswer(invocation -> {
+            RequestContext.sleep(Duration.ofSeconds(1).toNanos());
+            return 0.0;
+        });
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try (RequestContext context = RequestContext.fork(Deadline.after(Duration.ofMillis(5)));
+                 RequestContext.Scope ignored = context.attach()) {
+                assertThrows(RequestCancelledException.class, () -> client.getDistance(berlin, berlin));
+            }
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        verify(delegate, times(3)).getDistance(berlin, berlin);
+    }
+
+    @Test
+    void testGetDistanceMatrix_PassesResultThrough() throws ServiceClientException {
+        // Arrange
+        CircuitBreakerServiceClient client = new CircuitBreakerServiceClient(delegate, new CircuitBreaker(1, Duration.ofMinutes(1)));
+        double[][] distances = {{0.0}};
+        when(delegate.getDistanceMatrix(any(), any())).thenReturn(distances);
+
+        // Act & Assert
+        assertSame(distances, client.getDistanceMatrix(new double[][]{berlin}, new double[][]{berlin}));
+    }
+}
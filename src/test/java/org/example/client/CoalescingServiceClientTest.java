@@ -0,0 +1,118 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CoalescingServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private CoalescingServiceClient coalescingClient;
+    private ThreadPoolExecutor executor;
+
+    private final CountDownLatch callStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseCall = new CountDownLatch(1);
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        coalescingClient = new CoalescingServiceClient(delegate);
+        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGetCoordinates_ConcurrentCallersShareOneRequest() throws Exception {
+        // Arrange
+        when(delegate.getCoordinates(anyString())).thenAnswer(invocation -> {
+            callStarted.countDown();
+            releaseCall.await(5, TimeUnit.SECONDS);
+            return berlin;
+        });
+
+        // Act
+        Future<double[]> leader = executor.submit(() -> coalescingClient.getCoordinates("Berlin"));
+        callStarted.await(5, TimeUnit.SECONDS);
+        Future<double[]> follower = executor.submit(() -> coalescingClient.getCoordinates("berlin"));
+        awaitFollowers(1);
+        releaseCall.countDown();
+
+        // Assert
+        assertArrayEquals(berlin, leader.get(5, TimeUnit.SECONDS), 0.0);
+        assertArrayEquals(berlin, follower.get(5, TimeUnit.SECONDS), 0.0);
+        verify(delegate, times(1)).getCoordinates(anyString());
+        assertEquals(0, coalescingClient.inFlightCount());
+    }
+
+    @Test
+    void testGetDistance_FailureIsSharedAndNotRemembered() throws Exception {
+        // Arrange
+        ServiceClientException failure = new ServiceClientException("API Error");
+        when(delegate.getDistance(any(), any())).thenAnswer(invocation -> {
+            callStarted.countDown();
+            releaseCall.await(5, TimeUnit.SECONDS);
+            throw failure;
+        }).thenReturn(289.0);
+
+        // Act
+        Future<Double> leader = executor.submit(() -> coalescingClient.getDistance(berlin, hamburg));
+        callStarted.await(5, TimeUnit.SECONDS);
+        Future<Double> follower = executor.submit(() -> coalescingClient.getDistance(berlin.clone(), hamburg.clone()));
+        awaitFollowers(1);
+        releaseCall.countDown();
+
+        // Assert
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+        assertEquals(289.0, coalescingClient.getDistance(berlin, hamburg), 0.0);
+        verify(delegate, times(2)).getDistance(any(), any());
+    }
+
+    @Test
+    void testGetDistance_DifferentRoutesAreNotCoalesced() throws ServiceClientException {
+        // Arrange
+        when(delegate.getDistance(any(), any())).thenReturn(289.0);
+
+        // Act
+        coalescingClient.getDistance(berlin, hamburg);
+        coalescingClient.getDistance(hamburg, berlin);
+
+        // Assert
+        verify(delegate, times(2)).getDistance(any(), any());
+    }
+
+    // The follower is parked on the shared future once the executor has no more runnable work for it
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline
+                && executor.getActiveCount() < followers + 1) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+    }
+}
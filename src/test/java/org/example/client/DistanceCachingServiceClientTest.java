@@ -0,0 +1,123 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DistanceCachingServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @BeforeEach
+    void setUp() throws ServiceClientException {
+        MockitoAnnotations.openMocks(this);
+        when(delegate.getDistance(any(), any())).thenReturn(289.0);
+    }
+
+    @Test
+    void testGetDistance_CachesByCoordinateValue() throws ServiceClientException {
+        // Arrange
+        DistanceCachingServiceClient client = new DistanceCachingServiceClient(delegate, 16, Duration.ofMinutes(5), false);
+
+        // Act
+        client.getDistance(berlin, hamburg);
+        double distance = client.getDistance(new double[]{52.520001, 13.405001}, new double[]{53.5511, 9.9937});
+
+        // Assert
+        assertEquals(289.0, distance, 0.0001);
+        verify(delegate, times(1)).getDistance(any(), any());
+    }
+
+    @Test
+    void testGetDistance_DirectedByDefault() throws ServiceClientException {
+        // Arrange
+        DistanceCachingServiceClient client = new DistanceCachingServiceClient(delegate, 16, Duration.ofMinutes(5), false);
+
+        // Act
+        client.getDistance(berlin, hamburg);
+        client.getDistance(hamburg, berlin);
+
+        // Assert
+        verify(delegate, times(2)).getDistance(any(), any());
+    }
+
+    @Test
+    void testGetDistance_SymmetricReusesReverseRoute() throws ServiceClientException {
+        // Arrange
+        DistanceCachingServiceClient client = new DistanceCachingServiceClient(delegate, 16, Duration.ofMinutes(5), true);
+
+        // Act
+        client.getDistance(berlin, hamburg);
+        double distance = client.getDistance(hamburg, berlin);
+
+        // Assert
+        assertEquals(289.0, distance, 0.0001);
+        verify(delegate, times(1)).getDistance(any(), any());
+    }
+
+    @Test
+    void testGetDistance_EvictsBeyondMaxSize() throws ServiceClientException {
+        // Arrange
+        DistanceCachingServiceClient client = new DistanceCachingServiceClient(delegate, 1, Duration.ofMinutes(5), false);
+
+        // Act
+        client.getDistance(berlin, hamburg);
+        client.getDistance(hamburg, berlin);
+        client.getDistance(berlin, hamburg);
+
+        // Assert
+        verify(delegate, times(3)).getDistance(any(), any());
+    }
+
+    @Test
+    void testGetDistance_ServesExpiredEntryWhileCircuitOpen() throws ServiceClientException {
+        // Arrange
+        DistanceCachingServiceClient client = new DistanceCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofNanos(1), Duration.ofDays(1)), false);
+        client.getDistance(berlin, hamburg);
+        when(delegate.getDistance(any(), any())).thenThrow(new CircuitOpenException("ORS is unavailable"));
+
+        // Act
+        double distance;
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            distance = client.getDistance(berlin, hamburg);
+
+            // Assert
+            assertTrue(context.isStale());
+        }
+        assertEquals(289.0, distance, 0.0001);
+        assertThrows(CircuitOpenException.class, () -> client.getDistance(hamburg, berlin));
+    }
+
+    @Test
+    void testGetDistanceMatrix_StaleFallbackNeedsEveryEntry() throws ServiceClientException {
+        // Arrange
+        DistanceCachingServiceClient client = new DistanceCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofNanos(1), Duration.ofDays(1)), false);
+        client.getDistance(berlin, hamburg);
+        when(delegate.getDistanceMatrix(any(), any())).thenThrow(new CircuitOpenException("ORS is unavailable"));
+
+        // Act
+        double[][] distances = client.getDistanceMatrix(new double[][]{berlin}, new double[][]{hamburg});
+
+        // Assert
+        assertEquals(289.0, distances[0][0], 0.0001);
+        assertThrows(CircuitOpenException.class,
+                () -> client.getDistanceMatrix(new double[][]{berlin}, new double[][]{hamburg, berlin}));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FallbackDistanceServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    @Mock
+    private ServiceClient fallback;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @Test
+    void testGetDistance_UsesDelegateWhenItAnswers() throws ServiceClientException {
+        // Arrange
+        FallbackDistanceServiceClient client = new FallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        when(delegate.getDistance(berlin, hamburg)).thenReturn(289.0);
+
+        // Act & Assert
+        assertEquals(289.0, client.getDistance(berlin, hamburg));
+        verifyNoInteractions(fallback);
+        assertEquals(0, client.getFallbackCount());
+    }
+
+    @Test
+    void testGetDistance_FallsBackWhenOverQuota() throws ServiceClientException {
+        // Arrange
+        FallbackDistanceServiceClient client = new FallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        when(delegate.getDistance(berlin, hamburg)).thenThrow(new RateLimitExceededException("ORS quota exhausted", Duration.ofSeconds(30)));
+        when(fallback.getDistance(berlin, hamburg)).thenReturn(332.0);
+
+        // Act & Assert
+        assertEquals(332.0, client.getDistance(berlin, hamburg));
+        assertEquals(1, client.getFallbackCount());
+    }
+
+    @Test
+    void testGetDistance_FallsBackWhenSlow() throws ServiceClientException {
+        // Arrange
+        FallbackDistanceServiceClient client = new FallbackDistanceServiceClient(delegate, fallback, Duration.ofMillis(50));
+        when(delegate.getDistance(berlin, hamburg)).thenAnswer(invocation -> {
+            RequestContext.sleep(TimeUnit.SECONDS.toNanos(30));
+            return 289.0;
+        });
+        when(fallback.getDistance(berlin, hamburg)).thenReturn(332.0);
+
+        // Act
+        long start = System.nanoTime();
+        double distance = client.getDistance(berlin, hamburg);
+
+        // Assert
+        assertEquals(332.0, distance);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void testGetDistance_CallerCancellationIsPassedOn() throws ServiceClientException {
+        // Arrange
+        FallbackDistanceServiceClient client = new FallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            when(delegate.getDistance(berlin, hamburg)).thenAnswer(invocation -> {
+                context.cancel("Client went away");
+                throw new RequestCancelledException("Client went away");
+            });
+
+            // Act & Assert
+            assertThrows(RequestCancelledException.class, () -> client.getDistance(berlin, hamburg));
+        }
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void testGetDistance_NotFoundIsNotEstimated() throws ServiceClientException {
+        // Arrange
+        FallbackDistanceServiceClient client = new FallbackDistanceServiceClient(delegate, fallback, Duration.ofSeconds(1));
+        when(delegate.getDistance(berlin, hamburg)).thenThrow(new ServiceClientException("Distance not found between the coordinates"));
+
+        // Act & Assert
+        assertThrows(ServiceClientException.class, () -> client.getDistance(berlin, hamburg));
+        verifyNoInteractions(fallback);
+    }
+}
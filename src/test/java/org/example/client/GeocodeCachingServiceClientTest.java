@@ -0,0 +1,127 @@
+package org.example.client;
+
+import org.example.cache.LruCache;
+import org.example.context.RequestContext;
+import org.example.exception.CircuitOpenException;
+import org.example.exception.CityNotFoundException;
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GeocodeCachingServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private GeocodeCachingServiceClient cachingClient;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @BeforeEach
+    void setUp() throws ServiceClientException {
+        MockitoAnnotations.openMocks(this);
+        cachingClient = new GeocodeCachingServiceClient(delegate, 16, Duration.ofMinutes(5));
+        when(delegate.getCoordinates("Berlin")).thenReturn(berlin);
+    }
+
+    @Test
+    void testGetCoordinates_CachesRepeatLookups() throws ServiceClientException {
+        // Act
+        double[] first = cachingClient.getCoordinates("Berlin");
+        double[] second = cachingClient.getCoordinates("  berlin ");
+
+        // Assert
+        assertArrayEquals(berlin, first, 0.0001);
+        assertArrayEquals(berlin, second, 0.0001);
+        verify(delegate, times(1)).getCoordinates(anyString());
+    }
+
+    @Test
+    void testGetCoordinates_CallerCannotCorruptCache() throws ServiceClientException {
+        // Arrange
+        cachingClient.getCoordinates("Berlin");
+        cachingClient.getCoordinates("Berlin")[0] = 0;
+
+        // Act
+        double[] coordinates = cachingClient.getCoordinates("Berlin");
+
+        // Assert
+        assertArrayEquals(new double[]{52.5200, 13.4050}, coordinates, 0.0001);
+    }
+
+    @Test
+    void testGetCoordinates_FailuresAreNotCached() throws ServiceClientException {
+        // Arrange
+        when(delegate.getCoordinates("Atlantis")).thenThrow(new ServiceClientException("Coordinates not found for city Atlantis"));
+
+        // Act & Assert
+        assertThrows(ServiceClientException.class, () -> cachingClient.getCoordinates("Atlantis"));
+        assertThrows(ServiceClientException.class, () -> cachingClient.getCoordinates("Atlantis"));
+        verify(delegate, times(2)).getCoordinates("Atlantis");
+    }
+
+    @Test
+    void testGetDistance_Delegates() throws ServiceClientException {
+        // Arrange
+        when(delegate.getDistance(berlin, hamburg)).thenReturn(289.0);
+
+        // Act
+        double distance = cachingClient.getDistance(berlin, hamburg);
+
+        // Assert
+        assertEquals(289.0, distance, 0.0001);
+    }
+
+    @Test
+    void testGetCoordinates_ServesExpiredEntryWhileCircuitOpen() throws ServiceClientException {
+        // Arrange
+        GeocodeCachingServiceClient client = new GeocodeCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofNanos(1), Duration.ofDays(1)));
+        client.getCoordinates("Berlin");
+        when(delegate.getCoordinates("Berlin")).thenThrow(new CircuitOpenException("ORS is unavailable"));
+
+        // Act
+        double[] coordinates;
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            coordinates = client.getCoordinates("Berlin");
+
+            // Assert
+            assertTrue(context.isStale());
+        }
+        assertArrayEquals(berlin, coordinates, 0.0001);
+    }
+
+    @Test
+    void testGetCoordinates_CircuitOpenWithoutStaleEntry() throws ServiceClientException {
+        // Arrange
+        when(delegate.getCoordinates("Hamburg")).thenThrow(new CircuitOpenException("ORS is unavailable"));
+
+        // Act & Assert
+        assertThrows(CircuitOpenException.class, () -> cachingClient.getCoordinates("Hamburg"));
+    }
+
+    @Test
+    void testGetCoordinates_RemembersUnknownCities() throws ServiceClientException {
+        // Arrange
+        GeocodeCachingServiceClient client = new GeocodeCachingServiceClient(delegate,
+                new LruCache<>(16, Duration.ofMinutes(5)), new LruCache<>(16, Duration.ofMinutes(5)));
+        CityNotFoundException notFound = new CityNotFoundException("Atlantis");
+        when(delegate.getCoordinates("Atlantis")).thenThrow(notFound);
+
+        // Act
+        assertThrows(CityNotFoundException.class, () -> client.getCoordinates("Atlantis"));
+        CityNotFoundException repeated = assertThrows(CityNotFoundException.class, () -> client.getCoordinates(" atlantis"));
+
+        // Assert
+        assertSame(notFound, repeated);
+        verify(delegate, times(1)).getCoordinates(anyString());
+    }
+}
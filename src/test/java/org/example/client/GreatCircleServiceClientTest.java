@@ -0,0 +1,70 @@
+package org.example.client;
+
+import org.example.context.RequestContext;
+import org.example.exception.ServiceClientException;
+import org.example.geo.DetourFactors;
+import org.example.geo.GreatCircle;
+import org.example.model.TransportationMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GreatCircleServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+    private final DetourFactors factors = DetourFactors.parse("car=1.3,train=1.2");
+
+    @Test
+    void testGetDistance_AppliesFactorOfCurrentTransportationMethod() {
+        // Arrange
+        GreatCircleServiceClient client = new GreatCircleServiceClient(delegate, factors);
+        double greatCircle = GreatCircle.vincentyKm(berlin, hamburg);
+
+        // Act
+        double distance;
+        try (RequestContext context = RequestContext.fork(); RequestContext.Scope ignored = context.attach()) {
+            context.setTransportationMethod(TransportationMethod.TRAIN_DEFAULT);
+            try (RequestContext child = RequestContext.fork(); RequestContext.Scope ignoredChild = child.attach()) {
+                distance = client.getDistance(berlin, hamburg);
+            }
+
+            // Assert
+            assertTrue(context.isEstimated());
+            assertSame(factors, context.getDetourFactors());
+        }
+        assertEquals(greatCircle * 1.2, distance, 1e-9);
+        assertEquals(greatCircle * 1.3, client.getDistance(berlin, hamburg), 1e-9);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void testGetDistanceMatrix_EstimatesEveryPair() {
+        // Arrange
+        GreatCircleServiceClient client = new GreatCircleServiceClient(delegate, factors);
+
+        // Act
+        double[][] distances = client.getDistanceMatrix(new double[][]{berlin, hamburg}, new double[][]{hamburg});
+
+        // Assert
+        assertEquals(GreatCircle.vincentyKm(berlin, hamburg) * 1.3, distances[0][0], 1e-9);
+        assertEquals(0, distances[1][0]);
+    }
+
+    @Test
+    void testGetCoordinates_Delegates() throws ServiceClientException {
+        // Arrange
+        when(delegate.getCoordinates("Berlin")).thenReturn(berlin);
+
+        // Act & Assert
+        assertArrayEquals(berlin, new GreatCircleServiceClient(delegate, factors).getCoordinates("Berlin"));
+    }
+}
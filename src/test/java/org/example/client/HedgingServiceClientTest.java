@@ -0,0 +1,152 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.metrics.Histogram;
+import org.example.ratelimit.RetryBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HedgingServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGetCoordinates_SlowCallIsHedged() throws Exception {
+        // Arrange
+        CountDownLatch released = new CountDownLatch(1);
+        HedgingServiceClient client = new HedgingServiceClient(delegate, executor, fundedBudget(),
+                Duration.ofMillis(10), Duration.ofMillis(20));
+        when(delegate.getCoordinates("Berlin"))
+                .thenAnswer(invocation -> {
+                    released.await(10, TimeUnit.SECONDS); // the first request hangs
+                    return berlin;
+                })
+                .thenReturn(berlin);
+
+        // Act
+        double[] coordinates = client.getCoordinates("Berlin");
+        released.countDown();
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(2)).getCoordinates("Berlin");
+        assertEquals(1, client.getHedgeCount());
+        assertEquals(1, client.getHedgeWinCount());
+    }
+
+    @Test
+    void testGetCoordinates_FastCallIsNotHedged() throws ServiceClientException {
+        // Arrange
+        HedgingServiceClient client = new HedgingServiceClient(delegate, executor, fundedBudget(),
+                Duration.ofMillis(10), Duration.ofSeconds(5));
+        when(delegate.getCoordinates("Berlin")).thenReturn(berlin);
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            client.getCoordinates("Berlin");
+        }
+
+        // Assert
+        verify(delegate, times(30)).getCoordinates("Berlin");
+        assertEquals(0, client.getHedgeCount());
+    }
+
+    @Test
+    void testGetCoordinates_NoHedgeWithoutBudget() throws ServiceClientException {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0, 0, 10);
+        HedgingServiceClient client = new HedgingServiceClient(delegate, executor, budget, Duration.ofMillis(5), Duration.ofMillis(5));
+        when(delegate.getCoordinates("Berlin")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return berlin;
+        });
+
+        // Act
+        double[] coordinates = client.getCoordinates("Berlin");
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(1)).getCoordinates("Berlin");
+        assertEquals(1, budget.getRejectedCount());
+    }
+
+    @Test
+    void testGetCoordinates_HedgeCoversFailedFirstRequest() throws ServiceClientException {
+        // Arrange
+        HedgingServiceClient client = new HedgingServiceClient(delegate, executor, fundedBudget(),
+                Duration.ofMillis(5), Duration.ofMillis(5));
+        when(delegate.getCoordinates("Berlin"))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(50);
+                    throw new ServiceClientException("Connection reset");
+                })
+                .thenReturn(berlin);
+
+        // Act & Assert
+        assertArrayEquals(berlin, client.getCoordinates("Berlin"));
+    }
+
+    @Test
+    void testGetCoordinates_BothFailReportsFirstError() throws ServiceClientException {
+        // Arrange
+        HedgingServiceClient client = new HedgingServiceClient(delegate, executor, fundedBudget(),
+                Duration.ofMillis(5), Duration.ofMillis(5));
+        when(delegate.getCoordinates("Atlantis"))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(50);
+                    throw new ServiceClientException("first");
+                })
+                .thenThrow(new ServiceClientException("second"));
+
+        // Act & Assert
+        ServiceClientException exception = assertThrows(ServiceClientException.class, () -> client.getCoordinates("Atlantis"));
+        assertEquals("first", exception.getMessage());
+    }
+
+    @Test
+    void testHedgeDelay_FollowsObservedPercentile() {
+        // Arrange
+        HedgingServiceClient client = new HedgingServiceClient(delegate, executor, fundedBudget(),
+                Duration.ofMillis(1), Duration.ofSeconds(5));
+        Histogram latency = new Histogram();
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(5).toNanos(), client.hedgeDelayNanos(latency));
+        for (int i = 0; i < 100; i++) {
+            latency.record(Duration.ofMillis(i < 95 ? 20 : 900).toNanos());
+        }
+        long delay = client.hedgeDelayNanos(latency);
+        assertTrue(delay >= Duration.ofMillis(20).toNanos() && delay < Duration.ofMillis(25).toNanos(), Long.toString(delay));
+    }
+
+    // RetryingServiceClient makes the deposits in the application, here they are made up front
+    private static RetryBudget fundedBudget() {
+        RetryBudget budget = new RetryBudget(1, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        return budget;
+    }
+}
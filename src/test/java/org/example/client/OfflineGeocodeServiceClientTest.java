@@ -0,0 +1,58 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.store.GazetteerIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfflineGeocodeServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+    private final GazetteerIndex index = GazetteerIndex.of(Map.of("berlin", berlin));
+
+    @Test
+    void testGetCoordinates_AnswersFromIndex() throws ServiceClientException {
+        // Arrange
+        OfflineGeocodeServiceClient client = new OfflineGeocodeServiceClient(delegate, index);
+
+        // Act
+        double[] coordinates = client.getCoordinates("  BERLIN ");
+
+        // Assert
+        assertArrayEquals(berlin, coordinates, 0.000001);
+        verifyNoInteractions(delegate);
+        assertEquals(1, client.getHitCount());
+    }
+
+    @Test
+    void testGetCoordinates_DelegatesOnMiss() throws ServiceClientException {
+        // Arrange
+        OfflineGeocodeServiceClient client = new OfflineGeocodeServiceClient(delegate, index);
+        when(delegate.getCoordinates("Hamburg")).thenReturn(hamburg);
+
+        // Act & Assert
+        assertArrayEquals(hamburg, client.getCoordinates("Hamburg"));
+        assertEquals(1, client.getMissCount());
+    }
+
+    @Test
+    void testGetDistance_Delegates() throws ServiceClientException {
+        // Arrange
+        when(delegate.getDistance(berlin, hamburg)).thenReturn(289.0);
+
+        // Act & Assert
+        assertEquals(289.0, new OfflineGeocodeServiceClient(delegate, index).getDistance(berlin, hamburg));
+    }
+}
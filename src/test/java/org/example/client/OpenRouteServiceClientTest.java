@@ -1,17 +1,29 @@
 package org.example.client;
 
 import okhttp3.*;
+import okio.Buffer;
+import okio.Timeout;
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.exception.CityNotFoundException;
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.RequestCancelledException;
 import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 class OpenRouteServiceClientTest {
 
@@ -68,6 +80,46 @@ class OpenRouteServiceClientTest {
         assertTrue(exception.getMessage().contains("Unexpected code"));
     }
 
+    @Test
+    void testGetCoordinates_ServerErrorIsTransient() throws IOException {
+        // Arrange
+        when(mockResponse.code()).thenReturn(503);
+        when(mockResponse.isSuccessful()).thenReturn(false);
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(mockResponse);
+
+        // Act & Assert
+        assertThrows(TransientServiceException.class, () -> openRouteServiceClient.getCoordinates("Berlin"));
+    }
+
+    @Test
+    void testGetCoordinates_ClientErrorIsNotTransient() throws IOException {
+        // Arrange
+        when(mockResponse.code()).thenReturn(400);
+        when(mockResponse.isSuccessful()).thenReturn(false);
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(mockResponse);
+
+        // Act & Assert
+        ServiceClientException exception = assertThrows(ServiceClientException.class,
+                () -> openRouteServiceClient.getCoordinates("Berlin"));
+        assertFalse(exception instanceof TransientServiceException);
+    }
+
+    @Test
+    void testGetCoordinates_RateLimited() throws IOException {
+        // Arrange
+        when(mockResponse.code()).thenReturn(429);
+        when(mockResponse.header("Retry-After")).thenReturn("12");
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(mockResponse);
+
+        // Act & Assert
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> openRouteServiceClient.getCoordinates("Berlin"));
+        assertEquals(java.time.Duration.ofSeconds(12), exception.getRetryAfter());
+    }
+
     @Test
     void testGetCoordinates_Exception() throws IOException {
         // Arrange
@@ -107,9 +159,10 @@ class OpenRouteServiceClientTest {
         when(mockCall.execute()).thenReturn(mockResponse);
 
         // Act & Assert
-        ServiceClientException exception = assertThrows(ServiceClientException.class,
+        CityNotFoundException exception = assertThrows(CityNotFoundException.class,
                 () -> openRouteServiceClient.getCoordinates("Berlin"));
-        assertTrue(exception.getMessage().contains("Coordinates not found for city"));
+        assertEquals("Coordinates not found for city Berlin", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
     }
 
     @Test
@@ -185,4 +238,231 @@ class OpenRouteServiceClientTest {
                 () -> openRouteServiceClient.getDistance(new double[]{52.5200, 13.4050}, new double[]{53.5511, 9.9937}));
         assertTrue(exception.getMessage().contains("Distance not found between the coordinates or Invalid start/end coordinates"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetDistanceMatrix_Success() throws IOException, ServiceClientException {
+        // Arrange
+        String jsonResponse = "{\"distances\":[[289000,585000],[2000,775000]]}";
+        when(mockResponse.isSuccessful()).thenReturn(true);
+        when(mockResponse.body()).thenReturn(mockResponseBody);
+        when(mockResponseBody.byteStream()).thenReturn(new java.io.ByteArrayInputStream(jsonResponse.getBytes()));
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        when(mockClient.newCall(requestCaptor.capture())).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(mockResponse);
+
+        // Act
+        double[][] distances = openRouteServiceClient.getDistanceMatrix(
+                new double[][]{{52.5200, 13.4050}, {53.5511, 9.9937}},
+                new double[][]{{53.5511, 9.9937}, {48.1372, 11.5755}});
+
+        // Assert
+        assertEquals(289.0, distances[0][0], 0.0001);
+        assertEquals(585.0, distances[0][1], 0.0001);
+        assertEquals(2.0, distances[1][0], 0.0001);
+        assertEquals(775.0, distances[1][1], 0.0001);
+        Buffer buffer = new Buffer();
+        requestCaptor.getValue().body().writeTo(buffer);
+        assertEquals("{\"locations\":[[13.405,52.52],[9.9937,53.5511],[9.9937,53.5511],[11.5755,48.1372]],"
+                + "\"sources\":[0,1],\"destinations\":[2,3],\"metrics\":[\"distance\"]}", buffer.readUtf8());
+    }
+
+    @Test
+    void testGetDistanceMatrix_UnreachablePairFails() throws IOException {
+        // Arrange
+        String jsonResponse = "{\"distances\":[[289000,null],[0,504000]]}";
+        when(mockResponse.isSuccessful()).thenReturn(true);
+        when(mockResponse.body()).thenReturn(mockResponseBody);
+        when(mockResponseBody.byteStream()).thenReturn(new java.io.ByteArrayInputStream(jsonResponse.getBytes()));
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(mockResponse);
+
+        // Act & Assert
+        ServiceClientException exception = assertThrows(ServiceClientException.class, () -> openRouteServiceClient.getDistanceMatrix(
+                new double[][]{{52.5200, 13.4050}, {53.5511, 9.9937}},
+                new double[][]{{53.5511, 9.9937}, {48.1372, 11.5755}}));
+        assertTrue(exception.getMessage().contains("of source 0 and destination 1"));
+    }
+
+    @Test
+    void testGetDistanceMatrix_SplitsLargeMatrix() throws IOException, ServiceClientException {
+        // Arrange
+        OpenRouteServiceClient client = new OpenRouteServiceClient(apiKey, mockClient, OpenRouteServiceClient.DEFAULT_BASE_URL, 2);
+        Response firstBlock = matrixResponse("{\"distances\":[[1000,2000]]}");
+        Response secondBlock = matrixResponse("{\"distances\":[[3000]]}");
+        Response thirdBlock = matrixResponse("{\"distances\":[[4000,5000]]}");
+        Response fourthBlock = matrixResponse("{\"distances\":[[6000]]}");
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(firstBlock, secondBlock, thirdBlock, fourthBlock);
+
+        // Act
+        double[][] distances = client.getDistanceMatrix(
+                new double[][]{{52.5200, 13.4050}, {53.5511, 9.9937}},
+                new double[][]{{53.5511, 9.9937}, {48.1372, 11.5755}, {50.1109, 8.6821}});
+
+        // Assert
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0}, distances[0], 0.0001);
+        assertArrayEquals(new double[]{4.0, 5.0, 6.0}, distances[1], 0.0001);
+        verify(mockCall, times(4)).execute();
+    }
+
+    @Test
+    void testMatrixBlocks_KeepWholeRowsWherePossible() {
+        // Arrange
+        OpenRouteServiceClient client = new OpenRouteServiceClient(apiKey, mockClient, OpenRouteServiceClient.DEFAULT_BASE_URL, 6);
+
+        // Act & Assert
+        assertEquals(2, client.matrixBlocks(4, 3).size());
+        assertEquals(new OpenRouteServiceClient.MatrixBlock(2, 2, 0, 3), client.matrixBlocks(4, 3).get(1));
+        assertEquals(1, client.matrixBlocks(2, 3).size());
+        assertEquals(4, client.matrixBlocks(1, 20).size());
+        assertTrue(client.matrixBlocks(0, 3).isEmpty());
+    }
+
+    @Test
+    void testGetDistanceMatrixAsync_SplitsLargeMatrix() throws Exception {
+        // Arrange
+        OpenRouteServiceClient client = new OpenRouteServiceClient(apiKey, mockClient, OpenRouteServiceClient.DEFAULT_BASE_URL, 1);
+        Response firstBlock = matrixResponse("{\"distances\":[[1000]]}");
+        Response secondBlock = matrixResponse("{\"distances\":[[2000]]}");
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        doAnswer(invocation -> {
+            invocation.<Callback>getArgument(0).onResponse(mockCall, firstBlock);
+            return null;
+        }).doAnswer(invocation -> {
+            invocation.<Callback>getArgument(0).onResponse(mockCall, secondBlock);
+            return null;
+        }).when(mockCall).enqueue(any(Callback.class));
+
+        // Act
+        double[][] distances = client.getDistanceMatrixAsync(
+                new double[][]{{52.5200, 13.4050}, {53.5511, 9.9937}},
+                new double[][]{{48.1372, 11.5755}}).get();
+
+        // Assert
+        assertEquals(1.0, distances[0][0], 0.0001);
+        assertEquals(2.0, distances[1][0], 0.0001);
+    }
+
+    @Test
+    void testGetDistanceMatrix_NetworkErrorMessage() throws IOException {
+        // Arrange
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenThrow(new IOException("Network error"));
+
+        // Act & Assert
+        ServiceClientException exception = assertThrows(ServiceClientException.class, () -> openRouteServiceClient.getDistanceMatrix(
+                new double[][]{{52.5200, 13.4050}}, new double[][]{{53.5511, 9.9937}}));
+        assertEquals("Error occurred during fetching distance matrix: Network error", exception.getMessage());
+    }
+
+    private Response matrixResponse(String json) {
+        Response response = mock(Response.class);
+        ResponseBody body = mock(ResponseBody.class);
+        when(response.isSuccessful()).thenReturn(true);
+        when(response.body()).thenReturn(body);
+        when(body.byteStream()).thenReturn(new java.io.ByteArrayInputStream(json.getBytes()));
+        return response;
+    }
+
+    @Test
+    void testGetDistanceMatrix_WrongShape() throws IOException {
+        // Arrange
+        String jsonResponse = "{\"distances\":[[289000]]}";
+        when(mockResponse.isSuccessful()).thenReturn(true);
+        when(mockResponse.body()).thenReturn(mockResponseBody);
+        when(mockResponseBody.byteStream()).thenReturn(new java.io.ByteArrayInputStream(jsonResponse.getBytes()));
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(mockResponse);
+
+        // Act & Assert
+        assertThrows(ServiceClientException.class, () -> openRouteServiceClient.getDistanceMatrix(
+                new double[][]{{52.5200, 13.4050}, {53.5511, 9.9937}},
+                new double[][]{{48.1372, 11.5755}}));
+    }
+
+    @Test
+    void testGetCoordinatesAsync_Success() throws Exception {
+        // Arrange
+        String jsonResponse = "{\"features\":[{\"geometry\":{\"coordinates\":[13.4050,52.5200]}}]}";
+        when(mockResponse.isSuccessful()).thenReturn(true);
+        when(mockResponse.body()).thenReturn(mockResponseBody);
+        when(mockResponseBody.byteStream()).thenReturn(new java.io.ByteArrayInputStream(jsonResponse.getBytes()));
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        doAnswer(invocation -> {
+            invocation.<Callback>getArgument(0).onResponse(mockCall, mockResponse);
+            return null;
+        }).when(mockCall).enqueue(any(Callback.class));
+
+        // Act
+        double[] coordinates = openRouteServiceClient.getCoordinatesAsync("Berlin").get();
+
+        // Assert
+        assertArrayEquals(new double[]{52.5200, 13.4050}, coordinates, 0.001);
+        verify(mockCall, never()).execute();
+    }
+
+    @Test
+    void testGetDistanceAsync_Failure() {
+        // Arrange
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        doAnswer(invocation -> {
+            invocation.<Callback>getArgument(0).onFailure(mockCall, new IOException("Network error"));
+            return null;
+        }).when(mockCall).enqueue(any(Callback.class));
+
+        // Act
+        CompletableFuture<Double> future = openRouteServiceClient.getDistanceAsync(new double[]{52.5200, 13.4050}, new double[]{53.5511, 9.9937});
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(ServiceClientException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("Network error"));
+    }
+
+    @Test
+    void testGetCoordinatesAsync_CancelCancelsCall() {
+        // Arrange
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+
+        // Act
+        openRouteServiceClient.getCoordinatesAsync("Berlin").cancel(true);
+
+        // Assert
+        verify(mockCall).cancel();
+    }
+
+    @Test
+    void testGetCoordinates_DeadlineBecomesCallTimeout() throws IOException {
+        // Arrange
+        Timeout timeout = new Timeout();
+        when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+        when(mockCall.timeout()).thenReturn(timeout);
+        RequestContext context = RequestContext.fork(Deadline.after(Duration.ofSeconds(2)));
+        when(mockCall.execute()).thenAnswer(invocation -> {
+            context.cancel("Sibling failed"); // e.g. the other lookup of the trip failed
+            throw new IOException("Canceled");
+        });
+
+        // Act & Assert
+        try (RequestContext.Scope ignored = context.attach()) {
+            RequestCancelledException exception = assertThrows(RequestCancelledException.class,
+                    () -> openRouteServiceClient.getCoordinates("Berlin"));
+            assertEquals("Sibling failed", exception.getMessage());
+        }
+        assertTrue(timeout.timeoutNanos() > 0 && timeout.timeoutNanos() <= Duration.ofSeconds(2).toNanos());
+        verify(mockCall).cancel();
+    }
+
+    @Test
+    void testGetCoordinates_CancelledContextSendsNothing() {
+        // Arrange
+        RequestContext context = RequestContext.fork();
+        context.cancel("Deadline exceeded");
+
+        // Act & Assert
+        try (RequestContext.Scope ignored = context.attach()) {
+            assertThrows(RequestCancelledException.class, () -> openRouteServiceClient.getCoordinates("Berlin"));
+        }
+        verify(mockClient, never()).newCall(any(Request.class));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrsJsonCodecTest {
+
+    private final OrsJsonCodec codec = new OrsJsonCodec();
+
+    @Test
+    void testReadCoordinates_SkipsUnrelatedFields() throws IOException {
+        // Arrange
+        String json = "{\"geocoding\":{\"query\":{\"text\":\"Berlin\",\"size\":[1,2]}},\"type\":\"FeatureCollection\","
+                + "\"features\":[{\"type\":\"Feature\",\"properties\":{\"geometry\":{\"coordinates\":[1,1]}},"
+                + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[13.4050,52.5200]}},"
+                + "{\"geometry\":{\"coordinates\":[9.9937,53.5511]}}],\"bbox\":[1,2,3,4]}";
+
+        // Act
+        double[] coordinates = codec.readCoordinates(stream(json));
+
+        // Assert
+        assertArrayEquals(new double[]{52.5200, 13.4050}, coordinates, 0.0);
+    }
+
+    @Test
+    void testReadCoordinates_NoFeatures() throws IOException {
+        assertNull(codec.readCoordinates(stream("{\"features\":[]}")));
+        assertNull(codec.readCoordinates(stream("{\"error\":\"bad request\"}")));
+        assertNull(codec.readCoordinates(stream("{\"features\":[{\"geometry\":{\"coordinates\":[\"a\",\"b\"]}}]}")));
+    }
+
+    @Test
+    void testReadDistance() throws IOException {
+        // Arrange
+        String json = "{\"distances\":[[0,289000.5],[289100,0]],\"metadata\":{\"service\":\"matrix\"}}";
+
+        // Act & Assert
+        assertEquals(289000.5, codec.readDistance(stream(json), 0, 1), 0.0);
+        assertEquals(289100, codec.readDistance(stream(json), 1, 0), 0.0);
+        assertEquals(-1, codec.readDistance(stream(json), 2, 0), 0.0);
+        assertEquals(-1, codec.readDistance(stream("{\"distances\":[[0,null]]}"), 0, 1), 0.0);
+    }
+
+    @Test
+    void testReadDistanceMatrix_StreamsRows() throws IOException, ServiceClientException {
+        // Arrange
+        String json = "{\"destinations\":[{\"location\":[1,2]}],\"distances\":[[1000,null],[2000,3000]]}";
+        List<double[]> rows = new ArrayList<>();
+
+        // Act
+        codec.readDistanceMatrix(stream(json), 2, 2, (rowIndex, row) -> rows.add(row.clone()));
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals(1000, rows.get(0)[0], 0.0);
+        assertTrue(Double.isNaN(rows.get(0)[1]));
+        assertArrayEquals(new double[]{2000, 3000}, rows.get(1), 0.0);
+    }
+
+    @Test
+    void testReadDistanceMatrix_WrongShape() {
+        assertThrows(ServiceClientException.class,
+                () -> codec.readDistanceMatrix(stream("{\"distances\":[[1,2,3]]}"), 1, 2, (rowIndex, row) -> { }));
+        assertThrows(ServiceClientException.class,
+                () -> codec.readDistanceMatrix(stream("{\"distances\":[[1],[2]]}"), 1, 1, (rowIndex, row) -> { }));
+        assertThrows(ServiceClientException.class,
+                () -> codec.readDistanceMatrix(stream("{}"), 1, 1, (rowIndex, row) -> { }));
+    }
+
+    @Test
+    void testWriteRequests() {
+        assertEquals("{\"locations\":[[13.405,52.52],[9.9937,53.5511]],\"metrics\":[\"distance\"]}",
+                new String(codec.writeRouteRequest(new double[]{52.52, 13.405}, new double[]{53.5511, 9.9937}), StandardCharsets.UTF_8));
+        assertEquals("{\"locations\":[[13.405,52.52],[9.9937,53.5511]],\"sources\":[0],\"destinations\":[1],\"metrics\":[\"distance\"]}",
+                new String(codec.writeMatrixRequest(new double[][]{{52.52, 13.405}}, new double[][]{{53.5511, 9.9937}}), StandardCharsets.UTF_8));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.PipelineMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrsMetricsInterceptorTest {
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final OrsMetricsInterceptor interceptor = new OrsMetricsInterceptor(new PipelineMetrics(registry));
+    private final Request request = new Request.Builder().url("https://api.openrouteservice.org/geocode/search").build();
+
+    @Test
+    void testIntercept_CountsErrorStatus() throws IOException {
+        // Arrange
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenReturn(response(429), response(200));
+
+        // Act
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+
+        // Assert
+        assertEquals(1, registry.getCounters().get("ors_errors_total{status=\"429\"}"));
+        assertEquals(1, registry.getCounters().size());
+    }
+
+    @Test
+    void testIntercept_CountsIoFailure() throws IOException {
+        // Arrange
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenThrow(new IOException("connection reset"));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+        assertEquals(1, registry.getCounters().get("ors_errors_total{status=\"io\"}"));
+    }
+
+    private Response response(int code) {
+        return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(code).message("status " + code).build();
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.example.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrsQuotaInterceptorTest {
+    private final TokenBucket geocodeBucket = new TokenBucket(100, 10);
+    private final TokenBucket matrixBucket = new TokenBucket(100, 10);
+    private final PooledApiKey key = new PooledApiKey("test-key", geocodeBucket, matrixBucket);
+    private final OrsQuotaInterceptor interceptor = new OrsQuotaInterceptor(new ApiKeyPool(List.of(key)));
+
+    @Test
+    void testIntercept_PausesBucketWhenQuotaExhausted() throws IOException {
+        // Arrange
+        Request request = new Request.Builder().url("https://api.openrouteservice.org/geocode/search?api_key=test-key&text=Berlin").build();
+        long reset = System.currentTimeMillis() / 1000 + 120;
+
+        // Act
+        interceptor.intercept(chain(request, "0", Long.toString(reset)));
+
+        // Assert
+        assertEquals(-1, geocodeBucket.reserve(TimeUnit.SECONDS.toNanos(60)));
+        assertEquals(0, matrixBucket.reserve(0));
+    }
+
+    @Test
+    void testIntercept_IgnoresRemainingQuota() throws IOException {
+        // Arrange
+        Request request = new Request.Builder().url("https://api.openrouteservice.org/v2/matrix/driving-car").header("Authorization", "test-key").build();
+
+        // Act
+        interceptor.intercept(chain(request, "17", "30"));
+
+        // Assert
+        assertEquals(0, matrixBucket.reserve(0));
+    }
+
+    @Test
+    void testIntercept_RelativeReset() throws IOException {
+        // Arrange
+        Request request = new Request.Builder().url("https://api.openrouteservice.org/v2/matrix/driving-car").header("Authorization", "test-key").build();
+
+        // Act
+        interceptor.intercept(chain(request, "0", "30"));
+
+        // Assert
+        assertEquals(-1, matrixBucket.reserve(TimeUnit.SECONDS.toNanos(20)));
+        assertTrue(matrixBucket.reserve(TimeUnit.SECONDS.toNanos(40)) > TimeUnit.SECONDS.toNanos(20));
+    }
+
+    @Test
+    void testIntercept_PausesRejectedKey() throws IOException {
+        // Arrange
+        Request request = new Request.Builder().url("https://api.openrouteservice.org/v2/matrix/driving-car").header("Authorization", "test-key").build();
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenReturn(response(request, 403).build());
+
+        // Act
+        interceptor.intercept(chain);
+
+        // Assert
+        assertTrue(key.isRejected());
+        assertEquals(-1, geocodeBucket.reserve(TimeUnit.SECONDS.toNanos(20)));
+        assertEquals(-1, matrixBucket.reserve(TimeUnit.SECONDS.toNanos(20)));
+    }
+
+    @Test
+    void testIntercept_AcceptedProbeRestoresRejectedKey() throws IOException {
+        // Arrange
+        key.recordRejected();
+        Request request = new Request.Builder().url("https://api.openrouteservice.org/geocode/search?api_key=test-key&text=Berlin").build();
+
+        // Act
+        interceptor.intercept(chain(request, "90", "30"));
+
+        // Assert
+        assertFalse(key.isRejected());
+    }
+
+    @Test
+    void testIntercept_IgnoresUnknownKey() throws IOException {
+        // Arrange
+        Request request = new Request.Builder().url("https://api.openrouteservice.org/geocode/search?api_key=other&text=Berlin").build();
+
+        // Act
+        interceptor.intercept(chain(request, "0", "30"));
+
+        // Assert
+        assertEquals(0, geocodeBucket.reserve(0));
+    }
+
+    private static Interceptor.Chain chain(Request request, String remaining, String reset) throws IOException {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenReturn(response(request, 200)
+                .header(OrsQuotaInterceptor.REMAINING, remaining)
+                .header(OrsQuotaInterceptor.RESET, reset)
+                .build());
+        return chain;
+    }
+
+    private static Response.Builder response(Request request, int code) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message(code == 200 ? "OK" : "Forbidden");
+    }
+}
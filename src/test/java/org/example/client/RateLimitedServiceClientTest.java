@@ -0,0 +1,143 @@
+package org.example.client;
+
+import org.example.exception.RateLimitExceededException;
+import org.example.exception.ServiceClientException;
+import org.example.ratelimit.AimdLimit;
+import org.example.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitedServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @Test
+    void testGetCoordinates_RetriesAfterRateLimit() throws ServiceClientException {
+        // Arrange
+        AimdLimit limit = new AimdLimit(4, 1, 4, 0.5);
+        RateLimitedServiceClient client = new RateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)), key -> delegate, limit, Duration.ofSeconds(5));
+        when(delegate.getCoordinates("Berlin"))
+                .thenThrow(new RateLimitExceededException("ORS rate limit exceeded", Duration.ofMillis(20)))
+                .thenReturn(berlin);
+
+        // Act
+        long start = System.nanoTime();
+        double[] coordinates = client.getCoordinates("Berlin");
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        verify(delegate, times(2)).getCoordinates("Berlin");
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testGetDistance_FailsWhenRetryExceedsMaxWait() throws ServiceClientException {
+        // Arrange
+        RateLimitedServiceClient client = new RateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)), key -> delegate, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+        when(delegate.getDistance(berlin, hamburg))
+                .thenThrow(new RateLimitExceededException("ORS rate limit exceeded", Duration.ofHours(1)));
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class, () -> client.getDistance(berlin, hamburg));
+        verify(delegate, times(1)).getDistance(berlin, hamburg);
+    }
+
+    @Test
+    void testGetDistance_FailsWhenQuotaExhausted() throws ServiceClientException {
+        // Arrange
+        TokenBucket matrixBucket = new TokenBucket(1, 1);
+        matrixBucket.pauseUntil(System.nanoTime() + Duration.ofMinutes(5).toNanos());
+        RateLimitedServiceClient client = new RateLimitedServiceClient(pool(new TokenBucket(1000, 10), matrixBucket), key -> delegate, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class, () -> client.getDistance(berlin, hamburg));
+        verify(delegate, never()).getDistance(berlin, hamburg);
+    }
+
+    @Test
+    void testOtherErrorsPassThrough() throws ServiceClientException {
+        // Arrange
+        AimdLimit limit = new AimdLimit(4, 1, 4, 0.5);
+        RateLimitedServiceClient client = new RateLimitedServiceClient(pool(new TokenBucket(1000, 10), new TokenBucket(1000, 10)), key -> delegate, limit, Duration.ofSeconds(1));
+        when(delegate.getCoordinates("Atlantis")).thenThrow(new ServiceClientException("Coordinates not found for city Atlantis"));
+
+        // Act & Assert
+        ServiceClientException exception = assertThrows(ServiceClientException.class, () -> client.getCoordinates("Atlantis"));
+        assertEquals("Coordinates not found for city Atlantis", exception.getMessage());
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void testGetCoordinates_FailsOverToAnotherKey() throws ServiceClientException {
+        // Arrange
+        ServiceClient second = mock(ServiceClient.class);
+        PooledApiKey firstKey = new PooledApiKey("first", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        PooledApiKey secondKey = new PooledApiKey("second", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        RateLimitedServiceClient client = new RateLimitedServiceClient(new ApiKeyPool(List.of(firstKey, secondKey)),
+                key -> key.equals("first") ? delegate : second, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+        when(delegate.getCoordinates("Berlin"))
+                .thenThrow(new RateLimitExceededException("ORS rate limit exceeded", Duration.ofHours(1)));
+        when(second.getCoordinates("Berlin")).thenReturn(berlin);
+
+        // Act
+        double[] coordinates = client.getCoordinates("Berlin");
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        assertEquals(1, firstKey.getThrottledCount());
+        assertEquals(1, secondKey.getRequestCount());
+    }
+
+    @Test
+    void testGetCoordinates_SkipsRejectedKey() throws ServiceClientException {
+        // Arrange
+        ServiceClient second = mock(ServiceClient.class);
+        PooledApiKey firstKey = new PooledApiKey("first", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        PooledApiKey secondKey = new PooledApiKey("second", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        RateLimitedServiceClient client = new RateLimitedServiceClient(new ApiKeyPool(List.of(firstKey, secondKey)),
+                key -> key.equals("first") ? delegate : second, new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+        when(delegate.getCoordinates("Berlin")).thenAnswer(invocation -> {
+            firstKey.recordRejected(); // as OrsQuotaInterceptor does on 403
+            throw new ServiceClientException("Failed to fetch coordinates: 403");
+        });
+        when(second.getCoordinates("Berlin")).thenReturn(berlin);
+
+        // Act & Assert
+        assertArrayEquals(berlin, client.getCoordinates("Berlin"));
+        assertArrayEquals(berlin, client.getCoordinates("Berlin"));
+        verify(delegate, times(1)).getCoordinates("Berlin");
+    }
+
+    @Test
+    void testFailsWhenEveryKeyIsRejected() throws ServiceClientException {
+        // Arrange
+        PooledApiKey key = new PooledApiKey("only", new TokenBucket(1000, 10), new TokenBucket(1000, 10));
+        key.recordRejected();
+        RateLimitedServiceClient client = new RateLimitedServiceClient(new ApiKeyPool(List.of(key)), apiKey -> delegate,
+                new AimdLimit(4, 1, 4, 0.5), Duration.ofSeconds(1));
+
+        // Act & Assert
+        ServiceClientException exception = assertThrows(ServiceClientException.class, () -> client.getCoordinates("Berlin"));
+        assertFalse(exception instanceof RateLimitExceededException);
+        verify(delegate, never()).getCoordinates("Berlin");
+    }
+
+    private static ApiKeyPool pool(TokenBucket geocodeBucket, TokenBucket matrixBucket) {
+        return new ApiKeyPool(List.of(new PooledApiKey("key", geocodeBucket, matrixBucket)));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.exception.TransientServiceException;
+import org.example.ratelimit.RetryBudget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryingServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @Test
+    void testGetCoordinates_RetriesTransientFailure() throws ServiceClientException {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.1, 0, 10);
+        for (int i = 0; i < 20; i++) {
+            budget.recordRequest();
+        }
+        RetryingServiceClient client = new RetryingServiceClient(delegate, budget, 3, Duration.ofMillis(1));
+        when(delegate.getCoordinates("Berlin"))
+                .thenThrow(new TransientServiceException("Unexpected code 503"))
+                .thenReturn(berlin);
+
+        // Act
+        double[] coordinates = client.getCoordinates("Berlin");
+
+        // Assert
+        assertArrayEquals(berlin, coordinates);
+        verify(delegate, times(2)).getCoordinates("Berlin");
+        assertEquals(1, budget.getWithdrawnCount());
+    }
+
+    @Test
+    void testGetCoordinates_GivesUpAfterMaxAttempts() throws ServiceClientException {
+        // Arrange
+        RetryingServiceClient client = new RetryingServiceClient(delegate, fundedBudget(), 3, Duration.ofMillis(1));
+        when(delegate.getCoordinates("Berlin")).thenThrow(new TransientServiceException("Unexpected code 503"));
+
+        // Act & Assert
+        assertThrows(TransientServiceException.class, () -> client.getCoordinates("Berlin"));
+        verify(delegate, times(3)).getCoordinates("Berlin");
+    }
+
+    @Test
+    void testGetCoordinates_StopsWhenBudgetIsSpent() throws ServiceClientException {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.1, 0, 10);
+        RetryingServiceClient client = new RetryingServiceClient(delegate, budget, 3, Duration.ofMillis(1));
+        when(delegate.getCoordinates("Berlin")).thenThrow(new TransientServiceException("Unexpected code 503"));
+
+        // Act & Assert
+        assertThrows(TransientServiceException.class, () -> client.getCoordinates("Berlin"));
+        verify(delegate, times(1)).getCoordinates("Berlin");
+        assertEquals(1, budget.getRejectedCount());
+    }
+
+    @Test
+    void testGetCoordinates_DoesNotRetryPermanentFailure() throws ServiceClientException {
+        // Arrange
+        RetryingServiceClient client = new RetryingServiceClient(delegate, fundedBudget(), 3, Duration.ofMillis(1));
+        when(delegate.getCoordinates("Atlantis")).thenThrow(new ServiceClientException("Coordinates not found for city Atlantis"));
+
+        // Act & Assert
+        assertThrows(ServiceClientException.class, () -> client.getCoordinates("Atlantis"));
+        verify(delegate, times(1)).getCoordinates("Atlantis");
+    }
+
+    @Test
+    void testBackoff_JitteredWithinExponentialCeiling() {
+        // Arrange
+        RetryingServiceClient client = new RetryingServiceClient(delegate, fundedBudget(), 5, Duration.ofMillis(100));
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            long backoff = client.backoffNanos(3);
+            assertTrue(backoff >= 0 && backoff <= Duration.ofMillis(400).toNanos(), Long.toString(backoff));
+        }
+    }
+
+    // RetryingServiceClient makes the deposits in the application, here they are made up front
+    private static RetryBudget fundedBudget() {
+        RetryBudget budget = new RetryBudget(1, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.client;
+
+import org.example.exception.ServiceClientException;
+import org.example.routing.RoadGraph;
+import org.example.routing.RoutingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RoutingServiceClientTest {
+
+    @Mock
+    private ServiceClient delegate;
+
+    private RoutingServiceClient client;
+
+    private final double[] frankfurt = {50.1109, 8.6821};
+    private final double[] offenbach = {50.0956, 8.7761};
+    private final double[] berlin = {52.5200, 13.4050};
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        int from = builder.addNode(frankfurt[0], frankfurt[1]);
+        int to = builder.addNode(offenbach[0], offenbach[1]);
+        builder.addEdge(from, to, 8100).addEdge(to, from, 8100);
+        client = new RoutingServiceClient(delegate, new RoutingEngine(builder.build(), 5.0));
+    }
+
+    @Test
+    void testGetCoordinates_Delegates() throws ServiceClientException {
+        // Arrange
+        when(delegate.getCoordinates("Frankfurt")).thenReturn(frankfurt);
+
+        // Act & Assert
+        assertArrayEquals(frankfurt, client.getCoordinates("Frankfurt"), 0.0001);
+    }
+
+    @Test
+    void testGetDistance_RoutesLocally() throws ServiceClientException {
+        // Act
+        double distance = client.getDistance(frankfurt, offenbach);
+
+        // Assert
+        assertEquals(8.1, distance, 0.0001);
+        verify(delegate, never()).getDistance(any(), any());
+    }
+
+    @Test
+    void testGetDistance_DelegatesTripsOutsideTheGraph() throws ServiceClientException {
+        // Arrange
+        when(delegate.getDistance(frankfurt, berlin)).thenReturn(545.0);
+
+        // Act
+        double distance = client.getDistance(frankfurt, berlin);
+
+        // Assert
+        assertEquals(545.0, distance, 0.0001);
+    }
+
+    @Test
+    void testGetDistanceMatrix_RoutesLocally() throws ServiceClientException {
+        // Act
+        double[][] distances = client.getDistanceMatrix(new double[][]{frankfurt, offenbach}, new double[][]{offenbach});
+
+        // Assert
+        assertEquals(8.1, distances[0][0], 0.0001);
+        assertEquals(0.0, distances[1][0], 0.0001);
+        verify(delegate, never()).getDistanceMatrix(any(), any());
+    }
+
+    @Test
+    void testGetDistanceMatrix_DelegatesWholeMatrixIfAnyTripIsOutsideTheGraph() throws ServiceClientException {
+        // Arrange
+        double[][] sources = {frankfurt};
+        double[][] destinations = {offenbach, berlin};
+        when(delegate.getDistanceMatrix(sources, destinations)).thenReturn(new double[][]{{9.0, 545.0}});
+
+        // Act
+        double[][] distances = client.getDistanceMatrix(sources, destinations);
+
+        // Assert
+        assertArrayEquals(new double[]{9.0, 545.0}, distances[0], 0.0001);
+    }
+}
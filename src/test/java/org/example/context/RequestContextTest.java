@@ -0,0 +1,160 @@
+package org.example.context;
+
+import org.example.exception.RequestCancelledException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestContextTest {
+
+    @Test
+    void testFork_InheritsEarlierDeadline() {
+        // Arrange
+        RequestContext parent = RequestContext.fork(Deadline.after(Duration.ofSeconds(1)));
+
+        // Act
+        RequestContext child;
+        try (RequestContext.Scope ignored = parent.attach()) {
+            child = RequestContext.fork(Deadline.after(Duration.ofMinutes(1)));
+        }
+
+        // Assert
+        assertTrue(child.getDeadline().remainingNanos() <= TimeUnit.SECONDS.toNanos(1));
+        assertNull(RequestContext.current());
+    }
+
+    @Test
+    void testCancel_RunsHooksAndCancelsChildren() {
+        // Arrange
+        RequestContext parent = RequestContext.fork();
+        AtomicInteger cancelledCalls = new AtomicInteger();
+        RequestContext child;
+        try (RequestContext.Scope ignored = parent.attach()) {
+            child = RequestContext.fork();
+        }
+        child.onCancel(cancelledCalls::incrementAndGet);
+        RequestContext.Registration removed = parent.onCancel(cancelledCalls::incrementAndGet);
+        removed.close();
+
+        // Act
+        parent.cancel("Sibling failed");
+        parent.cancel("Again");
+
+        // Assert
+        assertEquals(1, cancelledCalls.get());
+        assertTrue(child.isCancelled());
+        RequestCancelledException exception = assertThrows(RequestCancelledException.class, child::check);
+        assertEquals("Sibling failed", exception.getMessage());
+    }
+
+    @Test
+    void testOnCancel_RunsRightAwayWhenAlreadyCancelled() {
+        // Arrange
+        RequestContext context = RequestContext.fork();
+        context.cancel("Deadline exceeded");
+        AtomicInteger cancelledCalls = new AtomicInteger();
+
+        // Act
+        context.onCancel(cancelledCalls::incrementAndGet);
+
+        // Assert
+        assertEquals(1, cancelledCalls.get());
+    }
+
+    @Test
+    void testOnCancel_HooksRegisteredDuringCancelRunExactlyOnce() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            // Arrange
+            RequestContext context = RequestContext.fork();
+            for (int i = 0; i < 1_000; i++) {
+                context.onCancel(() -> LockSupport.parkNanos(1_000)); // keeps cancel busy while the other thread registers
+            }
+            int hooks = 10_000;
+            AtomicInteger[] runs = new AtomicInteger[hooks];
+            for (int i = 0; i < hooks; i++) {
+                runs[i] = new AtomicInteger();
+            }
+            CountDownLatch registered = new CountDownLatch(1);
+            CompletableFuture<Void> registering = CompletableFuture.runAsync(() -> {
+                for (AtomicInteger count : runs) {
+                    context.onCancel(count::incrementAndGet);
+                    registered.countDown();
+                }
+            });
+
+            // Act
+            assertTrue(registered.await(5, TimeUnit.SECONDS));
+            context.cancel("Client disconnected");
+            registering.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            for (AtomicInteger count : runs) {
+                assertEquals(1, count.get());
+            }
+        }
+    }
+
+    @Test
+    void testClose_DetachesFromParent() {
+        // Arrange
+        RequestContext parent = RequestContext.fork();
+        RequestContext child;
+        try (RequestContext.Scope ignored = parent.attach()) {
+            child = RequestContext.fork();
+        }
+
+        // Act
+        child.close();
+        parent.cancel("Done");
+
+        // Assert
+        assertFalse(child.isCancelled());
+    }
+
+    @Test
+    void testWrap_CarriesContextToAnotherThread() {
+        // Arrange
+        RequestContext context = RequestContext.fork(Deadline.after(Duration.ofSeconds(5)));
+
+        // Act
+        RequestContext seen = CompletableFuture.supplyAsync(context.wrap(RequestContext::current)).join();
+        RequestContext after = CompletableFuture.supplyAsync(RequestContext::current).join();
+
+        // Assert
+        assertSame(context, seen);
+        assertNull(after);
+    }
+
+    @Test
+    void testSleep_WakesUpOnCancel() {
+        // Arrange
+        RequestContext context = RequestContext.fork();
+        CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS).execute(() -> context.cancel("Sibling failed"));
+
+        // Act & Assert
+        long start = System.nanoTime();
+        try (RequestContext.Scope ignored = context.attach()) {
+            assertThrows(RequestCancelledException.class, () -> RequestContext.sleep(TimeUnit.SECONDS.toNanos(10)));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void testCheck_FailsOnceDeadlinePassed() {
+        // Arrange
+        RequestContext context = RequestContext.fork(Deadline.after(Duration.ZERO));
+
+        // Act & Assert
+        assertTrue(context.getDeadline().isExpired());
+        assertThrows(RequestCancelledException.class, context::check);
+        assertFalse(Deadline.none().isExpired());
+        assertEquals(Long.MAX_VALUE, Deadline.none().remainingNanos());
+    }
+}
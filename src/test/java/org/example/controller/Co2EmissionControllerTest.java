@@ -1,7 +1,9 @@
 package org.example.controller;
 
 import org.example.Application;
+import org.example.context.RequestContext;
 import org.example.exception.CalculationException;
+import org.example.geo.DetourFactors;
 import org.example.model.TransportationMethod;
 import org.example.service.EmissionService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class Co2EmissionControllerTest {
@@ -108,4 +116,54 @@ public class Co2EmissionControllerTest {
             controller.calculateEmission(startCity, endCity, method);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCompareEmissions_AllMethodsFromOneCall() throws CalculationException {
+        // Arrange
+        TransportationMethod[] methods = TransportationMethod.values();
+        double[] emissions = new double[methods.length];
+        for (int k = 0; k < methods.length; k++) {
+            emissions[k] = methods[k].getCo2EmissionPerKm() * 1.054; // 1054 km
+        }
+        when(mockEmissionService.calculateEmissions(eq("Berlin"), eq("Paris"), any(double[].class))).thenReturn(emissions);
+
+        // Act
+        Map<TransportationMethod, Double> result = controller.compareEmissions("Berlin", "Paris");
+
+        // Assert
+        assertEquals(methods.length, result.size());
+        assertEquals(149.668, result.get(TransportationMethod.DIESEL_CAR_SMALL), 0.001);
+        assertEquals(6.324, result.get(TransportationMethod.TRAIN_DEFAULT), 0.001);
+        verify(mockEmissionService, times(1)).calculateEmissions(eq("Berlin"), eq("Paris"), any(double[].class));
+    }
+
+    @Test
+    void testCompareEmissions_EstimatedDistanceUsesEachMethodsDetourFactor() throws CalculationException {
+        // Arrange
+        DetourFactors detourFactors = DetourFactors.parse("car=1.2,bus=1.5,train=1.1");
+        TransportationMethod[] methods = TransportationMethod.values();
+        double[] emissions = new double[methods.length];
+        for (int k = 0; k < methods.length; k++) {
+            emissions[k] = methods[k].getCo2EmissionPerKm() * 1.2; // 1000 km great circle, car detour
+        }
+        when(mockEmissionService.calculateEmissions(eq("Berlin"), eq("Paris"), any(double[].class))).thenAnswer(invocation -> {
+            RequestContext.markCurrentEstimated(detourFactors);
+            return emissions;
+        });
+
+        // Act
+        Map<TransportationMethod, Double> result = controller.compareEmissions("Berlin", "Paris");
+
+        // Assert
+        assertEquals(TransportationMethod.DIESEL_CAR_SMALL.getCo2EmissionPerKm() * 1.2, result.get(TransportationMethod.DIESEL_CAR_SMALL), 0.001);
+        assertEquals(TransportationMethod.BUS_DEFAULT.getCo2EmissionPerKm() * 1.5, result.get(TransportationMethod.BUS_DEFAULT), 0.001);
+        assertEquals(TransportationMethod.TRAIN_DEFAULT.getCo2EmissionPerKm() * 1.1, result.get(TransportationMethod.TRAIN_DEFAULT), 0.001);
+    }
+
+    @Test
+    void testCompareEmissions_MissingCity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> controller.compareEmissions("", "Paris"));
+        assertThrows(IllegalArgumentException.class, () -> controller.compareEmissions("Berlin", null));
+    }
+}
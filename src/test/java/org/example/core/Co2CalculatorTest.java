@@ -1,7 +1,12 @@
 package org.example.core;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class Co2CalculatorTest {
 
@@ -71,4 +76,52 @@ class Co2CalculatorTest {
         // Assert
         assertEquals(-41.038, result, 0.001); // 289 km * -142 g/km = -41.038 kg
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCalculateBatch_MatchesSingleCalculations() {
+        // Arrange: a length that leaves a tail after the vector lanes
+        Random random = new Random(42);
+        double[] distances = random.doubles(1003, -10, 2000).toArray();
+        double[] emissions = random.doubles(1003, 0, 300).toArray();
+        double[] results = new double[distances.length];
+
+        // Act
+        calculator.calculate(distances, emissions, results);
+
+        // Assert
+        for (int i = 0; i < distances.length; i++) {
+            assertEquals(calculator.calculate(distances[i], emissions[i]), results[i], 0.0);
+        }
+    }
+
+    @Test
+    void testCalculateBatch_InPlace() {
+        // Arrange
+        double[] distances = {289.0, 0.0, 504.0};
+
+        // Act
+        calculator.calculate(distances, new double[]{142.0, 142.0, 41.0}, distances);
+
+        // Assert
+        assertArrayEquals(new double[]{41.038, 0.0, 20.664}, distances, 0.001);
+    }
+
+    @Test
+    void testCalculateBatch_ScalarFallback() {
+        // Arrange
+        double[] distances = {289.0, 504.0};
+        double[] results = new double[2];
+
+        // Act
+        Co2Calculator.scalar().calculate(distances, new double[]{142.0, 41.0}, results);
+
+        // Assert
+        assertArrayEquals(new double[]{41.038, 20.664}, results, 0.001);
+    }
+
+    @Test
+    void testCalculateBatch_RejectsArraysOfDifferentLengths() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new double[2], new double[3], new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new double[2], new double[2], new double[1]));
+    }
+}
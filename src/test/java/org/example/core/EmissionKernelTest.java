@@ -0,0 +1,68 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class EmissionKernelTest {
+
+    private static boolean vectorModulePresent() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    @Test
+    void testBest_UsesVectorKernelWithModule() {
+        // Arrange
+        assumeTrue(vectorModulePresent());
+
+        // Act & Assert
+        assertInstanceOf(VectorEmissionKernel.class, EmissionKernel.best());
+        assertTrue(new Co2Calculator().isVectorized());
+        assertFalse(Co2Calculator.scalar().isVectorized());
+    }
+
+    @Test
+    void testVectorKernel_MatchesScalarKernelExactly() {
+        // Arrange
+        assumeTrue(vectorModulePresent());
+        EmissionKernel vector = new VectorEmissionKernel();
+        Random random = new Random(7);
+
+        for (int length = 0; length <= 40; length++) {
+            double[] distances = random.doubles(length, -100, 5000).toArray();
+            double[] emissions = random.doubles(length, 0, 500).toArray();
+            if (length > 3) {
+                distances[1] = Double.NaN;
+                emissions[2] = Double.POSITIVE_INFINITY;
+                distances[3] = -0.0;
+            }
+            double[] expected = new double[length];
+            double[] actual = new double[length];
+
+            // Act
+            ScalarEmissionKernel.INSTANCE.emissionsInKg(distances, emissions, expected, length);
+            vector.emissionsInKg(distances, emissions, actual, length);
+
+            // Assert
+            assertArrayEquals(expected, actual, "length " + length);
+        }
+    }
+
+    @Test
+    void testKernels_OnlyWriteTheGivenLength() {
+        // Arrange
+        double[] distances = {100, 200, 300, 400, 500, 600, 700, 800, 900};
+        double[] emissions = {10, 10, 10, 10, 10, 10, 10, 10, 10};
+        double[] results = new double[9];
+        results[8] = -1;
+
+        // Act
+        EmissionKernel.best().emissionsInKg(distances, emissions, results, 8);
+
+        // Assert
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5, 6, 7, 8, -1}, results, 0.0);
+    }
+}
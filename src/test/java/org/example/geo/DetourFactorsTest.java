@@ -0,0 +1,40 @@
+package org.example.geo;
+
+import org.example.model.TransportationMethod;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetourFactorsTest {
+
+    @Test
+    void testDefaults_DifferByGroup() {
+        // Act
+        DetourFactors factors = DetourFactors.defaults();
+
+        // Assert
+        assertEquals(DetourFactors.DEFAULT_CAR, factors.factorFor(TransportationMethod.PETROL_CAR_LARGE));
+        assertEquals(DetourFactors.DEFAULT_BUS, factors.factorFor(TransportationMethod.BUS_DEFAULT));
+        assertEquals(DetourFactors.DEFAULT_TRAIN, factors.factorFor(TransportationMethod.TRAIN_DEFAULT));
+        assertEquals(DetourFactors.DEFAULT_CAR, factors.factorFor(null));
+    }
+
+    @Test
+    void testParse_MethodOverridesGroup() {
+        // Act
+        DetourFactors factors = DetourFactors.parse("electric-car-small=1.1, car=1.2,train=1.15");
+
+        // Assert
+        assertEquals(1.1, factors.factorFor(TransportationMethod.ELECTRIC_CAR_SMALL));
+        assertEquals(1.2, factors.factorFor(TransportationMethod.DIESEL_CAR_MEDIUM));
+        assertEquals(1.15, factors.factorFor(TransportationMethod.TRAIN_DEFAULT));
+        assertEquals(DetourFactors.DEFAULT_BUS, factors.factorFor(TransportationMethod.BUS_DEFAULT));
+    }
+
+    @Test
+    void testParse_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> DetourFactors.parse("plane=1.1"));
+        assertThrows(IllegalArgumentException.class, () -> DetourFactors.parse("car=0.9"));
+        assertThrows(IllegalArgumentException.class, () -> DetourFactors.parse("car"));
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GreatCircleTest {
+
+    private final double[] berlin = {52.5200, 13.4050};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @Test
+    void testVincentyKm_MatchesGeodeticReference() {
+        // Arrange: Flinders Peak to Buninyong, the example of Vincenty's paper (54 972.271 m)
+        double[] flindersPeak = {-(37 + 57 / 60.0 + 3.72030 / 3600), 144 + 25 / 60.0 + 29.52440 / 3600};
+        double[] buninyong = {-(37 + 39 / 60.0 + 10.15610 / 3600), 143 + 55 / 60.0 + 35.38390 / 3600};
+
+        // Act
+        double distance = GreatCircle.vincentyKm(flindersPeak, buninyong);
+
+        // Assert
+        assertEquals(54.972271, distance, 0.000001);
+    }
+
+    @Test
+    void testVincentyKm_CloseToHaversine() {
+        // Act
+        double vincenty = GreatCircle.vincentyKm(berlin, hamburg);
+        double haversine = GreatCircle.haversineKm(berlin, hamburg);
+
+        // Assert
+        assertEquals(255.3, vincenty, 1);
+        assertEquals(vincenty, haversine, vincenty * 0.005);
+    }
+
+    @Test
+    void testVincentyKm_SamePointAndSymmetry() {
+        assertEquals(0, GreatCircle.vincentyKm(berlin, berlin.clone()));
+        assertEquals(GreatCircle.vincentyKm(berlin, hamburg), GreatCircle.vincentyKm(hamburg, berlin), 1e-9);
+    }
+
+    @Test
+    void testVincentyKm_NearlyAntipodalFallsBackToHaversine() {
+        // Arrange
+        double[] from = {0, 0};
+        double[] to = {0.5, 179.7};
+
+        // Act
+        double distance = GreatCircle.vincentyKm(from, to);
+
+        // Assert
+        assertEquals(GreatCircle.haversineKm(from, to), distance, 40);
+        assertTrue(distance > 19_900 && distance < 20_040);
+    }
+}
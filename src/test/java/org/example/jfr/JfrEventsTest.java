@@ -0,0 +1,165 @@
+package org.example.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.example.client.AsyncServiceClient;
+import org.example.client.OpenRouteServiceClient;
+import org.example.client.ServiceClient;
+import org.example.core.Calculator;
+import org.example.core.Co2Calculator;
+import org.example.exception.ServiceClientException;
+import org.example.service.AsyncCo2EmissionService;
+import org.example.service.Co2EmissionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JfrEventsTest {
+    private static final Path PROFILE = Path.of("jfr", "co2-calculator.jfc");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testOrsRequestEvent_RecordsCityStatusAndBytes() throws Exception {
+        // Arrange
+        String json = "{\"features\":[{\"geometry\":{\"coordinates\":[13.4050,52.5200]}}]}";
+        OkHttpClient client = mock(OkHttpClient.class);
+        Call call = mock(Call.class);
+        Response response = mock(Response.class);
+        ResponseBody body = mock(ResponseBody.class);
+        when(client.newCall(any(Request.class))).thenReturn(call);
+        when(call.execute()).thenReturn(response);
+        when(response.code()).thenReturn(200);
+        when(response.isSuccessful()).thenReturn(true);
+        when(response.body()).thenReturn(body);
+        when(body.byteStream()).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        OpenRouteServiceClient orsClient = new OpenRouteServiceClient("test-api-key", client);
+
+        // Act
+        List<RecordedEvent> events = record("org.example.OrsRequest", () -> orsClient.getCoordinates("Berlin"));
+
+        // Assert
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(OrsRequestEvent.GEOCODE, event.getString("operation"));
+        assertEquals("Berlin", event.getString("city"));
+        assertEquals(200, event.getInt("status"));
+        assertEquals(json.length(), event.getLong("bytesRead"));
+        assertNull(event.getString("error"));
+    }
+
+    @Test
+    void testTripCalculationEvent_RecordsFailure() throws Exception {
+        // Arrange
+        ServiceClient serviceClient = mock(ServiceClient.class);
+        when(serviceClient.getCoordinates(any())).thenThrow(new ServiceClientException("API Error"));
+        Co2EmissionService service = new Co2EmissionService(serviceClient, mock(Calculator.class), Runnable::run);
+
+        // Act
+        List<RecordedEvent> events = record("org.example.TripCalculation",
+                () -> assertThrows(RuntimeException.class, () -> service.calculateEmission("Berlin", "Hamburg", 142)));
+
+        // Assert
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("Berlin", event.getString("startCity"));
+        assertEquals("Hamburg", event.getString("endCity"));
+        assertEquals(142, event.getDouble("emissionInGramsPerKm"));
+        assertTrue(event.getString("error").contains("API Error"));
+    }
+
+    @Test
+    void testTripCalculationEvent_OnePerComparedMethod() throws Exception {
+        // Arrange
+        ServiceClient serviceClient = mock(ServiceClient.class);
+        when(serviceClient.getCoordinates(any())).thenReturn(new double[]{52.5200, 13.4050});
+        when(serviceClient.getDistance(any(), any())).thenReturn(289.0);
+        Co2EmissionService service = new Co2EmissionService(serviceClient, new Co2Calculator(), Runnable::run);
+
+        // Act
+        List<RecordedEvent> events = record("org.example.TripCalculation",
+                () -> service.calculateEmissions("Berlin", "Hamburg", new double[]{142, 6}));
+
+        // Assert
+        assertEquals(2, events.size());
+        assertEquals(List.of(142.0, 6.0), events.stream().map(event -> event.getDouble("emissionInGramsPerKm")).sorted(Comparator.reverseOrder()).toList());
+        for (RecordedEvent event : events) {
+            assertEquals("Berlin", event.getString("startCity"));
+            assertEquals(289.0 * event.getDouble("emissionInGramsPerKm") / 1000, event.getDouble("co2Kg"), 1e-9);
+            assertNull(event.getString("error"));
+        }
+    }
+
+    @Test
+    void testTripCalculationEvent_OnePerComparedMethodAsync() throws Exception {
+        // Arrange
+        AsyncServiceClient serviceClient = mock(AsyncServiceClient.class);
+        when(serviceClient.getCoordinatesAsync(any())).thenReturn(CompletableFuture.completedFuture(new double[]{52.5200, 13.4050}));
+        when(serviceClient.getDistanceAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(289.0));
+        AsyncCo2EmissionService service = new AsyncCo2EmissionService(serviceClient, new Co2Calculator());
+
+        // Act
+        List<RecordedEvent> events = record("org.example.TripCalculation",
+                () -> service.calculateEmissionsAsync("Berlin", "Hamburg", new double[]{142, 6}).join());
+
+        // Assert
+        assertEquals(2, events.size());
+        for (RecordedEvent event : events) {
+            assertEquals(289.0 * event.getDouble("emissionInGramsPerKm") / 1000, event.getDouble("co2Kg"), 1e-9);
+        }
+    }
+
+    @Test
+    void testEventsDisabled_NothingRecorded() throws Exception {
+        // Arrange
+        OrsRequestEvent event = OrsRequestEvent.start(OrsRequestEvent.GEOCODE, "Berlin");
+        ByteArrayInputStream body = new ByteArrayInputStream(new byte[4]);
+
+        // Act & Assert
+        assertSame(body, event.track(body));
+        event.finish(null);
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    // Records the given action with the shipped profile and returns the events of one type
+    private List<RecordedEvent> record(String eventName, Action action) throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording(profile())) {
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+
+    private static Configuration profile() throws IOException, ParseException {
+        return Configuration.create(PROFILE);
+    }
+}
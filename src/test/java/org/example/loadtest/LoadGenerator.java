@@ -0,0 +1,176 @@
+package org.example.loadtest;
+
+import org.example.Application;
+import org.example.config.ServiceConfig;
+import org.example.controller.Co2EmissionController;
+import org.example.controller.EmissionController;
+import org.example.metrics.Histogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.service.ExecutorStrategy;
+import org.example.utils.ArgumentParser;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Open-loop load generator: requests are released on a fixed schedule at the target rate whether or not
+ * earlier ones have finished, and latency is measured from the scheduled send time so a stalled service
+ * shows up as queueing delay instead of silently lowering the offered load (coordinated omission).
+ *
+ *   --rps=200 --duration-seconds=30 --cities=50 --transportation-method=diesel-car-medium
+ *   --ors-url=http://127.0.0.1:8089   (optional, an embedded stand-in is started otherwise)
+ *   --latency-ms=40 --jitter-ms=20 --error-rate=0 --throttle-rate=0   (embedded stand-in only)
+ *   --print-metrics=true   (dumps the service's stage latencies, cache and error metrics afterwards)
+ *
+ * Service settings such as ORS_GEOCODE_CACHE_SIZE or CO2_EXECUTOR are read from the environment as usual.
+ */
+public class LoadGenerator {
+    private final EmissionController controller;
+    private final Executor executor;
+    private final String[] cities;
+    private final String method;
+
+    public LoadGenerator(EmissionController controller, Executor executor, int cityCount, String method) {
+        if (cityCount < 2) {
+            throw new IllegalArgumentException("At least two cities are needed: " + cityCount);
+        }
+        this.controller = controller;
+        this.executor = executor;
+        this.cities = new String[cityCount];
+        for (int i = 0; i < cityCount; i++) {
+            cities[i] = "City " + i;
+        }
+        this.method = method;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = ArgumentParser.parseArguments(args);
+        OrsStandInServer standIn = null;
+        String baseUrl = arguments.get("ors-url");
+        if (baseUrl == null) {
+            standIn = new OrsStandInServer(0,
+                    Long.parseLong(arguments.getOrDefault("latency-ms", "40")),
+                    Long.parseLong(arguments.getOrDefault("jitter-ms", "20")),
+                    Double.parseDouble(arguments.getOrDefault("error-rate", "0")),
+                    Double.parseDouble(arguments.getOrDefault("throttle-rate", "0")));
+            standIn.start();
+            baseUrl = standIn.getBaseUrl();
+        }
+        try {
+            Map<String, String> env = new HashMap<>(System.getenv());
+            env.put(ServiceConfig.ENV_BASE_URL, baseUrl);
+            // the stand-in has no quota, ORS_RATE_LIMIT=true exercises the limiter against its 429s anyway
+            env.putIfAbsent(ServiceConfig.ENV_RATE_LIMIT, "false");
+            MetricsRegistry registry = new MetricsRegistry();
+            Co2EmissionController controller = new Co2EmissionController();
+            controller.setEmissionService(Application.getEmissionService("stand-in", new ServiceConfig(env), registry));
+
+            LoadGenerator generator = new LoadGenerator(controller, ExecutorStrategy.VIRTUAL_THREADS.createExecutor(),
+                    Integer.parseInt(arguments.getOrDefault("cities", "50")),
+                    arguments.getOrDefault("transportation-method", "diesel-car-medium"));
+            Result result = generator.run(Integer.parseInt(arguments.getOrDefault("rps", "100")),
+                    Long.parseLong(arguments.getOrDefault("duration-seconds", "30")), TimeUnit.SECONDS);
+            System.out.println(result.report());
+            if (Boolean.parseBoolean(arguments.getOrDefault("print-metrics", "false"))) {
+                System.out.print(registry.getPrometheusText());
+            }
+            if (standIn != null) {
+                System.out.println("stand-in requests: " + standIn.getRequestCount());
+            }
+        } finally {
+            if (standIn != null) {
+                standIn.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    public Result run(int requestsPerSecond, long duration, TimeUnit unit) throws InterruptedException {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Requests per second must be positive: " + requestsPerSecond);
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        int total = (int) Math.max(1, unit.toNanos(duration) / intervalNanos);
+        Histogram histogram = new Histogram();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong maxNanos = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(total);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // walks every ordered pair of distinct cities, ORS treats a zero distance as an error
+            int n = cities.length;
+            String startCity = cities[i % n];
+            String endCity = cities[(i + 1 + (i / n) % (n - 1)) % n];
+            executor.execute(() -> {
+                try {
+                    controller.calculateEmission(startCity, endCity, method);
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                } finally {
+                    long latency = System.nanoTime() - intended;
+                    histogram.record(latency);
+                    maxNanos.accumulateAndGet(latency, Math::max);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(total, errors.get(), elapsedNanos, histogram, maxNanos.get());
+    }
+
+    public static class Result {
+        private final long requests;
+        private final long errors;
+        private final long elapsedNanos;
+        private final Histogram histogram;
+        private final long maxNanos;
+
+        Result(long requests, long errors, long elapsedNanos, Histogram histogram, long maxNanos) {
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.histogram = histogram;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return requests * 1e9 / elapsedNanos;
+        }
+
+        public long percentileNanos(double quantile) {
+            return Math.min(histogram.percentile(quantile), maxNanos);
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public String report() {
+            return String.format("requests=%d errors=%d throughput=%.1f/s%n"
+                            + "latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+                    requests, errors, getThroughput(),
+                    percentileNanos(0.5) / 1e6, percentileNanos(0.9) / 1e6,
+                    percentileNanos(0.99) / 1e6, percentileNanos(0.999) / 1e6, maxNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.loadtest;
+
+import okhttp3.OkHttpClient;
+import org.example.Application;
+import org.example.client.OpenRouteServiceClient;
+import org.example.config.ServiceConfig;
+import org.example.controller.Co2EmissionController;
+import org.example.exception.ServiceClientException;
+import org.example.metrics.MetricsRegistry;
+import org.example.service.ExecutorStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+    private OrsStandInServer standIn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        standIn = new OrsStandInServer(0, 0, 0, 0, 0);
+        standIn.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        standIn.stop();
+    }
+
+    @Test
+    void testStandIn_ServesClientEndpoints() throws ServiceClientException {
+        // Arrange
+        OpenRouteServiceClient client = new OpenRouteServiceClient("stand-in", new OkHttpClient(), standIn.getBaseUrl());
+
+        // Act
+        double[] berlin = client.getCoordinates("Berlin");
+        double[] paris = client.getCoordinates("Paris");
+        double distance = client.getDistance(berlin, paris);
+
+        // Assert
+        assertArrayEquals(OrsStandInServer.coordinatesOf("Berlin"), berlin, 1e-9);
+        assertTrue(distance > 0);
+        assertEquals(distance, client.getDistance(paris, berlin), 0.01);
+    }
+
+    @Test
+    void testStandIn_Throttled() throws Exception {
+        // Arrange
+        OrsStandInServer throttled = new OrsStandInServer(0, 0, 0, 0, 1);
+        throttled.start();
+        OpenRouteServiceClient client = new OpenRouteServiceClient("stand-in", new OkHttpClient(), throttled.getBaseUrl());
+
+        // Act & Assert
+        try {
+            assertThrows(ServiceClientException.class, () -> client.getCoordinates("Berlin"));
+        } finally {
+            throttled.stop();
+        }
+    }
+
+    @Test
+    void testRun_ReportsAllRequests() throws InterruptedException {
+        // Arrange
+        Co2EmissionController controller = new Co2EmissionController();
+        controller.setEmissionService(Application.getEmissionService("stand-in",
+                new ServiceConfig(Map.of(ServiceConfig.ENV_BASE_URL, standIn.getBaseUrl(), ServiceConfig.ENV_RATE_LIMIT, "false")), new MetricsRegistry()));
+        LoadGenerator generator = new LoadGenerator(controller, ExecutorStrategy.CACHED_THREADS.createExecutor(), 5, "diesel-car-medium");
+
+        // Act
+        LoadGenerator.Result result = generator.run(200, 250, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertEquals(50, result.getRequests());
+        assertEquals(0, result.getErrors());
+        assertTrue(result.percentileNanos(0.5) <= result.percentileNanos(0.99));
+        assertTrue(result.percentileNanos(0.99) <= result.getMaxNanos());
+    }
+}
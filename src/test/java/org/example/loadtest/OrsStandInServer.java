@@ -0,0 +1,189 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.utils.ArgumentParser;
+import org.example.utils.CityNames;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Local replacement for the two openrouteservice endpoints OpenRouteServiceClient uses, for load tests
+ * that must not touch the real quota. Cities resolve to stable pseudo-random coordinates in central
+ * Europe and matrix distances are great-circle distances with a road factor. Every response can be
+ * delayed and a share of them fails with 500 or is throttled with 429.
+ *
+ *   --port=8089 --latency-ms=40 --jitter-ms=20 --error-rate=0.01 --throttle-rate=0.02
+ */
+public class OrsStandInServer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double ROAD_FACTOR = 1.3;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final double throttleRate;
+    private final AtomicLong requests = new AtomicLong();
+
+    public OrsStandInServer(int port, long latencyMillis, long jitterMillis, double errorRate, double throttleRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(executor);
+        server.createContext("/geocode/search", exchange -> handle(exchange, this::geocode));
+        server.createContext("/v2/matrix/driving-car", exchange -> handle(exchange, this::matrix));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> arguments = ArgumentParser.parseArguments(args);
+        OrsStandInServer server = new OrsStandInServer(
+                Integer.parseInt(arguments.getOrDefault("port", "8089")),
+                Long.parseLong(arguments.getOrDefault("latency-ms", "40")),
+                Long.parseLong(arguments.getOrDefault("jitter-ms", "20")),
+                Double.parseDouble(arguments.getOrDefault("error-rate", "0")),
+                Double.parseDouble(arguments.getOrDefault("throttle-rate", "0")));
+        server.start();
+        System.out.println("ORS stand-in listening on " + server.getBaseUrl());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    // {latitude, longitude} the stand-in answers for a city
+    public static double[] coordinatesOf(String city) {
+        long hash = CityNames.normalize(city).hashCode() * 0x9E3779B97F4A7C15L;
+        double latitude = 45 + (hash >>> 40) / (double) (1L << 24) * 10;
+        double longitude = 2 + ((hash >>> 16) & 0xFFFFFF) / (double) (1L << 24) * 18;
+        return new double[]{latitude, longitude};
+    }
+
+    private interface Endpoint {
+        String respond(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+            if (delay > 0) {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+            double roll = random.nextDouble();
+            if (roll < throttleRate) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.getResponseHeaders().set("x-ratelimit-remaining", "0");
+                respond(exchange, 429, "{\"error\":\"Rate Limit Exceeded\"}");
+            } else if (roll < throttleRate + errorRate) {
+                respond(exchange, 500, "{\"error\":\"Internal Server Error\"}");
+            } else {
+                respond(exchange, 200, endpoint.respond(exchange));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String geocode(HttpExchange exchange) {
+        String text = null;
+        String query = exchange.getRequestURI().getRawQuery();
+        for (String pair : query == null ? new String[0] : query.split("&")) {
+            if (pair.startsWith("text=")) {
+                text = URLDecoder.decode(pair.substring("text=".length()), StandardCharsets.UTF_8);
+            }
+        }
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode features = root.put("type", "FeatureCollection").putArray("features");
+        if (text != null && !text.isBlank()) {
+            double[] coordinates = coordinatesOf(text);
+            ObjectNode feature = features.addObject().put("type", "Feature");
+            feature.putObject("geometry").put("type", "Point").putArray("coordinates").add(coordinates[1]).add(coordinates[0]);
+            feature.putObject("properties").put("name", text).put("layer", "locality");
+        }
+        return root.toString();
+    }
+
+    private String matrix(HttpExchange exchange) throws IOException {
+        JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+        JsonNode locations = request.path("locations");
+        int[] sources = indices(request.path("sources"), locations.size());
+        int[] destinations = indices(request.path("destinations"), locations.size());
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode distances = root.putArray("distances");
+        for (int source : sources) {
+            ArrayNode row = distances.addArray();
+            for (int destination : destinations) {
+                row.add(Math.round(roadDistanceMeters(locations.get(source), locations.get(destination)) * 100) / 100.0);
+            }
+        }
+        return root.toString();
+    }
+
+    // All locations when the request names none, as ORS does
+    private static int[] indices(JsonNode node, int locationCount) {
+        if (!node.isArray()) {
+            int[] all = new int[locationCount];
+            for (int i = 0; i < locationCount; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] indices = new int[node.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = node.get(i).asInt();
+        }
+        return indices;
+    }
+
+    // locations are [longitude, latitude]
+    private static double roadDistanceMeters(JsonNode from, JsonNode to) {
+        double lat1 = Math.toRadians(from.get(1).asDouble());
+        double lat2 = Math.toRadians(to.get(1).asDouble());
+        double deltaLat = lat2 - lat1;
+        double deltaLon = Math.toRadians(to.get(0).asDouble() - from.get(0).asDouble());
+        double a = Math.pow(Math.sin(deltaLat / 2), 2) + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(deltaLon / 2), 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a)) * ROAD_FACTOR;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
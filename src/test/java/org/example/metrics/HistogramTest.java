@@ -0,0 +1,60 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void testPercentile_WithinBucketPrecision() {
+        // Arrange
+        Histogram histogram = new Histogram();
+
+        // Act
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        // Assert
+        assertEquals(10_000, histogram.count());
+        assertEquals(50_005_000, histogram.sum());
+        assertEquals(5_000, histogram.percentile(0.5), 5_000 * 0.04);
+        assertEquals(9_900, histogram.percentile(0.99), 9_900 * 0.04);
+    }
+
+    @Test
+    void testPercentile_SmallValuesAreExact() {
+        // Arrange
+        Histogram histogram = new Histogram();
+
+        // Act
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+
+        // Assert
+        assertEquals(0, histogram.percentile(0.1));
+        assertEquals(3, histogram.percentile(0.5));
+        assertEquals(7, histogram.percentile(1.0));
+    }
+
+    @Test
+    void testPercentile_Empty() {
+        // Act & Assert
+        assertEquals(0, new Histogram().percentile(0.99));
+    }
+
+    @Test
+    void testBuckets_CoverLongRange() {
+        // Act
+        int last = Histogram.indexOf(Long.MAX_VALUE);
+
+        // Assert
+        assertTrue(Histogram.upperBoundOf(last) >= Long.MAX_VALUE - 1 || Histogram.upperBoundOf(last) < 0);
+        for (long value : new long[]{64, 65, 1_000, 123_456_789, 1L << 40}) {
+            long upperBound = Histogram.upperBoundOf(Histogram.indexOf(value));
+            assertTrue(upperBound >= value && upperBound <= value * 1.04, "value " + value + " bound " + upperBound);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testCounter_SameNameAndLabelsShareCounter() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+
+        // Act
+        registry.counter("ors_errors_total", "errors", "status", "429").increment();
+        registry.counter("ors_errors_total", "errors", "status", "429").add(2);
+        registry.counter("ors_errors_total", "errors", "status", "500").increment();
+
+        // Assert
+        assertEquals(3, registry.getCounters().get("ors_errors_total{status=\"429\"}"));
+        assertEquals(1, registry.getCounters().get("ors_errors_total{status=\"500\"}"));
+    }
+
+    @Test
+    void testRegister_TypeMismatch() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests", "requests");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("requests", "requests", () -> 1));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("requests", "requests", "odd"));
+    }
+
+    @Test
+    void testWritePrometheus() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicLong inFlight = new AtomicLong(4);
+        registry.gauge("in_flight", "Requests in flight", inFlight::get);
+        registry.counter("cache_requests_total", "Cache lookups", () -> 12, "cache", "geocode", "result", "hit");
+        registry.histogram("stage_seconds", "Stage latency", "stage", "distance").record(2_000_000_000L);
+
+        // Act
+        String text = registry.getPrometheusText();
+
+        // Assert
+        assertTrue(text.contains("# HELP in_flight Requests in flight\n# TYPE in_flight gauge\nin_flight 4\n"), text);
+        assertTrue(text.contains("# TYPE cache_requests_total counter\ncache_requests_total{cache=\"geocode\",result=\"hit\"} 12\n"), text);
+        assertTrue(text.contains("# TYPE stage_seconds summary\n"), text);
+        assertTrue(text.contains("stage_seconds{stage=\"distance\",quantile=\"0.5\"} 2."), text);
+        assertTrue(text.contains("stage_seconds_sum{stage=\"distance\"} 2.0\n"), text);
+        assertTrue(text.contains("stage_seconds_count{stage=\"distance\"} 1\n"), text);
+    }
+
+    @Test
+    void testLabelValuesAreEscaped() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+
+        // Act
+        registry.counter("errors_total", "errors", "city", "a\"b").increment();
+
+        // Assert
+        assertTrue(registry.getPrometheusText().contains("errors_total{city=\"a\\\"b\"} 1\n"));
+    }
+
+    @Test
+    void testRegisterMBean() throws Exception {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.histogram("stage_seconds", "Stage latency", "stage", "calculate").record(1_000);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsRegistry.OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+
+        // Act
+        registry.registerMBean();
+
+        // Assert
+        try {
+            TabularData histograms = (TabularData) server.getAttribute(name, "Histograms");
+            assertEquals(1, histograms.size());
+            assertTrue(((String) server.getAttribute(name, "PrometheusText")).contains("stage_seconds_count"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
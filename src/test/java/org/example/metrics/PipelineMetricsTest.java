@@ -0,0 +1,53 @@
+package org.example.metrics;
+
+import org.example.cache.LruCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    @Test
+    void testBindCache_ExportsHitsMissesAndSize() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        PipelineMetrics metrics = new PipelineMetrics(registry);
+        LruCache<String, String> cache = new LruCache<>(10, Duration.ZERO);
+        metrics.bindCache("geocode", cache);
+
+        // Act
+        cache.get("berlin");
+        cache.put("berlin", "52.52,13.40");
+        cache.get("berlin");
+        cache.get("berlin");
+
+        // Assert
+        Map<String, Long> counters = registry.getCounters();
+        assertEquals(2, counters.get("cache_requests_total{cache=\"geocode\",result=\"hit\"}"));
+        assertEquals(1, counters.get("cache_requests_total{cache=\"geocode\",result=\"miss\"}"));
+        assertEquals(1, registry.getGauges().get("cache_entries{cache=\"geocode\"}"));
+    }
+
+    @Test
+    void testStagesAndInFlight() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        PipelineMetrics metrics = new PipelineMetrics(registry);
+
+        // Act
+        metrics.calculationStarted();
+        metrics.recordStage(PipelineMetrics.Stage.GEOCODE_START, System.nanoTime());
+        metrics.orsError("503");
+
+        // Assert
+        assertEquals(1, registry.getGauges().get("co2_calculations_in_flight"));
+        assertEquals(1, registry.getHistograms().get("co2_stage_duration_seconds{stage=\"geocode_start\"}").getCount());
+        assertEquals(0, registry.getHistograms().get("co2_stage_duration_seconds{stage=\"calculate\"}").getCount());
+        assertEquals(1, registry.getCounters().get("ors_errors_total{status=\"503\"}"));
+        metrics.calculationFinished();
+        assertEquals(0, registry.getGauges().get("co2_calculations_in_flight"));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimitTest {
+
+    @Test
+    void testAcquire_BlocksAtLimit() throws InterruptedException {
+        // Arrange
+        AimdLimit limit = new AimdLimit(2, 1, 10, 0.5);
+
+        // Act & Assert
+        assertTrue(limit.acquire(0, TimeUnit.MILLISECONDS));
+        assertTrue(limit.acquire(0, TimeUnit.MILLISECONDS));
+        assertFalse(limit.acquire(10, TimeUnit.MILLISECONDS));
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void testRelease_BacksOffAndRecovers() throws InterruptedException {
+        // Arrange
+        AimdLimit limit = new AimdLimit(8, 1, 8, 0.5);
+
+        // Act
+        limit.acquire(0, TimeUnit.MILLISECONDS);
+        limit.release(true);
+        int afterBackoff = limit.getLimit();
+        for (int i = 0; i < 4; i++) {
+            limit.acquire(0, TimeUnit.MILLISECONDS);
+            limit.release(false);
+        }
+
+        // Assert
+        assertEquals(4, afterBackoff);
+        assertEquals(4, limit.getLimit());
+        for (int i = 0; i < 4; i++) {
+            limit.acquire(0, TimeUnit.MILLISECONDS);
+            limit.release(false);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void testRelease_NeverBelowMinimum() throws InterruptedException {
+        // Arrange
+        AimdLimit limit = new AimdLimit(2, 1, 4, 0.5);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            limit.acquire(0, TimeUnit.MILLISECONDS);
+            limit.release(true);
+        }
+
+        // Assert
+        assertEquals(1, limit.getLimit());
+        assertTrue(limit.acquire(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testAcquire_WakesWaiterOnRelease() throws Exception {
+        // Arrange
+        AimdLimit limit = new AimdLimit(1, 1, 1, 0.5);
+        limit.acquire(0, TimeUnit.MILLISECONDS);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            limit.release(false);
+        });
+
+        // Act
+        releaser.start();
+
+        // Assert
+        assertTrue(limit.acquire(5, TimeUnit.SECONDS));
+        releaser.join();
+    }
+
+    @Test
+    void testAcquireAsync_QueuedCallerGetsReleasedPermit() {
+        // Arrange
+        AimdLimit limit = new AimdLimit(1, 1, 1, 0.5);
+        assertTrue(limit.acquireAsync().isDone());
+        CompletableFuture<Void> gaveUp = limit.acquireAsync();
+        CompletableFuture<Void> waiting = limit.acquireAsync();
+
+        // Act
+        gaveUp.cancel(false);
+        limit.release(false);
+
+        // Assert
+        assertTrue(waiting.isDone());
+        assertEquals(1, limit.getInFlight());
+    }
+}
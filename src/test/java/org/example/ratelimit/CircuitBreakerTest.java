@@ -0,0 +1,105 @@
+package org.example.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testOnFailure_OpensAfterConsecutiveFailures() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30), clock::get);
+
+        // Act
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    void testTryAcquire_LetsOneTrialThroughAfterOpenDuration() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), clock::get);
+        breaker.onFailure();
+
+        // Act
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void testOnSuccess_TrialClosesCircuit() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), clock::get);
+        breaker.onFailure();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        // Act
+        breaker.onSuccess();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testOnFailure_FailedTrialReopensCircuit() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(5, Duration.ofSeconds(30), clock::get);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        // Act
+        breaker.onFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testOnIgnored_ReleasesTrialWithoutClosing() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), clock::get);
+        breaker.onFailure();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        // Act
+        breaker.onIgnored();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testConstructor_InvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, Duration.ofSeconds(30)));
+    }
+}
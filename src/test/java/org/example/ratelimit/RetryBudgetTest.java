@@ -0,0 +1,63 @@
+package org.example.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testTryWithdraw_LimitedToRatioOfRequests() {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.1, 0, 10, clock::get);
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            budget.recordRequest();
+        }
+
+        // Assert
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+        assertEquals(3, budget.getWithdrawnCount());
+        assertEquals(1, budget.getRejectedCount());
+    }
+
+    @Test
+    void testTryWithdraw_ReserveRefillsOverTime() {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.1, 1, 10, clock::get);
+        assertFalse(budget.tryWithdraw());
+
+        // Act
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // Assert
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void testBalanceIsCapped() {
+        // Arrange
+        RetryBudget budget = new RetryBudget(1, 1, 2, clock::get);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        // Assert
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testReserve_BurstThenQueuesAtRate() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(2, 2, clock::get);
+
+        // Act & Assert
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE));
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE));
+        assertEquals(SECOND / 2, bucket.reserve(Long.MAX_VALUE));
+        assertEquals(SECOND, bucket.reserve(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testReserve_RefillsUpToCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 2, clock::get);
+        bucket.reserve(Long.MAX_VALUE);
+        bucket.reserve(Long.MAX_VALUE);
+
+        // Act
+        clock.addAndGet(10 * SECOND);
+
+        // Assert
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE));
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE));
+        assertEquals(SECOND, bucket.reserve(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testReserve_TakesNothingBeyondMaxWait() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 1, clock::get);
+        bucket.reserve(Long.MAX_VALUE);
+
+        // Act & Assert
+        assertEquals(-1, bucket.reserve(SECOND / 2));
+        assertEquals(SECOND, bucket.reserve(SECOND));
+    }
+
+    @Test
+    void testPauseUntil_DelaysAllTokens() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 5, clock::get);
+
+        // Act
+        bucket.pauseUntil(30 * SECOND);
+
+        // Assert
+        assertEquals(31 * SECOND, bucket.reserve(Long.MAX_VALUE));
+        clock.set(40 * SECOND);
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testPerMinute() {
+        // Act
+        TokenBucket bucket = TokenBucket.perMinute(40);
+
+        // Assert
+        assertEquals(40 / 60.0, bucket.getRate(), 1e-9);
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    @Test
+    void testDistance_MatchesDijkstraOnRandomGraphs() {
+        for (long seed = 1; seed <= 10; seed++) {
+            // Arrange
+            RoadGraph graph = randomGraph(new Random(seed), 200, 3);
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+
+            for (int source = 0; source < graph.nodeCount(); source += 7) {
+                int[] expected = dijkstra(graph, source);
+                for (int target = 0; target < graph.nodeCount(); target++) {
+                    // Act & Assert
+                    assertEquals(expected[target], hierarchy.distance(source, target), "seed " + seed + ": " + source + " -> " + target);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDistances_MatchesDijkstraOnRandomGraphs() {
+        for (long seed = 11; seed <= 15; seed++) {
+            // Arrange: a sparse graph, so that some pairs are unreachable; repeated sources and targets
+            Random random = new Random(seed);
+            RoadGraph graph = randomGraph(random, 150, 1);
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+            int[] sources = random.ints(12, 0, graph.nodeCount()).toArray();
+            int[] targets = random.ints(15, 0, graph.nodeCount()).toArray();
+            targets[3] = targets[0];
+            sources[5] = targets[1];
+
+            // Act
+            int[][] distances = hierarchy.distances(sources, targets);
+
+            // Assert
+            for (int i = 0; i < sources.length; i++) {
+                int[] expected = dijkstra(graph, sources[i]);
+                for (int j = 0; j < targets.length; j++) {
+                    assertEquals(expected[targets[j]], distances[i][j], "seed " + seed + ": " + sources[i] + " -> " + targets[j]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDistance_Unreachable() {
+        // Arrange: 0 -> 1 one way, 2 on its own
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        builder.addNode(50.0, 8.0);
+        builder.addNode(50.1, 8.0);
+        builder.addNode(50.2, 8.0);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(builder.addEdge(0, 1, 1000).build());
+
+        // Act & Assert
+        assertEquals(10_000, hierarchy.distance(0, 1));
+        assertEquals(ContractionHierarchy.UNREACHABLE, hierarchy.distance(1, 0));
+        assertEquals(ContractionHierarchy.UNREACHABLE, hierarchy.distance(0, 2));
+        assertEquals(0, hierarchy.distance(2, 2));
+        assertArrayEquals(new int[]{0, 10_000, ContractionHierarchy.UNREACHABLE}, hierarchy.distances(new int[]{0}, new int[]{0, 1, 2})[0]);
+    }
+
+    @Test
+    void testWrite_RoundTrips() throws IOException {
+        // Arrange
+        RoadGraph graph = randomGraph(new Random(7), 100, 3);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        hierarchy.write(out);
+        ContractionHierarchy read = ContractionHierarchy.read(new ByteArrayInputStream(out.toByteArray()), graph.nodeCount());
+
+        // Assert
+        assertEquals(hierarchy.shortcutCount(), read.shortcutCount());
+        for (int source = 0; source < graph.nodeCount(); source += 9) {
+            for (int target = 0; target < graph.nodeCount(); target++) {
+                assertEquals(hierarchy.distance(source, target), read.distance(source, target));
+            }
+        }
+    }
+
+    @Test
+    void testRead_RejectsHierarchyOfAnotherGraph() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContractionHierarchy.build(randomGraph(new Random(7), 100, 3)).write(out);
+        byte[] bytes = out.toByteArray();
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(new ByteArrayInputStream(bytes), 101));
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)), 100));
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(new ByteArrayInputStream(new byte[]{'R', 'G', 'R', '1'}), 100));
+    }
+
+    @Test
+    void testDistance_ConcurrentQueries() throws InterruptedException {
+        // Arrange
+        RoadGraph graph = randomGraph(new Random(99), 300, 3);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        int[][] expected = new int[graph.nodeCount()][];
+        for (int source = 0; source < graph.nodeCount(); source += 10) {
+            expected[source] = dijkstra(graph, source);
+        }
+        boolean[] mismatch = new boolean[1];
+
+        // Act
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int source = 0; source < graph.nodeCount(); source += 10) {
+                    for (int target = offset; target < graph.nodeCount(); target += threads.length) {
+                        if (hierarchy.distance(source, target) != expected[source][target]) {
+                            mismatch[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertFalse(mismatch[0]);
+    }
+
+    // Grid-like road network: nodes scattered over a square, each linked to its nearest neighbours by
+    // two-way roads a bit longer than the straight line, plus some one-way roads
+    private static RoadGraph randomGraph(Random random, int nodeCount, int neighbours) {
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        double[][] positions = new double[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            positions[node] = new double[]{50 + random.nextDouble(), 8 + random.nextDouble()};
+            builder.addNode(positions[node][0], positions[node][1]);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            int from = node;
+            Integer[] byDistance = new Integer[nodeCount];
+            Arrays.setAll(byDistance, i -> i);
+            Arrays.sort(byDistance, (a, b) -> Double.compare(squaredDistance(positions[from], positions[a]), squaredDistance(positions[from], positions[b])));
+            for (int k = 1; k <= neighbours; k++) {
+                int to = byDistance[k];
+                double metres = Math.sqrt(squaredDistance(positions[from], positions[to])) * 100_000 * (1 + random.nextDouble() * 0.5);
+                builder.addEdge(from, to, metres);
+                if (random.nextInt(10) > 0) {
+                    builder.addEdge(to, from, metres);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        return (a[0] - b[0]) * (a[0] - b[0]) + (a[1] - b[1]) * (a[1] - b[1]);
+    }
+
+    private static int[] dijkstra(RoadGraph graph, int source) {
+        int[] distances = new int[graph.nodeCount()];
+        Arrays.fill(distances, ContractionHierarchy.UNREACHABLE);
+        distances[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > distances[node]) {
+                continue;
+            }
+            for (int edge = graph.firstEdge(node); edge < graph.firstEdge(node + 1); edge++) {
+                int target = graph.edgeTarget(edge);
+                int distance = distances[node] + graph.edgeLength(edge);
+                if (distance < distances[target]) {
+                    distances[target] = distance;
+                    queue.add(new long[]{distance, target});
+                }
+            }
+        }
+        return distances;
+    }
+}
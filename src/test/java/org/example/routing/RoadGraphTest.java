@@ -0,0 +1,149 @@
+package org.example.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadGraphTest {
+
+    @TempDir
+    Path tempDir;
+
+    static RoadGraph testGraph() throws IOException {
+        try (InputStream in = RoadGraphTest.class.getResourceAsStream("/routing/test-graph.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return RoadGraph.readText(reader);
+        }
+    }
+
+    @Test
+    void testReadText_ParsesNodesAndEdges() throws IOException {
+        // Act
+        RoadGraph graph = testGraph();
+
+        // Assert: 13 two-way roads and one one-way road
+        assertEquals(12, graph.nodeCount());
+        assertEquals(27, graph.edgeCount());
+        assertEquals(50.2268, graph.latitude(0), 0.000001);
+        assertEquals(8.6182, graph.longitude(0), 0.000001);
+        assertEquals(175_000, lengthOf(graph, 0, 2));
+        assertEquals(175_000, lengthOf(graph, 2, 0));
+        assertEquals(330_000, lengthOf(graph, 4, 3));
+        assertEquals(-1, lengthOf(graph, 3, 4));
+    }
+
+    @Test
+    void testReadText_DefaultsToGreatCircleLength() throws IOException {
+        // Arrange
+        String text = "node 100 52.5200 13.4050\nnode 7 53.5511 9.9937\nedge 100 7\n";
+
+        // Act
+        RoadGraph graph = RoadGraph.readText(new BufferedReader(new StringReader(text)));
+
+        // Assert: Berlin - Hamburg is about 255 km as the crow flies
+        assertEquals(255.0, lengthOf(graph, 0, 1) / (double) RoadGraph.DECIMETRES_PER_KM, 1.0);
+        assertEquals(lengthOf(graph, 0, 1), lengthOf(graph, 1, 0));
+    }
+
+    @Test
+    void testReadText_RejectsInvalidLines() {
+        assertThrows(IOException.class, () -> RoadGraph.readText(new BufferedReader(new StringReader("node 1 50.0\n"))));
+        assertThrows(IOException.class, () -> RoadGraph.readText(new BufferedReader(new StringReader("node 1 50.0 8.0\nedge 1 2\n"))));
+        assertThrows(IOException.class, () -> RoadGraph.readText(new BufferedReader(new StringReader("node 1 50.0 8.0\nnode 1 51.0 8.0\n"))));
+        assertThrows(IOException.class, () -> RoadGraph.readText(new BufferedReader(new StringReader("node 1 north east\n"))));
+        assertThrows(IOException.class, () -> RoadGraph.readText(new BufferedReader(new StringReader("way 1 2\n"))));
+    }
+
+    @Test
+    void testWrite_RoundTrips() throws IOException {
+        // Arrange
+        RoadGraph graph = testGraph();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        graph.write(out);
+        RoadGraph read = RoadGraph.read(new ByteArrayInputStream(out.toByteArray()));
+
+        // Assert
+        assertGraphEquals(graph, read);
+    }
+
+    @Test
+    void testRead_RejectsOtherFiles() {
+        assertThrows(IOException.class, () -> RoadGraph.read(new ByteArrayInputStream("node 1 50.0 8.0\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testOpen_CompilesTextGraphOnce() throws IOException {
+        // Arrange
+        Path text = tempDir.resolve("graph.txt");
+        try (InputStream in = RoadGraphTest.class.getResourceAsStream("/routing/test-graph.txt")) {
+            Files.copy(in, text);
+        }
+        Files.setLastModifiedTime(text, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Path binary = tempDir.resolve("graph.txt.rgr");
+
+        // Act
+        RoadGraph compiled = RoadGraph.open(text);
+        FileTime compiledAt = Files.getLastModifiedTime(binary);
+        RoadGraph reopened = RoadGraph.open(text);
+
+        // Assert
+        assertGraphEquals(testGraph(), compiled);
+        assertGraphEquals(compiled, reopened);
+        assertEquals(compiledAt, Files.getLastModifiedTime(binary));
+        assertGraphEquals(compiled, RoadGraph.open(binary));
+    }
+
+    @Test
+    void testOpen_RecompilesChangedTextGraph() throws IOException {
+        // Arrange
+        Path text = tempDir.resolve("graph.txt");
+        Files.writeString(text, "node 1 50.0 8.0\nnode 2 50.1 8.0\nedge 1 2 12000\n");
+        RoadGraph.open(text);
+        Files.setLastModifiedTime(tempDir.resolve("graph.txt.rgr"), FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Files.writeString(text, "node 1 50.0 8.0\nnode 2 50.1 8.0\nedge 1 2 11000\n");
+
+        // Act
+        RoadGraph graph = RoadGraph.open(text);
+
+        // Assert
+        assertEquals(110_000, lengthOf(graph, 0, 1));
+    }
+
+    private static int lengthOf(RoadGraph graph, int from, int to) {
+        for (int edge = graph.firstEdge(from); edge < graph.firstEdge(from + 1); edge++) {
+            if (graph.edgeTarget(edge) == to) {
+                return graph.edgeLength(edge);
+            }
+        }
+        return -1;
+    }
+
+    private static void assertGraphEquals(RoadGraph expected, RoadGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertEquals(expected.latitude(node), actual.latitude(node));
+            assertEquals(expected.longitude(node), actual.longitude(node));
+            assertEquals(expected.firstEdge(node + 1), actual.firstEdge(node + 1));
+        }
+        for (int edge = 0; edge < expected.edgeCount(); edge++) {
+            assertEquals(expected.edgeTarget(edge), actual.edgeTarget(edge));
+            assertEquals(expected.edgeLength(edge), actual.edgeLength(edge));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.routing;
+
+import org.example.geo.GreatCircle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingEngineTest {
+
+    private static RoutingEngine engine;
+
+    @TempDir
+    Path tempDir;
+
+    private final double[] badHomburg = {50.2268, 8.6182};
+    private final double[] frankfurt = {50.1109, 8.6821};
+    private final double[] offenbach = {50.0956, 8.7761};
+    private final double[] darmstadt = {49.8728, 8.6512};
+    private final double[] hamburg = {53.5511, 9.9937};
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        engine = new RoutingEngine(RoadGraphTest.testGraph(), 5.0);
+    }
+
+    @Test
+    void testDistanceKm_ShortestRoute() {
+        // Act & Assert: via Frankfurt and the airport, not via Oberursel
+        assertEquals(57.4, engine.distanceKm(badHomburg, darmstadt), 0.0001);
+        assertEquals(0.0, engine.distanceKm(frankfurt, frankfurt), 0.0001);
+    }
+
+    @Test
+    void testDistanceKm_RespectsOneWayRoads() {
+        // Act & Assert
+        assertEquals(33.0, engine.distanceKm(darmstadt, offenbach), 0.0001);
+        assertEquals(48.0, engine.distanceKm(offenbach, darmstadt), 0.0001);
+    }
+
+    @Test
+    void testDistanceKm_AddsDistanceToNearestNode() {
+        // Arrange: Frankfurt Hauptbahnhof is about 2 km from the Frankfurt node
+        double[] hauptbahnhof = {50.1071, 8.6638};
+        double snap = GreatCircle.haversineKm(hauptbahnhof, frankfurt);
+
+        // Act
+        double distance = engine.distanceKm(hauptbahnhof, offenbach);
+
+        // Assert
+        assertEquals(8.1 + snap, distance, 0.0001);
+    }
+
+    @Test
+    void testDistanceKm_NaNWithoutRouteOrNearbyNode() {
+        // Arrange
+        double[] kassel = {51.3127, 9.4797};
+
+        // Act & Assert
+        assertTrue(Double.isNaN(engine.distanceKm(frankfurt, hamburg)));
+        assertTrue(Double.isNaN(engine.distanceKm(kassel, frankfurt)));
+        assertTrue(Double.isNaN(engine.distanceKm(frankfurt, kassel)));
+    }
+
+    @Test
+    void testDistanceMatrixKm_MatchesSingleDistances() {
+        // Arrange
+        double[] kassel = {51.3127, 9.4797};
+        double[][] sources = {badHomburg, kassel, darmstadt, offenbach};
+        double[][] destinations = {offenbach, hamburg, darmstadt, frankfurt, kassel, darmstadt};
+
+        // Act
+        double[][] distances = engine.distanceMatrixKm(sources, destinations);
+
+        // Assert
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < destinations.length; j++) {
+                assertEquals(engine.distanceKm(sources[i], destinations[j]), distances[i][j], 0.0001, i + " -> " + j);
+            }
+        }
+        assertTrue(Double.isNaN(distances[1][0]));
+        assertEquals(33.0, distances[2][0], 0.0001);
+    }
+
+    @Test
+    void testOpen_KeepsHierarchyNextToGraph() throws IOException {
+        // Arrange
+        Path text = tempDir.resolve("graph.txt");
+        try (InputStream in = RoutingEngineTest.class.getResourceAsStream("/routing/test-graph.txt")) {
+            Files.copy(in, text);
+        }
+
+        // Act
+        RoutingEngine built = RoutingEngine.open(text, 5.0);
+        Path hierarchy = tempDir.resolve("graph.txt.ch");
+        long size = Files.size(hierarchy);
+        RoutingEngine reopened = RoutingEngine.open(text, 5.0);
+        Files.write(hierarchy, new byte[]{1, 2, 3});
+        RoutingEngine rebuilt = RoutingEngine.open(text, 5.0);
+
+        // Assert
+        assertEquals(57.4, built.distanceKm(badHomburg, darmstadt), 0.0001);
+        assertEquals(57.4, reopened.distanceKm(badHomburg, darmstadt), 0.0001);
+        assertEquals(57.4, rebuilt.distanceKm(badHomburg, darmstadt), 0.0001);
+        assertEquals(size, Files.size(hierarchy));
+    }
+}
@@ -0,0 +1,339 @@
+package org.example.server;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
+import org.example.controller.EmissionController;
+import org.example.exception.CalculationException;
+import org.example.exception.CalculationTimeoutException;
+import org.example.exception.UnknownCityException;
+import org.example.metrics.MetricsRegistry;
+import org.example.model.TransportationMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmissionHttpServerTest {
+
+    @Mock
+    private EmissionController mockEmissionController;
+
+    private EmissionHttpServer server;
+    private ExecutorService executor;
+    private final OkHttpClient client = new OkHttpClient();
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newCachedThreadPool();
+        server = new EmissionHttpServer(new InetSocketAddress("127.0.0.1", 0), mockEmissionController, executor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        when(mockEmissionController.calculateEmission("Bad Homburg", "Berlin", "diesel-car-medium")).thenReturn(86.7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGetEmission_Success() throws IOException {
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Bad%20Homburg&end=Berlin&transportation-method=diesel-car-medium").build())) {
+            // Assert
+            assertEquals(200, response.code());
+            assertEquals("{\"start\":\"Bad Homburg\",\"end\":\"Berlin\",\"transportation-method\":\"diesel-car-medium\",\"co2Kg\":86.7}",
+                    response.body().string());
+        }
+    }
+
+    @Test
+    void testPostEmission_Success() throws IOException {
+        // Arrange
+        String body = "{\"start\":\"Bad Homburg\",\"end\":\"Berlin\",\"transportation-method\":\"diesel-car-medium\"}";
+
+        // Act
+        try (Response response = call(new Request.Builder().url(baseUrl + "/emission")
+                .post(RequestBody.create(body, MediaType.parse("application/json"))).build())) {
+            // Assert
+            assertEquals(200, response.code());
+            assertTrue(response.body().string().contains("\"co2Kg\":86.7"));
+        }
+    }
+
+    @Test
+    void testGetEmission_InvalidInput() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Berlin", null, "bus-default"))
+                .thenThrow(new IllegalArgumentException("End city is missing"));
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Berlin&transportation-method=bus-default").build())) {
+            // Assert
+            assertEquals(400, response.code());
+            assertEquals("{\"error\":\"End city is missing\"}", response.body().string());
+        }
+    }
+
+    @Test
+    void testGetEmission_CalculationFailure() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Atlantis", "Berlin", "bus-default"))
+                .thenThrow(new CalculationException("Coordinates not found for city Atlantis"));
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Atlantis&end=Berlin&transportation-method=bus-default").build())) {
+            // Assert
+            assertEquals(502, response.code());
+        }
+    }
+
+    @Test
+    void testGetEmission_UnknownCity() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Atlantis", "Berlin", "bus-default"))
+                .thenThrow(new UnknownCityException("Atlantis"));
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Atlantis&end=Berlin&transportation-method=bus-default").build())) {
+            // Assert
+            assertEquals(404, response.code());
+            assertTrue(response.body().string().contains("Coordinates not found for city Atlantis"));
+        }
+    }
+
+    @Test
+    void testGetEmission_Timeout() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission(eq("Bad Homburg"), eq("Berlin"), eq("diesel-car-medium"), any(Deadline.class)))
+                .thenThrow(new CalculationTimeoutException("Emission calculation did not finish before its deadline"));
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Bad%20Homburg&end=Berlin&transportation-method=diesel-car-medium&timeout-ms=50").build())) {
+            // Assert
+            assertEquals(504, response.code());
+        }
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Bad%20Homburg&end=Berlin&transportation-method=diesel-car-medium&timeout-ms=soon").build())) {
+            assertEquals(400, response.code());
+        }
+    }
+
+    @Test
+    void testGetEmission_FlagsStaleResult() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Hamburg", "Berlin", "diesel-car-medium")).thenAnswer(invocation -> {
+            RequestContext.markCurrentStale();
+            return 43.2;
+        });
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Hamburg&end=Berlin&transportation-method=diesel-car-medium").build())) {
+            // Assert
+            assertEquals(200, response.code());
+            assertEquals("{\"start\":\"Hamburg\",\"end\":\"Berlin\",\"transportation-method\":\"diesel-car-medium\",\"co2Kg\":43.2,\"stale\":true}",
+                    response.body().string());
+        }
+    }
+
+    @Test
+    void testPostBatch_StreamsCsv() throws IOException {
+        // Arrange
+        String body = "\"Bad Homburg\",Berlin,diesel-car-medium\n";
+
+        // Act
+        try (Response response = call(new Request.Builder().url(baseUrl + "/emission/batch")
+                .post(RequestBody.create(body, MediaType.parse("text/csv"))).build())) {
+            // Assert
+            assertEquals(200, response.code());
+            assertEquals(String.join(System.lineSeparator(),
+                    "start,end,transportation-method,co2Kg,error,stale,estimated",
+                    "Bad Homburg,Berlin,diesel-car-medium,86.7,,false,false") + System.lineSeparator(), response.body().string());
+        }
+    }
+
+    @Test
+    void testPostBatch_ConcurrencyIsCappedAtServerMaximum() throws Exception {
+        // Arrange
+        EmissionHttpServer cappedServer = new EmissionHttpServer(new InetSocketAddress("127.0.0.1", 0), mockEmissionController, executor, null, 2);
+        cappedServer.start();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockEmissionController.calculateEmission(eq("Hamburg"), eq("Berlin"), eq("diesel-car-medium"))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return 43.2;
+        });
+        String body = "Hamburg,Berlin,diesel-car-medium\n".repeat(8);
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url("http://127.0.0.1:" + cappedServer.getAddress().getPort() + "/emission/batch?concurrency=1000")
+                .post(RequestBody.create(body, MediaType.parse("text/csv"))).build())) {
+            // Assert
+            assertEquals(200, response.code());
+            assertEquals(9, response.body().string().split(System.lineSeparator()).length);
+        } finally {
+            cappedServer.stop();
+        }
+        assertTrue(maxInFlight.get() <= 2, "at most 2 trips at once, saw " + maxInFlight.get());
+    }
+
+    @Test
+    void testPostBatch_ConcurrentRequestsShareServerMaximum() throws Exception {
+        // Arrange
+        EmissionHttpServer cappedServer = new EmissionHttpServer(new InetSocketAddress("127.0.0.1", 0), mockEmissionController, executor, null, 2);
+        cappedServer.start();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockEmissionController.calculateEmission(eq("Hamburg"), eq("Berlin"), eq("diesel-car-medium"))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return 43.2;
+        });
+        Request request = new Request.Builder()
+                .url("http://127.0.0.1:" + cappedServer.getAddress().getPort() + "/emission/batch?concurrency=2")
+                .post(RequestBody.create("Hamburg,Berlin,diesel-car-medium\n".repeat(4), MediaType.parse("text/csv"))).build();
+        Callable<Integer> batch = () -> {
+            try (Response response = call(request)) {
+                return response.body().string().split(System.lineSeparator()).length;
+            }
+        };
+
+        // Act
+        List<Future<Integer>> lineCounts;
+        try {
+            lineCounts = executor.invokeAll(List.of(batch, batch, batch));
+        } finally {
+            cappedServer.stop();
+        }
+
+        // Assert
+        for (Future<Integer> lineCount : lineCounts) {
+            assertEquals(5, lineCount.get());
+        }
+        assertTrue(maxInFlight.get() <= 2, "at most 2 trips at once across requests, saw " + maxInFlight.get());
+    }
+
+    @Test
+    void testPostEmission_NonTextualValueIsRejected() throws IOException {
+        // Arrange
+        String body = "{\"start\":null,\"end\":\"Berlin\",\"transportation-method\":\"diesel-car-medium\"}";
+
+        // Act
+        try (Response response = call(new Request.Builder().url(baseUrl + "/emission")
+                .post(RequestBody.create(body, MediaType.parse("application/json"))).build())) {
+            // Assert
+            assertEquals(400, response.code());
+            assertTrue(response.body().string().contains("start"));
+        }
+        verifyNoInteractions(mockEmissionController);
+    }
+
+    @Test
+    void testUnknownPathBelowEndpoint() throws IOException {
+        for (String path : new String[]{"/emissionfoo", "/emission/x", "/healthz", "/emission/batch/x"}) {
+            try (Response response = call(new Request.Builder().url(baseUrl + path).build())) {
+                assertEquals(404, response.code(), path);
+            }
+        }
+    }
+
+    @Test
+    void testGetEmission_UnexpectedFailure() throws IOException {
+        // Arrange
+        when(mockEmissionController.calculateEmission("Hamburg", "Berlin", "diesel-car-medium"))
+                .thenThrow(new IllegalStateException("bug"));
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Hamburg&end=Berlin&transportation-method=diesel-car-medium").build())) {
+            // Assert
+            assertEquals(500, response.code());
+            assertEquals("{\"error\":\"Internal server error\"}", response.body().string());
+        }
+    }
+
+    @Test
+    void testHealth() throws IOException {
+        try (Response response = call(new Request.Builder().url(baseUrl + "/health").build())) {
+            assertEquals(200, response.code());
+            assertEquals("ok", response.body().string());
+        }
+    }
+
+    @Test
+    void testMetrics() throws IOException {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("ors_errors_total", "Failed ORS requests", "status", "429").increment();
+        EmissionHttpServer metricsServer = new EmissionHttpServer(new InetSocketAddress("127.0.0.1", 0), mockEmissionController, executor, registry);
+        metricsServer.start();
+
+        // Act & Assert
+        try (Response response = call(new Request.Builder().url("http://127.0.0.1:" + metricsServer.getAddress().getPort() + "/metrics").build())) {
+            assertEquals(200, response.code());
+            assertTrue(response.body().string().contains("ors_errors_total{status=\"429\"} 1"));
+        } finally {
+            metricsServer.stop();
+        }
+        try (Response response = call(new Request.Builder().url(baseUrl + "/metrics").build())) {
+            assertEquals(404, response.code());
+        }
+    }
+
+    private Response call(Request request) throws IOException {
+        return client.newCall(request).execute();
+    }
+
+    @Test
+    void testGetEmission_ComparesAllMethods() throws IOException {
+        // Arrange
+        EnumMap<TransportationMethod, Double> emissions = new EnumMap<>(TransportationMethod.class);
+        emissions.put(TransportationMethod.DIESEL_CAR_MEDIUM, 86.7);
+        emissions.put(TransportationMethod.TRAIN_DEFAULT, 3.0);
+        when(mockEmissionController.compareEmissions(eq("Bad Homburg"), eq("Berlin"), any(Deadline.class))).thenReturn(emissions);
+
+        // Act
+        try (Response response = call(new Request.Builder()
+                .url(baseUrl + "/emission?start=Bad%20Homburg&end=Berlin&transportation-method=all").build())) {
+            // Assert
+            assertEquals(200, response.code());
+            assertEquals("{\"start\":\"Bad Homburg\",\"end\":\"Berlin\",\"transportation-method\":\"all\","
+                    + "\"co2Kg\":{\"diesel-car-medium\":86.7,\"train-default\":3.0}}", response.body().string());
+        }
+        verify(mockEmissionController, never()).calculateEmission(any(), any(), any());
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.service;
+
+import org.example.client.AsyncServiceClient;
+import org.example.core.Calculator;
+import org.example.core.Co2Calculator;
+import org.example.exception.CalculationException;
+import org.example.exception.ServiceClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncCo2EmissionServiceTest {
+
+    @Mock
+    private AsyncServiceClient serviceClient;
+
+    @Mock
+    private Calculator calculator;
+
+    @InjectMocks
+    private AsyncCo2EmissionService asyncCo2EmissionService;
+
+    private final double[] startCoordinates = {52.5200, 13.4050}; // Berlin
+    private final double[] endCoordinates = {53.5511, 9.9937}; // Hamburg
+    private final double distance = 289.0;
+    private final double emissionInGramsPerKm = 142.0;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(serviceClient.getCoordinatesAsync("Berlin")).thenReturn(CompletableFuture.completedFuture(startCoordinates));
+        lenient().when(serviceClient.getCoordinatesAsync("Hamburg")).thenReturn(CompletableFuture.completedFuture(endCoordinates));
+        lenient().when(serviceClient.getDistanceAsync(startCoordinates, endCoordinates)).thenReturn(CompletableFuture.completedFuture(distance));
+        lenient().when(calculator.calculate(distance, emissionInGramsPerKm)).thenReturn(41.038);
+    }
+
+    @Test
+    void testCalculateEmissionAsync_Success() {
+        // Arrange
+        CompletableFuture<double[]> pendingEnd = new CompletableFuture<>();
+        when(serviceClient.getCoordinatesAsync("Hamburg")).thenReturn(pendingEnd);
+
+        // Act
+        CompletableFuture<Double> result = asyncCo2EmissionService.calculateEmissionAsync("Berlin", "Hamburg", emissionInGramsPerKm);
+
+        // Assert
+        assertFalse(result.isDone());
+        pendingEnd.complete(endCoordinates);
+        assertEquals(41.038, result.join(), 0.001);
+    }
+
+    @Test
+    void testCalculateEmission_Success() throws CalculationException {
+        // Act
+        double result = asyncCo2EmissionService.calculateEmission("Berlin", "Hamburg", emissionInGramsPerKm);
+
+        // Assert
+        assertEquals(41.038, result, 0.001);
+        verify(serviceClient, times(1)).getDistanceAsync(startCoordinates, endCoordinates);
+    }
+
+    @Test
+    void testCalculateEmission_CoordinatesFailure() {
+        // Arrange
+        when(serviceClient.getCoordinatesAsync("Hamburg"))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceClientException("API Error")));
+
+        // Act & Assert
+        CalculationException exception = assertThrows(CalculationException.class,
+                () -> asyncCo2EmissionService.calculateEmission("Berlin", "Hamburg", emissionInGramsPerKm));
+        assertEquals("Error occurred during emission calculation: API Error", exception.getMessage());
+        verify(serviceClient, never()).getDistanceAsync(any(), any());
+    }
+
+    @Test
+    void testCalculateEmissions_Success() throws CalculationException {
+        // Arrange
+        when(serviceClient.getDistanceMatrixAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new double[][]{{distance}}));
+
+        // Act
+        double[][] result = asyncCo2EmissionService.calculateEmissions(List.of("Berlin"), List.of("Hamburg"), emissionInGramsPerKm);
+
+        // Assert
+        assertEquals(41.038, result[0][0], 0.001);
+    }
+
+    @Test
+    void testCalculateEmissionsForSeveralFactors_LooksUpRouteOnce() throws CalculationException {
+        // Arrange
+        AsyncCo2EmissionService service = new AsyncCo2EmissionService(serviceClient, new Co2Calculator());
+
+        // Act
+        double[] result = service.calculateEmissions("Berlin", "Hamburg", new double[]{142.0, 27.0, 6.0});
+
+        // Assert
+        assertArrayEquals(new double[]{41.038, 7.803, 1.734}, result, 0.001);
+        verify(serviceClient, times(1)).getCoordinatesAsync("Berlin");
+        verify(serviceClient, times(1)).getCoordinatesAsync("Hamburg");
+        verify(serviceClient, times(1)).getDistanceAsync(startCoordinates, endCoordinates);
+    }
+}
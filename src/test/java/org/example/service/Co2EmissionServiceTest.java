@@ -1,9 +1,21 @@
 package org.example.service;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import org.example.client.ServiceClient;
+import org.example.context.Deadline;
+import org.example.context.RequestContext;
 import org.example.core.Calculator;
+import org.example.core.Co2Calculator;
 import org.example.exception.CalculationException;
+import org.example.exception.CalculationTimeoutException;
+import org.example.exception.CityNotFoundException;
+import org.example.exception.RequestCancelledException;
 import org.example.exception.ServiceClientException;
+import org.example.exception.UnknownCityException;
+import org.example.metrics.HistogramSnapshot;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.PipelineMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,10 +23,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -73,6 +99,49 @@ class Co2EmissionServiceTest {
         assertTrue(exception instanceof CalculationException);
     }
 
+    @Test
+    void testCalculateEmission_UnknownCityIsNotWrapped() throws ServiceClientException {
+        // Arrange
+        when(serviceClient.getCoordinates("Atlantis")).thenThrow(new CityNotFoundException("Atlantis"));
+        when(serviceClient.getCoordinates("Hamburg")).thenReturn(endCoordinates);
+
+        // Act & Assert
+        UnknownCityException exception = assertThrows(UnknownCityException.class,
+                () -> co2EmissionService.calculateEmission("Atlantis", "Hamburg", emissionInGramsPerKm));
+
+        assertEquals("Coordinates not found for city Atlantis", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testCalculateEmission_UnknownCityBuildsNoWrappers() throws Exception {
+        // Arrange
+        Co2EmissionService service = new Co2EmissionService(serviceClient, calculator, Runnable::run);
+        when(serviceClient.getCoordinates("Atlantis")).thenThrow(new CityNotFoundException("Atlantis"));
+        when(serviceClient.getCoordinates("Hamburg")).thenReturn(endCoordinates);
+        Path file = Files.createTempFile("unknown-city", ".jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.JavaExceptionThrow");
+            recording.start();
+            assertThrows(UnknownCityException.class, () -> service.calculateEmission("Atlantis", "Hamburg", emissionInGramsPerKm));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<String> thrown = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.JavaExceptionThrow"))
+                .map(event -> event.getClass("thrownClass").getName())
+                .toList();
+        Files.delete(file);
+        assertFalse(thrown.contains(CompletionException.class.getName()), thrown::toString);
+        assertFalse(thrown.contains(ExecutionException.class.getName()), thrown::toString);
+        verify(serviceClient, never()).getDistance(any(), any());
+    }
+
     @Test
     void testCalculateEmission_CalculationException_FetchingEndCoordinates() throws ServiceClientException {
         // Arrange
@@ -158,4 +227,143 @@ class Co2EmissionServiceTest {
         verify(serviceClient, times(1)).getDistance(startCoordinates, endCoordinates);
         verify(calculator, times(1)).calculate(distance, negativeEmission);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCalculateEmissions_SingleMatrixRequest() throws ServiceClientException {
+        // Arrange
+        double[] munich = {48.1372, 11.5755};
+        when(serviceClient.getCoordinates("Munich")).thenReturn(munich);
+        when(serviceClient.getDistanceMatrix(any(), any())).thenReturn(new double[][]{{289.0, 504.0}, {0.0, 775.0}});
+        when(calculator.calculate(anyDouble(), eq(emissionInGramsPerKm)))
+                .thenAnswer(invocation -> invocation.<Double>getArgument(0) * emissionInGramsPerKm / 1000);
+
+        // Act
+        double[][] result = co2EmissionService.calculateEmissions(List.of("Berlin", "Hamburg"), List.of("Hamburg", "Munich"), emissionInGramsPerKm);
+
+        // Assert
+        assertEquals(41.038, result[0][0], 0.001);
+        assertEquals(110.05, result[1][1], 0.001);
+        verify(serviceClient, times(1)).getCoordinates("Hamburg");
+        verify(serviceClient, times(1)).getDistanceMatrix(
+                new double[][]{startCoordinates, endCoordinates}, new double[][]{endCoordinates, munich});
+        verify(serviceClient, never()).getDistance(any(), any());
+    }
+
+    @Test
+    void testCalculateEmissions_MatrixFailure() throws ServiceClientException {
+        // Arrange
+        when(serviceClient.getDistanceMatrix(any(), any())).thenThrow(new ServiceClientException("API Error"));
+
+        // Act & Assert
+        CalculationException exception = assertThrows(CalculationException.class,
+                () -> co2EmissionService.calculateEmissions(List.of("Berlin"), List.of("Hamburg"), emissionInGramsPerKm));
+        assertEquals("API Error", exception.getMessage());
+    }
+
+    @Test
+    void testCalculateEmission_UsesConfiguredExecutor() {
+        // Arrange
+        AtomicInteger submittedTasks = new AtomicInteger();
+        Executor countingExecutor = task -> {
+            submittedTasks.incrementAndGet();
+            task.run();
+        };
+        Co2EmissionService service = new Co2EmissionService(serviceClient, calculator, countingExecutor);
+
+        // Act
+        double result = service.calculateEmission("Berlin", "Hamburg", emissionInGramsPerKm);
+
+        // Assert
+        assertEquals(41.038, result, 0.001);
+        assertEquals(2, submittedTasks.get());
+    }
+
+    @Test
+    void testCalculateEmission_RecordsStageLatencies() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        Co2EmissionService service = new Co2EmissionService(serviceClient, calculator, Runnable::run, new PipelineMetrics(registry));
+
+        // Act
+        service.calculateEmission("Berlin", "Hamburg", emissionInGramsPerKm);
+
+        // Assert
+        Map<String, HistogramSnapshot> histograms = registry.getHistograms();
+        for (String stage : List.of("geocode_start", "geocode_end", "distance", "calculate")) {
+            assertEquals(1, histograms.get("co2_stage_duration_seconds{stage=\"" + stage + "\"}").getCount(), stage);
+        }
+        assertEquals(0, registry.getGauges().get("co2_calculations_in_flight"));
+    }
+
+    @Test
+    void testCalculateEmission_DeadlineCancelsRunningLookups() throws ServiceClientException {
+        // Arrange
+        CountDownLatch lookupCancelled = new CountDownLatch(1);
+        when(serviceClient.getCoordinates("Hamburg")).thenAnswer(invocation -> {
+            try {
+                RequestContext.sleep(TimeUnit.SECONDS.toNanos(30)); // a hanging ORS call
+            } catch (RequestCancelledException e) {
+                lookupCancelled.countDown();
+                throw e;
+            }
+            return endCoordinates;
+        });
+        Co2EmissionService service = new Co2EmissionService(serviceClient, calculator, Executors.newCachedThreadPool());
+
+        // Act & Assert
+        long start = System.nanoTime();
+        assertThrows(CalculationTimeoutException.class,
+                () -> service.calculateEmission("Berlin", "Hamburg", emissionInGramsPerKm, Deadline.after(Duration.ofMillis(100))));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> lookupCancelled.await());
+    }
+
+    @Test
+    void testCalculateEmission_FailureCancelsSibling() throws ServiceClientException {
+        // Arrange
+        CountDownLatch lookupCancelled = new CountDownLatch(1);
+        when(serviceClient.getCoordinates("Berlin")).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            throw new ServiceClientException("Coordinates not found for city Berlin");
+        });
+        when(serviceClient.getCoordinates("Hamburg")).thenAnswer(invocation -> {
+            try {
+                RequestContext.sleep(TimeUnit.SECONDS.toNanos(30));
+            } catch (RequestCancelledException e) {
+                lookupCancelled.countDown();
+                throw e;
+            }
+            return endCoordinates;
+        });
+        Co2EmissionService service = new Co2EmissionService(serviceClient, calculator, Executors.newCachedThreadPool());
+
+        // Act & Assert
+        assertThrows(CalculationException.class, () -> service.calculateEmission("Berlin", "Hamburg", emissionInGramsPerKm));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> lookupCancelled.await());
+    }
+
+    @Test
+    void testCalculateEmissionsForSeveralFactors_LooksUpRouteOnce() throws CalculationException, ServiceClientException {
+        // Arrange
+        Co2EmissionService service = new Co2EmissionService(serviceClient, new Co2Calculator(), Runnable::run);
+
+        // Act
+        double[] result = service.calculateEmissions("Berlin", "Hamburg", new double[]{142.0, 27.0, 6.0});
+
+        // Assert
+        assertArrayEquals(new double[]{41.038, 7.803, 1.734}, result, 0.001);
+        verify(serviceClient, times(1)).getCoordinates("Berlin");
+        verify(serviceClient, times(1)).getCoordinates("Hamburg");
+        verify(serviceClient, times(1)).getDistance(startCoordinates, endCoordinates);
+    }
+
+    @Test
+    void testCalculateEmissionsForSeveralFactors_UnknownCity() throws ServiceClientException {
+        // Arrange
+        Co2EmissionService service = new Co2EmissionService(serviceClient, new Co2Calculator(), Runnable::run);
+        when(serviceClient.getCoordinates("Atlantis")).thenThrow(new CityNotFoundException("Atlantis"));
+
+        // Act & Assert
+        assertThrows(UnknownCityException.class, () -> service.calculateEmissions("Atlantis", "Hamburg", new double[]{142.0, 6.0}));
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorStrategyTest {
+
+    @Test
+    void testFromName() {
+        assertEquals(ExecutorStrategy.VIRTUAL_THREADS, ExecutorStrategy.fromName("virtual-threads"));
+        assertEquals(ExecutorStrategy.COMMON_POOL, ExecutorStrategy.fromName("COMMON_POOL"));
+        assertThrows(IllegalArgumentException.class, () -> ExecutorStrategy.fromName("green-threads"));
+    }
+
+    @Test
+    void testCreateExecutor_CommonPool() {
+        assertSame(ForkJoinPool.commonPool(), ExecutorStrategy.COMMON_POOL.createExecutor());
+    }
+
+    @Test
+    void testCreateExecutor_VirtualThreads() {
+        // Act
+        Executor executor = ExecutorStrategy.VIRTUAL_THREADS.createExecutor();
+        String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().toString(), executor).join();
+
+        // Assert
+        if (Runtime.version().feature() >= 21) {
+            assertTrue(threadName.startsWith("VirtualThread"), threadName);
+        } else {
+            assertTrue(threadName.contains("co2-emission-worker"), threadName);
+        }
+        ((ExecutorService) executor).shutdown();
+    }
+}
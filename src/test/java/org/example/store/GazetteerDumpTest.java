@@ -0,0 +1,88 @@
+package org.example.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerDumpTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRead_SimpleLayoutWithAlternateNames() throws IOException {
+        // Arrange
+        String dump = "# name, latitude, longitude, population, alternate names\n"
+                + "München\t48.1351\t11.5820\t1472000\tMunich,Muenchen\n"
+                + "\n"
+                + "Berlin\t52.5200\t13.4050\n";
+
+        // Act
+        Map<String, double[]> entries = GazetteerDump.read(new BufferedReader(new StringReader(dump)));
+
+        // Assert
+        assertEquals(4, entries.size());
+        assertArrayEquals(new double[]{48.1351, 11.5820}, entries.get("munchen"), 0.0);
+        assertArrayEquals(new double[]{48.1351, 11.5820}, entries.get("munich"), 0.0);
+        assertArrayEquals(new double[]{52.5200, 13.4050}, entries.get("berlin"), 0.0);
+    }
+
+    @Test
+    void testRead_GeoNamesLayoutPrefersMostPopulous() throws IOException {
+        // Arrange
+        String dump = geoNamesLine(2925533, "Frankfurt am Main", "Frankfurt", 50.11552, 8.68417, 650000) + "\n"
+                + geoNamesLine(2925550, "Frankfurt (Oder)", "Frankfurt", 52.34714, 14.55062, 61969) + "\n";
+
+        // Act
+        Map<String, double[]> entries = GazetteerDump.read(new BufferedReader(new StringReader(dump)));
+
+        // Assert
+        assertArrayEquals(new double[]{50.11552, 8.68417}, entries.get("frankfurt"), 0.0);
+        assertArrayEquals(new double[]{52.34714, 14.55062}, entries.get("frankfurt (oder)"), 0.0);
+    }
+
+    @Test
+    void testRead_InvalidLine() {
+        assertThrows(IOException.class, () -> GazetteerDump.read(new BufferedReader(new StringReader("Berlin\tnorth\t13.4\n"))));
+    }
+
+    @Test
+    void testBundled_ListsCommonCities() throws IOException {
+        // Act
+        GazetteerIndex index = GazetteerDump.bundled();
+
+        // Assert
+        assertArrayEquals(new double[]{50.2268, 8.6182}, index.get("bad homburg"), 0.0);
+        assertNotNull(index.get("koln"));
+        assertNotNull(index.get("cologne"));
+        assertNull(index.get("atlantis"));
+    }
+
+    @Test
+    void testOpen_IndexesDumpOnce() throws IOException {
+        // Arrange
+        Path dump = Files.writeString(tempDir.resolve("cities.tsv"), "Berlin\t52.52\t13.405\n");
+
+        // Act
+        GazetteerIndex index = GazetteerDump.open(dump);
+
+        // Assert
+        Path indexPath = tempDir.resolve("cities.tsv.idx");
+        assertTrue(GazetteerIndex.isIndex(indexPath));
+        assertArrayEquals(new double[]{52.52, 13.405}, index.get("berlin"), 0.0);
+        assertArrayEquals(new double[]{52.52, 13.405}, GazetteerDump.open(indexPath).get("berlin"), 0.0);
+    }
+
+    private static String geoNamesLine(int id, String name, String alternateNames, double latitude, double longitude, long population) {
+        return String.join("\t", String.valueOf(id), name, name, alternateNames, String.valueOf(latitude), String.valueOf(longitude),
+                "P", "PPLA2", "DE", "", "05", "064", "06412", "", String.valueOf(population), "", "112", "Europe/Berlin", "2023-01-01");
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGet_FindsEveryKeyAcrossBlocks() {
+        // Arrange: shared prefixes, prefixes of other keys and multi-byte characters, over many blocks
+        Map<String, double[]> entries = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20 * GazetteerIndex.BLOCK_SIZE; i++) {
+            entries.put("bad " + Integer.toString(i, 36), new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180});
+        }
+        entries.put("bad", new double[]{1, 2});
+        entries.put("münchen", new double[]{48.1351, 11.582});
+        entries.put("zürich", new double[]{47.3769, 8.5417});
+
+        // Act
+        GazetteerIndex index = GazetteerIndex.of(entries);
+
+        // Assert
+        assertEquals(entries.size(), index.size());
+        entries.forEach((key, coordinates) -> assertArrayEquals(coordinates, index.get(key), 0.000001, key));
+    }
+
+    @Test
+    void testGet_Misses() {
+        // Arrange
+        GazetteerIndex index = GazetteerIndex.of(Map.of("berlin", new double[]{52.52, 13.405}, "hamburg", new double[]{53.5511, 9.9937}));
+
+        // Act & Assert
+        assertNull(index.get("aachen"));
+        assertNull(index.get("bremen"));
+        assertNull(index.get("berlin-mitte"));
+        assertNull(index.get("zwickau"));
+        assertNull(index.get("a city name longer than any key in the index"));
+        assertNull(GazetteerIndex.of(Map.of()).get("berlin"));
+    }
+
+    @Test
+    void testOpen_MapsWrittenIndex() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("nested/cities.idx");
+        GazetteerIndex.write(Map.of("berlin", new double[]{52.52, 13.405}, "köln", new double[]{50.9375, 6.9603}), path);
+
+        // Act
+        GazetteerIndex index = GazetteerIndex.open(path);
+
+        // Assert
+        assertArrayEquals(new double[]{50.9375, 6.9603}, index.get("köln"), 0.0);
+        assertTrue(GazetteerIndex.isIndex(path));
+    }
+
+    @Test
+    void testOpen_RejectsOtherFiles() throws IOException {
+        // Arrange
+        Path path = Files.writeString(tempDir.resolve("cities.tsv"), "Berlin\t52.52\t13.405\n");
+
+        // Act & Assert
+        assertFalse(GazetteerIndex.isIndex(path));
+        assertThrows(IOException.class, () -> GazetteerIndex.open(path));
+    }
+}
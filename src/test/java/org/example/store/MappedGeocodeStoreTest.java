@@ -0,0 +1,110 @@
+package org.example.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedGeocodeStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPutAndGet() throws IOException {
+        // Arrange
+        try (MappedGeocodeStore store = MappedGeocodeStore.open(tempDir.resolve("geocode.bin"))) {
+            // Act
+            store.put("berlin", new double[]{52.5200, 13.4050});
+
+            // Assert
+            assertArrayEquals(new double[]{52.5200, 13.4050}, store.get("berlin"), 0.0);
+            assertNull(store.get("hamburg"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void testGet_SurvivesReopen() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("nested/geocode.bin");
+        try (MappedGeocodeStore store = MappedGeocodeStore.open(path)) {
+            store.put("berlin", new double[]{52.5200, 13.4050});
+            store.put("münchen", new double[]{48.1372, 11.5755});
+        }
+
+        // Act
+        try (MappedGeocodeStore reopened = MappedGeocodeStore.open(path)) {
+            // Assert
+            assertEquals(2, reopened.size());
+            assertArrayEquals(new double[]{48.1372, 11.5755}, reopened.get("münchen"), 0.0);
+        }
+    }
+
+    @Test
+    void testGet_SeesRecordsAppendedByAnotherWriter() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("geocode.bin");
+        try (MappedGeocodeStore reader = MappedGeocodeStore.open(path)) {
+            assertNull(reader.get("hamburg"));
+            try (MappedGeocodeStore writer = MappedGeocodeStore.open(path)) {
+                // Act
+                writer.put("hamburg", new double[]{53.5511, 9.9937});
+            }
+
+            // Assert
+            assertArrayEquals(new double[]{53.5511, 9.9937}, reader.get("hamburg"), 0.0);
+        }
+    }
+
+    @Test
+    void testPut_GrowsFileByDoubling() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("geocode.bin");
+        try (MappedGeocodeStore store = MappedGeocodeStore.open(path)) {
+            assertEquals(MappedGeocodeStore.INITIAL_FILE_SIZE, Files.size(path));
+
+            // Act
+            for (int i = 0; i < 3000; i++) {
+                store.put("city-" + i, new double[]{i, -i});
+            }
+
+            // Assert
+            assertEquals(2 * MappedGeocodeStore.INITIAL_FILE_SIZE, Files.size(path));
+            assertEquals(3000, store.size());
+            assertArrayEquals(new double[]{0, 0}, store.get("city-0"), 0.0);
+            assertArrayEquals(new double[]{2999, -2999}, store.get("city-2999"), 0.0);
+        }
+    }
+
+    @Test
+    void testPut_IgnoresDuplicateKeys() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("geocode.bin");
+        try (MappedGeocodeStore store = MappedGeocodeStore.open(path)) {
+            store.put("berlin", new double[]{52.5200, 13.4050});
+            long size = Files.size(path);
+
+            // Act
+            store.put("berlin", new double[]{1, 1});
+
+            // Assert
+            assertEquals(size, Files.size(path));
+            assertArrayEquals(new double[]{52.5200, 13.4050}, store.get("berlin"), 0.0);
+        }
+    }
+
+    @Test
+    void testOpen_RejectsForeignFile() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("other.bin");
+        Files.write(path, new byte[MappedGeocodeStore.HEADER_SIZE]);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> MappedGeocodeStore.open(path));
+    }
+}
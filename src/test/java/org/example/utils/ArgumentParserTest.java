@@ -69,6 +69,21 @@ class ArgumentParserTest {
         assertEquals("diesel-car-medium", result.get("transportation-method"));
     }
 
+    @Test
+    void testParseArguments_Success_batch() {
+        // Arrange
+        String[] args = {"--batch trips.csv", "--output=results.csv", "--concurrency 16"};
+
+        // Act
+        Map<String, String> result = ArgumentParser.parseArguments(args);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals("trips.csv", result.get("batch"));
+        assertEquals("results.csv", result.get("output"));
+        assertEquals("16", result.get("concurrency"));
+    }
+
     @Test
     void testParseArguments_InvalidArgument_with_equals_spaces() {
         // Arrange
@@ -139,4 +154,20 @@ class ArgumentParserTest {
             ArgumentParser.getTransportationMethod("invalid-method");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetArgumentName_RoundTrips() {
+        for (TransportationMethod method : TransportationMethod.values()) {
+            assertEquals(method, ArgumentParser.getTransportationMethod(ArgumentParser.getArgumentName(method)));
+        }
+        assertEquals("plugin-hybrid-car-small", ArgumentParser.getArgumentName(TransportationMethod.PLUGIN_HYBRID_CAR_SMALL));
+    }
+
+    @Test
+    void testIsAllTransportationMethods() {
+        assertTrue(ArgumentParser.isAllTransportationMethods("all"));
+        assertTrue(ArgumentParser.isAllTransportationMethods("ALL"));
+        assertFalse(ArgumentParser.isAllTransportationMethods("diesel-car-small"));
+        assertFalse(ArgumentParser.isAllTransportationMethods(null));
+    }
+}